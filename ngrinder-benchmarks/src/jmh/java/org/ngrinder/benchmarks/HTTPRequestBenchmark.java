@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import net.grinder.common.GrinderException;
+import net.grinder.common.GrinderProperties;
+import net.grinder.plugininterface.GrinderPlugin;
+import net.grinder.plugininterface.PluginProcessContext;
+import net.grinder.plugininterface.PluginRegistry;
+import net.grinder.script.Grinder;
+import net.grinder.script.InternalScriptContext;
+import net.grinder.script.Statistics;
+import org.ngrinder.http.HTTPRequest;
+import org.ngrinder.http.HTTPRequester;
+import org.ngrinder.http.HTTPResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of the {@link HTTPRequest} GET and POST against the in-process loopback HTTP server.
+ * <p/>
+ * Each benchmark thread has its own {@link HTTPRequest} like a vuser. The plugin process context is mocked
+ * and no test is in progress, so the statistics are not aggregated. The requests share a requester or have
+ * their own one by {@link HTTPRequester#PROP_SHARED_REQUESTER}.
+ *
+ * @since 3.5.5
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HTTPRequestBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Server {
+
+		@Param({"1024", "65536"})
+		private int responseSize;
+
+		@Param({"true", "false"})
+		private boolean sharedRequester;
+
+		private HttpServer httpServer;
+
+		private ExecutorService executor;
+
+		private String uri;
+
+		@Setup
+		public void setUp() throws IOException {
+			// The plugin is registered when the HTTPRequest is loaded.
+			BenchmarkPluginRegistry.install();
+			// The requester is chosen by the grinder properties when the HTTPRequest is created.
+			GrinderProperties properties = new GrinderProperties();
+			properties.setBoolean(HTTPRequester.PROP_SHARED_REQUESTER, sharedRequester);
+			InternalScriptContext scriptContext = mock(InternalScriptContext.class);
+			when(scriptContext.getProperties()).thenReturn(properties);
+			Grinder.grinder = scriptContext;
+			// Otherwise the delayed ACK of the loopback dominates the small responses.
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+			byte[] body = new byte[responseSize];
+			httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+			httpServer.createContext("/", exchange -> {
+				try (InputStream in = exchange.getRequestBody()) {
+					byte[] buffer = new byte[8192];
+					//noinspection StatementWithEmptyBody
+					while (in.read(buffer) != -1) {
+					}
+				}
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			});
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+			httpServer.setExecutor(executor);
+			httpServer.start();
+			uri = "http://127.0.0.1:" + httpServer.getAddress().getPort() + "/";
+		}
+
+		@TearDown
+		public void tearDown() {
+			Grinder.grinder = null;
+			httpServer.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plugin registry which initializes the plugin with the mocked process context instead of the worker process.
+	 */
+	static class BenchmarkPluginRegistry extends PluginRegistry {
+
+		static synchronized void install() {
+			if (getInstance() == null) {
+				setInstance(new BenchmarkPluginRegistry());
+			}
+		}
+
+		@Override
+		public void register(GrinderPlugin plugin) throws GrinderException {
+			Statistics statistics = mock(Statistics.class);
+			Grinder.ScriptContext scriptContext = mock(Grinder.ScriptContext.class);
+			when(scriptContext.getStatistics()).thenReturn(statistics);
+			when(scriptContext.getLogger()).thenReturn(NOPLogger.NOP_LOGGER);
+			PluginProcessContext processContext = mock(PluginProcessContext.class);
+			when(processContext.getScriptContext()).thenReturn(scriptContext);
+			plugin.initialize(processContext);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Vuser {
+
+		private final byte[] content = new byte[1024];
+
+		private HTTPRequest request;
+
+		/**
+		 * The server is given so that the plugin is registered before the request is created.
+		 */
+		@Setup
+		public void setUp(Server server) {
+			request = new HTTPRequest();
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public HTTPResponse get(Server server, Vuser vuser) {
+		return vuser.request.GET(server.uri, emptyList(), emptyList());
+	}
+
+	@Benchmark
+	@Threads(4)
+	public HTTPResponse post(Server server, Vuser vuser) {
+		return vuser.request.POST(server.uri, vuser.content, emptyList());
+	}
+}
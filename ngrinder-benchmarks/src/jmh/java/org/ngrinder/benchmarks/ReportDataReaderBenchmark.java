@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.ngrinder.perftest.report.ReportDataWriter;
+import org.ngrinder.perftest.service.ColumnarReportDataReader;
+import org.ngrinder.perftest.service.ReportDataReader;
+import org.ngrinder.perftest.service.TextReportDataReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static net.grinder.SingleConsole.REPORT_DATA;
+import static org.ngrinder.perftest.report.ReportDataStore.REPORT_DATA_STORE;
+
+/**
+ * Benchmark of reading a report data series for the report charts from the per key text files and from
+ * the columnar report data store.
+ *
+ * @since 3.5.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportDataReaderBenchmark {
+
+	private static final String KEY = "TPS";
+
+	/**
+	 * 1 hour and 1 day of the samples in 1 second interval.
+	 */
+	@Param({"3600", "86400"})
+	private int records;
+
+	@Param({"1", "60"})
+	private int interval;
+
+	private File reportFolder;
+
+	private ReportDataReader textReader;
+
+	private ReportDataReader columnarReader;
+
+	@Setup
+	public void setUp() throws IOException {
+		reportFolder = Files.createTempDirectory("report").toFile();
+		Random random = new Random(records);
+		File storeFile = new File(reportFolder, REPORT_DATA_STORE);
+		try (BufferedWriter textWriter = new BufferedWriter(new FileWriter(new File(reportFolder, KEY + REPORT_DATA)));
+			 ReportDataWriter storeWriter = new ReportDataWriter(storeFile, 1000)) {
+			for (int i = 0; i < records; i++) {
+				float value = 1000 + random.nextFloat() * 100;
+				textWriter.write(String.valueOf(value));
+				textWriter.newLine();
+				storeWriter.append(KEY, value);
+			}
+		}
+		textReader = new TextReportDataReader(reportFolder);
+		columnarReader = new ColumnarReportDataReader(storeFile);
+	}
+
+	@TearDown
+	public void tearDown() {
+		FileUtils.deleteQuietly(reportFolder);
+	}
+
+	@Benchmark
+	public List<Float> text() {
+		return textReader.getData(KEY, interval);
+	}
+
+	@Benchmark
+	public List<Float> columnar() {
+		return columnarReader.getData(KEY, interval);
+	}
+}
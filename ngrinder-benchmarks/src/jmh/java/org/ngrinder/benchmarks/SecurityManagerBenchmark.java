@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.benchmarks;
+
+import org.ngrinder.sm.NGrinderSecurityManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FilePermission;
+import java.net.SocketPermission;
+import java.security.Permission;
+import java.util.PropertyPermission;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link NGrinderSecurityManager#checkPermission(Permission)} which is called on every
+ * privileged operation of the worker process.
+ *
+ * @since 3.5.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SecurityManagerBenchmark {
+
+	@Param({"runtime", "property", "file", "socket"})
+	private String permissionType;
+
+	private NGrinderSecurityManager securityManager;
+
+	private Permission permission;
+
+	@Setup
+	public void setUp() {
+		// It's not installed. Only the check itself is measured.
+		securityManager = new NGrinderSecurityManager();
+		switch (permissionType) {
+			case "runtime":
+				permission = new RuntimePermission("accessDeclaredMembers");
+				break;
+			case "property":
+				permission = new PropertyPermission("user.dir", "read");
+				break;
+			case "file":
+				permission = new FilePermission(System.getProperty("java.io.tmpdir"), "read");
+				break;
+			case "socket":
+				permission = new SocketPermission("127.0.0.1:80", "connect,resolve");
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown permission type " + permissionType);
+		}
+	}
+
+	@Benchmark
+	public Permission checkPermission() {
+		securityManager.checkPermission(permission);
+		return permission;
+	}
+}
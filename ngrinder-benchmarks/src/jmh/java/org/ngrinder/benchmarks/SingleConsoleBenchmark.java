@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.benchmarks;
+
+import net.grinder.SingleConsole;
+import net.grinder.common.AbstractTestSemantics;
+import net.grinder.common.Test;
+import net.grinder.console.common.ConsoleException;
+import net.grinder.console.model.SampleModelImplementationEx;
+import net.grinder.statistics.StatisticsIndexMap;
+import net.grinder.statistics.StatisticsServices;
+import net.grinder.statistics.StatisticsServicesImplementation;
+import net.grinder.statistics.StatisticsSet;
+import net.grinder.statistics.TestStatisticsMap;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link SingleConsole#update(StatisticsSet, StatisticsSet)} and the statistics build up over the
+ * synthetic {@link TestStatisticsMap} snapshots of the given number of tests.
+ * <p/>
+ * The console samples once with the real sample model so that the per test snapshots are filled. Then the
+ * sample interval is increased so that the sampling timer doesn't call the console during the measurement.
+ *
+ * @since 3.5.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SingleConsoleBenchmark {
+
+	private static final int SAMPLE_INTERVAL = (int) TimeUnit.HOURS.toMillis(1);
+
+	@Param({"1", "10", "50"})
+	private int tests;
+
+	private BenchmarkConsole console;
+
+	private File reportFolder;
+
+	private StatisticsSet intervalStatistics;
+
+	private StatisticsSet cumulativeStatistics;
+
+	private StatisticsIndexMap.LongIndex periodIndex;
+
+	private long period;
+
+	@Setup
+	public void setUp() throws IOException, InterruptedException, ConsoleException {
+		reportFolder = Files.createTempDirectory("report").toFile();
+		console = new BenchmarkConsole(getFreePort());
+		console.setReportPath(reportFolder);
+		console.startSampling();
+
+		SampleModelImplementationEx sampleModel = console.getSampleModel();
+		List<Test> testList = new ArrayList<>();
+		for (int i = 1; i <= tests; i++) {
+			testList.add(new SyntheticTest(i));
+		}
+		sampleModel.registerTests(testList);
+
+		StatisticsServices statisticsServices = StatisticsServicesImplementation.getInstance();
+		StatisticsIndexMap indexMap = statisticsServices.getStatisticsIndexMap();
+		TestStatisticsMap testStatisticsMap = new TestStatisticsMap(statisticsServices.getStatisticsSetFactory());
+		for (Test each : testList) {
+			StatisticsSet statistics = statisticsServices.getStatisticsSetFactory().create();
+			for (int i = 0; i < 100; i++) {
+				statistics.addSample(indexMap.getLongSampleIndex("timedTests"), 10 + i);
+			}
+			statistics.addValue(indexMap.getLongIndex("errors"), 1);
+			testStatisticsMap.put(each, statistics);
+		}
+		// The first report triggers the sampling and the model starts capturing after the next sample.
+		sampleModel.addTestReport(testStatisticsMap);
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while (!sampleModel.getState().isCapturing() || getSampledTestCount() < tests) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("The sample model doesn't start capturing");
+			}
+			sampleModel.addTestReport(testStatisticsMap);
+			Thread.sleep(100);
+		}
+		console.getConsoleProperties().setSampleInterval(SAMPLE_INTERVAL);
+		// Wait for the sample which is already scheduled with the old interval.
+		Thread.sleep(2000);
+
+		intervalStatistics = testStatisticsMap.compositeStatisticsTotals();
+		cumulativeStatistics = intervalStatistics.snapshot();
+		periodIndex = sampleModel.getPeriodIndex();
+	}
+
+	@TearDown
+	public void tearDown() {
+		console.unregisterSampling();
+		console.shutdown();
+		FileUtils.deleteQuietly(reportFolder);
+	}
+
+	/**
+	 * Whole sampling which includes the report data writing.
+	 */
+	@Benchmark
+	public Map<String, Object> update() {
+		period += SAMPLE_INTERVAL;
+		cumulativeStatistics.setValue(periodIndex, period);
+		console.update(intervalStatistics, cumulativeStatistics);
+		return console.getStatisticsData();
+	}
+
+	@Benchmark
+	public Map<String, Object> updateStatistics() {
+		console.updateStatistics(intervalStatistics, cumulativeStatistics);
+		return console.getStatisticsData();
+	}
+
+	private int getSampledTestCount() {
+		Object cumulative = console.getStatisticsData().get("cumulativeStatistics");
+		return cumulative instanceof List ? ((List<?>) cumulative).size() : 0;
+	}
+
+	private static int getFreePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	/**
+	 * Console which opens {@link SingleConsole#updateStatistics(StatisticsSet, StatisticsSet)} to the benchmark.
+	 */
+	static class BenchmarkConsole extends SingleConsole {
+
+		BenchmarkConsole(int port) {
+			super(port);
+		}
+
+		@Override
+		public void updateStatistics(StatisticsSet intervalStatistics, StatisticsSet accumulatedStatistics) {
+			super.updateStatistics(intervalStatistics, accumulatedStatistics);
+		}
+	}
+
+	static class SyntheticTest extends AbstractTestSemantics {
+
+		private final int number;
+
+		SyntheticTest(int number) {
+			this.number = number;
+		}
+
+		@Override
+		public int getNumber() {
+			return number;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Test" + number;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.benchmarks;
+
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.io.ModalCloseable;
+import org.apache.hc.core5.pool.PoolEntry;
+import org.apache.hc.core5.util.Timeout;
+import org.ngrinder.http.ThreadAwareConnPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the lease and release of {@link ThreadAwareConnPool} with the given number of routes which
+ * are kept alive by a vuser.
+ *
+ * @since 3.5.5
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadAwareConnPoolBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int routes;
+
+	private ThreadAwareConnPool<String, NoOpConnection> pool;
+
+	private String[] routeNames;
+
+	private int next = 0;
+
+	@Setup
+	public void setUp() throws ExecutionException, InterruptedException {
+		pool = new ThreadAwareConnPool<>();
+		routeNames = new String[routes];
+		for (int i = 0; i < routes; i++) {
+			routeNames[i] = "http://host" + i + ":8080";
+			leaseAndRelease(routeNames[i]);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.clear();
+	}
+
+	@Benchmark
+	public PoolEntry<String, NoOpConnection> leaseAndRelease() throws ExecutionException, InterruptedException {
+		String route = routeNames[next];
+		next = (next + 1) % routes;
+		return leaseAndRelease(route);
+	}
+
+	private PoolEntry<String, NoOpConnection> leaseAndRelease(String route) throws ExecutionException,
+		InterruptedException {
+		PoolEntry<String, NoOpConnection> entry = pool.lease(route, null, Timeout.DISABLED, null).get();
+		if (!entry.hasConnection()) {
+			entry.assignConnection(new NoOpConnection());
+		}
+		pool.release(entry, true);
+		return entry;
+	}
+
+	static class NoOpConnection implements ModalCloseable {
+		@Override
+		public void close(CloseMode closeMode) {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
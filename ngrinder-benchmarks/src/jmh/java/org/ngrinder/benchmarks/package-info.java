@@ -0,0 +1,4 @@
+/**
+ * JMH micro benchmarks of the controller and runtime hot paths.
+ */
+package org.ngrinder.benchmarks;
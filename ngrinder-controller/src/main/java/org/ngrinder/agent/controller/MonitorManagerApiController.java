@@ -54,14 +54,14 @@ public class MonitorManagerApiController {
 	@GetMapping("/state")
 	public SystemDataModel getRealTimeMonitorData(@RequestParam final String ip) throws InterruptedException, ExecutionException, TimeoutException {
 		int port = config.getMonitorPort();
-		Future<SystemInfo> systemInfoFuture = AopUtils.proxy(this).getAsyncSystemInfo(ip, port);
+		Future<SystemInfo> systemInfoFuture = AopUtils.proxy(this).getAsyncSystemInfo(ip, port, config.getMonitorPushPort());
 		SystemInfo systemInfo = checkNotNull(systemInfoFuture.get(2, TimeUnit.SECONDS), "Monitoring data is not available.");
 		return new SystemDataModel(systemInfo, "UNKNOWN");
 	}
 
 	@Async
-	public Future<SystemInfo> getAsyncSystemInfo(String ip, int port) {
-		return new AsyncResult<>(monitorInfoStore.getSystemInfo(ip, port));
+	public Future<SystemInfo> getAsyncSystemInfo(String ip, int port, int pushPort) {
+		return new AsyncResult<>(monitorInfoStore.getSystemInfo(ip, port, pushPort));
 	}
 
 	/**
@@ -19,6 +19,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Agent Repository. This is necessary due to lack of agent info in the Grinder.
  * We need to keep the additional info for each agent in the DB not memory.
@@ -45,6 +48,14 @@ public interface AgentManagerRepository extends JpaRepository<AgentInfo, Long>,
 	 */
 	AgentInfo findByIp(String ip);
 
+	/**
+	 * Find all {@link AgentInfo}s whose ip is one of the given ips.
+	 *
+	 * @param ips ips of agents
+	 * @return found {@link AgentInfo} list
+	 */
+	List<AgentInfo> findAllByIpIn(Collection<String> ips);
+
 
 	/**
 	 * Get the count of {@link AgentInfo} matching the given specification.
@@ -56,13 +56,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 import static java.util.stream.Stream.concat;
 import static org.apache.commons.lang.StringUtils.*;
@@ -86,6 +89,11 @@ public class AgentService extends AbstractAgentService
 	implements TopicListener<AgentRequest>, AgentStatusUpdateListener, ConnectionAgentListener {
 	protected static final Logger LOGGER = LoggerFactory.getLogger(AgentService.class);
 
+	/**
+	 * Half of the time to live of the agent store.
+	 */
+	private static final long AGENT_INFO_REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
 	protected final AgentManager agentManager;
 
 	protected final AgentManagerRepository agentManagerRepository;
@@ -105,6 +113,12 @@ public class AgentService extends AbstractAgentService
 
 	private final ConnectionRepository connectionRepository;
 
+	/**
+	 * The last time when each agent info is written to the store. Unchanged agent infos are written again
+	 * every {@link #AGENT_INFO_REFRESH_INTERVAL} not to be expired from the store.
+	 */
+	private final Map<String, Long> agentInfoStoredTimeMap = new ConcurrentHashMap<>();
+
 	@Value("${ngrinder.version}")
 	private String nGrinderVersion;
 
@@ -131,7 +145,8 @@ public class AgentService extends AbstractAgentService
 			});
 	}
 
-	private void fillUpAgentInfo(AgentInfo agentInfo, AgentProcessControlImplementation.AgentStatus agentStatus) {
+	private void fillUpAgentInfo(AgentInfo agentInfo, AgentProcessControlImplementation.AgentStatus agentStatus,
+								 RegionInfo currentControllerRegion) {
 		if (agentInfo == null || agentStatus == null) {
 			return;
 		}
@@ -147,17 +162,11 @@ public class AgentService extends AbstractAgentService
 		agentInfo.setVersion(agentManager.getAgentVersion(agentIdentity));
 		agentInfo.setPort(agentManager.getAttachedAgentConnectingPort(agentIdentity));
 
-		if (!isValidSubregion(agentInfo.getSubregion())) {
+		if (!isValidSubregion(currentControllerRegion, agentInfo.getSubregion())) {
 			agentInfo.setSubregion("");
 		}
 	}
 
-	private boolean isValidSubregion(String subregion) {
-		String controllerRegion = config.getRegion();
-		RegionInfo currentControllerRegion = regionService.getOne(controllerRegion);
-		return currentControllerRegion.getSubregion().contains(subregion);
-	}
-
 	private List<AgentInfo> getAllReady() {
 		return agentInfoStore.getAllAgentInfo()
 			.stream()
@@ -590,38 +599,80 @@ public class AgentService extends AbstractAgentService
 	@Override
 	public void update(Map<AgentIdentity, AgentProcessControlImplementation.AgentStatus> agentMap) {
 		boolean approved = config.getControllerProperties().getPropertyBoolean(PROP_CONTROLLER_ENABLE_AGENT_AUTO_APPROVAL);
-		Set<AgentInfo> agentInfoSet = agentInfoStore.getAllAgentInfo()
+		RegionInfo currentControllerRegion = regionService.getOne(config.getRegion());
+		Map<String, AgentInfo> storedAgentInfoMap = agentInfoStore.getAllAgentInfo()
+			.stream()
+			.collect(toMap(AgentInfo::getAgentKey, agentInfo -> agentInfo, (first, second) -> first));
+		Map<String, Boolean> approvedMap = getApprovedMap(agentMap.values());
+
+		Set<String> disconnectedAgentKeys = storedAgentInfoMap.values()
 			.stream()
 			.filter(agentInfo -> StringUtils.equals(agentInfo.getRegion(), config.getRegion()))
+			.map(AgentInfo::getAgentKey)
 			.collect(toSet());
+		Map<String, AgentInfo> changedAgentInfoMap = newHashMap();
+		long now = System.currentTimeMillis();
 
 		for (AgentProcessControlImplementation.AgentStatus agentStatus : agentMap.values()) {
 			AgentControllerIdentityImplementation agentIdentity = (AgentControllerIdentityImplementation) agentStatus.getAgentIdentity();
-			AgentInfo agentInfo = agentInfoStore.getAgentInfo(createKey(requireNonNull(agentIdentity)));
+			String agentKey = createKey(requireNonNull(agentIdentity));
+			AgentInfo agentInfo = storedAgentInfoMap.get(agentKey);
+			List<Object> storedStatus = null;
 			// check new agent
 			if (agentInfo == null) {
 				agentInfo = new AgentInfo();
+			} else {
+				storedStatus = getAgentStatusFields(agentInfo);
 			}
 
-			fillUpAgentInfo(agentInfo, agentStatus);
+			fillUpAgentInfo(agentInfo, agentStatus, currentControllerRegion);
+			agentInfo.setApproved(approvedMap.getOrDefault(agentKey, approved));
 
-			AgentInfo agentInfoInDB = agentManagerRepository.findByIpAndName(agentInfo.getIp(), agentInfo.getName());
-			if (agentInfoInDB != null) {
-				agentInfo.setApproved(agentInfoInDB.getApproved());
-			} else {
-				agentInfo.setApproved(approved);
+			Long lastStoredTime = agentInfoStoredTimeMap.get(agentKey);
+			if (!getAgentStatusFields(agentInfo).equals(storedStatus) || lastStoredTime == null
+				|| now - lastStoredTime >= AGENT_INFO_REFRESH_INTERVAL) {
+				changedAgentInfoMap.put(agentKey, agentInfo);
 			}
+			disconnectedAgentKeys.remove(agentKey);
+		}
 
-			agentInfoStore.updateAgentInfo(agentInfo.getAgentKey(), agentInfo);
-			agentInfoSet.remove(agentInfo);
+		if (!changedAgentInfoMap.isEmpty()) {
+			agentInfoStore.updateAgentInfos(changedAgentInfoMap);
+			changedAgentInfoMap.keySet().forEach(agentKey -> agentInfoStoredTimeMap.put(agentKey, now));
 		}
 
 		// delete disconnected agent.
-		for (AgentInfo agentInfo : agentInfoSet) {
-			agentInfoStore.deleteAgentInfo(agentInfo.getAgentKey());
+		for (String agentKey : disconnectedAgentKeys) {
+			agentInfoStore.deleteAgentInfo(agentKey);
+			agentInfoStoredTimeMap.remove(agentKey);
 		}
 	}
 
+	/**
+	 * Get the approval of the given agents which are stored in DB by a single query.
+	 *
+	 * @param agentStatuses agent statuses
+	 * @return map of agent key and approval
+	 */
+	private Map<String, Boolean> getApprovedMap(Collection<AgentProcessControlImplementation.AgentStatus> agentStatuses) {
+		Set<String> ips = agentStatuses.stream()
+			.map(agentStatus -> ((AgentControllerIdentityImplementation) agentStatus.getAgentIdentity()).getIp())
+			.collect(toSet());
+		if (ips.isEmpty()) {
+			return emptyMap();
+		}
+		Map<String, Boolean> approvedMap = newHashMap();
+		for (AgentInfo agentInfo : agentManagerRepository.findAllByIpIn(ips)) {
+			approvedMap.put(agentInfo.getAgentKey(), agentInfo.getApproved());
+		}
+		return approvedMap;
+	}
+
+	private static List<Object> getAgentStatusFields(AgentInfo agentInfo) {
+		return Arrays.asList(agentInfo.getState(), agentInfo.getApproved(), agentInfo.getRegion(),
+			agentInfo.getSubregion(), agentInfo.getVersion(), agentInfo.getPort(), agentInfo.getAgentIdentity());
+	}
+
 	@Override
 	public void onConnectionAgentMessage(String ip, String name, String subregion, int port) {
 		Connection connection = connectionRepository.findByIpAndPort(ip, port);
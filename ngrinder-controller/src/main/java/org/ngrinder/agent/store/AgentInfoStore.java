@@ -6,6 +6,7 @@ import org.ngrinder.model.AgentInfo;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.ngrinder.common.constant.CacheConstants.DIST_MAP_NAME_AGENT;
 import static org.ngrinder.common.util.TypeConvertUtils.cast;
@@ -28,6 +29,10 @@ public class AgentInfoStore {
 		hazelcastService.put(DIST_MAP_NAME_AGENT, key, agentInfo);
 	}
 
+	public void updateAgentInfos(Map<String, AgentInfo> agentInfoMap) {
+		hazelcastService.putAll(DIST_MAP_NAME_AGENT, agentInfoMap);
+	}
+
 	public List<AgentInfo> getAllAgentInfo() {
 		return cast(hazelcastService.getValuesAsList(DIST_MAP_NAME_AGENT));
 	}
@@ -45,7 +45,15 @@ public interface ControllerConstants {
 	String PROP_CONTROLLER_DEFAULT_LANG = "controller.default_lang";
 	String PROP_CONTROLLER_DEMO_MODE = "controller.demo_mode";
 	String PROP_CONTROLLER_DEV_MODE = "controller.dev_mode";
+	String PROP_CONTROLLER_DIST_CACHE = "controller.dist_cache";
+	String PROP_CONTROLLER_DIST_CACHE_MAX_SIZE = "controller.dist_cache_max_size";
+	String PROP_CONTROLLER_DIST_CACHE_MAX_HOUR = "controller.dist_cache_max_hour";
+	String PROP_CONTROLLER_DEPENDENCY_CACHE = "controller.dependency_cache";
+	String PROP_CONTROLLER_DEPENDENCY_CACHE_MAX_HOUR = "controller.dependency_cache_max_hour";
 	String PROP_CONTROLLER_DIST_LOGBACK = "controller.dist_logback";
+	String PROP_CONTROLLER_RESULT_LOG = "controller.result_log";
+	String PROP_CONTROLLER_RESULT_LOG_SAMPLING_RATE = "controller.result_log_sampling_rate";
+	String PROP_CONTROLLER_RESULT_LOG_ERROR_SAMPLING_RATE = "controller.result_log_error_sampling_rate";
 	String PROP_CONTROLLER_FRONT_PAGE_ENABLED = "controller.front_page_enabled";
 	String PROP_CONTROLLER_FRONT_PAGE_ASK_QUESTION_URL = "controller.front_page_ask_question_url";
 	String PROP_CONTROLLER_FRONT_PAGE_RESOURCES_RSS = "controller.front_page_resources_rss";
@@ -60,6 +68,7 @@ public interface ControllerConstants {
 	String PROP_CONTROLLER_MAX_RUN_HOUR = "controller.max_run_hour";
 	String PROP_CONTROLLER_MAX_VUSER_PER_AGENT = "controller.max_vuser_per_agent";
 	String PROP_CONTROLLER_MONITOR_PORT = "controller.monitor_port";
+	String PROP_CONTROLLER_MONITOR_PUSH_PORT = "controller.monitor_push_port";
 	String PROP_CONTROLLER_PLUGIN_SUPPORT = "controller.plugin_support";
 	String PROP_CONTROLLER_SAFE_DIST = "controller.safe_dist";
 	String PROP_CONTROLLER_SAFE_DIST_THRESHOLD = "controller.safe_dist_threshold";
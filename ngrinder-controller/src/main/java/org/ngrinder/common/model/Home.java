@@ -53,6 +53,8 @@ public class Home {
 	private static final String PATH_LOG = "logs";
 	private static final String PATH_REPORT = "report";
 	private static final String PATH_DIST = "dist";
+	private static final String PATH_DIST_CACHE = "dist_cache";
+	private static final String PATH_DEPENDENCY_CACHE = "dependency_cache";
 	private static final String PATH_STAT = "stat";
 	private final static Logger LOGGER = LoggerFactory.getLogger(Home.class);
 	private final File directory;
@@ -315,6 +317,26 @@ public class Home {
 		return getPerfTestSubDirectory(perfTest, PATH_DIST);
 	}
 
+	/**
+	 * Get the directory in which the prepared distributions are cached.
+	 *
+	 * @return distribution cache directory
+	 * @since 3.5.5
+	 */
+	public File getDistributionCacheDirectory() {
+		return mkDir(getSubFile(PATH_DIST_CACHE));
+	}
+
+	/**
+	 * Get the directory in which the resolved dependencies of the groovy projects are cached.
+	 *
+	 * @return dependency cache directory
+	 * @since 3.5.5
+	 */
+	public File getDependencyCacheDirectory() {
+		return mkDir(getSubFile(PATH_DEPENDENCY_CACHE));
+	}
+
 	/**
 	 * Get the statistics directory for given {@link PerfTest}.
 	 *
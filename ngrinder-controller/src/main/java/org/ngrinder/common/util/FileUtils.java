@@ -16,6 +16,8 @@ package org.ngrinder.common.util;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
@@ -50,4 +52,31 @@ public abstract class FileUtils {
 		}
 	}
 
+	/**
+	 * Hard link every file under the source directory into the target directory. The file is copied if the file
+	 * system doesn't support the hard link. The file which already exists in the target directory is replaced.
+	 * <p/>
+	 * The linked files share their content, so they should be deleted instead of being modified.
+	 *
+	 * @param source source directory
+	 * @param target target directory
+	 * @throws IOException if a file can be neither linked nor copied
+	 * @since 3.5.5
+	 */
+	public static void linkDirectory(File source, File target) throws IOException {
+		Path sourcePath = source.toPath();
+		Path targetPath = target.toPath();
+		Files.createDirectories(targetPath);
+		for (File each : listFiles(source, null, true)) {
+			Path link = targetPath.resolve(sourcePath.relativize(each.toPath()));
+			Files.createDirectories(link.getParent());
+			Files.deleteIfExists(link);
+			try {
+				Files.createLink(link, each.toPath());
+			} catch (UnsupportedOperationException | IOException e) {
+				Files.copy(each.toPath(), link);
+			}
+		}
+	}
+
 }
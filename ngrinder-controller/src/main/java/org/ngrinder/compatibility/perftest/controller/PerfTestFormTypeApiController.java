@@ -8,7 +8,9 @@ import org.ngrinder.model.Status;
 import org.ngrinder.model.User;
 import org.ngrinder.perftest.controller.PerfTestApiController;
 import org.ngrinder.perftest.service.AgentManager;
+import org.ngrinder.perftest.service.PerfTestSampleStreamService;
 import org.ngrinder.perftest.service.PerfTestService;
+import org.ngrinder.perftest.service.ResultLogService;
 import org.ngrinder.perftest.service.TagService;
 import org.ngrinder.region.service.RegionService;
 import org.ngrinder.script.handler.ScriptHandlerFactory;
@@ -36,10 +38,12 @@ public class PerfTestFormTypeApiController extends PerfTestApiController {
 
 	public PerfTestFormTypeApiController(PerfTestService perfTestService, TagService tagService, AgentManager agentManager,
 										 RegionService regionService, AgentService agentService, FileEntryService fileEntryService,
-										 UserService userService, HazelcastService hazelcastService, ScriptHandlerFactory scriptHandlerFactory,
-										 UserContext userContext, Config config) {
+										 UserService userService, HazelcastService hazelcastService,
+										 PerfTestSampleStreamService perfTestSampleStreamService, ResultLogService resultLogService,
+										 ScriptHandlerFactory scriptHandlerFactory, UserContext userContext, Config config) {
 		super(perfTestService, tagService, agentManager, regionService, agentService, fileEntryService,
-			userService, hazelcastService,scriptHandlerFactory, userContext, config);
+			userService, hazelcastService, perfTestSampleStreamService, resultLogService, scriptHandlerFactory,
+			userContext, config);
 	}
 
 	@PostMapping("/save")
@@ -237,6 +237,16 @@ public class Config extends AbstractConfig implements ControllerConstants, Clust
 		return getControllerProperties().getPropertyInt(PROP_CONTROLLER_MONITOR_PORT);
 	}
 
+	/**
+	 * Get the monitor push port from the configuration.
+	 *
+	 * @return monitor push port. 0 if the push is disabled.
+	 * @since 3.5.5
+	 */
+	public int getMonitorPushPort() {
+		return getControllerProperties().getPropertyInt(PROP_CONTROLLER_MONITOR_PUSH_PORT);
+	}
+
 	/**
 	 * Check if the periodic usage report is enabled.
 	 *
@@ -80,6 +80,10 @@ public class HazelcastService {
 		hazelcastInstance.getMap(map).put(key, value);
 	}
 
+	public <K, V> void putAll(String map, Map<K, V> values) {
+		hazelcastInstance.<K, V>getMap(map).putAll(values);
+	}
+
 	public void delete(String map, Object key) {
 		hazelcastInstance.getMap(map).delete(key);
 	}
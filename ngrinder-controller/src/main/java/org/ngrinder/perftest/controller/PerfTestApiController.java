@@ -26,9 +26,12 @@ import org.ngrinder.infra.config.Config;
 import org.ngrinder.infra.hazelcast.HazelcastService;
 import org.ngrinder.infra.logger.CoreLogger;
 import org.ngrinder.model.*;
+import org.ngrinder.perftest.model.ResultLogSummary;
 import org.ngrinder.perftest.model.SamplingModel;
 import org.ngrinder.perftest.service.AgentManager;
+import org.ngrinder.perftest.service.PerfTestSampleStreamService;
 import org.ngrinder.perftest.service.PerfTestService;
+import org.ngrinder.perftest.service.ResultLogService;
 import org.ngrinder.perftest.service.TagService;
 import org.ngrinder.region.service.RegionService;
 import org.ngrinder.script.handler.ScriptHandlerFactory;
@@ -44,7 +47,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URL;
 import java.util.*;
@@ -92,6 +97,10 @@ public class PerfTestApiController {
 
 	private final HazelcastService hazelcastService;
 
+	private final PerfTestSampleStreamService perfTestSampleStreamService;
+
+	private final ResultLogService resultLogService;
+
 	private final ScriptHandlerFactory scriptHandlerFactory;
 
 	private final UserContext userContext;
@@ -336,6 +345,23 @@ public class PerfTestApiController {
 		return map;
 	}
 
+	/**
+	 * Stream the samples of the running test as server-sent events. Each event has the same data as
+	 * {@link #refreshTestRunning(User, long)} except the status. The "finished" event is sent when the sampling
+	 * is ended.
+	 *
+	 * @param user user
+	 * @param id   test id
+	 * @return sample event stream
+	 * @since 3.5.5
+	 */
+	@GetMapping(value = "/{id}/sample/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamTestRunning(User user, @PathVariable long id) {
+		PerfTest test = checkNotNull(getOneWithPermissionCheck(user, id, false), "given test should be exist : " + id);
+		return perfTestSampleStreamService.subscribe(test.getId(),
+			test.getStatus().getCategory() == StatusCategory.TESTING);
+	}
+
 	@GetMapping("/{id}/detail_report")
 	public Map<String, Object> getReport(@PathVariable long id) {
 		Map<String, Object> model = newHashMap();
@@ -591,6 +617,21 @@ public class PerfTestApiController {
 		return perfTestService.getLogFiles(id);
 	}
 
+	/**
+	 * Get the percentiles and the slowest results of each test built from the result logs of the given perf test.
+	 *
+	 * @param user     user
+	 * @param id       perftest id
+	 * @param outliers count of the slowest results per test
+	 * @return summaries of the tests. empty if the result log is not enabled.
+	 */
+	@GetMapping("/{id}/result_log")
+	public List<ResultLogSummary> getResultLog(User user, @PathVariable long id,
+											   @RequestParam(defaultValue = "10") int outliers) {
+		getOneWithPermissionCheck(user, id, false);
+		return resultLogService.getSummaries(id, outliers);
+	}
+
 	/**
 	 * Get the detailed report graph data for the given perf test id.
 	 * This method returns the appropriate points based on the given imgWidth.
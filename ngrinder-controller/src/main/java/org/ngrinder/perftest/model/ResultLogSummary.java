@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.model;
+
+import lombok.Getter;
+import org.ngrinder.statistics.LatencyHistogram;
+import org.ngrinder.statistics.ResultRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Percentiles and outliers of a test built from the result logs of a perf test.
+ * <p/>
+ * The percentiles are of the successful results only as the test time statistics are.
+ *
+ * @since 3.5.5
+ */
+public class ResultLogSummary {
+
+	private static final Comparator<ResultRecord> BY_ELAPSED = Comparator.comparingInt(ResultRecord::getElapsed);
+
+	@Getter
+	private final int testNumber;
+
+	@Getter
+	private long count;
+
+	@Getter
+	private long errors;
+
+	@Getter
+	private final SortedMap<Integer, Long> statuses = new TreeMap<>();
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	private final int outlierCount;
+
+	// The fastest of the outliers is on the head.
+	private final PriorityQueue<ResultRecord> outliers;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param testNumber   test number
+	 * @param outlierCount count of the slowest results to be kept
+	 */
+	public ResultLogSummary(int testNumber, int outlierCount) {
+		this.testNumber = testNumber;
+		this.outlierCount = outlierCount;
+		this.outliers = new PriorityQueue<>(outlierCount + 1, BY_ELAPSED);
+	}
+
+	/**
+	 * Add a result of the test.
+	 *
+	 * @param record result
+	 */
+	public void add(ResultRecord record) {
+		count++;
+		if (record.getStatus() != 0) {
+			statuses.merge(record.getStatus(), 1L, Long::sum);
+		}
+		if (record.getErrors() > 0) {
+			errors++;
+			return;
+		}
+		histogram.recordValue(record.getElapsed());
+		if (outlierCount > 0 && (outliers.size() < outlierCount
+			|| outliers.peek().getElapsed() < record.getElapsed())) {
+			outliers.add(record);
+			if (outliers.size() > outlierCount) {
+				outliers.poll();
+			}
+		}
+	}
+
+	public double getMean() {
+		return histogram.getMean();
+	}
+
+	public long getP50() {
+		return histogram.getValueAtPercentile(50);
+	}
+
+	public long getP90() {
+		return histogram.getValueAtPercentile(90);
+	}
+
+	public long getP95() {
+		return histogram.getValueAtPercentile(95);
+	}
+
+	public long getP99() {
+		return histogram.getValueAtPercentile(99);
+	}
+
+	public long getMax() {
+		return histogram.getMaxValue();
+	}
+
+	/**
+	 * @return the slowest successful results. the slowest first.
+	 */
+	public List<ResultRecord> getOutliers() {
+		List<ResultRecord> result = new ArrayList<>(outliers);
+		result.sort(BY_ELAPSED.reversed());
+		return result;
+	}
+}
@@ -34,9 +34,10 @@ public class ClusteredPerfTestService extends PerfTestService {
 	public ClusteredPerfTestService(PerfTestRepository perfTestRepository, ConsoleManager consoleManager,
 									AgentManager agentManager, Config config, FileEntryService fileEntryService,
 									TagService tagService, ScriptHandlerFactory scriptHandlerFactory,
-									HazelcastService hazelcastService, GitHubFileEntryService gitHubFileEntryService) {
+									HazelcastService hazelcastService, GitHubFileEntryService gitHubFileEntryService,
+									DistributionCache distributionCache) {
 		super(perfTestRepository, consoleManager, agentManager, config, fileEntryService,
-			tagService, scriptHandlerFactory, hazelcastService, gitHubFileEntryService);
+			tagService, scriptHandlerFactory, hazelcastService, gitHubFileEntryService, distributionCache);
 	}
 
 	/**
@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import org.ngrinder.perftest.report.ReportDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link ReportDataReader} which reads the binary columnar {@link ReportDataStore}.
+ *
+ * @since 3.5.5
+ */
+public class ColumnarReportDataReader implements ReportDataReader {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarReportDataReader.class);
+
+	private final ReportDataStore store;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param storeFile report data store file
+	 * @throws IOException when the store index can not be read
+	 */
+	public ColumnarReportDataReader(File storeFile) throws IOException {
+		this.store = ReportDataStore.open(storeFile);
+	}
+
+	@Override
+	public int getRecordCount(String key) {
+		return store.getRowCount(key);
+	}
+
+	@Override
+	public List<Float> getData(String key, int interval) {
+		try {
+			return store.read(key, interval);
+		} catch (IOException e) {
+			LOGGER.error("Report data retrieval is failed: {}", e.getMessage());
+			LOGGER.debug("Trace is : ", e);
+			return Collections.emptyList();
+		}
+	}
+
+	@Override
+	public List<String> getKeys(String key) {
+		return store.getKeys().stream().filter(each -> each.startsWith(key)).sorted().collect(toList());
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.FileUtils;
+import org.ngrinder.common.util.PropertiesWrapper;
+import org.ngrinder.infra.config.Config;
+import org.ngrinder.infra.schedule.ScheduledTaskService;
+import org.ngrinder.model.User;
+import org.ngrinder.script.handler.ScriptHandler;
+import org.ngrinder.script.model.FileEntry;
+import org.ngrinder.script.repository.FileEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Comparator.comparingLong;
+import static net.grinder.util.FileUtils.getAllFilesInDirectory;
+import static net.grinder.util.FileUtils.getFilesDigest;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.ngrinder.common.util.FileUtils.linkDirectory;
+import static org.ngrinder.common.constant.ControllerConstants.*;
+import static org.ngrinder.common.util.NoOp.noOp;
+
+/**
+ * Cache of the prepared distribution directories.
+ * <p/>
+ * The distribution of the svn script is built from the latest files under the script base path, so it's identified
+ * by the script path and the last changed revision of the base path. When the same script is run again without any
+ * change, the files of the cached distribution are hard linked into the new distribution directory instead of
+ * exporting the files from the repository and resolving the dependencies again.
+ * <p/>
+ * The digest of each file is calculated once when the distribution is cached and it's reused for the file
+ * distribution. The cached distributions are evicted by the last used time and the total size.
+ *
+ * @since 3.5.5
+ */
+@Component
+@RequiredArgsConstructor
+public class DistributionCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DistributionCache.class);
+
+	static final String FILES = "files";
+
+	static final String DIGEST = "digest.txt";
+
+	private static final String TEMP_PREFIX = ".tmp-";
+
+	private static final int EVICTION_INTERVAL = (int) TimeUnit.HOURS.toMillis(1);
+
+	private final Config config;
+
+	private final FileEntryRepository fileEntryRepository;
+
+	private final ScheduledTaskService scheduledTaskService;
+
+	/**
+	 * Digests of the distribution directories which are prepared from or into the cache.
+	 */
+	private final Map<String, Set<String>> preparedDigests = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void init() {
+		scheduledTaskService.addFixedDelayedScheduledTask(this::evict, EVICTION_INTERVAL);
+	}
+
+	/**
+	 * Get the cache key of the distribution of the given script.
+	 *
+	 * @param user        script owner
+	 * @param scriptEntry svn script entry
+	 * @param handler     script handler which prepares the distribution
+	 * @return cache key. null if the cache is disabled or the script is not in the repository.
+	 */
+	public String getKey(User user, FileEntry scriptEntry, ScriptHandler handler) {
+		PropertiesWrapper properties = config.getControllerProperties();
+		if (!properties.getPropertyBoolean(PROP_CONTROLLER_DIST_CACHE)) {
+			return null;
+		}
+		String basePath = handler.getBasePath(scriptEntry.getPath());
+		long revision = fileEntryRepository.getLastChangedRevision(user, basePath);
+		if (revision < 0) {
+			return null;
+		}
+		// The default files which are added by the handler depend on the controller properties.
+		return md5Hex(user.getUserId() + ":" + handler.getKey() + ":" + scriptEntry.getPath() + ":" + revision + ":"
+			+ properties.getPropertyBoolean(PROP_CONTROLLER_DIST_LOGBACK));
+	}
+
+	/**
+	 * Link the files of the cached distribution into the given directory.
+	 *
+	 * @param key     cache key
+	 * @param distDir empty distribution directory
+	 * @return true if the distribution is restored. false if it's not cached.
+	 */
+	public synchronized boolean restore(String key, File distDir) {
+		File entry = new File(getCacheDirectory(), key);
+		File digestFile = new File(entry, DIGEST);
+		if (!digestFile.exists()) {
+			return false;
+		}
+		try {
+			Set<String> digests = new HashSet<>(Files.readAllLines(digestFile.toPath(), StandardCharsets.UTF_8));
+			linkDirectory(new File(entry, FILES), distDir);
+			preparedDigests.put(distDir.getAbsolutePath(), digests);
+			// The modified time of the digest file is the last used time.
+			if (!digestFile.setLastModified(System.currentTimeMillis())) {
+				LOGGER.debug("Failed to update the last used time of {}", entry);
+			}
+			return true;
+		} catch (IOException e) {
+			LOGGER.warn("Failed to restore the cached distribution {}. {}", key, e.getMessage());
+			FileUtils.deleteQuietly(entry);
+			try {
+				FileUtils.cleanDirectory(distDir);
+			} catch (IOException | IllegalArgumentException ex) {
+				noOp();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Store the prepared distribution into the cache.
+	 *
+	 * @param key     cache key
+	 * @param distDir prepared distribution directory
+	 */
+	public void store(String key, File distDir) {
+		File cacheDirectory = getCacheDirectory();
+		File temp = new File(cacheDirectory, TEMP_PREFIX + key + "-" + UUID.randomUUID());
+		try {
+			Set<String> digests = getFilesDigest(distDir, getAllFilesInDirectory(distDir));
+			preparedDigests.put(distDir.getAbsolutePath(), digests);
+
+			linkDirectory(distDir, new File(temp, FILES));
+			Files.write(new File(temp, DIGEST).toPath(), digests, StandardCharsets.UTF_8);
+			synchronized (this) {
+				File entry = new File(cacheDirectory, key);
+				if (!entry.exists()) {
+					Files.move(temp.toPath(), entry.toPath());
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Failed to cache the distribution {}. {}", key, e.getMessage());
+		} finally {
+			FileUtils.deleteQuietly(temp);
+		}
+		evict();
+	}
+
+	/**
+	 * Take the file digests of the distribution directory which was prepared with this cache.
+	 *
+	 * @param distDir distribution directory
+	 * @return set of the digests in {relative path}:{md5 checksum} format. null if it's not prepared with the cache.
+	 */
+	public Set<String> takeDigests(File distDir) {
+		return preparedDigests.remove(distDir.getAbsolutePath());
+	}
+
+	/**
+	 * Evict the distributions which are not used in the max age and the least recently used ones over the max size.
+	 */
+	public void evict() {
+		PropertiesWrapper properties = config.getControllerProperties();
+		evict(properties.getPropertyLong(PROP_CONTROLLER_DIST_CACHE_MAX_SIZE),
+			TimeUnit.HOURS.toMillis(properties.getPropertyLong(PROP_CONTROLLER_DIST_CACHE_MAX_HOUR)));
+	}
+
+	synchronized void evict(long maxSize, long maxAge) {
+		File[] entries = getCacheDirectory().listFiles(file -> file.isDirectory() && !file.getName().startsWith(TEMP_PREFIX));
+		if (entries == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<File> alive = new ArrayList<>();
+		for (File each : entries) {
+			File digestFile = new File(each, DIGEST);
+			if (!digestFile.exists() || now - digestFile.lastModified() > maxAge) {
+				LOGGER.debug("Evict the expired distribution {}", each.getName());
+				FileUtils.deleteQuietly(each);
+			} else {
+				alive.add(each);
+			}
+		}
+
+		alive.sort(comparingLong((File each) -> new File(each, DIGEST).lastModified()).reversed());
+		long totalSize = 0;
+		for (File each : alive) {
+			totalSize += FileUtils.sizeOfDirectory(each);
+			if (totalSize > maxSize) {
+				LOGGER.debug("Evict the distribution {} to keep the cache under {} bytes", each.getName(), maxSize);
+				FileUtils.deleteQuietly(each);
+			}
+		}
+	}
+
+	private File getCacheDirectory() {
+		return config.getHome().getDistributionCacheDirectory();
+	}
+}
@@ -50,7 +50,9 @@ import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static java.time.Instant.*;
@@ -58,7 +60,6 @@ import static java.time.temporal.ChronoUnit.MINUTES;
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toSet;
-import static net.grinder.util.FileUtils.*;
 import static org.apache.commons.lang.ObjectUtils.defaultIfNull;
 import static org.ngrinder.common.constant.CacheConstants.DIST_MAP_NAME_MONITORING;
 import static org.ngrinder.common.constant.CacheConstants.DIST_MAP_NAME_SAMPLING;
@@ -107,6 +108,8 @@ public class PerfTestRunnable implements ControllerConstants {
 
 	private final WebhookConfigService webhookConfigService;
 
+	private final PerfTestSampleStreamService perfTestSampleStreamService;
+
 	private Runnable startRunnable;
 
 	private Runnable finishRunnable;
@@ -234,22 +237,20 @@ public class PerfTestRunnable implements ControllerConstants {
 	/**
 	 * Delete cached distribution files, These are already in the agent cache directory.
 	 *
-	 * @param distDir						   Directory containing files to be distributed for testing.
-	 * @param distFiles 					   Required files for currently running test.
-	 * @param distFilesDigest				   Required file's digest for currently running test.
+	 * @param distFilesDigest				   Required files and their digest for currently running test.
 	 * @param agentCachedDistFilesDigestList   Digest of files in each agent cache directory.
 	 *
 	 * */
-	private void deleteCachedDistFiles(File distDir,
-									   List<File> distFiles,
-									   Set<String> distFilesDigest,
+	private void deleteCachedDistFiles(Map<File, String> distFilesDigest,
 									   List<Set<String>> agentCachedDistFilesDigestList) {
-		Set<String> cachedDistFilesDigest = extractCachedDistFilesDigest(distFilesDigest, agentCachedDistFilesDigestList);
+		Set<String> cachedDistFilesDigest = extractCachedDistFilesDigest(new HashSet<>(distFilesDigest.values()),
+			agentCachedDistFilesDigestList);
 
-		distFiles
-			.stream()
-			.filter(file -> cachedDistFilesDigest.contains(getFileDigest(distDir, file)))
-			.forEach(FileUtils::deleteQuietly);
+		distFilesDigest.forEach((file, digest) -> {
+			if (cachedDistFilesDigest.contains(digest)) {
+				FileUtils.deleteQuietly(file);
+			}
+		});
 	}
 
 	/**
@@ -270,14 +271,11 @@ public class PerfTestRunnable implements ControllerConstants {
 	}
 
 	private void prepareFileDistribution(PerfTest perfTest, SingleConsole singleConsole) throws IOException {
-		File distDir = perfTestService.getDistributionPath(perfTest);
-		List<File> distFiles = getAllFilesInDirectory(distDir);
-
-		Set<String> distFilesDigest = getFilesDigest(distDir, distFiles);
+		Map<File, String> distFilesDigest = perfTestService.getDistributionFilesDigest(perfTest);
 
-		singleConsole.sendDistFilesDigestToAgents(distFilesDigest);
+		singleConsole.sendDistFilesDigestToAgents(new HashSet<>(distFilesDigest.values()));
 		LOG.info(format(perfTest, "Send digest of distribution files to agent for refresh agent's cache directory."));
-		deleteCachedDistFiles(distDir, distFiles, distFilesDigest, singleConsole.getAgentCachedDistFilesDigestList());
+		deleteCachedDistFiles(distFilesDigest, singleConsole.getAgentCachedDistFilesDigestList());
 	}
 
 	/**
@@ -420,7 +418,7 @@ public class PerfTestRunnable implements ControllerConstants {
 	protected void addSamplingListeners(final PerfTest perfTest, final SingleConsole singleConsole) {
 		// Add SamplingLifeCycleListener
 		singleConsole.addSamplingLifeCycleListener(new PerfTestSamplingCollectorListener(singleConsole,
-				perfTest.getId(), perfTestService, scheduledTaskService));
+				perfTest.getId(), perfTestService, perfTestSampleStreamService, scheduledTaskService));
 		singleConsole.addSamplingLifeCycleListener(new AgentLostDetectionListener(singleConsole, perfTest,
 				perfTestService, scheduledTaskService));
 		List<OnTestSamplingRunnable> testSamplingPlugins = pluginManager.getEnabledModulesByClass
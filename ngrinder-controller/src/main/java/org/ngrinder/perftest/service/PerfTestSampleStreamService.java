@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.ngrinder.infra.hazelcast.HazelcastService;
+import org.ngrinder.infra.hazelcast.topic.listener.TopicListener;
+import org.ngrinder.infra.hazelcast.topic.message.TopicEvent;
+import org.ngrinder.infra.hazelcast.topic.subscriber.TopicSubscriber;
+import org.ngrinder.infra.schedule.ScheduledTaskService;
+import org.ngrinder.perftest.model.SamplingModel;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+import static org.ngrinder.common.constant.CacheConstants.*;
+
+/**
+ * Live sample stream of the running perf tests.
+ * <p/>
+ * Each sample collected by {@link org.ngrinder.perftest.service.samplinglistener.PerfTestSamplingCollectorListener}
+ * is serialized into a single payload and published to the sample topic. Every cluster member receives it and
+ * pushes the same payload to its own subscribers, so the dashboards don't need to poll the sampling map and
+ * deserialize it again per request.
+ *
+ * @since 3.5.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PerfTestSampleStreamService implements TopicListener<String> {
+
+	public static final String EVENT_SAMPLE = "sample";
+
+	public static final String EVENT_FINISHED = "finished";
+
+	/**
+	 * The browser reconnects automatically when the stream is timed out.
+	 */
+	private static final long EMITTER_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+	private final HazelcastService hazelcastService;
+
+	private final TopicSubscriber topicSubscriber;
+
+	private final ScheduledTaskService scheduledTaskService;
+
+	private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void init() {
+		topicSubscriber.addListener(SAMPLE_TOPIC_LISTENER_NAME, this);
+	}
+
+	/**
+	 * Subscribe the samples of the given perf test.
+	 *
+	 * @param perfTestId perf test id
+	 * @param running    true if the perf test is running. The stream is finished immediately otherwise.
+	 * @return emitter
+	 */
+	public SseEmitter subscribe(long perfTestId, boolean running) {
+		SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+		if (!running) {
+			send(emitter, EVENT_FINISHED, "{}");
+			emitter.complete();
+			return emitter;
+		}
+
+		Set<SseEmitter> subscribers = emitters.computeIfAbsent(perfTestId, key -> new CopyOnWriteArraySet<>());
+		subscribers.add(emitter);
+		Runnable unsubscribe = () -> unsubscribe(perfTestId, emitter);
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(unsubscribe);
+		emitter.onError(throwable -> unsubscribe.run());
+
+		// Send the last sample so that the new subscriber doesn't wait for the next sampling.
+		SamplingModel samplingModel = hazelcastService.get(DIST_MAP_NAME_SAMPLING, perfTestId);
+		if (samplingModel != null) {
+			send(emitter, EVENT_SAMPLE, toPayload(perfTestId, samplingModel));
+		}
+		return emitter;
+	}
+
+	private void unsubscribe(long perfTestId, SseEmitter emitter) {
+		emitters.computeIfPresent(perfTestId, (key, subscribers) -> {
+			subscribers.remove(emitter);
+			return subscribers.isEmpty() ? null : subscribers;
+		});
+	}
+
+	/**
+	 * Publish the sample to the subscribers in the whole cluster.
+	 *
+	 * @param perfTestId    perf test id
+	 * @param samplingModel sample which was just saved
+	 */
+	public void publishSample(long perfTestId, SamplingModel samplingModel) {
+		hazelcastService.publish(SAMPLE_TOPIC_NAME, new TopicEvent<>(SAMPLE_TOPIC_LISTENER_NAME,
+			String.valueOf(perfTestId), toPayload(perfTestId, samplingModel)));
+	}
+
+	/**
+	 * Notify the subscribers in the whole cluster that the sampling is ended.
+	 *
+	 * @param perfTestId perf test id
+	 */
+	public void publishFinished(long perfTestId) {
+		hazelcastService.publish(SAMPLE_TOPIC_NAME, new TopicEvent<>(SAMPLE_TOPIC_LISTENER_NAME,
+			String.valueOf(perfTestId), null));
+	}
+
+	/**
+	 * The sample and the agent state are already JSON strings, so they are embedded without being parsed.
+	 */
+	private String toPayload(long perfTestId, SamplingModel samplingModel) {
+		String monitoringJson = hazelcastService.get(DIST_MAP_NAME_MONITORING, perfTestId);
+		StringBuilder payload = new StringBuilder()
+			.append("{\"perf\":").append(defaultJson(samplingModel.getRunningSample()))
+			.append(",\"agent\":").append(defaultJson(samplingModel.getAgentState()));
+		if (monitoringJson != null) {
+			payload.append(",\"monitor\":").append(monitoringJson);
+		}
+		return payload.append('}').toString();
+	}
+
+	private static String defaultJson(String json) {
+		return json == null || json.isEmpty() ? "null" : json;
+	}
+
+	@Override
+	public void execute(TopicEvent<String> event) {
+		long perfTestId = Long.parseLong(event.getKey());
+		Set<SseEmitter> subscribers = emitters.get(perfTestId);
+		if (subscribers == null || subscribers.isEmpty()) {
+			return;
+		}
+		// Don't block the topic listener thread with the slow clients.
+		scheduledTaskService.runAsync(() -> {
+			String payload = event.getData();
+			for (SseEmitter each : subscribers) {
+				if (payload == null) {
+					send(each, EVENT_FINISHED, "{}");
+					each.complete();
+				} else {
+					send(each, EVENT_SAMPLE, payload);
+				}
+			}
+		});
+	}
+
+	private void send(SseEmitter emitter, String name, String payload) {
+		try {
+			emitter.send(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+		} catch (IOException e) {
+			log.debug("Failed to send the sample to the subscriber. {}", e.getMessage());
+			emitter.completeWithError(e);
+		} catch (IllegalStateException e) {
+			// The emitter is already completed. It's removed by its completion callback.
+			log.debug("The subscriber is already completed. {}", e.getMessage());
+		}
+	}
+
+	int getSubscriberCount(long perfTestId) {
+		Set<SseEmitter> subscribers = emitters.get(perfTestId);
+		return subscribers == null ? 0 : subscribers.size();
+	}
+}
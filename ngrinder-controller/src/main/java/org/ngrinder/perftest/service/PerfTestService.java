@@ -27,7 +27,6 @@ import net.grinder.util.Pair;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
@@ -38,6 +37,7 @@ import org.ngrinder.common.constant.ControllerConstants;
 import org.ngrinder.common.constants.GrinderConstants;
 import org.ngrinder.common.exception.PerfTestPrepareException;
 import org.ngrinder.common.util.JsonUtils;
+import org.ngrinder.common.util.PropertiesWrapper;
 import org.ngrinder.infra.config.Config;
 import org.ngrinder.infra.hazelcast.HazelcastService;
 import org.ngrinder.model.*;
@@ -55,6 +55,7 @@ import org.ngrinder.script.model.GitHubConfig;
 import org.ngrinder.script.service.FileEntryService;
 import org.ngrinder.script.service.GitHubFileEntryService;
 import org.ngrinder.service.AbstractPerfTestService;
+import org.ngrinder.statistics.ResultLog;
 import org.python.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,8 +79,9 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.io.FileUtils.deleteQuietly;
 import static java.util.Arrays.asList;
-import static net.grinder.SingleConsole.REPORT_DATA;
-import static org.apache.commons.io.FilenameUtils.removeExtension;
+import static net.grinder.SingleConsole.REPORT_DATA_STORE;
+import static net.grinder.util.FileUtils.getAllFilesInDirectory;
+import static net.grinder.util.FileUtils.getFilesDigest;
 import static org.ngrinder.common.constant.CacheConstants.*;
 import static org.ngrinder.common.constants.MonitorConstants.MONITOR_FILE_PREFIX;
 import static org.ngrinder.common.util.AccessUtils.getSafe;
@@ -132,6 +134,8 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 
 	private final GitHubFileEntryService gitHubFileEntryService;
 
+	private final DistributionCache distributionCache;
+
 	/**
 	 * Get {@link PerfTest} list for the given user.
 	 *
@@ -619,6 +623,14 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 			grinderProperties.setProperty(GRINDER_PROP_JVM_USER_LIBRARY_CLASSPATH, geUserLibraryClassPath(perfTest));
 			grinderProperties.setInt(GRINDER_PROP_IGNORE_SAMPLE_COUNT, getSafe(perfTest.getIgnoreSampleCount()));
 			grinderProperties.setBoolean(GRINDER_PROP_CONNECTION_RESET, getSafe(perfTest.getConnectionReset()));
+			PropertiesWrapper controllerProperties = config.getControllerProperties();
+			if (controllerProperties.getPropertyBoolean(PROP_CONTROLLER_RESULT_LOG)) {
+				grinderProperties.setBoolean(ResultLog.PROP_RESULT_LOG, true);
+				grinderProperties.setProperty(ResultLog.PROP_RESULT_LOG_SAMPLING_RATE,
+					controllerProperties.getProperty(PROP_CONTROLLER_RESULT_LOG_SAMPLING_RATE));
+				grinderProperties.setProperty(ResultLog.PROP_RESULT_LOG_ERROR_SAMPLING_RATE,
+					controllerProperties.getProperty(PROP_CONTROLLER_RESULT_LOG_ERROR_SAMPLING_RATE));
+			}
 			grinderProperties.setBoolean(GRINDER_PROP_SECURITY, config.isSecurityEnabled());
 			grinderProperties.setProperty(GRINDER_PROP_SECURITY_LEVEL, config.getSecurityLevel());
 			// For backward agent compatibility.
@@ -677,6 +689,12 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 		ScriptHandler handler = scriptHandlerFactory.getHandler(scriptEntry);
 		LOGGER.info(format(perfTest, "Script type is '{}'.", handler.getKey()));
 
+		String cacheKey = isGitHubScript(scm) ? null : distributionCache.getKey(user, scriptEntry, handler);
+		if (cacheKey != null && distributionCache.restore(cacheKey, perfTestDistDirectory)) {
+			LOGGER.info(format(perfTest, "Distribution is restored from the cache {}", cacheKey));
+			return handler;
+		}
+
 		ProcessingResultPrintStream processingResult = new ProcessingResultPrintStream(new ByteArrayOutputStream());
 		handler.prepareDist(perfTest, user, scriptEntry, perfTestDistDirectory, config.getControllerProperties(),
 				processingResult);
@@ -691,9 +709,34 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 			throw processException("Error while file distribution is prepared.\n" +
 				"If you run groovy project type script, Please check your build script and make sure Maven or Gradle is installed.");
 		}
+		if (cacheKey != null) {
+			distributionCache.store(cacheKey, perfTestDistDirectory);
+		}
 		return handler;
 	}
 
+	/**
+	 * Get the digest of each distribution file of the given {@link PerfTest}. The digests which are calculated when
+	 * the distribution is cached are reused.
+	 *
+	 * @param perfTest perfTest
+	 * @return map of the distribution file and its digest in {relative path}:{md5 checksum} format
+	 * @throws IOException when the distribution files can not be read
+	 * @since 3.5.5
+	 */
+	public Map<File, String> getDistributionFilesDigest(PerfTest perfTest) throws IOException {
+		File distDir = getDistributionPath(perfTest);
+		Set<String> digests = distributionCache.takeDigests(distDir);
+		if (digests == null) {
+			digests = getFilesDigest(distDir, getAllFilesInDirectory(distDir));
+		}
+		Map<File, String> filesDigest = new HashMap<>();
+		for (String each : digests) {
+			filesDigest.put(new File(distDir, each.substring(0, each.lastIndexOf(':'))), each);
+		}
+		return filesDigest;
+	}
+
 	public GrinderProperties prepareTest(PerfTest perfTest) {
 		try {
 			proxy(this).markStatusAndProgress(perfTest,
@@ -765,22 +808,33 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 	 */
 	public int getReportDataInterval(long testId, String dataType, int imgWidth) {
 		int pointCount = Math.max(imgWidth, MAX_POINT_COUNT);
-		File reportFolder = config.getHome().getPerfTestReportDirectory(String.valueOf(testId));
-		int interval = 0;
-		File targetFile = new File(reportFolder, dataType + REPORT_DATA);
-		if (!targetFile.exists()) {
+		int recordCount = getReportDataReader(testId).getRecordCount(dataType);
+		if (recordCount < 0) {
 			LOGGER.warn("Report {} for test {} does not exist.", dataType, testId);
 			return 0;
 		}
+		return Math.max((recordCount + 1) / pointCount, 1);
+	}
 
-		try (LineNumberReader lnr = new LineNumberReader(new InputStreamReader(new FileInputStream(targetFile)))) {
-			lnr.skip(targetFile.length());
-			int lineNumber = lnr.getLineNumber() + 1;
-			interval = Math.max(lineNumber / pointCount, 1);
-		} catch (Exception e) {
-			LOGGER.error("Failed to get report data for {}", dataType, e);
+	/**
+	 * Get the {@link ReportDataReader} for the given test. The binary report data store is used if it exists.
+	 * Otherwise, the text report files which are written by the previous versions are used.
+	 *
+	 * @param testId test id
+	 * @return report data reader
+	 */
+	public ReportDataReader getReportDataReader(long testId) {
+		File reportFolder = config.getHome().getPerfTestReportDirectory(String.valueOf(testId));
+		File storeFile = new File(reportFolder, REPORT_DATA_STORE);
+		if (storeFile.exists()) {
+			try {
+				return new ColumnarReportDataReader(storeFile);
+			} catch (IOException e) {
+				LOGGER.error("Failed to open the report data store of test {} : {}", testId, e.getMessage());
+				LOGGER.debug("Trace is : ", e);
+			}
 		}
-		return interval;
+		return new TextReportDataReader(reportFolder);
 	}
 
 	/**
@@ -856,11 +910,14 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 	 *
 	 * @param singleConsole single console.
 	 * @param perfTestId    perfTest Id
+	 * @return saved sampling model
 	 */
-	public void saveStatistics(SingleConsole singleConsole, Long perfTestId) {
+	public SamplingModel saveStatistics(SingleConsole singleConsole, Long perfTestId) {
 		String runningSample = getProperSizeRunningSample(singleConsole);
 		String agentState = getProperSizedStatusString(singleConsole);
-		hazelcastService.put(DIST_MAP_NAME_SAMPLING, perfTestId, new SamplingModel(runningSample, agentState));
+		SamplingModel samplingModel = new SamplingModel(runningSample, agentState);
+		hazelcastService.put(DIST_MAP_NAME_SAMPLING, perfTestId, samplingModel);
+		return samplingModel;
 	}
 
 	private String getProperSizeRunningSample(SingleConsole singleConsole) {
@@ -985,6 +1042,11 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 		LOGGER.info(format(perfTest, "Total Statistics is {}", totalStatistics));
 		perfTest.setTps(parseDoubleWithSafety(totalStatistics, "TPS", 0D));
 		perfTest.setMeanTestTime(parseDoubleWithSafety(totalStatistics, "Mean_Test_Time_(ms)", 0D));
+		perfTest.setTestTimeP50(parseDoubleWithSafety(totalStatistics, "Test_Time_P50_(ms)", 0D));
+		perfTest.setTestTimeP90(parseDoubleWithSafety(totalStatistics, "Test_Time_P90_(ms)", 0D));
+		perfTest.setTestTimeP95(parseDoubleWithSafety(totalStatistics, "Test_Time_P95_(ms)", 0D));
+		perfTest.setTestTimeP99(parseDoubleWithSafety(totalStatistics, "Test_Time_P99_(ms)", 0D));
+		perfTest.setTestTimeP999(parseDoubleWithSafety(totalStatistics, "Test_Time_P99.9_(ms)", 0D));
 		perfTest.setPeakTps(parseDoubleWithSafety(totalStatistics, "Peak_TPS", 0D));
 		perfTest.setTests(MapUtils.getDouble(totalStatistics, "Tests", 0D).longValue());
 		perfTest.setErrors(MapUtils.getDouble(totalStatistics, "Errors", 0D).longValue());
@@ -1412,8 +1474,7 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 	 * @return json list
 	 */
 	public List<Float> getSingleReportData(long testId, String key, int interval) {
-		File reportDataFile = getReportDataFile(testId, key);
-		return getFileDataAsList(reportDataFile, interval);
+		return getReportDataReader(testId).getData(key, interval);
 	}
 
 	/**
@@ -1427,68 +1488,12 @@ public class PerfTestService extends AbstractPerfTestService implements Controll
 	 */
 	public Map<String, List<Float>> getReportData(long testId, String key, boolean onlyTotal, int interval) {
 		Map<String, List<Float>> resultMap = new TreeMap<>();
-		List<File> reportDataFiles = onlyTotal ? Lists.newArrayList(getReportDataFile(testId, key)) : getReportDataFiles(testId, key);
-		reportDataFiles.forEach(each -> resultMap.put(removeExtension(each.getName()), getFileDataAsList(each, interval)));
+		ReportDataReader reportDataReader = getReportDataReader(testId);
+		List<String> keys = onlyTotal ? Lists.newArrayList(key) : reportDataReader.getKeys(key);
+		keys.forEach(each -> resultMap.put(each, reportDataReader.getData(each, interval)));
 		return resultMap;
 	}
 
-	/**
-	 * Get a single file for the given report key.
-	 *
-	 * @param testId test id
-	 * @param key    key
-	 * @return return file
-	 */
-	public File getReportDataFile(long testId, String key) {
-		File reportFolder = config.getHome().getPerfTestReportDirectory(String.valueOf(testId));
-		return new File(reportFolder, key + ".data");
-	}
-
-	/**
-	 * Get files respectively if there are multiple tests.
-	 *
-	 * @param testId test id
-	 * @param key    report key
-	 * @return return file list
-	 */
-	public List<File> getReportDataFiles(long testId, String key) {
-		File reportFolder = config.getHome().getPerfTestReportDirectory(String.valueOf(testId));
-		FileFilter fileFilter = new WildcardFileFilter(key + "*.data");
-		File[] files = reportFolder.listFiles(fileFilter);
-		return Arrays.stream(requireNonNull(files))
-			.sorted(Comparator.comparing(o -> FilenameUtils.getBaseName(o.getName())))
-			.collect(toList());
-	}
-
-	private List<Float> getFileDataAsList(File targetFile, int interval) {
-		if (!targetFile.exists()) {
-			return Collections.emptyList();
-		}
-
-		List<Float> metrics = new ArrayList<>();
-		try (BufferedReader br = new BufferedReader(new FileReader(targetFile))) {
-			String data = br.readLine();
-			int current = 0;
-			while (StringUtils.isNotBlank(data)) {
-				if (0 == current) {
-					if (data.equals(NULL_STRING)) {
-						metrics.add(null);
-					} else {
-						metrics.add(Float.parseFloat(data));
-					}
-				}
-				if (++current >= interval) {
-					current = 0;
-				}
-				data = br.readLine();
-			}
-		} catch (IOException e) {
-			LOGGER.error("Report data retrieval is failed: {}", e.getMessage());
-			LOGGER.debug("Trace is : ", e);
-		}
-		return metrics;
-	}
-
 	/*
 	 * (non-Javadoc)
 	 *
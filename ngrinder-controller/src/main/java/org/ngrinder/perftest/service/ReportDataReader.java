@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import java.util.List;
+
+/**
+ * Reader of the perftest report data which is written by the {@link net.grinder.SingleConsole}.
+ *
+ * @since 3.5.5
+ */
+public interface ReportDataReader {
+
+	/**
+	 * Get the count of the records of the given report key.
+	 *
+	 * @param key report key
+	 * @return record count. -1 if there is no such report.
+	 */
+	int getRecordCount(String key);
+
+	/**
+	 * Get the report data of the given key.
+	 *
+	 * @param key      report key
+	 * @param interval interval to collect data
+	 * @return report data. null element for the null record.
+	 */
+	List<Float> getData(String key, int interval);
+
+	/**
+	 * Get the report keys which start with the given key in the name order. e.g. TPS, TPS-1_test1, TPS-2_test2
+	 *
+	 * @param key report key
+	 * @return report keys
+	 */
+	List<String> getKeys(String key);
+}
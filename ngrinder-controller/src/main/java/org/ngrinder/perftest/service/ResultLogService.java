@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.ngrinder.perftest.model.ResultLogSummary;
+import org.ngrinder.statistics.ResultLog;
+import org.ngrinder.statistics.ResultLogReader;
+import org.ngrinder.statistics.ResultRecord;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Builds the percentile and outlier views of a finished perf test from the result logs.
+ * <p/>
+ * The workers write the result logs when <code>controller.result_log</code> is enabled, and the agents send them
+ * back in the log zip files.
+ *
+ * @since 3.5.5
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResultLogService {
+
+	private final PerfTestService perfTestService;
+
+	/**
+	 * Summarize the result logs of the given perf test.
+	 *
+	 * @param testId       perf test id
+	 * @param outlierCount count of the slowest results to be kept per test
+	 * @return summaries ordered by the test number. empty if there is no result log.
+	 */
+	public List<ResultLogSummary> getSummaries(long testId, int outlierCount) {
+		Map<Integer, ResultLogSummary> summaries = new TreeMap<>();
+		File logDirectory = perfTestService.getLogFileDirectory(String.valueOf(testId));
+		File[] logFiles = logDirectory.listFiles((dir, name) -> name.endsWith(".zip"));
+		if (logFiles == null) {
+			return emptyList();
+		}
+		for (File each : logFiles) {
+			try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(each))) {
+				ZipEntry zipEntry;
+				while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+					if (zipEntry.getName().endsWith(ResultLog.FILE_SUFFIX)) {
+						read(new CloseShieldInputStream(zipInputStream), summaries, outlierCount);
+					}
+				}
+			} catch (IOException e) {
+				log.error("Error while reading the result log in {}", each, e);
+			}
+		}
+		return new ArrayList<>(summaries.values());
+	}
+
+	private void read(InputStream chunk, Map<Integer, ResultLogSummary> summaries, int outlierCount) throws IOException {
+		try (ResultLogReader reader = new ResultLogReader(chunk)) {
+			ResultRecord record;
+			while ((record = reader.read()) != null) {
+				summaries.computeIfAbsent(record.getTestNumber(), key -> new ResultLogSummary(key, outlierCount))
+					.add(record);
+			}
+		}
+	}
+}
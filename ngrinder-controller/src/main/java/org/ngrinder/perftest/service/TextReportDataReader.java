@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static net.grinder.SingleConsole.REPORT_DATA;
+
+/**
+ * {@link ReportDataReader} which reads the per key text report files. The reports of the tests performed before
+ * the {@link org.ngrinder.perftest.report.ReportDataStore} was introduced are stored in this format.
+ *
+ * @since 3.5.5
+ */
+public class TextReportDataReader implements ReportDataReader {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TextReportDataReader.class);
+
+	private static final String NULL_STRING = "null";
+
+	private final File reportFolder;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reportFolder report folder of the test
+	 */
+	public TextReportDataReader(File reportFolder) {
+		this.reportFolder = reportFolder;
+	}
+
+	@Override
+	public int getRecordCount(String key) {
+		File targetFile = new File(reportFolder, key + REPORT_DATA);
+		if (!targetFile.exists()) {
+			return -1;
+		}
+		try (LineNumberReader lnr = new LineNumberReader(new InputStreamReader(new FileInputStream(targetFile)))) {
+			lnr.skip(targetFile.length());
+			return lnr.getLineNumber();
+		} catch (Exception e) {
+			LOGGER.error("Failed to get report data for {}", key, e);
+		}
+		return -1;
+	}
+
+	@Override
+	public List<Float> getData(String key, int interval) {
+		File targetFile = new File(reportFolder, key + REPORT_DATA);
+		if (!targetFile.exists()) {
+			return Collections.emptyList();
+		}
+
+		List<Float> metrics = new ArrayList<>();
+		try (BufferedReader br = new BufferedReader(new FileReader(targetFile))) {
+			String data = br.readLine();
+			int current = 0;
+			while (StringUtils.isNotBlank(data)) {
+				if (0 == current) {
+					if (data.equals(NULL_STRING)) {
+						metrics.add(null);
+					} else {
+						metrics.add(Float.parseFloat(data));
+					}
+				}
+				if (++current >= interval) {
+					current = 0;
+				}
+				data = br.readLine();
+			}
+		} catch (IOException e) {
+			LOGGER.error("Report data retrieval is failed: {}", e.getMessage());
+			LOGGER.debug("Trace is : ", e);
+		}
+		return metrics;
+	}
+
+	@Override
+	public List<String> getKeys(String key) {
+		FileFilter fileFilter = new WildcardFileFilter(key + "*" + REPORT_DATA);
+		File[] files = reportFolder.listFiles(fileFilter);
+		if (files == null) {
+			return Collections.emptyList();
+		}
+		return Arrays.stream(files)
+			.map(each -> FilenameUtils.getBaseName(each.getName()))
+			.sorted()
+			.collect(toList());
+	}
+}
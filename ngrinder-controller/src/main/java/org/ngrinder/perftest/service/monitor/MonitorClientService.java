@@ -13,7 +13,9 @@
  */
 package org.ngrinder.perftest.service.monitor;
 
+import org.apache.commons.io.IOUtils;
 import org.ngrinder.common.constants.MonitorConstants;
+import org.ngrinder.monitor.push.MonitorPushClient;
 import org.ngrinder.monitor.share.domain.MBeanClient;
 import org.ngrinder.monitor.share.domain.SystemInfo;
 import org.slf4j.Logger;
@@ -30,6 +32,9 @@ import static org.ngrinder.common.util.TypeConvertUtils.cast;
 /**
  * Used to get monitor data directly from MBeanClient and save. For every
  * MBClient, one instance will be created. So it is not singleton.
+ * <p/>
+ * If the push port is given, the monitor data is pushed by the monitor through {@link MonitorPushClient} and
+ * {@link #update()} doesn't make any remote call. MBeanClient is used only when the push is not available.
  *
  * @since 3.1
  */
@@ -38,6 +43,8 @@ public class MonitorClientService implements Closeable, MonitorConstants {
 
 	private MBeanClient mBeanClient;
 
+	private MonitorPushClient pushClient;
+
 	private static ObjectName objectName;
 
 	static {
@@ -50,24 +57,53 @@ public class MonitorClientService implements Closeable, MonitorConstants {
 
 	private final String ip;
 	private final int port;
-	
+	private final int pushPort;
+
 	private SystemInfo systemInfo = SystemInfo.NullSystemInfo.getNullSystemInfo();
 	private long lastAccessedTime;
 
 	public MonitorClientService(String ip, int port) {
+		this(ip, port, 0);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param ip       monitor ip
+	 * @param port     monitor JMX port
+	 * @param pushPort monitor push port. 0 if the push is not used.
+	 * @since 3.5.5
+	 */
+	public MonitorClientService(String ip, int port, int pushPort) {
 		this.ip = ip;
 		this.port = port;
+		this.pushPort = pushPort;
 	}
 
 	public boolean isConnected() {
-		return mBeanClient.isConnected();
+		if (pushClient != null && pushClient.isConnected()) {
+			return true;
+		}
+		return mBeanClient != null && mBeanClient.isConnected();
 	}
 
 
 	/**
-	 * Initialize the mBeanClient connection.
+	 * Initialize the push connection or the mBeanClient connection if the push is not available.
 	 */
 	public void init() {
+		if (pushPort > 0) {
+			MonitorPushClient client = new MonitorPushClient(ip, pushPort);
+			if (client.connect(DEFAULT_MONITOR_COLLECTOR_INTERVAL * 1000)) {
+				LOGGER.debug("Monitor data of {} is pushed through {}", ip, pushPort);
+				pushClient = client;
+				return;
+			}
+		}
+		initMBeanClient();
+	}
+
+	private void initMBeanClient() {
 		LOGGER.debug("Init MonitorClientService for {}:{}", ip, port);
 		try {
 			mBeanClient = new MBeanClient(ip, port);
@@ -84,6 +120,19 @@ public class MonitorClientService implements Closeable, MonitorConstants {
 	 * Get monitor data from MBClient and record into writer.
 	 */
 	public void update() {
+		if (pushClient != null) {
+			if (pushClient.isConnected()) {
+				SystemInfo pushed = pushClient.getSystemInfo();
+				if (pushed != null) {
+					this.systemInfo = pushed;
+				}
+				return;
+			}
+			LOGGER.info("Monitor push connection to {} is lost. Fall back to JMX.", ip);
+			IOUtils.closeQuietly(pushClient);
+			pushClient = null;
+			initMBeanClient();
+		}
 		try {
 			if (mBeanClient.isConnected()) {
 				CompositeData cd = cast(mBeanClient.getAttribute(objectName, "SystemInfo"));
@@ -102,7 +151,10 @@ public class MonitorClientService implements Closeable, MonitorConstants {
 	 */
 
 	public void close() {
-		mBeanClient.disconnect();
+		IOUtils.closeQuietly(pushClient);
+		if (mBeanClient != null) {
+			mBeanClient.disconnect();
+		}
 	}
 
 	public SystemInfo getSystemInfo() {
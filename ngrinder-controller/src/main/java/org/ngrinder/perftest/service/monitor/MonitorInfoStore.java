@@ -51,9 +51,22 @@ public class MonitorInfoStore implements Runnable {
 	 * @return {@link org.ngrinder.monitor.share.domain.SystemInfo}
 	 */
 	public SystemInfo getSystemInfo(String ip, int port) {
+		return getSystemInfo(ip, port, 0);
+	}
+
+	/**
+	 * Get monitor data pushed by the monitor or from mbean client if the push is not available.
+	 *
+	 * @param ip       ip
+	 * @param port     port
+	 * @param pushPort push port. 0 if the push is not used.
+	 * @return {@link org.ngrinder.monitor.share.domain.SystemInfo}
+	 * @since 3.5.5
+	 */
+	public SystemInfo getSystemInfo(String ip, int port, int pushPort) {
 		MonitorClientService monitorClient = monitorClientMap.get(ip);
 		if (monitorClient == null) {
-			monitorClient = new MonitorClientService(ip, port);
+			monitorClient = new MonitorClientService(ip, port, pushPort);
 			monitorClient.init();
 			IOUtils.closeQuietly(monitorClientMap.put(ip, monitorClient));
 		}
@@ -51,6 +51,7 @@ public class MonitorCollectorPlugin implements OnTestSamplingRunnable, Runnable,
 
 	private final Map<MonitorClientService, BufferedWriter> clientMap = new ConcurrentHashMap<>();
 	private final int port;
+	private final int pushPort;
 	private final Long perfTestId;
 
 	private final IScheduledTaskService scheduledTaskService;
@@ -68,12 +69,17 @@ public class MonitorCollectorPlugin implements OnTestSamplingRunnable, Runnable,
 		this.perfTestService = perfTestService;
 		this.perfTestId = perfTestId;
 		this.port = getPort(config);
+		this.pushPort = getPushPort(config);
 	}
 
 	protected int getPort(IConfig config) {
 		return config.getControllerProperties().getPropertyInt(ControllerConstants.PROP_CONTROLLER_MONITOR_PORT);
 	}
 
+	protected int getPushPort(IConfig config) {
+		return config.getControllerProperties().getPropertyInt(ControllerConstants.PROP_CONTROLLER_MONITOR_PUSH_PORT);
+	}
+
 	@Override
 	public void startSampling(final ISingleConsole singleConsole, PerfTest perfTest,
 	                          IPerfTestService perfTestService) {
@@ -82,7 +88,8 @@ public class MonitorCollectorPlugin implements OnTestSamplingRunnable, Runnable,
 		for (final String target : targetHostIP) {
 			scheduledTaskService.runAsync(() -> {
 				LOGGER.info(format(perfTest, "Start JVM monitoring for IP:{}", target));
-				MonitorClientService client = new MonitorClientService(target, MonitorCollectorPlugin.this.port);
+				MonitorClientService client = new MonitorClientService(target, MonitorCollectorPlugin.this.port,
+					MonitorCollectorPlugin.this.pushPort);
 				client.init();
 				if (client.isConnected()) {
 					File testReportDir = singleConsole.getReportPath();
@@ -17,6 +17,8 @@ import net.grinder.SingleConsole;
 import net.grinder.SingleConsole.SamplingLifeCycleListener;
 import net.grinder.statistics.StatisticsSet;
 import org.ngrinder.infra.schedule.ScheduledTaskService;
+import org.ngrinder.perftest.model.SamplingModel;
+import org.ngrinder.perftest.service.PerfTestSampleStreamService;
 import org.ngrinder.perftest.service.PerfTestService;
 
 import java.io.File;
@@ -28,22 +30,31 @@ import java.io.File;
  */
 public class PerfTestSamplingCollectorListener implements SamplingLifeCycleListener {
 	private final ScheduledTaskService scheduledTaskService;
+	private final PerfTestSampleStreamService perfTestSampleStreamService;
+	private final Long perfTestId;
 	private final Runnable runnable;
 
 	/**
 	 * Constructor.
 	 *
-	 * @param singleConsole        singleConsole to monitor
-	 * @param perfTestId           perfTest id which this sampling start
-	 * @param perfTestService      perfTestService
-	 * @param scheduledTaskService scheduledTaskService
+	 * @param singleConsole               singleConsole to monitor
+	 * @param perfTestId                  perfTest id which this sampling start
+	 * @param perfTestService             perfTestService
+	 * @param perfTestSampleStreamService perfTestSampleStreamService to push the saved sample
+	 * @param scheduledTaskService        scheduledTaskService
 	 */
 	public PerfTestSamplingCollectorListener(final SingleConsole singleConsole, final Long perfTestId,
 	                                         final PerfTestService perfTestService,
+	                                         final PerfTestSampleStreamService perfTestSampleStreamService,
 	                                         ScheduledTaskService scheduledTaskService) {
 		this.scheduledTaskService = scheduledTaskService;
+		this.perfTestSampleStreamService = perfTestSampleStreamService;
+		this.perfTestId = perfTestId;
 		// Make it separate async call to remove the delay on the sampling.
-		this.runnable = () -> perfTestService.saveStatistics(singleConsole, perfTestId);
+		this.runnable = () -> {
+			SamplingModel samplingModel = perfTestService.saveStatistics(singleConsole, perfTestId);
+			perfTestSampleStreamService.publishSample(perfTestId, samplingModel);
+		};
 	}
 
 	@Override
@@ -57,6 +68,7 @@ public class PerfTestSamplingCollectorListener implements SamplingLifeCycleListe
 
 	@Override
 	public void onSamplingEnded() {
+		perfTestSampleStreamService.publishFinished(perfTestId);
 	}
 
 }
@@ -0,0 +1,300 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.script.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.apache.commons.lang.StringUtils.removeEnd;
+import static org.ngrinder.common.util.FileUtils.linkDirectory;
+
+/**
+ * Cache of the dependencies resolved from the build script of the groovy project.
+ * <p/>
+ * The dependencies are identified by the content of the build script, the gradle settings and properties beside it
+ * and the resolver which copies them. They are kept in the ngrinder home, so they survive the controller restart.
+ * The preparations of the same dependencies are serialized by the lock file, then the later one links the
+ * dependencies which the former one resolved. The lock file is deleted with the entry when it's evicted.
+ * <p/>
+ * The build script which refers the snapshot, the latest, a dynamic version like {@code 1.+} or a version range
+ * like {@code [1.0,2.0)} is not cached because its dependencies can be changed without any change of the build
+ * script.
+ *
+ * @since 3.5.5
+ */
+@Slf4j
+public class DependencyCache {
+
+	private static final String LOCK_SUFFIX = ".lock";
+
+	private static final String TEMP_PREFIX = ".tmp-";
+
+	/**
+	 * The snapshot, the latest and the release versions, the gradle dynamic versions like {@code 1.+} and the
+	 * version ranges like {@code [1.0,2.0)} of both maven and gradle.
+	 */
+	private static final Pattern DYNAMIC_VERSION = Pattern.compile("SNAPSHOT|latest\\.|LATEST"
+		+ "|<version>\\s*RELEASE\\s*</version>|[\\w.:='\"]\\+(['\"]|\\s*$)|(<version>\\s*|[:='\"])[\\[(]",
+		Pattern.MULTILINE);
+
+	private static final String[] BUILD_SETTINGS = {"settings.gradle", "gradle.properties"};
+
+	/**
+	 * The file lock is held by the whole JVM, so the threads of this controller are serialized by this lock first.
+	 * A lock is removed when no thread holds or waits for it.
+	 */
+	private static final Map<String, ThreadLock> LOCKS = new ConcurrentHashMap<>();
+
+	private final File directory;
+
+	public DependencyCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the cache key of the dependencies of the given build script. The gradle settings and properties beside
+	 * the build script are the part of the key too, because they can change the resolved dependencies.
+	 *
+	 * @param buildScript build script in the distribution directory
+	 * @param resolverKey identifier of the resolver which copies the dependencies
+	 * @return cache key. null if the build script can't be cached.
+	 */
+	public String getKey(File buildScript, String resolverKey) {
+		try {
+			StringBuilder key = new StringBuilder(resolverKey).append("\n")
+				.append(FileUtils.readFileToString(buildScript, StandardCharsets.UTF_8));
+			for (String each : BUILD_SETTINGS) {
+				File settings = new File(buildScript.getParentFile(), each);
+				if (settings.isFile()) {
+					key.append("\n").append(each).append("\n")
+						.append(FileUtils.readFileToString(settings, StandardCharsets.UTF_8));
+				}
+			}
+			if (DYNAMIC_VERSION.matcher(key).find()) {
+				return null;
+			}
+			return md5Hex(key.toString());
+		} catch (IOException e) {
+			log.debug("Failed to read the build script {}. {}", buildScript, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Lock the dependencies of the given key over the controllers sharing the ngrinder home.
+	 *
+	 * @param key cache key
+	 * @return lock which should be closed after the dependencies are restored or stored.
+	 * @throws IOException if the lock file can't be opened
+	 */
+	public Lock lock(String key) throws IOException {
+		return new Lock(key);
+	}
+
+	/**
+	 * Link the cached dependencies into the given library directory.
+	 *
+	 * @param key    cache key
+	 * @param libDir library directory of the distribution
+	 * @return true if the dependencies are restored. false if they are not cached.
+	 */
+	public boolean restore(String key, File libDir) {
+		File entry = new File(directory, key);
+		if (!entry.isDirectory()) {
+			return false;
+		}
+		try {
+			linkDirectory(entry, libDir);
+			// The modified time of the entry is the last used time.
+			if (!entry.setLastModified(System.currentTimeMillis())) {
+				log.debug("Failed to update the last used time of {}", entry);
+			}
+			return true;
+		} catch (IOException e) {
+			log.warn("Failed to restore the cached dependencies {}. {}", key, e.getMessage());
+			FileUtils.deleteQuietly(entry);
+			return false;
+		}
+	}
+
+	/**
+	 * Store the resolved dependencies into the cache.
+	 *
+	 * @param key           cache key
+	 * @param libDir        library directory of the distribution
+	 * @param excludedFiles names of the files which were in the library directory before the resolution
+	 */
+	public void store(String key, File libDir, Set<String> excludedFiles) {
+		File temp = new File(directory, TEMP_PREFIX + key + "-" + UUID.randomUUID());
+		File[] files = libDir.listFiles(file -> file.isFile() && !excludedFiles.contains(file.getName()));
+		try {
+			Files.createDirectories(temp.toPath());
+			if (files != null) {
+				for (File each : files) {
+					Files.copy(each.toPath(), new File(temp, each.getName()).toPath());
+				}
+			}
+			File entry = new File(directory, key);
+			FileUtils.deleteQuietly(entry);
+			Files.move(temp.toPath(), entry.toPath());
+		} catch (IOException e) {
+			log.warn("Failed to cache the dependencies {}. {}", key, e.getMessage());
+		} finally {
+			FileUtils.deleteQuietly(temp);
+		}
+	}
+
+	/**
+	 * Delete the cached dependencies which are not used in the given max age with their lock files. The lock files
+	 * of the dependencies which were never stored are deleted in the same max age.
+	 *
+	 * @param maxAge max age in millisecond
+	 */
+	public void evict(long maxAge) {
+		long now = System.currentTimeMillis();
+		File[] files = directory.listFiles(file -> !file.getName().startsWith(TEMP_PREFIX)
+			&& now - file.lastModified() > maxAge);
+		if (files == null) {
+			return;
+		}
+		Set<String> keys = new HashSet<>();
+		for (File each : files) {
+			if (each.isDirectory()) {
+				keys.add(each.getName());
+			} else if (each.getName().endsWith(LOCK_SUFFIX) && !new File(directory, removeEnd(each.getName(),
+				LOCK_SUFFIX)).exists()) {
+				keys.add(removeEnd(each.getName(), LOCK_SUFFIX));
+			}
+		}
+		for (String each : keys) {
+			File entry = new File(directory, each);
+			try (Lock ignored = lock(each)) {
+				// The entry may be used or stored while waiting for the lock.
+				if (entry.exists() && now - entry.lastModified() <= maxAge) {
+					continue;
+				}
+				log.debug("Evict the expired dependencies {}", each);
+				FileUtils.deleteQuietly(entry);
+				FileUtils.deleteQuietly(new File(directory, each + LOCK_SUFFIX));
+			} catch (IOException e) {
+				log.debug("Failed to evict the dependencies {}. {}", each, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Lock of the cached dependencies which is held by both the thread and the process.
+	 */
+	public class Lock implements AutoCloseable {
+
+		private final String path;
+
+		private final ThreadLock threadLock;
+
+		private final FileChannel channel;
+
+		private final FileLock fileLock;
+
+		private Lock(String key) throws IOException {
+			File lockFile = new File(directory, key + LOCK_SUFFIX);
+			path = lockFile.getAbsolutePath();
+			threadLock = LOCKS.compute(path, (each, lock) -> {
+				ThreadLock result = lock == null ? new ThreadLock() : lock;
+				result.users++;
+				return result;
+			});
+			threadLock.lock();
+			try {
+				FileChannel channel;
+				FileLock fileLock;
+				while (true) {
+					channel = FileChannel.open(lockFile.toPath(), CREATE, WRITE);
+					try {
+						Object fileKey = getFileKey(lockFile);
+						fileLock = channel.lock();
+						// Another controller may have evicted the entry with the lock file in the meantime.
+						if (fileKey != null && fileKey.equals(getFileKey(lockFile))) {
+							break;
+						}
+						fileLock.release();
+						channel.close();
+					} catch (IOException | RuntimeException e) {
+						channel.close();
+						throw e;
+					}
+				}
+				this.channel = channel;
+				this.fileLock = fileLock;
+			} catch (IOException | RuntimeException e) {
+				unlockThread();
+				throw e;
+			}
+		}
+
+		/**
+		 * @return identity of the file. true if the file system doesn't have it. null if there's no file.
+		 */
+		private Object getFileKey(File file) throws IOException {
+			try {
+				Object fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+				return fileKey == null ? Boolean.TRUE : fileKey;
+			} catch (NoSuchFileException e) {
+				return null;
+			}
+		}
+
+		private void unlockThread() {
+			threadLock.unlock();
+			LOCKS.computeIfPresent(path, (each, lock) -> --lock.users == 0 ? null : lock);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				fileLock.release();
+				channel.close();
+			} finally {
+				unlockThread();
+			}
+		}
+	}
+
+	/**
+	 * Lock of the threads which counts the threads holding or waiting for it. The count is guarded by
+	 * {@link #LOCKS}.
+	 */
+	private static class ThreadLock extends ReentrantLock {
+
+		private int users;
+	}
+}
@@ -39,6 +39,7 @@ import static java.lang.System.getenv;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Paths.get;
 import static java.util.Collections.singletonList;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.apache.commons.io.FileUtils.deleteQuietly;
 import static org.apache.commons.io.FilenameUtils.normalize;
 import static org.apache.commons.lang.StringUtils.EMPTY;
@@ -82,6 +83,17 @@ public class GroovyGradleProjectScriptHandler extends GroovyProjectScriptHandler
 			" __copyDependencies -PoutputDirectory=" + distDirPath + "/lib";
 	}
 
+	@Override
+	protected String getDependencyResolverKey() {
+		// The dependencies are copied by the task defined in the init script.
+		File initScript = new File(ngrinderHomePath, "init.gradle");
+		try {
+			return gradlePath + "gradle " + md5Hex(FileUtils.readFileToByteArray(initScript));
+		} catch (IOException e) {
+			return gradlePath + "gradle";
+		}
+	}
+
 	@Override
 	protected boolean isSuccess(List<String> results) {
 		if (results.isEmpty()) {
@@ -50,6 +50,11 @@ public class GroovyMavenProjectScriptHandler extends GroovyProjectScriptHandler
 			"-DexcludeScope=provided -Dmaven.multiModuleProjectDirectory=" + distDirPath;
 	}
 
+	@Override
+	protected String getDependencyResolverKey() {
+		return mavenPath + "mvn dependency:copy-dependencies -DexcludeScope=provided";
+	}
+
 	@Override
 	protected boolean isSuccess(List<String> results) {
 		if (results.isEmpty()) {
@@ -37,9 +37,16 @@ import org.tmatesoft.svn.core.wc.SVNRevision;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.ngrinder.common.constant.ControllerConstants.PROP_CONTROLLER_DEPENDENCY_CACHE;
+import static org.ngrinder.common.constant.ControllerConstants.PROP_CONTROLLER_DEPENDENCY_CACHE_MAX_HOUR;
+import static org.ngrinder.common.util.AccessUtils.getSafe;
 import static org.ngrinder.common.util.CollectionUtils.newArrayList;
 import static org.ngrinder.common.util.LoggingUtils.format;
 import static org.ngrinder.script.model.FileType.DIR;
@@ -72,6 +79,14 @@ public abstract class GroovyProjectScriptHandler extends GroovyScriptHandler imp
 	 * */
 	protected abstract String getCopyDependenciesCommand(File distDir);
 
+	/**
+	 * Return the identifier of the tool which copies the dependencies. The cached dependencies are reused only when
+	 * both the build script and this identifier are not changed.
+	 *
+	 * @since 3.5.5
+	 */
+	protected abstract String getDependencyResolverKey();
+
 	/**
 	 * Check if copy dependencies is successful.
 	 *
@@ -159,10 +174,35 @@ public abstract class GroovyProjectScriptHandler extends GroovyScriptHandler imp
 	protected void prepareDistMore(PerfTest perfTest, User user, FileEntry script, File distDir,
 								   PropertiesWrapper properties, ProcessingResultPrintStream processingResult) {
 		String buildFilePathInSVN = PathUtils.join(getBasePath(script), getBuildScriptName());
-		String copyDependenciesCommand = getCopyDependenciesCommand(distDir);
-		processingResult.println("\nCopy dependencies by running '" + copyDependenciesCommand + "'");
+		String cacheKey = null;
+		DependencyCache dependencyCache = null;
+		if (properties.getPropertyBoolean(PROP_CONTROLLER_DEPENDENCY_CACHE)) {
+			dependencyCache = new DependencyCache(getConfig().getHome().getDependencyCacheDirectory());
+			cacheKey = dependencyCache.getKey(new File(distDir, getBuildScriptName()), getDependencyResolverKey());
+		}
 
-		boolean success = isSuccess(runNative(copyDependenciesCommand));
+		boolean success;
+		if (cacheKey == null) {
+			success = copyDependencies(distDir, processingResult);
+		} else {
+			File libDir = new File(distDir, LIB);
+			try (DependencyCache.Lock ignored = dependencyCache.lock(cacheKey)) {
+				if (dependencyCache.restore(cacheKey, libDir)) {
+					processingResult.println("\nCached dependencies are used.");
+					success = true;
+				} else {
+					Set<String> libFiles = new HashSet<>(asList(getSafe(libDir.list(), new String[0])));
+					success = copyDependencies(distDir, processingResult);
+					if (success) {
+						dependencyCache.store(cacheKey, libDir, libFiles);
+					}
+				}
+			} catch (IOException e) {
+				log.warn(format(perfTest, "Failed to lock the dependency cache. {}", e.getMessage()));
+				success = copyDependencies(distDir, processingResult);
+			}
+			dependencyCache.evict(HOURS.toMillis(properties.getPropertyLong(PROP_CONTROLLER_DEPENDENCY_CACHE_MAX_HOUR)));
+		}
 
 		if (success) {
 			processingResult.printf("\nDependencies in %s was copied.\n", buildFilePathInSVN);
@@ -176,6 +216,12 @@ public abstract class GroovyProjectScriptHandler extends GroovyScriptHandler imp
 		processingResult.setSuccess(success);
 	}
 
+	private boolean copyDependencies(File distDir, ProcessingResultPrintStream processingResult) {
+		String copyDependenciesCommand = getCopyDependenciesCommand(distDir);
+		processingResult.println("\nCopy dependencies by running '" + copyDependenciesCommand + "'");
+		return isSuccess(runNative(copyDependenciesCommand));
+	}
+
 	@Override
 	public List<FileEntry> getLibAndResourceEntries(User user, FileEntry scriptEntry, long revision) {
 		List<FileEntry> fileList = newArrayList();
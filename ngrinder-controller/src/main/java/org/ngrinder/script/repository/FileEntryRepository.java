@@ -484,6 +484,30 @@ public class FileEntryRepository {
 		}
 	}
 
+	/**
+	 * Get the last revision in which the given path or any file under it was changed.
+	 *
+	 * @param user user
+	 * @param path path in user repo
+	 * @return last changed revision. -1 if the path doesn't exist.
+	 * @since 3.5.5
+	 */
+	public long getLastChangedRevision(User user, String path) {
+		SVNClientManager svnClientManager = null;
+		try {
+			svnClientManager = getSVNClientManager();
+			SVNURL userRepoUrl = SVNURL.fromFile(getUserRepoDirectory(user));
+			SVNRepository repo = svnClientManager.createRepository(userRepoUrl, true);
+			SVNDirEntry dirEntry = repo.info(StringUtils.removeEnd(path, "/"), -1);
+			return dirEntry == null ? -1 : dirEntry.getRevision();
+		} catch (Exception e) {
+			LOG.error("Error while fetching the revision from SVN", e);
+			throw processException("Error while fetching the revision from SVN", e);
+		} finally {
+			closeSVNClientManagerQuietly(svnClientManager);
+		}
+	}
+
 	/**
 	 * Copy {@link FileEntry} to the given path.
 	 *
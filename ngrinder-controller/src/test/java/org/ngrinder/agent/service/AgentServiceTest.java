@@ -1,21 +1,40 @@
 package org.ngrinder.agent.service;
 
+import net.grinder.common.processidentity.AgentIdentity;
+import net.grinder.console.communication.AgentProcessControlImplementation.AgentStatus;
 import net.grinder.engine.controller.AgentControllerIdentityImplementation;
+import net.grinder.message.console.AgentControllerProcessReportMessage;
+import net.grinder.message.console.AgentControllerState;
+import net.grinder.messages.console.AgentAddress;
 import org.apache.commons.lang.StringUtils;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.ngrinder.AbstractNGrinderTransactionalTest;
+import org.ngrinder.agent.repository.AgentManagerRepository;
+import org.ngrinder.agent.store.AgentInfoStore;
+import org.ngrinder.common.util.PropertiesWrapper;
+import org.ngrinder.infra.config.Config;
 import org.ngrinder.infra.hazelcast.HazelcastService;
+import org.ngrinder.infra.hazelcast.topic.subscriber.TopicSubscriber;
 import org.ngrinder.model.AgentInfo;
 import org.ngrinder.model.User;
+import org.ngrinder.perftest.service.AgentManager;
+import org.ngrinder.region.model.RegionInfo;
+import org.ngrinder.region.service.RegionService;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.ngrinder.common.constant.CacheConstants.DIST_MAP_NAME_AGENT;
 import static org.ngrinder.common.constant.CacheConstants.DIST_MAP_NAME_RECENTLY_USED_AGENTS;
 import static org.ngrinder.common.util.CollectionUtils.newHashSet;
 
@@ -88,6 +107,82 @@ public class AgentServiceTest extends AbstractNGrinderTransactionalTest {
 		hazelcastService.delete(DIST_MAP_NAME_RECENTLY_USED_AGENTS, TEST_USER_ID);
 	}
 
+	/**
+	 * A status tick of hundreds agents should be reconciled by a single DB query and only the changed agents
+	 * should be written to the store.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void updateAgentStatusInBatchTest() throws Exception {
+		final int agentCount = 300;
+		AgentManagerRepository agentManagerRepository = mock(AgentManagerRepository.class);
+		HazelcastService mockHazelcastService = mock(HazelcastService.class);
+		AgentService service = createAgentServiceForUpdate(agentManagerRepository, mockHazelcastService);
+
+		List<AgentInfo> agentInfosInDB = new ArrayList<>();
+		Map<AgentIdentity, AgentStatus> agentMap = new LinkedHashMap<>();
+		for (int i = 0; i < agentCount; i++) {
+			AgentControllerIdentityImplementation identity = new AgentControllerIdentityImplementation("agent-" + i, "10.0.0." + (i % 100));
+			agentMap.put(identity, createAgentStatus(identity, AgentControllerState.READY));
+			if (i % 2 == 0) {
+				AgentInfo agentInfo = createAgentInfo(identity.getName());
+				agentInfo.setIp(identity.getIp());
+				agentInfo.setApproved(true);
+				agentInfosInDB.add(agentInfo);
+			}
+		}
+		when(agentManagerRepository.findAllByIpIn(anyCollection())).thenReturn(agentInfosInDB);
+
+		// The first tick stores all agents.
+		when(mockHazelcastService.getValuesAsList(DIST_MAP_NAME_AGENT)).thenReturn(new ArrayList<>());
+		service.update(agentMap);
+		ArgumentCaptor<Map> stored = ArgumentCaptor.forClass(Map.class);
+		verify(mockHazelcastService).putAll(eq(DIST_MAP_NAME_AGENT), stored.capture());
+		Map<String, AgentInfo> storedAgentInfos = stored.getValue();
+		assertThat(storedAgentInfos.size(), is(agentCount));
+		assertThat(storedAgentInfos.get("10.0.0.0_agent-0").getApproved(), is(true));
+		assertThat(storedAgentInfos.get("10.0.0.1_agent-1").getApproved(), is(false));
+
+		// The next tick without any change doesn't write anything.
+		when(mockHazelcastService.getValuesAsList(DIST_MAP_NAME_AGENT)).thenReturn(new ArrayList<>(storedAgentInfos.values()));
+		service.update(agentMap);
+		verify(mockHazelcastService, times(1)).putAll(anyString(), any());
+
+		// Only the changed agent is written.
+		AgentIdentity busyAgent = agentMap.keySet().iterator().next();
+		agentMap.put(busyAgent, createAgentStatus((AgentControllerIdentityImplementation) busyAgent, AgentControllerState.BUSY));
+		service.update(agentMap);
+		verify(mockHazelcastService, times(2)).putAll(eq(DIST_MAP_NAME_AGENT), stored.capture());
+		assertThat(stored.getValue().size(), is(1));
+
+		verify(agentManagerRepository, times(3)).findAllByIpIn(anyCollection());
+		verify(agentManagerRepository, never()).findByIpAndName(anyString(), anyString());
+		verify(mockHazelcastService, never()).put(eq(DIST_MAP_NAME_AGENT), any(), any());
+	}
+
+	private AgentService createAgentServiceForUpdate(AgentManagerRepository agentManagerRepository,
+													  HazelcastService mockHazelcastService) {
+		Config config = mock(Config.class);
+		PropertiesWrapper controllerProperties = mock(PropertiesWrapper.class);
+		when(config.getControllerProperties()).thenReturn(controllerProperties);
+		when(config.getRegion()).thenReturn("NONE");
+		RegionService regionService = mock(RegionService.class);
+		when(regionService.getOne("NONE")).thenReturn(new RegionInfo("NONE", new HashSet<>(), "127.0.0.1", 16001));
+		AgentManager agentManager = mock(AgentManager.class);
+		when(agentManager.getAgentVersion(any())).thenReturn("3.5.5");
+		return new AgentService(agentManager, agentManagerRepository, config, regionService, mockHazelcastService,
+			new TopicSubscriber(), new AgentInfoStore(mockHazelcastService), null, null);
+	}
+
+	private AgentStatus createAgentStatus(AgentControllerIdentityImplementation identity,
+										  AgentControllerState state) throws Exception {
+		AgentStatus agentStatus = new AgentStatus(identity);
+		AgentControllerProcessReportMessage message = new AgentControllerProcessReportMessage(state, null, 0, "3.5.5");
+		message.setAddress(new AgentAddress(identity));
+		agentStatus.setAgentProcessStatus(message);
+		return agentStatus;
+	}
+
 	private Set<AgentInfo> getRecentlyUsedAgents() {
 		Set<AgentInfo> cachedAgents = newHashSet();
 		cachedAgents.add(createAgentInfo("test-agent-1", "test-region"));
@@ -18,7 +18,9 @@ import org.ngrinder.agent.service.AgentService;
 import org.ngrinder.infra.config.Config;
 import org.ngrinder.infra.hazelcast.HazelcastService;
 import org.ngrinder.perftest.service.AgentManager;
+import org.ngrinder.perftest.service.PerfTestSampleStreamService;
 import org.ngrinder.perftest.service.PerfTestService;
+import org.ngrinder.perftest.service.ResultLogService;
 import org.ngrinder.perftest.service.TagService;
 import org.ngrinder.region.service.RegionService;
 import org.ngrinder.script.handler.ScriptHandlerFactory;
@@ -49,10 +51,12 @@ public class MockPerfTestApiController extends PerfTestApiController {
 
 	public MockPerfTestApiController(PerfTestService perfTestService, TagService tagService, AgentManager agentManager,
 									 RegionService regionService, AgentService agentService, FileEntryService fileEntryService,
-									 UserService userService, HazelcastService hazelcastService, ScriptHandlerFactory scriptHandlerFactory,
-									 UserContext userContext, Config config) {
+									 UserService userService, HazelcastService hazelcastService,
+									 PerfTestSampleStreamService perfTestSampleStreamService, ResultLogService resultLogService,
+									 ScriptHandlerFactory scriptHandlerFactory, UserContext userContext, Config config) {
 		super(perfTestService, tagService, agentManager, regionService, agentService, fileEntryService,
-			userService, hazelcastService, scriptHandlerFactory, userContext, config);
+			userService, hazelcastService, perfTestSampleStreamService, resultLogService, scriptHandlerFactory,
+			userContext, config);
 	}
 
 	@PostConstruct
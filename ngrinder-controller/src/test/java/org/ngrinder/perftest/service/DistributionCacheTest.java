@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ngrinder.common.model.Home;
+import org.ngrinder.common.util.PropertiesWrapper;
+import org.ngrinder.infra.config.Config;
+import org.ngrinder.infra.schedule.ScheduledTaskService;
+import org.ngrinder.model.User;
+import org.ngrinder.script.handler.ScriptHandler;
+import org.ngrinder.script.model.FileEntry;
+import org.ngrinder.script.repository.FileEntryRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import static net.grinder.util.FileUtils.getAllFilesInDirectory;
+import static net.grinder.util.FileUtils.getFilesDigest;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.ngrinder.common.constant.ControllerConstants.*;
+
+public class DistributionCacheTest {
+
+	private File homeDirectory;
+
+	private FileEntryRepository fileEntryRepository;
+
+	private PropertiesWrapper controllerProperties;
+
+	private DistributionCache distributionCache;
+
+	@Before
+	public void before() throws IOException {
+		homeDirectory = Files.createTempDirectory("home").toFile();
+		Config config = mock(Config.class);
+		controllerProperties = mock(PropertiesWrapper.class);
+		when(config.getHome()).thenReturn(new Home(homeDirectory));
+		when(config.getControllerProperties()).thenReturn(controllerProperties);
+		when(controllerProperties.getPropertyLong(PROP_CONTROLLER_DIST_CACHE_MAX_SIZE)).thenReturn(1024L * 1024);
+		when(controllerProperties.getPropertyLong(PROP_CONTROLLER_DIST_CACHE_MAX_HOUR)).thenReturn(24L);
+		fileEntryRepository = mock(FileEntryRepository.class);
+		distributionCache = new DistributionCache(config, fileEntryRepository, mock(ScheduledTaskService.class));
+	}
+
+	@After
+	public void after() {
+		FileUtils.deleteQuietly(homeDirectory);
+	}
+
+	@Test
+	public void testKeyIsChangedByRevision() {
+		User user = new User("user", "user", "password", null);
+		FileEntry scriptEntry = new FileEntry();
+		scriptEntry.setPath("project/test.groovy");
+		ScriptHandler handler = mock(ScriptHandler.class);
+		when(handler.getKey()).thenReturn("groovy");
+		when(handler.getBasePath("project/test.groovy")).thenReturn("project/");
+
+		assertThat(distributionCache.getKey(user, scriptEntry, handler), nullValue());
+
+		when(controllerProperties.getPropertyBoolean(PROP_CONTROLLER_DIST_CACHE)).thenReturn(true);
+		when(fileEntryRepository.getLastChangedRevision(user, "project/")).thenReturn(3L);
+		String key = distributionCache.getKey(user, scriptEntry, handler);
+		assertThat(key, notNullValue());
+		assertThat(distributionCache.getKey(user, scriptEntry, handler), is(key));
+
+		when(fileEntryRepository.getLastChangedRevision(user, "project/")).thenReturn(4L);
+		assertThat(distributionCache.getKey(user, scriptEntry, handler), not(key));
+	}
+
+	@Test
+	public void testStoreAndRestore() throws IOException {
+		File distDir = createDistribution("first", "hello");
+		Set<String> digests = getFilesDigest(distDir, getAllFilesInDirectory(distDir));
+
+		assertThat(distributionCache.restore("key", distDir), is(false));
+		distributionCache.store("key", distDir);
+		assertThat(distributionCache.takeDigests(distDir), is(digests));
+		assertThat(distributionCache.takeDigests(distDir), nullValue());
+
+		File restoredDir = new File(homeDirectory, "restored");
+		assertThat(distributionCache.restore("key", restoredDir), is(true));
+		assertThat(readFile(new File(restoredDir, "test.groovy")), is("hello"));
+		assertThat(readFile(new File(restoredDir, "lib/test.jar")), is("hello"));
+		// The digests are restored without hashing the files again.
+		assertThat(distributionCache.takeDigests(restoredDir), is(digests));
+
+		// The files which are already in the agent cache are deleted from the distribution.
+		FileUtils.forceDelete(new File(restoredDir, "lib/test.jar"));
+		File anotherDir = new File(homeDirectory, "another");
+		assertThat(distributionCache.restore("key", anotherDir), is(true));
+		assertThat(new File(anotherDir, "lib/test.jar").exists(), is(true));
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		distributionCache.store("old", createDistribution("old", "old"));
+		distributionCache.store("new", createDistribution("new", "new"));
+		File cacheDirectory = new File(homeDirectory, "dist_cache");
+		setLastUsedTime(new File(cacheDirectory, "old"), System.currentTimeMillis() - 20000);
+		setLastUsedTime(new File(cacheDirectory, "new"), System.currentTimeMillis() - 10000);
+
+		long entrySize = FileUtils.sizeOfDirectory(new File(cacheDirectory, "new"));
+		distributionCache.evict(entrySize, Long.MAX_VALUE);
+		assertThat(new File(cacheDirectory, "old").exists(), is(false));
+		assertThat(new File(cacheDirectory, "new").exists(), is(true));
+
+		distributionCache.evict(Long.MAX_VALUE, 5000);
+		assertThat(cacheDirectory.list(), emptyArray());
+	}
+
+	private File createDistribution(String name, String content) throws IOException {
+		File distDir = new File(homeDirectory, name);
+		FileUtils.write(new File(distDir, "test.groovy"), content, StandardCharsets.UTF_8);
+		FileUtils.write(new File(distDir, "lib/test.jar"), content, StandardCharsets.UTF_8);
+		return distDir;
+	}
+
+	private static void setLastUsedTime(File entry, long time) {
+		assertThat(new File(entry, DistributionCache.DIGEST).setLastModified(time), is(true));
+	}
+
+	private static String readFile(File file) throws IOException {
+		return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+	}
+}
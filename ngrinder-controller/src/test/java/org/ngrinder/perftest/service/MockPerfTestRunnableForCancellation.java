@@ -40,9 +40,11 @@ public class MockPerfTestRunnableForCancellation extends PerfTestRunnable {
 											   ConsoleManager consoleManager, PluginManager pluginManager,
 											   Config config, ScheduledTaskService scheduledTaskService,
 											   HazelcastService hazelcastService, AgentService agentService,
-											   WebhookService webhookService, WebhookConfigService webhookConfigService) {
+											   WebhookService webhookService, WebhookConfigService webhookConfigService,
+											   PerfTestSampleStreamService perfTestSampleStreamService) {
 		super(perfTestService, agentManager, consoleManager, pluginManager, config,
-			scheduledTaskService, hazelcastService, agentService, webhookService, webhookConfigService);
+			scheduledTaskService, hazelcastService, agentService, webhookService, webhookConfigService,
+			perfTestSampleStreamService);
 	}
 
 	@Override
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ngrinder.infra.hazelcast.HazelcastService;
+import org.ngrinder.infra.hazelcast.topic.message.TopicEvent;
+import org.ngrinder.infra.hazelcast.topic.subscriber.TopicSubscriber;
+import org.ngrinder.infra.schedule.ScheduledTaskService;
+import org.ngrinder.perftest.model.SamplingModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.ngrinder.common.constant.CacheConstants.*;
+import static org.ngrinder.common.util.JsonUtils.deserialize;
+
+public class PerfTestSampleStreamServiceTest {
+
+	private HazelcastService hazelcastService;
+
+	private ScheduledTaskService scheduledTaskService;
+
+	private PerfTestSampleStreamService perfTestSampleStreamService;
+
+	@Before
+	public void before() {
+		hazelcastService = mock(HazelcastService.class);
+		scheduledTaskService = mock(ScheduledTaskService.class);
+		perfTestSampleStreamService = new PerfTestSampleStreamService(hazelcastService, new TopicSubscriber(),
+			scheduledTaskService);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPublishSingleSerializedPayload() {
+		when(hazelcastService.get(DIST_MAP_NAME_MONITORING, 1L)).thenReturn("{\"127.0.0.1\":{\"cpu\":1}}");
+
+		perfTestSampleStreamService.publishSample(1L, new SamplingModel("{\"tps\":10}", "{}"));
+
+		ArgumentCaptor<TopicEvent> captor = ArgumentCaptor.forClass(TopicEvent.class);
+		verify(hazelcastService).publish(eq(SAMPLE_TOPIC_NAME), captor.capture());
+		TopicEvent<String> event = captor.getValue();
+		assertThat(event.getType(), is(SAMPLE_TOPIC_LISTENER_NAME));
+		assertThat(event.getKey(), is("1"));
+
+		Map<String, Object> payload = deserialize(event.getData(), HashMap.class);
+		assertThat(((Map<String, Object>) payload.get("perf")).get("tps"), is(10));
+		assertThat(payload.containsKey("agent"), is(true));
+		assertThat(payload.containsKey("monitor"), is(true));
+	}
+
+	@Test
+	public void testSubscription() {
+		perfTestSampleStreamService.subscribe(1L, false);
+		assertThat(perfTestSampleStreamService.getSubscriberCount(1L), is(0));
+
+		perfTestSampleStreamService.subscribe(1L, true);
+		perfTestSampleStreamService.subscribe(1L, true);
+		assertThat(perfTestSampleStreamService.getSubscriberCount(1L), is(2));
+
+		// The fan out runs only on the member which has subscribers.
+		perfTestSampleStreamService.execute(new TopicEvent<>(SAMPLE_TOPIC_LISTENER_NAME, "2", "{}"));
+		verify(scheduledTaskService, never()).runAsync(any());
+		perfTestSampleStreamService.execute(new TopicEvent<>(SAMPLE_TOPIC_LISTENER_NAME, "1", "{}"));
+		verify(scheduledTaskService, times(1)).runAsync(any());
+	}
+}
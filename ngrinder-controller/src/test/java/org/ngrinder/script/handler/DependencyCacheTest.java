@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.script.handler;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.singleton;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DependencyCacheTest {
+
+	private File directory;
+
+	private DependencyCache dependencyCache;
+
+	@Before
+	public void before() throws IOException {
+		directory = Files.createTempDirectory("dependency").toFile();
+		dependencyCache = new DependencyCache(new File(directory, "cache"));
+		FileUtils.forceMkdir(new File(directory, "cache"));
+	}
+
+	@After
+	public void after() {
+		FileUtils.deleteQuietly(directory);
+	}
+
+	@Test
+	public void testKey() throws IOException {
+		File buildScript = write("dist/pom.xml", "<version>1.0</version>");
+		String key = dependencyCache.getKey(buildScript, "mvn");
+		assertThat(key, notNullValue());
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), is(key));
+		assertThat(dependencyCache.getKey(buildScript, "/opt/maven/bin/mvn"), not(key));
+
+		write("dist/pom.xml", "<version>1.1</version>");
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), not(key));
+
+		write("dist/pom.xml", "<version>1.1-SNAPSHOT</version>");
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), nullValue());
+		write("dist/pom.xml", "<version>[1.0,2.0)</version>");
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), nullValue());
+		write("dist/pom.xml", "<version>RELEASE</version>");
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), nullValue());
+		write("dist/pom.xml", "<version>5.2.0.RELEASE</version>");
+		assertThat(dependencyCache.getKey(buildScript, "mvn"), notNullValue());
+		assertThat(dependencyCache.getKey(new File(directory, "none.xml"), "mvn"), nullValue());
+	}
+
+	@Test
+	public void testGradleKey() throws IOException {
+		File buildScript = write("dist/build.gradle", "dependencies { implementation 'org.ngrinder:lib:1.0' }");
+		String key = dependencyCache.getKey(buildScript, "gradle");
+		assertThat(key, notNullValue());
+
+		// The settings and the properties beside the build script can change the dependencies.
+		write("dist/gradle.properties", "libVersion=1.0");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), not(key));
+		String withProperties = dependencyCache.getKey(buildScript, "gradle");
+		write("dist/settings.gradle", "rootProject.name = 'test'");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), not(withProperties));
+		write("dist/gradle.properties", "libVersion=1.+");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), nullValue());
+		write("dist/gradle.properties", "libVersion=1.0");
+
+		write("dist/build.gradle", "dependencies { implementation 'org.ngrinder:lib:1.+' }");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), nullValue());
+		write("dist/build.gradle", "dependencies { implementation \"org.ngrinder:lib:+\" }");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), nullValue());
+		write("dist/build.gradle", "dependencies { implementation 'org.ngrinder:lib:[1.0,2.0)' }");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), nullValue());
+		write("dist/build.gradle", "dependencies { implementation group: 'org.ngrinder', name: 'lib', version: '1.0' }");
+		assertThat(dependencyCache.getKey(buildScript, "gradle"), notNullValue());
+	}
+
+	@Test
+	public void testStoreAndRestore() throws IOException {
+		File libDir = new File(directory, "first/lib");
+		write("first/lib/private.jar", "private");
+		write("first/lib/dependency.jar", "dependency");
+
+		assertThat(dependencyCache.restore("key", libDir), is(false));
+		dependencyCache.store("key", libDir, singleton("private.jar"));
+
+		File anotherLibDir = new File(directory, "second/lib");
+		write("second/lib/dependency.jar", "old");
+		assertThat(dependencyCache.restore("key", anotherLibDir), is(true));
+		// The private libraries of the project are not cached.
+		assertThat(anotherLibDir.list().length, is(1));
+		assertThat(read(new File(anotherLibDir, "dependency.jar")), is("dependency"));
+	}
+
+	@Test
+	public void testLockSerializesPreparations() throws Exception {
+		CountDownLatch locked = new CountDownLatch(1);
+		AtomicBoolean restored = new AtomicBoolean();
+		File libDir = new File(directory, "first/lib");
+		write("first/lib/dependency.jar", "dependency");
+
+		Thread other;
+		try (DependencyCache.Lock ignored = dependencyCache.lock("key")) {
+			other = new Thread(() -> {
+				locked.countDown();
+				try (DependencyCache.Lock ignored2 = dependencyCache.lock("key")) {
+					restored.set(dependencyCache.restore("key", new File(directory, "second/lib")));
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			other.start();
+			assertThat(locked.await(10, TimeUnit.SECONDS), is(true));
+			Thread.sleep(100);
+			dependencyCache.store("key", libDir, singleton("none"));
+		}
+		other.join(TimeUnit.SECONDS.toMillis(10));
+		assertThat(restored.get(), is(true));
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+		File libDir = new File(directory, "first/lib");
+		write("first/lib/dependency.jar", "dependency");
+		dependencyCache.store("old", libDir, singleton("none"));
+		dependencyCache.store("new", libDir, singleton("none"));
+		File oldEntry = new File(directory, "cache/old");
+		assertThat(oldEntry.setLastModified(System.currentTimeMillis() - 20000), is(true));
+
+		dependencyCache.evict(10000);
+		assertThat(oldEntry.exists(), is(false));
+		assertThat(new File(directory, "cache/new").exists(), is(true));
+	}
+
+	@Test
+	public void testEvictionDeletesLockFile() throws IOException {
+		File libDir = new File(directory, "first/lib");
+		write("first/lib/dependency.jar", "dependency");
+		try (DependencyCache.Lock ignored = dependencyCache.lock("old")) {
+			dependencyCache.store("old", libDir, singleton("none"));
+		}
+		try (DependencyCache.Lock ignored = dependencyCache.lock("never")) {
+			// The dependencies may fail to be resolved.
+		}
+		File oldLock = new File(directory, "cache/old.lock");
+		File neverLock = new File(directory, "cache/never.lock");
+		assertThat(oldLock.exists(), is(true));
+		assertThat(new File(directory, "cache/old").setLastModified(System.currentTimeMillis() - 20000), is(true));
+		assertThat(oldLock.setLastModified(System.currentTimeMillis() - 20000), is(true));
+		assertThat(neverLock.setLastModified(System.currentTimeMillis() - 20000), is(true));
+
+		dependencyCache.evict(10000);
+		assertThat(oldLock.exists(), is(false));
+		assertThat(neverLock.exists(), is(false));
+
+		// The key can be locked again after its lock file is deleted.
+		try (DependencyCache.Lock ignored = dependencyCache.lock("old")) {
+			assertThat(oldLock.exists(), is(true));
+		}
+	}
+
+	private File write(String path, String content) throws IOException {
+		File file = new File(directory, path);
+		FileUtils.write(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private static String read(File file) throws IOException {
+		return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+	}
+}
@@ -35,6 +35,7 @@ import org.ngrinder.infra.AgentConfig;
 import org.ngrinder.monitor.collector.SystemDataCollector;
 import org.ngrinder.monitor.controller.model.SystemDataModel;
 import org.ngrinder.monitor.share.domain.SystemInfo;
+import org.ngrinder.statistics.ResultLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -316,6 +317,12 @@ public class AgentController implements Agent, AgentConstants {
 		if (!agentConfig.getAgentProperties().getPropertyBoolean(PROP_AGENT_ALL_LOGS)) {
 			logFiles = new File[]{logFiles[0]};
 		}
+		// The result logs of all workers are always sent to build the result views.
+		File[] resultLogFiles = logFolder.listFiles((dir, name) -> (name.endsWith(ResultLog.FILE_SUFFIX)));
+		if (resultLogFiles != null && resultLogFiles.length > 0) {
+			Arrays.sort(resultLogFiles);
+			logFiles = (File[]) ArrayUtils.addAll(logFiles, resultLogFiles);
+		}
 		final byte[] compressedLog = LogCompressUtils.compress(logFiles,
 				Charset.defaultCharset(), StandardCharsets.UTF_8
 		);
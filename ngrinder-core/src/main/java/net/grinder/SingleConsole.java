@@ -51,7 +51,12 @@ import org.ngrinder.common.exception.NGrinderRuntimeException;
 import org.ngrinder.common.util.DateUtils;
 import org.ngrinder.common.util.ReflectionUtils;
 import org.ngrinder.common.util.ThreadUtils;
+import org.ngrinder.perftest.report.ReportDataStore;
+import org.ngrinder.perftest.report.ReportDataWriter;
 import org.ngrinder.service.AbstractSingleConsole;
+import org.ngrinder.statistics.ArrivalStatistics;
+import org.ngrinder.statistics.LatencyHistogram;
+import org.ngrinder.statistics.VuserStatistics;
 import org.python.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +64,9 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.*;
 import java.util.Map.Entry;
@@ -88,6 +96,7 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 	public static final Resources RESOURCE = new ResourcesImplementation(RESOURCE_CONSOLE);
 	public static final Logger LOGGER = LoggerFactory.getLogger("console");
 	public static final String REPORT_DATA = ".data";
+	public static final String REPORT_DATA_STORE = ReportDataStore.REPORT_DATA_STORE;
 	private static final String REPORT_CSV = "output.csv";
 	private static final int NUM_OF_SEND_FILE_DIGEST_THREAD = 3;
 
@@ -119,7 +128,8 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 	private boolean headerAdded = false;
 	private GrinderProperties properties;
 
-	private final Map<String, BufferedWriter> fileWriterMap = newHashMap();
+	private BufferedWriter csvWriter;
+	private ReportDataWriter reportDataWriter;
 	/**
 	 * the count of current sampling.
 	 */
@@ -144,6 +154,37 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 
 	private final Map<Test, StatisticsSet> intervalStatisticMapPerTest = synchronizedMap(new LinkedHashMap<>());
 	private final Map<Test, StatisticsSet> accumulatedStatisticMapPerTest = synchronizedMap(new LinkedHashMap<>());
+
+	/**
+	 * Test time percentiles which are calculated from the test time histograms. Statistic key and percentile pair.
+	 */
+	public static final Map<String, Double> TEST_TIME_PERCENTILES;
+
+	static {
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		percentiles.put("Test_Time_P50_(ms)", 50D);
+		percentiles.put("Test_Time_P90_(ms)", 90D);
+		percentiles.put("Test_Time_P95_(ms)", 95D);
+		percentiles.put("Test_Time_P99_(ms)", 99D);
+		percentiles.put("Test_Time_P99.9_(ms)", 99.9D);
+		TEST_TIME_PERCENTILES = Collections.unmodifiableMap(percentiles);
+	}
+
+	private Map<Integer, LatencyHistogram> intervalLatencyHistograms = Collections.emptyMap();
+	private Map<Integer, LatencyHistogram> accumulatedLatencyHistograms = Collections.emptyMap();
+	private LatencyHistogram intervalLatencyHistogram = new LatencyHistogram();
+	private LatencyHistogram accumulatedLatencyHistogram = new LatencyHistogram();
+
+	/**
+	 * Run start counts of the open model. null when the test runs the closed model.
+	 */
+	private ArrivalStatistics intervalArrivalStatistics;
+	private ArrivalStatistics accumulatedArrivalStatistics;
+
+	/**
+	 * Planned and active vuser counts of the vuser ramp. null when no worker runs the vuser ramp.
+	 */
+	private VuserStatistics vuserStatistics;
     /**
      * cvs file Separator value.
      */
@@ -231,10 +272,7 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 			throw processException("Exception occurred while shutting down console", e);
 		} finally {
 			// close all report file
-			for (BufferedWriter bw : fileWriterMap.values()) {
-				IOUtils.closeQuietly(bw);
-			}
-			fileWriterMap.clear();
+			closeReportWriters();
 		}
 	}
 
@@ -616,6 +654,10 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 			long currentPeriod = cumulativeStatistics.getValue(getSampleModel().getPeriodIndex());
 			setTpsValue(sampleModel.getTPSExpression().getDoubleValue(intervalStatistics));
 			checkTooLowTps(getTpsValues());
+			updateLatencyHistograms();
+			this.intervalArrivalStatistics = getSampleModel().getIntervalArrivalStatistics();
+			this.accumulatedArrivalStatistics = getSampleModel().getCumulativeArrivalStatistics();
+			this.vuserStatistics = getSampleModel().getVuserStatistics();
 			updateStatistics(intervalStatistics, cumulativeStatistics);
 
 			writeIntervalCsvData(intervalStatistics);
@@ -652,6 +694,35 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 		}
 	}
 
+	/**
+	 * Take the test time histograms which the sample model merged during the last interval. The workers send
+	 * the histograms per report interval so that the console only merges the histograms without touching
+	 * each sample.
+	 */
+	private void updateLatencyHistograms() {
+		Map<Integer, LatencyHistogram> interval = getSampleModel().getIntervalLatencyHistograms();
+		Map<Integer, LatencyHistogram> accumulated = getSampleModel().getCumulativeLatencyHistograms();
+		this.intervalLatencyHistograms = interval == null ? Collections.emptyMap() : interval;
+		this.accumulatedLatencyHistograms = accumulated == null ? Collections.emptyMap() : accumulated;
+		this.intervalLatencyHistogram = mergeLatencyHistograms(this.intervalLatencyHistograms.values());
+		this.accumulatedLatencyHistogram = mergeLatencyHistograms(this.accumulatedLatencyHistograms.values());
+	}
+
+	private static LatencyHistogram mergeLatencyHistograms(Collection<LatencyHistogram> histograms) {
+		LatencyHistogram merged = new LatencyHistogram();
+		for (LatencyHistogram each : histograms) {
+			merged.add(each);
+		}
+		return merged;
+	}
+
+	private static void putTestTimePercentiles(Map<String, Object> statistics, LatencyHistogram histogram) {
+		for (Entry<String, Double> each : TEST_TIME_PERCENTILES.entrySet()) {
+			statistics.put(each.getKey(), histogram == null || histogram.getTotalCount() == 0 ? 0L
+					: histogram.getValueAtPercentile(each.getValue()));
+		}
+	}
+
 	/**
 	 * Write the interval summary data per each test. This is activated only
 	 * when there are more than 1 registed test.
@@ -665,14 +736,13 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 			for (Entry<String, StatisticExpression> each : getExpressionEntrySet()) {
 				if (isPerfTestInterestingStatistics(each.getKey())) {
 					for (Entry<Test, StatisticsSet> entry : intervalStatisticMapPerTest.entrySet()) {
+						String key = each.getKey() + "-" + entry.getKey().getNumber() + "_"
+								+ entry.getKey().getDescription().replaceAll("\\s+", "_");
 						if (lastCall) {
 							StatisticsSet value = entry.getValue();
-							writeReportData(each.getKey() + "-" + entry.getKey().getNumber() + "_"
-									+ entry.getKey().getDescription().replaceAll("\\s+", "_") + REPORT_DATA,
-									formatValue(getRealDoubleValue(each.getValue().getDoubleValue(value))));
+							writeReportData(key, getRealDoubleValue(each.getValue().getDoubleValue(value)));
 						} else {
-							writeReportData(each.getKey() + "-" + entry.getKey().getNumber() + "_"
-									+ entry.getKey().getDescription().replaceAll("\\s+", "_") + REPORT_DATA, "null");
+							writeReportData(key, null);
 						}
 
 					}
@@ -692,12 +762,27 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 		for (Entry<String, StatisticExpression> each : getExpressionEntrySet()) {
 			if (firstCall) {
 				double doubleValue = each.getValue().getDoubleValue(intervalStatistics);
-				writeReportData(each.getKey() + REPORT_DATA, formatValue(getRealDoubleValue(doubleValue)));
+				writeReportData(each.getKey(), getRealDoubleValue(doubleValue));
 			} else {
-				writeReportData(each.getKey() + REPORT_DATA, "null");
+				writeReportData(each.getKey(), null);
 			}
 		}
-		writeReportData("Vuser" + REPORT_DATA, formatValue(runningThread));
+		for (Entry<String, Double> each : TEST_TIME_PERCENTILES.entrySet()) {
+			if (firstCall && intervalLatencyHistogram.getTotalCount() != 0) {
+				writeReportData(each.getKey(), intervalLatencyHistogram.getValueAtPercentile(each.getValue()));
+			} else {
+				writeReportData(each.getKey(), null);
+			}
+		}
+		if (intervalArrivalStatistics != null) {
+			writeReportData("Late_Starts", firstCall ? intervalArrivalStatistics.getLateStarts() : null);
+			writeReportData("Dropped_Starts", firstCall ? intervalArrivalStatistics.getDroppedStarts() : null);
+		}
+		writeReportData("Vuser", runningThread);
+		if (vuserStatistics != null) {
+			writeReportData("Planned_Vuser", vuserStatistics.getPlanned());
+			writeReportData("Ramp_Deviation", vuserStatistics.getDeviation());
+		}
 	}
 
 	/**
@@ -830,6 +915,8 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 							getRealDoubleValue(each.getValue().getDoubleValue(intervalSet)));
 				}
 			}
+			putTestTimePercentiles(accumulatedStatisticMap, accumulatedLatencyHistograms.get(test.getNumber()));
+			putTestTimePercentiles(intervalStatisticsMap, intervalLatencyHistograms.get(test.getNumber()));
 			cumulativeStatistics.add(accumulatedStatisticMap);
 			lastSampleStatistics.add(intervalStatisticsMap);
 		}
@@ -842,6 +929,11 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 						getRealDoubleValue(each.getValue().getDoubleValue(accumulatedStatistics)));
 			}
 		}
+		putTestTimePercentiles(totalStatistics, accumulatedLatencyHistogram);
+		if (accumulatedArrivalStatistics != null) {
+			totalStatistics.put("Late_Starts", accumulatedArrivalStatistics.getLateStarts());
+			totalStatistics.put("Dropped_Starts", accumulatedArrivalStatistics.getDroppedStarts());
+		}
 
 		result.put("totalStatistics", totalStatistics);
 		result.put("cumulativeStatistics", cumulativeStatistics);
@@ -1040,24 +1132,51 @@ public class SingleConsole extends AbstractSingleConsole implements Listener, Sa
 		}
 	}
 
-	private void writeReportData(String name, String value) {
+	/**
+	 * Append the value to the report data store. The value is rounded in the same way with the csv report.
+	 *
+	 * @param key   statistic key
+	 * @param value value. null is recorded as a null row.
+	 */
+	private void writeReportData(String key, Object value) {
 		try {
-			BufferedWriter bw = fileWriterMap.get(name);
-			if (bw == null) {
-				bw = new BufferedWriter(new FileWriter(new File(this.reportPath, name), true));
-				fileWriterMap.put(name, bw);
+			if (reportDataWriter == null) {
+				int samplingInterval = sampleModel == null ? 0 : getSampleModel().getSampleInterval();
+				reportDataWriter = new ReportDataWriter(new File(this.reportPath, REPORT_DATA_STORE), samplingInterval);
 			}
-			bw.write(value);
-			bw.newLine();
-			bw.flush();
+			reportDataWriter.append(key, value == null ? null : BigDecimal.valueOf(((Number) value).doubleValue())
+					.setScale(3, RoundingMode.HALF_EVEN).floatValue());
 		} catch (Exception e) {
-			LOGGER.error("Error while writing report data to {}", name , e);
+			LOGGER.error("Error while writing report data of {}", key, e);
 			throw processException(e);
 		}
 	}
 
 	private void writeCSVDataLine(String line) {
-		writeReportData(REPORT_CSV, line);
+		try {
+			if (csvWriter == null) {
+				csvWriter = new BufferedWriter(new FileWriter(new File(this.reportPath, REPORT_CSV), true));
+			}
+			csvWriter.write(line);
+			csvWriter.newLine();
+			csvWriter.flush();
+		} catch (Exception e) {
+			LOGGER.error("Error while writing report data to {}", REPORT_CSV, e);
+			throw processException(e);
+		}
+	}
+
+	private void closeReportWriters() {
+		IOUtils.closeQuietly(csvWriter);
+		csvWriter = null;
+		if (reportDataWriter != null) {
+			try {
+				reportDataWriter.close();
+			} catch (IOException e) {
+				LOGGER.error("Error while closing the report data store in {}", reportPath, e);
+			}
+			reportDataWriter = null;
+		}
 	}
 
 	private String formatValue(Object val) {
@@ -34,7 +34,10 @@ import net.grinder.engine.communication.DistFilesDigestMessage;
 import net.grinder.engine.console.ErrorHandlerImplementation;
 import net.grinder.messages.console.RegisterExpressionViewMessage;
 import net.grinder.messages.console.RegisterTestsMessage;
+import net.grinder.messages.console.ReportArrivalStatisticsMessage;
+import net.grinder.messages.console.ReportLatencyHistogramMessage;
 import net.grinder.messages.console.ReportStatisticsMessage;
+import net.grinder.messages.console.ReportVuserStatisticsMessage;
 import net.grinder.statistics.StatisticsServicesImplementation;
 import net.grinder.util.ListenerSupport;
 import net.grinder.util.StandardTimeAuthority;
@@ -205,7 +208,7 @@ public class ConsoleFoundationEx {
 		 * @param sampleModelViews	Console sample model views
 		 * @param dispatchClientCommands	Client command dispatcher.
 		 */
-		public WireMessageDispatch(ConsoleCommunication communication, final SampleModel model,
+		public WireMessageDispatch(ConsoleCommunication communication, final SampleModelImplementationEx model,
 						final SampleModelViews sampleModelViews,DispatchClientCommands dispatchClientCommands,
 								   ListenerSupport<AcceptDistFilesDigestListener> distFilesDigestAcceptListener) {
 
@@ -223,6 +226,24 @@ public class ConsoleFoundationEx {
 				}
 			});
 
+			messageDispatchRegistry.set(ReportLatencyHistogramMessage.class, new AbstractHandler<ReportLatencyHistogramMessage>() {
+				public void handle(ReportLatencyHistogramMessage message) {
+					model.addLatencyReport(message.getHistograms());
+				}
+			});
+
+			messageDispatchRegistry.set(ReportArrivalStatisticsMessage.class, new AbstractHandler<ReportArrivalStatisticsMessage>() {
+				public void handle(ReportArrivalStatisticsMessage message) {
+					model.addArrivalReport(message.getStatistics());
+				}
+			});
+
+			messageDispatchRegistry.set(ReportVuserStatisticsMessage.class, new AbstractHandler<ReportVuserStatisticsMessage>() {
+				public void handle(ReportVuserStatisticsMessage message) {
+					model.setVuserReport(message.getWorkerIdentity(), message.getStatistics());
+				}
+			});
+
 			messageDispatchRegistry.set(RegisterExpressionViewMessage.class, new AbstractHandler<RegisterExpressionViewMessage>() {
 				public void handle(RegisterExpressionViewMessage message) {
 					sampleModelViews.registerStatisticExpression(message.getExpressionView());
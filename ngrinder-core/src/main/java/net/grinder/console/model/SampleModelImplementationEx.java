@@ -22,10 +22,14 @@ package net.grinder.console.model;
 
 import net.grinder.common.GrinderException;
 import net.grinder.common.Test;
+import net.grinder.common.processidentity.WorkerIdentity;
 import net.grinder.console.common.ErrorHandler;
 import net.grinder.console.common.Resources;
 import net.grinder.statistics.*;
 import net.grinder.util.ListenerSupport;
+import org.ngrinder.statistics.ArrivalStatistics;
+import org.ngrinder.statistics.LatencyHistogram;
+import org.ngrinder.statistics.VuserStatistics;
 
 import java.util.*;
 
@@ -77,6 +81,32 @@ public class SampleModelImplementationEx implements SampleModel {
 	private final Map<Test, SampleAccumulator> m_accumulators = Collections
 					.synchronizedMap(new HashMap<Test, SampleAccumulator>());
 
+	/**
+	 * Test time histograms of the current interval and the whole capturing period per test number.
+	 * Guarded by {@link #m_accumulators}.
+	 */
+	private final Map<Integer, LatencyHistogram> m_intervalLatencyHistograms = new HashMap<Integer, LatencyHistogram>();
+	private final Map<Integer, LatencyHistogram> m_cumulativeLatencyHistograms = new HashMap<Integer, LatencyHistogram>();
+
+	/**
+	 * Test time histograms of the last fired sample.
+	 */
+	private volatile Map<Integer, LatencyHistogram> m_lastIntervalLatencyHistograms = Collections.emptyMap();
+
+	/**
+	 * Run start counts of the open model. They are null until the first open model report arrives.
+	 * Guarded by {@link #m_accumulators}.
+	 */
+	private ArrivalStatistics m_intervalArrivalStatistics;
+	private ArrivalStatistics m_cumulativeArrivalStatistics;
+	private volatile ArrivalStatistics m_lastIntervalArrivalStatistics;
+
+	/**
+	 * The last vuser counts of each worker process running the vuser ramp.
+	 */
+	private final Map<WorkerIdentity, VuserStatistics> m_vuserStatistics = Collections
+					.synchronizedMap(new HashMap<WorkerIdentity, VuserStatistics>());
+
 	// Guarded by this.
 	private InternalState m_state;
 
@@ -245,6 +275,8 @@ public class SampleModelImplementationEx implements SampleModel {
 
 		m_accumulators.clear();
 		m_totalSampleAccumulator.zero();
+		zeroHistogramsAndArrivals();
+		m_vuserStatistics.clear();
 
 		m_listeners.apply(new ListenerSupport.Informer<Listener>() {
 			public void inform(Listener l) {
@@ -277,6 +309,129 @@ public class SampleModelImplementationEx implements SampleModel {
 		getInternalState().newTestReport(testStatisticsMap);
 	}
 
+	/**
+	 * Add the test time histograms reported from a worker process.
+	 *
+	 * @param histograms test number and histogram map
+	 * @since 3.5.5
+	 */
+	public void addLatencyReport(Map<Integer, LatencyHistogram> histograms) {
+		getInternalState().newLatencyReport(histograms);
+	}
+
+	/**
+	 * Get the test time histograms merged during the last sampling interval.
+	 *
+	 * @return test number and histogram map. It should not be modified.
+	 * @since 3.5.5
+	 */
+	public Map<Integer, LatencyHistogram> getIntervalLatencyHistograms() {
+		return m_lastIntervalLatencyHistograms;
+	}
+
+	/**
+	 * Get the copy of the test time histograms merged since the capturing started.
+	 *
+	 * @return test number and histogram map
+	 * @since 3.5.5
+	 */
+	public Map<Integer, LatencyHistogram> getCumulativeLatencyHistograms() {
+		synchronized (m_accumulators) {
+			return copyOf(m_cumulativeLatencyHistograms);
+		}
+	}
+
+	private static Map<Integer, LatencyHistogram> copyOf(Map<Integer, LatencyHistogram> histograms) {
+		Map<Integer, LatencyHistogram> copy = new HashMap<Integer, LatencyHistogram>();
+		for (Map.Entry<Integer, LatencyHistogram> each : histograms.entrySet()) {
+			copy.put(each.getKey(), each.getValue().copy());
+		}
+		return copy;
+	}
+
+	private static void merge(Map<Integer, LatencyHistogram> target, Integer testNumber, LatencyHistogram histogram) {
+		LatencyHistogram merged = target.get(testNumber);
+		if (merged == null) {
+			target.put(testNumber, histogram.copy());
+		} else {
+			merged.add(histogram);
+		}
+	}
+
+	private void zeroHistogramsAndArrivals() {
+		synchronized (m_accumulators) {
+			m_intervalLatencyHistograms.clear();
+			m_cumulativeLatencyHistograms.clear();
+			m_intervalArrivalStatistics = null;
+			m_cumulativeArrivalStatistics = null;
+		}
+		m_lastIntervalLatencyHistograms = Collections.emptyMap();
+		m_lastIntervalArrivalStatistics = null;
+	}
+
+	/**
+	 * Add the run start counts reported from a worker process running the open model.
+	 *
+	 * @param statistics run start counts
+	 * @since 3.5.5
+	 */
+	public void addArrivalReport(ArrivalStatistics statistics) {
+		getInternalState().newArrivalReport(statistics);
+	}
+
+	/**
+	 * Get the run start counts of the last sampling interval.
+	 *
+	 * @return run start counts. null if no worker runs the open model.
+	 * @since 3.5.5
+	 */
+	public ArrivalStatistics getIntervalArrivalStatistics() {
+		return m_lastIntervalArrivalStatistics;
+	}
+
+	/**
+	 * Get the run start counts since the capturing started.
+	 *
+	 * @return run start counts. null if no worker runs the open model.
+	 * @since 3.5.5
+	 */
+	public ArrivalStatistics getCumulativeArrivalStatistics() {
+		synchronized (m_accumulators) {
+			return m_cumulativeArrivalStatistics == null ? null : m_cumulativeArrivalStatistics.copy();
+		}
+	}
+
+	/**
+	 * Set the current vuser counts of a worker process running the vuser ramp. They're kept in every state
+	 * because they're not the counts of an interval.
+	 *
+	 * @param workerIdentity identity of the worker process
+	 * @param statistics     planned and active vuser counts
+	 * @since 3.5.5
+	 */
+	public void setVuserReport(WorkerIdentity workerIdentity, VuserStatistics statistics) {
+		m_vuserStatistics.put(workerIdentity, statistics);
+	}
+
+	/**
+	 * Get the sum of the last vuser counts of the worker processes.
+	 *
+	 * @return vuser counts. null if no worker runs the vuser ramp.
+	 * @since 3.5.5
+	 */
+	public VuserStatistics getVuserStatistics() {
+		synchronized (m_vuserStatistics) {
+			if (m_vuserStatistics.isEmpty()) {
+				return null;
+			}
+			VuserStatistics sum = new VuserStatistics();
+			for (VuserStatistics each : m_vuserStatistics.values()) {
+				sum.add(each);
+			}
+			return sum;
+		}
+	}
+
 	/**
 	 * Get the current model state.
 	 * 
@@ -296,6 +451,7 @@ public class SampleModelImplementationEx implements SampleModel {
 			}
 		}
 		m_totalSampleAccumulator.zero();
+		zeroHistogramsAndArrivals();
 	}
 
 	private InternalState getInternalState() {
@@ -324,6 +480,10 @@ public class SampleModelImplementationEx implements SampleModel {
 		void stop();
 
 		void newTestReport(TestStatisticsMap testStatisticsMap);
+
+		void newLatencyReport(Map<Integer, LatencyHistogram> histograms);
+
+		void newArrivalReport(ArrivalStatistics statistics);
 	}
 
 	private abstract class AbstractInternalState implements InternalState, State {
@@ -346,6 +506,14 @@ public class SampleModelImplementationEx implements SampleModel {
 			// Valid transition for all states.
 			setInternalState(new StoppedState());
 		}
+
+		public void newLatencyReport(Map<Integer, LatencyHistogram> histograms) {
+			// Only the sampling states collect the histograms.
+		}
+
+		public void newArrivalReport(ArrivalStatistics statistics) {
+			// Only the sampling states collect the run start counts.
+		}
 	}
 
 	private final class WaitingForTriggerState extends AbstractInternalState {
@@ -429,6 +597,32 @@ public class SampleModelImplementationEx implements SampleModel {
 			}).iterate();
 		}
 
+		@Override
+		public void newLatencyReport(Map<Integer, LatencyHistogram> histograms) {
+			synchronized (m_accumulators) {
+				for (Map.Entry<Integer, LatencyHistogram> each : histograms.entrySet()) {
+					merge(m_intervalLatencyHistograms, each.getKey(), each.getValue());
+					if (shouldAccumulateSamples()) {
+						merge(m_cumulativeLatencyHistograms, each.getKey(), each.getValue());
+					}
+				}
+			}
+		}
+
+		@Override
+		public void newArrivalReport(ArrivalStatistics statistics) {
+			synchronized (m_accumulators) {
+				if (m_intervalArrivalStatistics == null) {
+					m_intervalArrivalStatistics = new ArrivalStatistics();
+					m_cumulativeArrivalStatistics = new ArrivalStatistics();
+				}
+				m_intervalArrivalStatistics.add(statistics);
+				if (shouldAccumulateSamples()) {
+					m_cumulativeArrivalStatistics.add(statistics);
+				}
+			}
+		}
+
 		protected void schedule() {
 			synchronized (this) {
 				if (mlastTime == 0) {
@@ -463,6 +657,13 @@ public class SampleModelImplementationEx implements SampleModel {
 					}
 					totalSampleAccumulatorSnapshot = new SampleAccumulatorEx(m_totalSampleAccumulator);
 					m_totalSampleAccumulator.refreshIntervalStatistics(sampleInterval, period);
+					m_lastIntervalLatencyHistograms = Collections.unmodifiableMap(
+									new HashMap<Integer, LatencyHistogram>(m_intervalLatencyHistograms));
+					m_intervalLatencyHistograms.clear();
+					if (m_intervalArrivalStatistics != null) {
+						m_lastIntervalArrivalStatistics = m_intervalArrivalStatistics;
+						m_intervalArrivalStatistics = new ArrivalStatistics();
+					}
 				}
 				totalSampleAccumulatorSnapshot.fireSample(sampleInterval, period);
 				++msampleCount;
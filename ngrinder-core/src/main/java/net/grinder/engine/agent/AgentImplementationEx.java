@@ -52,6 +52,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 import static net.grinder.util.FileUtils.*;
@@ -77,6 +78,8 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 	private FanOutStreamSender m_fanOutStreamSender;
 	private final ConnectorFactory m_connectorFactory = new ConnectorFactory(ConnectionType.AGENT);
 	private WorkerLauncher m_workerLauncherForShutdown = null;
+	private WorkerProcessPool m_workerProcessPool;
+	private WorkerClassDataSharing m_workerClassDataSharing;
 	/**
 	 * We use an most one file store throughout an agent's life, but can't Initialize it until we've
 	 * read the properties and connected to the console.
@@ -132,6 +135,7 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 		ConsoleCommunication consoleCommunication = null;
 		m_fanOutStreamSender = new FanOutStreamSender(GrinderConstants.AGENT_FANOUT_STREAM_THREAD_COUNT);
 		m_timer = new Timer(false);
+		createWorkerProcessPool();
 		final int connectionPort = grinderProperties.getInt(GrinderProperties.CONSOLE_PORT, 0);
 		try {
 			while (true) {
@@ -246,8 +250,15 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 
 						m_logger.info("Worker process command line: {}", workerCommandLine);
 						FileUtils.writeStringToFile(logFile, workerCommandLine.toString() + "\n\n");
-						workerFactory = new ProcessWorkerFactory(workerCommandLine, m_agentIdentity,
-								m_fanOutStreamSender, consoleCommunication != null, script, properties);
+						if (m_workerProcessPool != null) {
+							workerFactory = new PooledProcessWorkerFactory(workerCommandLine, m_workerProcessPool,
+									m_workerClassDataSharing, m_agentIdentity, m_fanOutStreamSender,
+									consoleCommunication != null, script, properties);
+							m_logger.info("Pooled worker process command line: {}", workerFactory);
+						} else {
+							workerFactory = new ProcessWorkerFactory(workerCommandLine, m_agentIdentity,
+									m_fanOutStreamSender, consoleCommunication != null, script, properties);
+						}
 					} else {
 						m_logger.info("DEBUG MODE. Spawning threads rather than processes");
 						m_logger.warn("grinder.jvm.arguments ({}) ignored in single process mode", jvmArguments);
@@ -259,7 +270,9 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 					final WorkerLauncher workerLauncher = new WorkerLauncher(properties.getInt("grinder.processes", 1),
 							workerFactory, m_eventSynchronisation, m_logger);
 					m_workerLauncherForShutdown = workerLauncher;
-					final boolean threadRampUp = properties.getBoolean("grinder.threadRampUp", false);
+					// The worker processes ramp the vusers by the profile, so they start at once.
+					final boolean threadRampUp = properties.getBoolean("grinder.threadRampUp", false)
+							|| isNotBlank(properties.getProperty("grinder.rampProfile"));
 					final int increment = properties.getInt("grinder.processIncrement", 0);
 					if (!threadRampUp) {
 						m_logger.debug("'Ramp Up' mode by {}.", increment);
@@ -349,6 +362,7 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 				m_fanOutStreamSender.shutdown();
 				m_fanOutStreamSender = null;
 			}
+			shutdownWorkerProcessPool();
 			m_consoleListener.shutdown();
 			m_logger.info("Test shuts down.");
 		}
@@ -386,6 +400,8 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 				m_agentConfig.getAgentProperties().getPropertyBoolean(PROP_AGENT_ENABLE_LOCAL_DNS),
 				m_agentConfig.getAgentProperties().getProperty(PROP_AGENT_JAVA_OPT));
 
+		builder.evictScriptCache(m_agentConfig.getAgentProperties().getPropertyLong(PROP_AGENT_SCRIPT_CACHE_MAX_SIZE),
+				TimeUnit.HOURS.toMillis(m_agentConfig.getAgentProperties().getPropertyLong(PROP_AGENT_SCRIPT_CACHE_MAX_HOUR)));
 		String jvmArguments = builder.buildJVMArgument();
 		properties.setProperty(GRINDER_PROP_JVM_CLASSPATH, buildClassPath(systemProperty, properties, handler, builder));
 
@@ -473,6 +489,34 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 		m_consoleListener.discardMessages(ConsoleListener.ANY);
 	}
 
+	/**
+	 * Create the pool of the worker processes which are started ahead of time. The class data sharing archives
+	 * of the worker class paths are used with the pool when the JDK supports the dynamic archive.
+	 */
+	private void createWorkerProcessPool() {
+		int poolSize = m_agentConfig.getAgentProperties().getPropertyInt(PROP_AGENT_WORKER_POOL_SIZE);
+		if (poolSize <= 0) {
+			return;
+		}
+		m_workerProcessPool = new WorkerProcessPool(poolSize, m_logger);
+		if (m_agentConfig.getAgentProperties().getPropertyBoolean(PROP_AGENT_WORKER_CDS)
+				&& WorkerClassDataSharing.isSupported()) {
+			m_workerClassDataSharing = new WorkerClassDataSharing(new File(m_agentConfig.getHome().getDirectory(),
+					"cds"), m_logger);
+		}
+	}
+
+	private void shutdownWorkerProcessPool() {
+		if (m_workerProcessPool != null) {
+			m_workerProcessPool.shutdown();
+			m_workerProcessPool = null;
+		}
+		if (m_workerClassDataSharing != null) {
+			m_workerClassDataSharing.shutdown();
+			m_workerClassDataSharing = null;
+		}
+	}
+
 	/**
 	 * Clean up resources.
 	 */
@@ -489,6 +533,7 @@ public class AgentImplementationEx implements Agent, AgentConstants {
 		if (m_workerLauncherForShutdown != null && !m_workerLauncherForShutdown.allFinished()) {
 			m_workerLauncherForShutdown.destroyAllWorkers();
 		}
+		shutdownWorkerProcessPool();
 		m_logger.info("Agent is terminated by force");
 	}
 
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.net.URL;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import static net.grinder.util.AbstractGrinderClassPathProcessor.getClassPaths;
 import static org.ngrinder.common.constants.GrinderConstants.GRINDER_PROP_JVM_CLASSPATH;
@@ -50,6 +51,8 @@ import static org.ngrinder.common.util.NoOp.noOp;
 public class LocalScriptTestDriveService {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LocalScriptTestDriveService.class);
 	private static final int DEFAULT_TIMEOUT = 100;
+	private static final long SCRIPT_CACHE_MAX_SIZE = 64L * 1024 * 1024;
+	private static final long SCRIPT_CACHE_MAX_AGE = TimeUnit.HOURS.toMillis(24);
 	private final File requiredLibraryDirectory;
 
 	public LocalScriptTestDriveService(File requiredLibraryDirectory) {
@@ -104,6 +107,8 @@ public class LocalScriptTestDriveService {
 			GrinderProperties properties = new GrinderProperties();
 			PropertyBuilder builder = new ValidationPropertyBuilder(properties, new Directory(base), securityEnabled, securityLevel, hostString,
 				NetworkUtils.getLocalHostName());
+			// Each validated revision of a script is a new entry.
+			builder.evictScriptCache(SCRIPT_CACHE_MAX_SIZE, SCRIPT_CACHE_MAX_AGE);
 			properties.setInt("grinder.agents", 1);
 			properties.setInt("grinder.processes", 1);
 			properties.setInt("grinder.threads", 1);
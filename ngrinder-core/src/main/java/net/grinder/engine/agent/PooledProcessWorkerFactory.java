@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.agent;
+
+import net.grinder.common.GrinderProperties;
+import net.grinder.common.UncheckedInterruptedException;
+import net.grinder.common.processidentity.WorkerIdentity;
+import net.grinder.communication.FanOutStreamSender;
+import net.grinder.engine.agent.AgentIdentityImplementation.WorkerIdentityImplementation;
+import net.grinder.engine.common.EngineException;
+import net.grinder.engine.common.ScriptLocation;
+import net.grinder.engine.process.PreloadingWorkerProcessEntryPoint;
+import net.grinder.engine.process.WorkerProcessEntryPoint;
+import net.grinder.util.StreamCopier;
+import org.apache.commons.lang.StringUtils;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker factory which takes the worker processes from {@link WorkerProcessPool}.
+ * <p/>
+ * It works as {@link ProcessWorkerFactory} except that the processes start with
+ * {@link PreloadingWorkerProcessEntryPoint} so that the idle ones load the worker classes in advance. The class
+ * data sharing archive of the worker class path is used when it's available.
+ *
+ * @since 3.5.5
+ */
+final class PooledProcessWorkerFactory extends AbstractWorkerFactory {
+
+	private final WorkerProcessPool m_pool;
+
+	private final List<String> m_command;
+
+	private final File m_workingDirectory;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param commandLine        worker process command line
+	 * @param pool               worker process pool
+	 * @param classDataSharing   class data sharing archives of the worker class paths. null not to use them.
+	 * @param agentIdentity      agent identity
+	 * @param fanOutStreamSender stream sender to the workers
+	 * @param reportToConsole    true if the workers report to the console
+	 * @param script             script location
+	 * @param properties         grinder properties
+	 */
+	public PooledProcessWorkerFactory(WorkerProcessCommandLine commandLine, WorkerProcessPool pool,
+	                                  WorkerClassDataSharing classDataSharing, AgentIdentityImplementation agentIdentity,
+	                                  FanOutStreamSender fanOutStreamSender, boolean reportToConsole,
+	                                  ScriptLocation script, GrinderProperties properties) {
+		super(agentIdentity, fanOutStreamSender, reportToConsole, script, properties);
+		m_pool = pool;
+		m_workingDirectory = commandLine.getWorkingDirectory().getFile();
+		m_command = createCommand(commandLine.getCommandList(), m_workingDirectory, classDataSharing);
+		m_pool.prepare(m_command, m_workingDirectory);
+	}
+
+	private static List<String> createCommand(List<String> commandList, File workingDirectory,
+	                                          WorkerClassDataSharing classDataSharing) {
+		List<String> command = new ArrayList<>(commandList);
+		int entryPointIndex = command.lastIndexOf(WorkerProcessEntryPoint.class.getName());
+		if (entryPointIndex >= 0) {
+			command.set(entryPointIndex, PreloadingWorkerProcessEntryPoint.class.getName());
+		}
+		return classDataSharing == null ? command : classDataSharing.getCommand(command, workingDirectory);
+	}
+
+	List<String> getCommand() {
+		return m_command;
+	}
+
+	@Override
+	protected Worker createWorker(WorkerIdentityImplementation workerIdentity, OutputStream outputStream,
+	                              OutputStream errorStream) throws EngineException {
+		return new PooledProcessWorker(workerIdentity, m_pool.take(m_command, m_workingDirectory), outputStream,
+				errorStream);
+	}
+
+	@Override
+	public String toString() {
+		return StringUtils.join(m_command, " ");
+	}
+
+	/**
+	 * Worker of a process taken from the pool. It's the same as {@link ProcessWorker}.
+	 */
+	private static final class PooledProcessWorker implements Worker {
+		private final WorkerIdentity m_workerIdentity;
+		private final Process m_process;
+		private final Redirector m_stdoutRedirector;
+		private final Redirector m_stderrRedirector;
+
+		PooledProcessWorker(WorkerIdentity workerIdentity, Process process, OutputStream outputStream,
+		                    OutputStream errorStream) {
+			m_workerIdentity = workerIdentity;
+			m_process = process;
+			m_stdoutRedirector = new Redirector(process.getInputStream(), outputStream, process.toString());
+			m_stderrRedirector = new Redirector(process.getErrorStream(), errorStream, process.toString());
+		}
+
+		@Override
+		public WorkerIdentity getIdentity() {
+			return m_workerIdentity;
+		}
+
+		@Override
+		public OutputStream getCommunicationStream() {
+			return m_process.getOutputStream();
+		}
+
+		@Override
+		public int waitFor() {
+			try {
+				m_process.waitFor();
+			} catch (InterruptedException e) {
+				throw new UncheckedInterruptedException(e);
+			} finally {
+				m_stdoutRedirector.stop();
+				m_stderrRedirector.stop();
+			}
+			return m_process.exitValue();
+		}
+
+		@Override
+		public void destroy() {
+			try {
+				// Give the process a chance to flush its output.
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				throw new UncheckedInterruptedException(e);
+			}
+			m_process.destroy();
+		}
+	}
+
+	private static final class Redirector {
+		private final Thread m_thread;
+
+		Redirector(InputStream inputStream, OutputStream outputStream, String processName) {
+			m_thread = new Thread(new StreamCopier(4096, false).getRunnable(inputStream, outputStream),
+					"Stream redirector for process " + processName);
+			m_thread.setDaemon(true);
+			m_thread.start();
+		}
+
+		void stop() {
+			try {
+				if (m_thread.isAlive()) {
+					m_thread.join();
+				}
+			} catch (InterruptedException e) {
+				throw new UncheckedInterruptedException(e);
+			}
+		}
+	}
+}
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Set;
 
 import static java.util.Collections.singletonList;
+import static java.util.Comparator.comparingLong;
 import static javax.net.ssl.SSLSocketFactory.getDefault;
 import static org.ngrinder.common.constants.GrinderConstants.GRINDER_PROP_CONNECTION_RESET;
 import static org.ngrinder.common.constants.GrinderConstants.GRINDER_SECURITY_LEVEL_LIGHT;
@@ -191,6 +192,7 @@ public class PropertyBuilder {
 
 		addParam(jvmArguments, properties.getProperty("grinder.param", ""));
 		addPythonPathJvmArgument(jvmArguments);
+		addScriptCache(jvmArguments);
 		addCustomDns(jvmArguments);
 		addUserDir(jvmArguments);
 		addContext(jvmArguments);
@@ -372,12 +374,83 @@ public class PropertyBuilder {
 			jvmArguments.append(pythonHome);
 		}
 		jvmArguments.append(" ");
-		File jythonCache = new File(FileUtils.getTempDirectory(), "jython");
-		jythonCache.mkdirs();
+		File jythonCache;
+		if (securityEnabled) {
+			// The sandboxed scripts must not write to the cache the other tests use.
+			jythonCache = new File(FileUtils.getTempDirectory(), "jython");
+			jythonCache.mkdirs();
+		} else {
+			jythonCache = new File(getScriptCacheDirectory(), "jython");
+			jythonCache.mkdirs();
+			// Jython doesn't touch the cache directory itself, so it's marked as used for the python scripts.
+			if (properties.getFile(GrinderProperties.SCRIPT, GrinderProperties.DEFAULT_SCRIPT).getName().endsWith(".py")) {
+				jythonCache.setLastModified(System.currentTimeMillis());
+			}
+		}
 		jvmArguments.append(" -Dpython.cachedir=").append(jythonCache.getAbsolutePath()).append(" ");
 		return jvmArguments;
 	}
 
+	@SuppressWarnings("ResultOfMethodCallIgnored")
+	private StringBuilder addScriptCache(StringBuilder jvmArguments) {
+		// The entries are loaded by the other tests, so the sandboxed scripts compile themselves as before.
+		if (securityEnabled) {
+			return jvmArguments;
+		}
+		File scriptCache = getScriptCacheDirectory();
+		scriptCache.mkdirs();
+		return jvmArguments.append(" -Dngrinder.script.cache=").append(scriptCache.getAbsolutePath()).append(" ");
+	}
+
+	/**
+	 * Evict the entries of the compiled script cache which are not used for the given time. The others are
+	 * evicted from the least recently used one while the cache exceeds the given size. The worker processes
+	 * update the modified time of an entry when they use it.
+	 *
+	 * @param maxSize max total size in byte
+	 * @param maxAge  max age in millisecond
+	 */
+	public void evictScriptCache(long maxSize, long maxAge) {
+		File[] entries = getScriptCacheDirectory().listFiles(File::isDirectory);
+		if (entries == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<File> alive = new ArrayList<>();
+		for (File each : entries) {
+			if (now - each.lastModified() > maxAge) {
+				LOGGER.debug("Evict the expired compiled script {}", each.getName());
+				FileUtils.deleteQuietly(each);
+			} else {
+				alive.add(each);
+			}
+		}
+
+		alive.sort(comparingLong(File::lastModified).reversed());
+		long totalSize = 0;
+		for (File each : alive) {
+			totalSize += FileUtils.sizeOfDirectory(each);
+			if (totalSize > maxSize) {
+				LOGGER.debug("Evict the compiled script {} to keep the cache under {} bytes", each.getName(), maxSize);
+				FileUtils.deleteQuietly(each);
+			}
+		}
+	}
+
+	/**
+	 * Get the directory where the worker processes keep the compiled scripts. It's beside the file store
+	 * directory the script is distributed to, so every process and every run of the same script shares it.
+	 * Only the worker processes without the security manager get it, because the security manager doesn't allow
+	 * a script to write to the directory the other tests load the classes from.
+	 *
+	 * @return compiled script cache directory
+	 */
+	protected File getScriptCacheDirectory() {
+		File fileStore = baseDirectory.getFile().getAbsoluteFile().getParentFile();
+		return fileStore == null ? new File(FileUtils.getTempDirectory(), "script-cache")
+				: new File(fileStore, "script-cache");
+	}
+
 	private StringBuilder addCurrentAgentPath(StringBuilder jvmArguments) {
 		return jvmArguments.append(" -Dngrinder.exec.path=").append(baseDirectory.getFile()).append(" ");
 	}
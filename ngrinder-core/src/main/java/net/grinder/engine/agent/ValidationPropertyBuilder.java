@@ -2,6 +2,9 @@ package net.grinder.engine.agent;
 
 import net.grinder.common.GrinderProperties;
 import net.grinder.util.Directory;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
 
 public class ValidationPropertyBuilder extends PropertyBuilder {
 	public ValidationPropertyBuilder(GrinderProperties properties, Directory baseDirectory, boolean securityEnabled,
@@ -9,6 +12,12 @@ public class ValidationPropertyBuilder extends PropertyBuilder {
 		super(properties, baseDirectory, securityEnabled, securityLevel, hostString, hostName);
 	}
 
+	@Override
+	protected File getScriptCacheDirectory() {
+		// The script directories of the controller are rewritten on each validation.
+		return new File(FileUtils.getTempDirectory(), "script-cache");
+	}
+
 	@Override
 	protected StringBuilder addContext(StringBuilder jvmArguments) {
 		return jvmArguments.append( " -Dngrinder.context=controller ");
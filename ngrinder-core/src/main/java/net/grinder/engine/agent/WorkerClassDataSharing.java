@@ -0,0 +1,250 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.agent;
+
+import net.grinder.engine.process.PreloadingWorkerProcessEntryPoint;
+import net.grinder.util.thread.ExecutorFactory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Comparator.comparingLong;
+import static org.ngrinder.common.util.SystemInfoUtils.getJDKVersion;
+
+/**
+ * Application class data sharing archives of the worker class paths.
+ * <p/>
+ * When a class path is used first, the archive is dumped by a JVM which runs
+ * {@link PreloadingWorkerProcessEntryPoint} with the same class path in the background. The worker processes of the
+ * later runs map the archived classes instead of loading them from the jars. The archive is named by the digest
+ * of the java command and the class path, because the JVM uses it only for the same class path. The relative
+ * class path entries are resolved from the working directory of the worker, so it's the part of the digest too.
+ * The length and the modification time of each jar are the part of the digest as well, so a changed jar gets a
+ * new archive instead of the one the JVM would reject.
+ * <p/>
+ * The archives which are not used for {@link #ARCHIVE_MAX_AGE} are deleted, and only the {@link #MAX_ARCHIVES}
+ * most recently used ones are kept when the agent starts and whenever a new archive is dumped.
+ * <p/>
+ * It requires the dynamic archive of JDK 13 or later. The JVM ignores the archive which doesn't match the jars
+ * anymore, so a stale archive never fails the worker.
+ *
+ * @since 3.5.5
+ */
+final class WorkerClassDataSharing {
+
+	private static final int DYNAMIC_ARCHIVE_JDK_VERSION = 13;
+
+	private static final long DUMP_TIMEOUT_SECONDS = 300;
+
+	static final long ARCHIVE_MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+	static final int MAX_ARCHIVES = 5;
+
+	private final File m_directory;
+
+	private final Logger m_logger;
+
+	private final ExecutorService m_executor = ExecutorFactory.createThreadPool("WorkerClassDataSharing", 1);
+
+	// Guarded by itself.
+	private final Set<String> m_dumping = new HashSet<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param directory directory of the archives
+	 * @param logger    logger
+	 */
+	public WorkerClassDataSharing(File directory, Logger logger) {
+		m_directory = directory;
+		m_logger = logger;
+		m_executor.execute(() -> prune(ARCHIVE_MAX_AGE, MAX_ARCHIVES));
+	}
+
+	/**
+	 * Check if the archive can be dumped by the JDK the agent runs on.
+	 *
+	 * @return true if supported
+	 */
+	public static boolean isSupported() {
+		String version = getJDKVersion();
+		if (version == null || version.startsWith("1.")) {
+			return false;
+		}
+		try {
+			return Integer.parseInt(version) >= DYNAMIC_ARCHIVE_JDK_VERSION;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Get the given worker process command which uses the archive. The archive is dumped in the background if
+	 * there's none.
+	 * <p/>
+	 * The JVM doesn't archive the class path which has a non-empty directory before the jars, so the archive is
+	 * dumped with the class path whose directories like the script directory are moved to the end. The command
+	 * which uses the archive has the same class path, so the classes of the jars are found first. The command
+	 * without the archive keeps the class path as it is.
+	 *
+	 * @param command          worker process command
+	 * @param workingDirectory working directory of the worker processes
+	 * @return command which uses the archive. the given command if the archive is not ready.
+	 */
+	public List<String> getCommand(List<String> command, File workingDirectory) {
+		int classPathIndex = command.indexOf("-classpath");
+		if (classPathIndex < 0 || classPathIndex + 1 >= command.size()) {
+			return command;
+		}
+		String java = command.get(0);
+		String classPath = jarsFirst(command.get(classPathIndex + 1), workingDirectory);
+		File archive = new File(m_directory, getArchiveName(java, classPath, workingDirectory));
+		if (archive.isFile()) {
+			// The unused archives are pruned by the last used time.
+			if (!archive.setLastModified(System.currentTimeMillis())) {
+				m_logger.debug("Failed to update the last used time of {}", archive);
+			}
+			List<String> result = new ArrayList<>(command);
+			result.set(classPathIndex + 1, classPath);
+			result.addAll(1, Arrays.asList("-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-Xshare:auto"));
+			return result;
+		}
+		synchronized (m_dumping) {
+			if (m_dumping.add(archive.getName())) {
+				m_executor.execute(() -> dump(java, classPath, workingDirectory, archive));
+			}
+		}
+		return command;
+	}
+
+	static String getArchiveName(String java, String classPath, File workingDirectory) {
+		StringBuilder key = new StringBuilder(java).append('\n').append(workingDirectory.getAbsolutePath())
+				.append('\n').append(classPath);
+		for (String each : classPath.split(File.pathSeparator)) {
+			File file = new File(each);
+			if (!file.isAbsolute()) {
+				file = new File(workingDirectory, each);
+			}
+			if (file.isFile()) {
+				key.append('\n').append(each).append(':').append(file.length()).append(':').append(file.lastModified());
+			}
+		}
+		return DigestUtils.sha256Hex(key.toString()) + ".jsa";
+	}
+
+	private static String jarsFirst(String classPath, File workingDirectory) {
+		List<String> jars = new ArrayList<>();
+		List<String> directories = new ArrayList<>();
+		for (String each : classPath.split(File.pathSeparator)) {
+			if (each.isEmpty()) {
+				continue;
+			}
+			File file = new File(each);
+			if (!file.isAbsolute()) {
+				file = new File(workingDirectory, each);
+			}
+			(file.isDirectory() ? directories : jars).add(each);
+		}
+		jars.addAll(directories);
+		return StringUtils.join(jars, File.pathSeparator);
+	}
+
+	/**
+	 * Stop dumping the archives.
+	 */
+	public void shutdown() {
+		m_executor.shutdownNow();
+	}
+
+	/**
+	 * Delete the archives which are not used for the max age and the least recently used ones over the max count.
+	 * The temporary files left by the failed dumps are deleted too.
+	 *
+	 * @param maxAge   max age in millisecond
+	 * @param maxCount max count of the archives
+	 */
+	void prune(long maxAge, int maxCount) {
+		File[] archives = m_directory.listFiles(file -> file.isFile() && file.getName().endsWith(".jsa"));
+		if (archives == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<File> alive = new ArrayList<>();
+		for (File each : archives) {
+			if (now - each.lastModified() > maxAge) {
+				m_logger.debug("Delete the unused class data sharing archive {}", each.getName());
+				FileUtils.deleteQuietly(each);
+			} else {
+				alive.add(each);
+			}
+		}
+		alive.sort(comparingLong(File::lastModified).reversed());
+		for (File each : alive.subList(Math.min(maxCount, alive.size()), alive.size())) {
+			m_logger.debug("Delete the least recently used class data sharing archive {}", each.getName());
+			FileUtils.deleteQuietly(each);
+		}
+		File[] temps = m_directory.listFiles(file -> file.getName().endsWith(".tmp")
+				&& now - file.lastModified() > TimeUnit.SECONDS.toMillis(DUMP_TIMEOUT_SECONDS));
+		if (temps != null) {
+			for (File each : temps) {
+				FileUtils.deleteQuietly(each);
+			}
+		}
+	}
+
+	private void dump(String java, String classPath, File workingDirectory, File archive) {
+		File temp = new File(m_directory, archive.getName() + "." + System.nanoTime() + ".tmp");
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		command.add("-XX:ArchiveClassesAtExit=" + temp.getAbsolutePath());
+		command.add("-classpath");
+		command.add(classPath);
+		command.add(PreloadingWorkerProcessEntryPoint.class.getName());
+		command.add(PreloadingWorkerProcessEntryPoint.PRELOAD_ONLY);
+		Process process = null;
+		try {
+			FileUtils.forceMkdir(m_directory);
+			m_logger.info("Dump the class data sharing archive of the worker class path to {}", archive);
+			process = new ProcessBuilder(command).directory(workingDirectory).redirectErrorStream(true)
+					.redirectOutput(new File(m_directory, "dump.log")).start();
+			if (process.waitFor(DUMP_TIMEOUT_SECONDS, TimeUnit.SECONDS) && process.exitValue() == 0
+					&& temp.isFile() && temp.renameTo(archive)) {
+				m_logger.info("The class data sharing archive {} is dumped", archive.getName());
+				prune(ARCHIVE_MAX_AGE, MAX_ARCHIVES);
+			} else {
+				m_logger.warn("Failed to dump the class data sharing archive. See {}",
+						new File(m_directory, "dump.log"));
+			}
+		} catch (InterruptedException e) {
+			m_logger.debug("Stop dumping the class data sharing archive {}", archive.getName());
+		} catch (Exception e) {
+			m_logger.warn("Failed to dump the class data sharing archive : {}", e.getMessage());
+		} finally {
+			if (process != null) {
+				process.destroy();
+			}
+			FileUtils.deleteQuietly(temp);
+		}
+	}
+}
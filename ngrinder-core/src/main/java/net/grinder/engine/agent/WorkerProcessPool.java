@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.agent;
+
+import net.grinder.common.UncheckedInterruptedException;
+import net.grinder.engine.common.EngineException;
+import net.grinder.util.thread.ExecutorFactory;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Pool of the worker processes which are started ahead of time.
+ * <p/>
+ * The idle processes wait for the initialization message of the agent, so a process taken from the pool skips
+ * the JVM start up. The pool keeps the processes of a single command. They're kept after the test so that the
+ * next run of the same test reuses them. They're destroyed when another command is prepared.
+ * <p/>
+ * The jars in the class path are opened by the idle processes. The modification time and the length of each jar
+ * are the part of the command, so the processes aren't reused when a library of the script is changed.
+ *
+ * @since 3.5.5
+ */
+final class WorkerProcessPool {
+
+	private final int m_size;
+
+	private final Logger m_logger;
+
+	private final ExecutorService m_executor = ExecutorFactory.createThreadPool("WorkerProcessPool", 1);
+
+	// Guarded by this.
+	private final Deque<Process> m_idleProcesses = new ArrayDeque<>();
+
+	// Guarded by this.
+	private List<String> m_command;
+
+	// Guarded by this.
+	private File m_workingDirectory;
+
+	// Guarded by this.
+	private String m_key;
+
+	// Guarded by this.
+	private int m_starting;
+
+	// Guarded by this.
+	private boolean m_shutdown;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param size   the number of the idle processes to keep
+	 * @param logger logger
+	 */
+	public WorkerProcessPool(int size, Logger logger) {
+		m_size = size;
+		m_logger = logger;
+	}
+
+	public int getSize() {
+		return m_size;
+	}
+
+	/**
+	 * Prepare the idle processes of the given command. The idle processes of another command are destroyed.
+	 *
+	 * @param command          worker process command
+	 * @param workingDirectory working directory of the worker processes
+	 */
+	public synchronized void prepare(List<String> command, File workingDirectory) {
+		String key = getKey(command, workingDirectory);
+		if (!key.equals(m_key)) {
+			destroyIdleProcesses();
+			m_command = new ArrayList<>(command);
+			m_workingDirectory = workingDirectory;
+			m_key = key;
+		}
+		fill();
+	}
+
+	/**
+	 * Take an idle process of the given command. A new process is started when there's no idle one.
+	 *
+	 * @param command          worker process command
+	 * @param workingDirectory working directory of the worker processes
+	 * @return started process
+	 * @throws EngineException if the process can't be started
+	 */
+	public Process take(List<String> command, File workingDirectory) throws EngineException {
+		synchronized (this) {
+			prepare(command, workingDirectory);
+			Process process;
+			while ((process = m_idleProcesses.poll()) != null) {
+				if (process.isAlive()) {
+					m_logger.debug("Take an idle worker process");
+					fill();
+					return process;
+				}
+			}
+		}
+		try {
+			return start(command, workingDirectory);
+		} catch (IOException e) {
+			UncheckedInterruptedException.ioException(e);
+			throw new EngineException("Could not start process", e);
+		}
+	}
+
+	/**
+	 * Destroy the idle processes. The pool doesn't start any process after that.
+	 */
+	public void shutdown() {
+		synchronized (this) {
+			m_shutdown = true;
+			destroyIdleProcesses();
+		}
+		m_executor.shutdownNow();
+	}
+
+	private void fill() {
+		while (!m_shutdown && m_idleProcesses.size() + m_starting < m_size) {
+			m_starting++;
+			final String key = m_key;
+			final List<String> command = m_command;
+			final File workingDirectory = m_workingDirectory;
+			m_executor.execute(() -> startIdleProcess(key, command, workingDirectory));
+		}
+	}
+
+	private void startIdleProcess(String key, List<String> command, File workingDirectory) {
+		Process process = null;
+		try {
+			process = start(command, workingDirectory);
+		} catch (IOException e) {
+			m_logger.error("Failed to start an idle worker process : {}", e.getMessage());
+		}
+		synchronized (this) {
+			m_starting--;
+			if (process == null) {
+				return;
+			}
+			if (m_shutdown || !key.equals(m_key)) {
+				process.destroy();
+			} else {
+				m_idleProcesses.add(process);
+			}
+		}
+	}
+
+	private void destroyIdleProcesses() {
+		for (Process each : m_idleProcesses) {
+			each.destroy();
+		}
+		m_idleProcesses.clear();
+	}
+
+	private static Process start(List<String> command, File workingDirectory) throws IOException {
+		return new ProcessBuilder(command).directory(workingDirectory).start();
+	}
+
+	private static String getKey(List<String> command, File workingDirectory) {
+		StringBuilder key = new StringBuilder(workingDirectory.getAbsolutePath());
+		for (String each : command) {
+			key.append('\n').append(each);
+		}
+		for (File each : getClassPath(command)) {
+			if (!each.isAbsolute()) {
+				each = new File(workingDirectory, each.getPath());
+			}
+			if (each.isFile()) {
+				key.append('\n').append(each.getPath()).append(':').append(each.length()).append(':')
+						.append(each.lastModified());
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Get the class path entries of the given worker process command.
+	 *
+	 * @param command worker process command
+	 * @return class path entries. empty if the command doesn't have the class path.
+	 */
+	static List<File> getClassPath(List<String> command) {
+		List<File> classPath = new ArrayList<>();
+		int index = command.indexOf("-classpath");
+		if (index >= 0 && index + 1 < command.size()) {
+			for (String each : command.get(index + 1).split(File.pathSeparator)) {
+				if (!each.isEmpty()) {
+					classPath.add(new File(each));
+				}
+			}
+		}
+		return classPath;
+	}
+}
@@ -37,7 +37,7 @@ public abstract class LogCompressUtils {
 	public static final Logger LOGGER = LoggerFactory.getLogger(LogCompressUtils.class);
 
 	/**
-	 * Compress multiple Files with the given encoding.
+	 * Compress multiple Files with the given encoding. The gzip files are compressed as they are.
 	 *
 	 * @param logFiles     files to be compressed
 	 * @param fromEncoding log file encoding
@@ -63,16 +63,20 @@ public abstract class LogCompressUtils {
 			for (File each : logFiles) {
 				try {
 					fis = new FileInputStream(each);
-					isr = new InputStreamReader(fis, fromEncoding);
 					ZipEntry zipEntry = new ZipEntry(each.getName());
 					zipEntry.setTime(each.lastModified());
 					zos.putNextEntry(zipEntry);
-					char[] buffer = new char[COMPRESS_BUFFER_SIZE];
-					int count;
-					while ((count = isr.read(buffer, 0, COMPRESS_BUFFER_SIZE)) != -1) {
-						osw.write(buffer, 0, count);
+					if (isBinary(each.getName())) {
+						IOUtils.copy(fis, zos);
+					} else {
+						isr = new InputStreamReader(fis, fromEncoding);
+						char[] buffer = new char[COMPRESS_BUFFER_SIZE];
+						int count;
+						while ((count = isr.read(buffer, 0, COMPRESS_BUFFER_SIZE)) != -1) {
+							osw.write(buffer, 0, count);
+						}
+						osw.flush();
 					}
-					osw.flush();
 					zos.flush();
 					zos.closeEntry();
 				} catch (IOException e) {
@@ -139,7 +143,8 @@ public abstract class LogCompressUtils {
 	}
 
 	/**
-	 * Decompress the given the {@link InputStream} into the given {@link OutputStream}.
+	 * Decompress the given the {@link InputStream} into the given {@link OutputStream}. The gzip entries are
+	 * skipped because they are not readable as a log.
 	 *
 	 * @param inputStream  input stream of the compressed file
 	 * @param outputStream file to be written
@@ -152,8 +157,11 @@ public abstract class LogCompressUtils {
 			byte[] buffer = new byte[COMPRESS_BUFFER_SIZE];
 			int count;
 			long total = 0;
-			checkNotNull(zipInputStream.getNextEntry(), "In zip, it should have at least one entry");
+			ZipEntry zipEntry = checkNotNull(zipInputStream.getNextEntry(), "In zip, it should have at least one entry");
 			do {
+				if (isBinary(zipEntry.getName())) {
+					continue;
+				}
 				while ((count = zipInputStream.read(buffer, 0, COMPRESS_BUFFER_SIZE)) != -1) {
 					total += count;
 					if (total >= limit) {
@@ -161,7 +169,7 @@ public abstract class LogCompressUtils {
 					}
 					outputStream.write(buffer, 0, count);
 				}
-			} while (zipInputStream.getNextEntry() != null);
+			} while ((zipEntry = zipInputStream.getNextEntry()) != null);
 			outputStream.flush();
 		} catch (IOException e) {
 			LOGGER.error("Error occurs while decompressing {}", e.getMessage());
@@ -171,4 +179,7 @@ public abstract class LogCompressUtils {
 		}
 	}
 
+	private static boolean isBinary(String fileName) {
+		return fileName.endsWith(".gz");
+	}
 }
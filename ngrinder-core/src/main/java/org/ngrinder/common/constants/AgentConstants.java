@@ -36,6 +36,10 @@ public interface AgentConstants {
 	String PROP_AGENT_BROADCAST_IP = "agent.broadcast_ip";
 	String PROP_AGENT_ENABLE_LOCAL_DNS = "agent.enable_local_dns";
 	String PROP_AGENT_ENABLE_SECURITY = "agent.enable_security";
+	String PROP_AGENT_WORKER_POOL_SIZE = "agent.worker_pool_size";
+	String PROP_AGENT_WORKER_CDS = "agent.worker_cds";
+	String PROP_AGENT_SCRIPT_CACHE_MAX_SIZE = "agent.script_cache_max_size";
+	String PROP_AGENT_SCRIPT_CACHE_MAX_HOUR = "agent.script_cache_max_hour";
 
 	String VALUE_AGENT_TO_CONTROLLER = "agent_to_controller";
 	String VALUE_CONTROLLER_TO_AGENT = "controller_to_agent";
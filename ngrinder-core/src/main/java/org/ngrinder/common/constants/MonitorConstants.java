@@ -21,6 +21,7 @@ package org.ngrinder.common.constants;
 public interface MonitorConstants {
 	String PROP_MONITOR_BINDING_IP = "monitor.binding_ip";
 	String PROP_MONITOR_BINDING_PORT = "monitor.binding_port";
+	String PROP_MONITOR_PUSH_PORT = "monitor.push_port";
 
 	/**
 	 * Monitor Constant
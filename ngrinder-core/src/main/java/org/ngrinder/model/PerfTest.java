@@ -204,6 +204,21 @@ public class PerfTest extends BaseModel<PerfTest> {
 	@Column(name = "test_time_standard_deviation")
 	private Double testTimeStandardDeviation;
 
+	@Column(name = "test_time_p50")
+	private Double testTimeP50;
+
+	@Column(name = "test_time_p90")
+	private Double testTimeP90;
+
+	@Column(name = "test_time_p95")
+	private Double testTimeP95;
+
+	@Column(name = "test_time_p99")
+	private Double testTimeP99;
+
+	@Column(name = "test_time_p999")
+	private Double testTimeP999;
+
 	@Column(name = "tps")
 	private Double tps;
 
@@ -19,6 +19,8 @@ import org.ngrinder.common.constants.MonitorConstants;
 import org.ngrinder.infra.AgentConfig;
 import org.ngrinder.monitor.MonitorContext;
 import org.ngrinder.monitor.collector.DataCollectManager;
+import org.ngrinder.monitor.mxbean.SystemMonitoringData;
+import org.ngrinder.monitor.push.MonitorPushServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,7 @@ public final class MonitorServer implements MonitorConstants {
 	private static final Logger LOG = LoggerFactory.getLogger(MonitorServer.class);
 	private JMXConnectorServer jmxServer = null;
 	private Registry rmiRegistry = null;
+	private MonitorPushServer pushServer = null;
 	private boolean isRunning = false;
 	private AgentConfig agentConfig;
 
@@ -80,6 +83,10 @@ public final class MonitorServer implements MonitorConstants {
 		this.jmxServer = JMXConnectorServerFactory.newJMXConnectorServer(jmxUrl, null, mBeanServer);
 		RegisterMXBean.getInstance().addDefaultMXBean(mBeanServer);
 		LOG.info("Service URL:{} is initiated.", jmxUrl);
+		this.pushServer = new MonitorPushServer(() -> {
+			SystemMonitoringData systemMonitoringData = (SystemMonitoringData) MXBeanStorage.getInstance().getMXBean(SYSTEM);
+			return systemMonitoringData == null ? null : systemMonitoringData.getSystemInfo();
+		});
 	}
 
 	/**
@@ -101,6 +108,16 @@ public final class MonitorServer implements MonitorConstants {
 			jmxServer.start();
 			DataCollectManager.getInstance().init(agentConfig);
 			DataCollectManager.getInstance().start();
+			int pushPort = agentConfig.getMonitorProperties().getPropertyInt(PROP_MONITOR_PUSH_PORT);
+			if (pushPort > 0) {
+				String bindingIP = agentConfig.getMonitorBindingIP();
+				try {
+					pushServer.start(StringUtils.isBlank(bindingIP) ? null : bindingIP, pushPort);
+				} catch (IOException e) {
+					// The controller falls back to JMX.
+					LOG.warn("Failed to start the monitor push server on {}. {}", pushPort, e.getMessage());
+				}
+			}
 			isRunning = true;
 		}
 	}
@@ -117,6 +134,7 @@ public final class MonitorServer implements MonitorConstants {
 		isRunning = false;
 		try {
 			jmxServer.stop();
+			pushServer.stop();
 			DataCollectManager.getInstance().stop();
 			UnicastRemoteObject.unexportObject(rmiRegistry, true);
 		} catch (IOException e) {
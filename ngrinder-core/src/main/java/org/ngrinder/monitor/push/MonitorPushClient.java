@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.monitor.push;
+
+import org.apache.commons.io.IOUtils;
+import org.ngrinder.monitor.share.domain.SystemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Controller side of the push protocol. The pushed {@link SystemInfo} is received by its own thread, so reading the
+ * latest one never blocks the caller even if the monitor is slow.
+ *
+ * @see MonitorPushProtocol
+ * @since 3.5.5
+ */
+public class MonitorPushClient implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(MonitorPushClient.class);
+
+	private static final int CONNECTION_TIMEOUT = 2000;
+
+	private final String ip;
+
+	private final int port;
+
+	private Socket socket;
+
+	private volatile SystemInfo systemInfo;
+
+	private volatile boolean connected;
+
+	public MonitorPushClient(String ip, int port) {
+		this.ip = ip;
+		this.port = port;
+	}
+
+	/**
+	 * Connect to the monitor and start receiving.
+	 *
+	 * @param interval push interval in millisecond
+	 * @return true if connected
+	 */
+	public boolean connect(int interval) {
+		socket = new Socket();
+		try {
+			socket.connect(new InetSocketAddress(ip, port), CONNECTION_TIMEOUT);
+			socket.setTcpNoDelay(true);
+			// The monitor which doesn't push anything for a while is regarded as dead.
+			socket.setSoTimeout(Math.max(interval * 5, 10000));
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			MonitorPushProtocol.writeRequest(out, interval);
+			out.flush();
+		} catch (IOException e) {
+			LOG.debug("Failed to connect the monitor push server {}:{}. {}", ip, port, e.getMessage());
+			IOUtils.closeQuietly(socket);
+			return false;
+		}
+		connected = true;
+		Thread receiver = new Thread(this::receive, "monitor-push-client-" + ip);
+		receiver.setDaemon(true);
+		receiver.start();
+		return true;
+	}
+
+	private void receive() {
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			while (connected) {
+				SystemInfo received = MonitorPushProtocol.readSystemInfo(in);
+				received.setIp(ip);
+				systemInfo = received;
+			}
+		} catch (IOException e) {
+			if (connected) {
+				LOG.info("Monitor push connection to {}:{} is lost. {}", ip, port, e.getMessage());
+			}
+		} finally {
+			connected = false;
+			IOUtils.closeQuietly(socket);
+		}
+	}
+
+	public boolean isConnected() {
+		return connected;
+	}
+
+	/**
+	 * Get the latest pushed system info.
+	 *
+	 * @return system info. null if nothing is pushed yet.
+	 */
+	public SystemInfo getSystemInfo() {
+		return systemInfo;
+	}
+
+	@Override
+	public void close() {
+		connected = false;
+		IOUtils.closeQuietly(socket);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.monitor.push;
+
+import org.ngrinder.monitor.share.domain.BandWidth;
+import org.ngrinder.monitor.share.domain.SystemInfo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary protocol between the monitor and the controller.
+ * <p/>
+ * The controller opens a connection and sends the magic number and the push interval in millisecond. Then the
+ * monitor pushes each newly collected {@link SystemInfo} as a fixed layout frame until the connection is closed.
+ * The controller never sends a request per sample.
+ *
+ * @since 3.5.5
+ */
+public final class MonitorPushProtocol {
+
+	/**
+	 * "NGM1" in ASCII.
+	 */
+	public static final int MAGIC = 0x4E474D31;
+
+	private static final byte NO_SYSTEM = -1;
+
+	private MonitorPushProtocol() {
+	}
+
+	/**
+	 * Write the subscription request.
+	 *
+	 * @param out      output
+	 * @param interval push interval in millisecond
+	 * @throws IOException if the request can't be written
+	 */
+	public static void writeRequest(DataOutput out, int interval) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(interval);
+	}
+
+	/**
+	 * Read the subscription request.
+	 *
+	 * @param in input
+	 * @return push interval in millisecond
+	 * @throws IOException if the request is not from the controller
+	 */
+	public static int readRequest(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Unknown monitor push request");
+		}
+		return Math.max(in.readInt(), 100);
+	}
+
+	/**
+	 * Write the system info frame.
+	 *
+	 * @param out        output
+	 * @param systemInfo system info to be written
+	 * @throws IOException if the frame can't be written
+	 */
+	public static void writeSystemInfo(DataOutput out, SystemInfo systemInfo) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeLong(systemInfo.getCollectTime());
+		out.writeByte(systemInfo.getSystem() == null ? NO_SYSTEM : systemInfo.getSystem().ordinal());
+		out.writeLong(systemInfo.getFreeMemory());
+		out.writeLong(systemInfo.getTotalMemory());
+		out.writeFloat(systemInfo.getCpuUsedPercentage());
+		BandWidth bandWidth = systemInfo.getBandWidth();
+		out.writeBoolean(bandWidth != null);
+		if (bandWidth != null) {
+			out.writeLong(bandWidth.getReceivedPerSec());
+			out.writeLong(bandWidth.getSentPerSec());
+		}
+		String customValues = systemInfo.getCustomValues();
+		out.writeBoolean(customValues != null);
+		if (customValues != null) {
+			out.writeUTF(customValues);
+		}
+	}
+
+	/**
+	 * Read the system info frame.
+	 *
+	 * @param in input
+	 * @return system info without ip
+	 * @throws IOException if the frame is broken or the connection is closed
+	 */
+	public static SystemInfo readSystemInfo(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Broken monitor push frame");
+		}
+		SystemInfo systemInfo = new SystemInfo();
+		long collectTime = in.readLong();
+		systemInfo.setCollectTime(collectTime);
+		byte system = in.readByte();
+		if (system != NO_SYSTEM) {
+			systemInfo.setSystem(SystemInfo.System.values()[system]);
+		}
+		systemInfo.setFreeMemory(in.readLong());
+		systemInfo.setTotalMemory(in.readLong());
+		systemInfo.setCpuUsedPercentage(in.readFloat());
+		if (in.readBoolean()) {
+			BandWidth bandWidth = new BandWidth(collectTime);
+			bandWidth.setReceivedPerSec(in.readLong());
+			bandWidth.setSentPerSec(in.readLong());
+			systemInfo.setBandWidth(bandWidth);
+		}
+		if (in.readBoolean()) {
+			systemInfo.setCustomValues(in.readUTF());
+		}
+		return systemInfo;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.monitor.push;
+
+import org.apache.commons.io.IOUtils;
+import org.ngrinder.monitor.share.domain.SystemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Monitor side of the push protocol. It pushes the latest collected {@link SystemInfo} to each connected controller.
+ *
+ * @see MonitorPushProtocol
+ * @since 3.5.5
+ */
+public class MonitorPushServer {
+	private static final Logger LOG = LoggerFactory.getLogger(MonitorPushServer.class);
+
+	private static final int HANDSHAKE_TIMEOUT = 10000;
+
+	private final Supplier<SystemInfo> systemInfoSupplier;
+
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+	private ServerSocket serverSocket;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param systemInfoSupplier supplier of the latest collected system info
+	 */
+	public MonitorPushServer(Supplier<SystemInfo> systemInfoSupplier) {
+		this.systemInfoSupplier = systemInfoSupplier;
+	}
+
+	/**
+	 * Bind the given address and start accepting the controllers.
+	 *
+	 * @param host binding host. all interfaces if null.
+	 * @param port binding port. any free port if 0.
+	 * @throws IOException if the port can't be bound
+	 */
+	public void start(String host, int port) throws IOException {
+		serverSocket = new ServerSocket();
+		serverSocket.setReuseAddress(true);
+		serverSocket.bind(host == null ? new InetSocketAddress(port) : new InetSocketAddress(host, port));
+		Thread acceptor = new Thread(this::accept, "monitor-push-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		LOG.info("Monitor push server is listening on {}", serverSocket.getLocalSocketAddress());
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				connections.add(socket);
+				Thread pusher = new Thread(() -> push(socket), "monitor-push-" + socket.getRemoteSocketAddress());
+				pusher.setDaemon(true);
+				pusher.start();
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					LOG.debug("Error while accepting the monitor push connection. {}", e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void push(Socket socket) {
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			int interval = MonitorPushProtocol.readRequest(in);
+			LOG.info("Start pushing the system info to {} every {}ms", socket.getRemoteSocketAddress(), interval);
+			long lastCollectTime = -1;
+			while (!socket.isClosed()) {
+				SystemInfo systemInfo = systemInfoSupplier.get();
+				// Only the newly collected one is pushed.
+				if (systemInfo != null && systemInfo.getCollectTime() != lastCollectTime) {
+					MonitorPushProtocol.writeSystemInfo(out, systemInfo);
+					out.flush();
+					lastCollectTime = systemInfo.getCollectTime();
+				}
+				Thread.sleep(interval);
+			}
+		} catch (IOException e) {
+			LOG.debug("Monitor push connection {} is closed. {}", socket.getRemoteSocketAddress(), e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			connections.remove(socket);
+			IOUtils.closeQuietly(socket);
+		}
+	}
+
+	/**
+	 * Stop accepting and close every connection.
+	 */
+	public void stop() {
+		IOUtils.closeQuietly(serverSocket);
+		for (Socket each : connections) {
+			IOUtils.closeQuietly(each);
+		}
+		connections.clear();
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * ngrinder monitor push package.
+ */
+package org.ngrinder.monitor.push;
@@ -0,0 +1,355 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.report;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only binary columnar store of the perftest report data.
+ * <p/>
+ * Each test has a single store file which contains one fixed width float column per statistic key.
+ * Values are appended into per column blocks and each block is compressed when it's written.
+ * <pre>
+ * header  : magic(int) version(int) samplingInterval(int)
+ * records : COLUMN id(short) name(UTF)
+ *           BLOCK  id(short) firstRow(int) firstTimestamp(long) count(int) length(int) deflated values
+ * footer  : FOOTER columnCount(int) { id(short) name(UTF) blockCount(int) { offset(long) firstRow(int) count(int) }* }*
+ * trailer : footerOffset(long) magic(int)
+ * </pre>
+ * The footer is written when the store is closed. The store which is still written or which is not closed
+ * properly doesn't have the footer, so the index is rebuilt by scanning the record headers in that case.
+ * The null value is stored as {@link Float#NaN}.
+ *
+ * @since 3.5.5
+ */
+public class ReportDataStore {
+
+	public static final String REPORT_DATA_STORE = "report_data.bin";
+
+	static final int MAGIC = 0x4E475244;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 12;
+	static final int TRAILER_SIZE = 12;
+
+	static final byte RECORD_COLUMN = 'C';
+	static final byte RECORD_BLOCK = 'B';
+	static final byte RECORD_FOOTER = 'F';
+
+	/**
+	 * Size of the block header following the record type. id, firstRow, firstTimestamp, count, length
+	 */
+	static final int BLOCK_HEADER_SIZE = 2 + 4 + 8 + 4 + 4;
+
+	private final File file;
+
+	private int samplingInterval;
+
+	private final Map<String, Column> columns = new LinkedHashMap<>();
+
+	/**
+	 * The offset where the next record should be appended. It's the footer offset if the footer exists.
+	 */
+	private long appendOffset = HEADER_SIZE;
+
+	private ReportDataStore(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Open the store and load its column index.
+	 *
+	 * @param file store file
+	 * @return opened store
+	 * @throws IOException when the file is not a valid store
+	 */
+	public static ReportDataStore open(File file) throws IOException {
+		ReportDataStore store = new ReportDataStore(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			store.loadIndex(raf);
+		}
+		return store;
+	}
+
+	private void loadIndex(RandomAccessFile raf) throws IOException {
+		if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+			throw new IOException(file + " is not a report data store");
+		}
+		int version = raf.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported report data store version " + version);
+		}
+		samplingInterval = raf.readInt();
+		if (!loadFooter(raf)) {
+			scanRecords(raf);
+		}
+	}
+
+	private boolean loadFooter(RandomAccessFile raf) throws IOException {
+		long length = raf.length();
+		if (length < HEADER_SIZE + TRAILER_SIZE + 1) {
+			return false;
+		}
+		raf.seek(length - TRAILER_SIZE);
+		long footerOffset = raf.readLong();
+		if (raf.readInt() != MAGIC || footerOffset < HEADER_SIZE || footerOffset >= length - TRAILER_SIZE) {
+			return false;
+		}
+		raf.seek(footerOffset);
+		if (raf.readByte() != RECORD_FOOTER) {
+			return false;
+		}
+		int columnCount = raf.readInt();
+		for (int i = 0; i < columnCount; i++) {
+			Column column = new Column(raf.readShort(), raf.readUTF());
+			int blockCount = raf.readInt();
+			for (int j = 0; j < blockCount; j++) {
+				column.addBlock(new Block(raf.readLong(), raf.readInt(), raf.readInt()));
+			}
+			columns.put(column.getName(), column);
+		}
+		appendOffset = footerOffset;
+		return true;
+	}
+
+	private void scanRecords(RandomAccessFile raf) throws IOException {
+		Map<Short, Column> columnsById = new HashMap<>();
+		long offset = HEADER_SIZE;
+		long length = raf.length();
+		raf.seek(offset);
+		try {
+			while (offset < length) {
+				byte type = raf.readByte();
+				if (type == RECORD_COLUMN) {
+					Column column = new Column(raf.readShort(), raf.readUTF());
+					columnsById.put(column.getId(), column);
+					columns.put(column.getName(), column);
+				} else if (type == RECORD_BLOCK) {
+					short id = raf.readShort();
+					int firstRow = raf.readInt();
+					raf.readLong();
+					int count = raf.readInt();
+					int compressedLength = raf.readInt();
+					long next = raf.getFilePointer() + compressedLength;
+					Column column = columnsById.get(id);
+					if (next > length || column == null) {
+						break;
+					}
+					column.addBlock(new Block(offset, firstRow, count));
+					raf.seek(next);
+				} else {
+					break;
+				}
+				offset = raf.getFilePointer();
+			}
+		} catch (EOFException e) {
+			// The last record was partially written. Ignore it.
+		}
+		appendOffset = offset;
+	}
+
+	/**
+	 * Read the values of the given column.
+	 *
+	 * @param key      column key
+	 * @param interval return one value per every interval rows
+	 * @return values. null value is contained for the null row. empty list if the column doesn't exist
+	 * @throws IOException when the store can not be read
+	 */
+	public List<Float> read(String key, int interval) throws IOException {
+		Column column = columns.get(key);
+		if (column == null) {
+			return Collections.emptyList();
+		}
+		interval = Math.max(interval, 1);
+		List<Float> values = new ArrayList<>(column.getRowCount() / interval + 1);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			float[] buffer = new float[0];
+			for (Block each : column.getBlocks()) {
+				// Skip the block which doesn't contain any row to be picked.
+				int firstPick = ((each.getFirstRow() + interval - 1) / interval) * interval;
+				if (firstPick >= each.getFirstRow() + each.getCount()) {
+					continue;
+				}
+				if (buffer.length < each.getCount()) {
+					buffer = new float[each.getCount()];
+				}
+				readBlock(raf, each, buffer);
+				for (int row = firstPick; row < each.getFirstRow() + each.getCount(); row += interval) {
+					float value = buffer[row - each.getFirstRow()];
+					values.add(Float.isNaN(value) ? null : value);
+				}
+			}
+		}
+		return values;
+	}
+
+	private void readBlock(RandomAccessFile raf, Block block, float[] buffer) throws IOException {
+		raf.seek(block.getOffset() + 1 + BLOCK_HEADER_SIZE - 4);
+		byte[] compressed = new byte[raf.readInt()];
+		raf.readFully(compressed);
+		byte[] raw = new byte[block.getCount() * 4];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			int read = 0;
+			while (read < raw.length && !inflater.finished()) {
+				int inflated = inflater.inflate(raw, read, raw.length - read);
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				read += inflated;
+			}
+			if (read != raw.length) {
+				throw new IOException("Report data block at " + block.getOffset() + " is corrupted");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Report data block at " + block.getOffset() + " is corrupted", e);
+		} finally {
+			inflater.end();
+		}
+		decode(raw, block.getCount(), buffer);
+	}
+
+	/**
+	 * Each value is stored as the xor of its bits and the previous value bits so that the slowly changing
+	 * series compresses well.
+	 */
+	static void encode(float[] values, int count, byte[] raw) {
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			int bits = Float.floatToRawIntBits(values[i]);
+			int encoded = bits ^ previous;
+			previous = bits;
+			raw[i * 4] = (byte) (encoded >>> 24);
+			raw[i * 4 + 1] = (byte) (encoded >>> 16);
+			raw[i * 4 + 2] = (byte) (encoded >>> 8);
+			raw[i * 4 + 3] = (byte) encoded;
+		}
+	}
+
+	static void decode(byte[] raw, int count, float[] values) {
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			int encoded = ((raw[i * 4] & 0xff) << 24) | ((raw[i * 4 + 1] & 0xff) << 16)
+				| ((raw[i * 4 + 2] & 0xff) << 8) | (raw[i * 4 + 3] & 0xff);
+			previous = encoded ^ previous;
+			values[i] = Float.intBitsToFloat(previous);
+		}
+	}
+
+	/**
+	 * Get the row count of the given column.
+	 *
+	 * @param key column key
+	 * @return row count. -1 if the column doesn't exist
+	 */
+	public int getRowCount(String key) {
+		Column column = columns.get(key);
+		return column == null ? -1 : column.getRowCount();
+	}
+
+	/**
+	 * Get the all column keys in the insertion order.
+	 *
+	 * @return column keys
+	 */
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(columns.keySet());
+	}
+
+	public int getSamplingInterval() {
+		return samplingInterval;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	Map<String, Column> getColumns() {
+		return columns;
+	}
+
+	long getAppendOffset() {
+		return appendOffset;
+	}
+
+	/**
+	 * Column index entry.
+	 */
+	static class Column {
+		private final short id;
+		private final String name;
+		private final List<Block> blocks = new ArrayList<>();
+		private int rowCount;
+
+		Column(short id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		void addBlock(Block block) {
+			blocks.add(block);
+			rowCount = Math.max(rowCount, block.getFirstRow() + block.getCount());
+		}
+
+		short getId() {
+			return id;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		List<Block> getBlocks() {
+			return blocks;
+		}
+
+		int getRowCount() {
+			return rowCount;
+		}
+	}
+
+	/**
+	 * Block index entry.
+	 */
+	static class Block {
+		private final long offset;
+		private final int firstRow;
+		private final int count;
+
+		Block(long offset, int firstRow, int count) {
+			this.offset = offset;
+			this.firstRow = firstRow;
+			this.count = count;
+		}
+
+		long getOffset() {
+			return offset;
+		}
+
+		int getFirstRow() {
+			return firstRow;
+		}
+
+		int getCount() {
+			return count;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.report;
+
+import org.ngrinder.perftest.report.ReportDataStore.Block;
+import org.ngrinder.perftest.report.ReportDataStore.Column;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static org.ngrinder.perftest.report.ReportDataStore.*;
+
+/**
+ * Writer of the {@link ReportDataStore}.
+ * <p/>
+ * Values are buffered per column and written as a compressed block when {@link #BLOCK_SIZE} rows are collected
+ * or when the first buffered row is older than {@link #FLUSH_INTERVAL}. So the rows of the last
+ * {@link #FLUSH_INTERVAL} at most are lost if the process dies during the test, and a reader opened during the
+ * test sees the rows until then. The remaining rows and the footer index are written on {@link #close()}. If the
+ * given file already exists, the writer continues to append after the last valid record.
+ *
+ * @since 3.5.5
+ */
+public class ReportDataWriter implements Closeable {
+
+	public static final int BLOCK_SIZE = 120;
+
+	/**
+	 * Max time in millisecond a row is buffered before it's written.
+	 */
+	public static final long FLUSH_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+	private final RandomAccessFile raf;
+
+	private final Map<String, ColumnBuffer> buffers = new LinkedHashMap<>();
+
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+	private final byte[] raw = new byte[BLOCK_SIZE * 4];
+
+	private byte[] compressed = new byte[BLOCK_SIZE * 4 + 64];
+
+	private final long flushInterval;
+
+	private short nextColumnId = 0;
+
+	private boolean closed = false;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param file             store file
+	 * @param samplingInterval sampling interval in millisecond
+	 * @throws IOException when the file can not be opened
+	 */
+	public ReportDataWriter(File file, int samplingInterval) throws IOException {
+		this(file, samplingInterval, FLUSH_INTERVAL);
+	}
+
+	ReportDataWriter(File file, int samplingInterval, long flushInterval) throws IOException {
+		this.flushInterval = flushInterval;
+		boolean exists = file.exists() && file.length() > 0;
+		if (exists) {
+			ReportDataStore store = ReportDataStore.open(file);
+			this.raf = new RandomAccessFile(file, "rw");
+			for (Column each : store.getColumns().values()) {
+				buffers.put(each.getName(), new ColumnBuffer(each));
+				nextColumnId = (short) Math.max(nextColumnId, each.getId() + 1);
+			}
+			// Drop the footer or the partially written record.
+			raf.setLength(store.getAppendOffset());
+			raf.seek(store.getAppendOffset());
+		} else {
+			this.raf = new RandomAccessFile(file, "rw");
+			raf.setLength(0);
+			raf.writeInt(MAGIC);
+			raf.writeInt(VERSION);
+			raf.writeInt(samplingInterval);
+		}
+	}
+
+	/**
+	 * Append the value at the end of the given column.
+	 *
+	 * @param key   column key
+	 * @param value value. null is allowed.
+	 * @throws IOException when the block can not be written
+	 */
+	public void append(String key, Float value) throws IOException {
+		ColumnBuffer buffer = buffers.get(key);
+		if (buffer == null) {
+			buffer = new ColumnBuffer(new Column(nextColumnId++, key));
+			raf.writeByte(RECORD_COLUMN);
+			raf.writeShort(buffer.column.getId());
+			raf.writeUTF(key);
+			buffers.put(key, buffer);
+		}
+		long now = System.currentTimeMillis();
+		if (buffer.count == 0) {
+			buffer.firstTimestamp = now;
+		}
+		buffer.values[buffer.count++] = (value == null) ? Float.NaN : value;
+		if (buffer.count == BLOCK_SIZE || now - buffer.firstTimestamp >= flushInterval) {
+			writeBlock(buffer);
+		}
+	}
+
+	/**
+	 * Write all buffered rows as blocks.
+	 *
+	 * @throws IOException when the block can not be written
+	 */
+	public void flush() throws IOException {
+		for (ColumnBuffer each : buffers.values()) {
+			writeBlock(each);
+		}
+	}
+
+	private void writeBlock(ColumnBuffer buffer) throws IOException {
+		if (buffer.count == 0) {
+			return;
+		}
+		encode(buffer.values, buffer.count, raw);
+		deflater.reset();
+		deflater.setInput(raw, 0, buffer.count * 4);
+		deflater.finish();
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == compressed.length) {
+				byte[] enlarged = new byte[compressed.length * 2];
+				System.arraycopy(compressed, 0, enlarged, 0, length);
+				compressed = enlarged;
+			}
+			length += deflater.deflate(compressed, length, compressed.length - length);
+		}
+		Column column = buffer.column;
+		long offset = raf.getFilePointer();
+		ByteArrayOutputStream record = new ByteArrayOutputStream(1 + BLOCK_HEADER_SIZE + length);
+		DataOutputStream out = new DataOutputStream(record);
+		out.writeByte(RECORD_BLOCK);
+		out.writeShort(column.getId());
+		out.writeInt(column.getRowCount());
+		out.writeLong(buffer.firstTimestamp);
+		out.writeInt(buffer.count);
+		out.writeInt(length);
+		out.write(compressed, 0, length);
+		raf.write(record.toByteArray());
+		column.addBlock(new Block(offset, column.getRowCount(), buffer.count));
+		buffer.count = 0;
+	}
+
+	/**
+	 * Write the remaining rows and the footer index and close the file.
+	 *
+	 * @throws IOException when the file can not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			flush();
+			long footerOffset = raf.getFilePointer();
+			ByteArrayOutputStream footer = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(footer);
+			out.writeByte(RECORD_FOOTER);
+			out.writeInt(buffers.size());
+			for (ColumnBuffer each : buffers.values()) {
+				Column column = each.column;
+				out.writeShort(column.getId());
+				out.writeUTF(column.getName());
+				out.writeInt(column.getBlocks().size());
+				for (Block block : column.getBlocks()) {
+					out.writeLong(block.getOffset());
+					out.writeInt(block.getFirstRow());
+					out.writeInt(block.getCount());
+				}
+			}
+			out.writeLong(footerOffset);
+			out.writeInt(MAGIC);
+			raf.write(footer.toByteArray());
+		} finally {
+			deflater.end();
+			raf.close();
+		}
+	}
+
+	private static class ColumnBuffer {
+		private final Column column;
+		private final float[] values = new float[BLOCK_SIZE];
+		private int count;
+		private long firstTimestamp;
+
+		ColumnBuffer(Column column) {
+			this.column = column;
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * perftest report data store.
+ */
+package org.ngrinder.perftest.report;
@@ -0,0 +1,230 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.agent;
+
+import net.grinder.common.GrinderProperties;
+import net.grinder.communication.Acceptor;
+import net.grinder.communication.ConnectionType;
+import net.grinder.communication.FanOutStreamSender;
+import net.grinder.communication.Message;
+import net.grinder.communication.ServerReceiver;
+import net.grinder.engine.common.ScriptLocation;
+import net.grinder.engine.process.PreloadingWorkerProcessEntryPoint;
+import net.grinder.messages.console.ReportStatisticsMessage;
+import net.grinder.util.Directory;
+import net.grinder.util.StandardTimeAuthority;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+/**
+ * Measures the time from the worker start to the first statistics report with and without the worker pool.
+ * Both workers should report.
+ */
+public class PooledProcessWorkerFactoryTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PooledProcessWorkerFactoryTest.class);
+
+	private static final String SCRIPT = "import net.grinder.script.GTest\n" +
+		"import net.grinder.scriptengine.groovy.junit.GrinderRunner\n" +
+		"import net.grinder.scriptengine.groovy.junit.annotation.BeforeThread\n" +
+		"import org.junit.Test\n" +
+		"import org.junit.runner.RunWith\n" +
+		"\n" +
+		"@RunWith(GrinderRunner)\n" +
+		"class TestRunner {\n" +
+		"	def request\n" +
+		"\n" +
+		"	@BeforeThread\n" +
+		"	void beforeThread() {\n" +
+		"		request = new Request()\n" +
+		"		new GTest(1, \"pool\").record(request)\n" +
+		"	}\n" +
+		"\n" +
+		"	@Test\n" +
+		"	void doTest() {\n" +
+		"		request.send()\n" +
+		"	}\n" +
+		"}\n" +
+		"\n" +
+		"class Request {\n" +
+		"	void send() {\n" +
+		"		Thread.sleep(10)\n" +
+		"	}\n" +
+		"}\n";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private FanOutStreamSender fanOutStreamSender;
+
+	private GrinderProperties properties;
+
+	private ScriptLocation script;
+
+	private WorkerProcessCommandLine commandLine;
+
+	private AgentIdentityImplementation agentIdentity;
+
+	private WorkerProcessPool pool;
+
+	@Before
+	public void before() throws Exception {
+		fanOutStreamSender = new FanOutStreamSender(1);
+
+		File directory = tempFolder.newFolder("current");
+		File scriptFile = new File(directory, "TestRunner.groovy");
+		FileUtils.writeStringToFile(scriptFile, SCRIPT, "UTF-8");
+		script = new ScriptLocation(scriptFile);
+		properties = new GrinderProperties();
+		properties.setFile(GrinderProperties.SCRIPT, scriptFile);
+		properties.setFile(GrinderProperties.LOG_DIRECTORY, tempFolder.newFolder("log"));
+		properties.setProperty(GrinderProperties.CONSOLE_HOST, "127.0.0.1");
+		// The worker runs on the same JDK as the test.
+		properties.setProperty("grinder.jvm", new File(System.getProperty("java.home"), "bin/java").getPath());
+		properties.setInt("grinder.processes", 1);
+		properties.setInt("grinder.threads", 1);
+		properties.setInt("grinder.runs", 0);
+		properties.setInt("grinder.reportToConsole.interval", 100);
+		commandLine = new WorkerProcessCommandLine(properties, System.getProperties(), "-Xmx128m",
+			new Directory(directory));
+		agentIdentity = new AgentIdentityImplementation("pool-test");
+		pool = new WorkerProcessPool(1, LOGGER);
+	}
+
+	@After
+	public void after() throws Exception {
+		pool.shutdown();
+		fanOutStreamSender.shutdown();
+	}
+
+	@Test(timeout = 120000)
+	public void testTimeToFirstReport() throws Exception {
+		PooledProcessWorkerFactory pooledFactory = new PooledProcessWorkerFactory(commandLine, pool, null,
+			agentIdentity, fanOutStreamSender, true, script, properties);
+		assertThat(pooledFactory.getCommand(), hasItem(PreloadingWorkerProcessEntryPoint.class.getName()));
+
+		ProcessWorkerFactory processFactory = new ProcessWorkerFactory(commandLine, agentIdentity,
+			fanOutStreamSender, true, script, properties);
+		// The idle process of the pool loads the classes while the worker without the pool runs.
+		long withoutPool = measureTimeToFirstReport(processFactory);
+		long withPool = measureTimeToFirstReport(pooledFactory);
+
+		// The times depend on the host, so they're only logged.
+		LOGGER.info("Time to the first statistics report without the pool : {} ms, with the pool : {} ms",
+			withoutPool, withPool);
+		assertThat(withoutPool, greaterThan(0L));
+		assertThat(withPool, greaterThan(0L));
+	}
+
+	@Test
+	public void testClassDataSharingClassPath() throws Exception {
+		File jar = tempFolder.newFile("worker.jar");
+		File directory = tempFolder.newFolder("script");
+		String classPath = directory.getPath() + File.pathSeparator + jar.getPath();
+		File cds = tempFolder.newFolder("cds");
+		WorkerClassDataSharing classDataSharing = new WorkerClassDataSharing(cds, LOGGER);
+		try {
+			List<String> command = asList("java", "-classpath", classPath,
+				PreloadingWorkerProcessEntryPoint.class.getName());
+			// The class path is kept as it is until the archive is dumped.
+			assertThat(classDataSharing.getCommand(command, tempFolder.getRoot()), is(command));
+
+			// The archive is used with the class path whose directory comes after the jar.
+			String jarsFirst = jar.getPath() + File.pathSeparator + directory.getPath();
+			File archive = new File(cds, WorkerClassDataSharing.getArchiveName("java", jarsFirst,
+				tempFolder.getRoot()));
+			FileUtils.touch(archive);
+			assertEquals(asList("java", "-XX:SharedArchiveFile=" + archive.getAbsolutePath(), "-Xshare:auto",
+				"-classpath", jarsFirst, PreloadingWorkerProcessEntryPoint.class.getName()),
+				classDataSharing.getCommand(command, tempFolder.getRoot()));
+
+			// The changed jar gets a new archive.
+			FileUtils.writeStringToFile(jar, "changed", "UTF-8");
+			assertThat(WorkerClassDataSharing.getArchiveName("java", jarsFirst, tempFolder.getRoot()),
+				not(archive.getName()));
+		} finally {
+			classDataSharing.shutdown();
+		}
+	}
+
+	@Test
+	public void testClassDataSharingPrune() throws Exception {
+		File cds = tempFolder.newFolder("cds");
+		WorkerClassDataSharing classDataSharing = new WorkerClassDataSharing(cds, LOGGER);
+		try {
+			long now = System.currentTimeMillis();
+			File old = new File(cds, "old.jsa");
+			FileUtils.touch(old);
+			assertTrue(old.setLastModified(now - WorkerClassDataSharing.ARCHIVE_MAX_AGE - 1000));
+			for (int i = 0; i < 3; i++) {
+				File each = new File(cds, i + ".jsa");
+				FileUtils.touch(each);
+				assertTrue(each.setLastModified(now - i * 1000));
+			}
+			classDataSharing.prune(WorkerClassDataSharing.ARCHIVE_MAX_AGE, 2);
+			assertFalse(old.exists());
+			assertTrue(new File(cds, "0.jsa").exists());
+			assertTrue(new File(cds, "1.jsa").exists());
+			assertFalse(new File(cds, "2.jsa").exists());
+		} finally {
+			classDataSharing.shutdown();
+		}
+	}
+
+	/**
+	 * Each worker reports to its own console so that a late report of the previous worker isn't counted.
+	 */
+	private long measureTimeToFirstReport(WorkerFactory factory) throws Exception {
+		Acceptor acceptor = new Acceptor("127.0.0.1", 0, 1, new StandardTimeAuthority());
+		ServerReceiver receiver = new ServerReceiver();
+		Worker worker = null;
+		try {
+			receiver.receiveFrom(acceptor, new ConnectionType[]{ConnectionType.WORKER}, 2, 10, 60000);
+			properties.setInt(GrinderProperties.CONSOLE_PORT, acceptor.getPort());
+
+			long start = System.nanoTime();
+			worker = factory.create(NullOutputStream.NULL_OUTPUT_STREAM, NullOutputStream.NULL_OUTPUT_STREAM);
+			while (true) {
+				Message message = receiver.waitForMessage();
+				assertThat(message, notNullValue());
+				if (message instanceof ReportStatisticsMessage) {
+					return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				}
+			}
+		} finally {
+			if (worker != null) {
+				worker.destroy();
+				worker.waitFor();
+			}
+			receiver.shutdown();
+			acceptor.shutdown();
+		}
+	}
+}
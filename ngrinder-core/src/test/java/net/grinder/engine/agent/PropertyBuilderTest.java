@@ -17,16 +17,24 @@ import net.grinder.common.GrinderProperties;
 import net.grinder.util.Directory;
 import net.grinder.util.Directory.DirectoryException;
 import net.grinder.util.NetworkUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.ngrinder.common.constants.GrinderConstants.GRINDER_SECURITY_LEVEL_NORMAL;
 
 public class PropertyBuilderTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	@Test
 	public void testPropertyBuilder() throws DirectoryException {
 		System.setProperty("java.library.path", System.getProperty("java.library.path") + File.pathSeparator
@@ -60,8 +68,59 @@ public class PropertyBuilderTest {
 		assertThat(buildJVMArgument, containsString("-Xmx"));
 	}
 
+	@Test
+	public void testScriptCache() throws Exception {
+		File current = tempFolder.newFolder("current");
+		PropertyBuilder propertyBuilder = new PropertyBuilder(new GrinderProperties(), new Directory(current), false,
+				GRINDER_SECURITY_LEVEL_NORMAL, "", NetworkUtils.getLocalHostName());
+		String buildJVMArgument = propertyBuilder.buildJVMArgument();
+
+		File scriptCache = new File(tempFolder.getRoot(), "script-cache");
+		assertThat(buildJVMArgument, containsString("-Dngrinder.script.cache=" + scriptCache.getAbsolutePath() + " "));
+		assertThat(buildJVMArgument,
+				containsString("-Dpython.cachedir=" + new File(scriptCache, "jython").getAbsolutePath()));
+		assertTrue(scriptCache.isDirectory());
+	}
+
+	@Test
+	public void testNoScriptCacheWithSecurity() throws Exception {
+		String buildJVMArgument = createPropertyBuilder("").buildJVMArgument();
+
+		// The sandboxed scripts can't write to the cache shared by the other tests.
+		assertThat(buildJVMArgument, not(containsString("-Dngrinder.script.cache=")));
+		assertThat(buildJVMArgument, containsString("-Dpython.cachedir="
+				+ new File(FileUtils.getTempDirectory(), "jython").getAbsolutePath()));
+	}
+
+	@Test
+	public void testEvictScriptCache() throws Exception {
+		PropertyBuilder propertyBuilder = createPropertyBuilder("");
+		File scriptCache = tempFolder.newFolder("script-cache");
+		long now = System.currentTimeMillis();
+		File expired = createScriptCacheEntry(scriptCache, "expired", now - 20000);
+		File old = createScriptCacheEntry(scriptCache, "old", now - 5000);
+		File recent = createScriptCacheEntry(scriptCache, "recent", now);
+
+		propertyBuilder.evictScriptCache(Long.MAX_VALUE, 10000);
+		assertFalse(expired.exists());
+		assertTrue(old.exists());
+
+		// The least recently used one is evicted first.
+		propertyBuilder.evictScriptCache(1024, 10000);
+		assertFalse(old.exists());
+		assertTrue(recent.exists());
+	}
+
+	private File createScriptCacheEntry(File scriptCache, String name, long lastUsed) throws Exception {
+		File entry = new File(scriptCache, name);
+		FileUtils.writeByteArrayToFile(new File(entry, "TestRunner.class"), new byte[1024]);
+		assertTrue(entry.setLastModified(lastUsed));
+		return entry;
+	}
+
 	public PropertyBuilder createPropertyBuilder(String hostString) throws DirectoryException {
-		Directory directory = new Directory(new File("."));
+		// The compiled script cache is created beside the directory.
+		Directory directory = new Directory(new File(tempFolder.getRoot(), "current"));
 		GrinderProperties grinderProperties = new GrinderProperties();
 
 		return new PropertyBuilder(grinderProperties, directory, true, GRINDER_SECURITY_LEVEL_NORMAL, hostString, NetworkUtils.getLocalHostName());
@@ -14,12 +14,16 @@
 package net.grinder.util;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.zip.ZipInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -38,4 +42,27 @@ public class LogCompressUtilTest {
 		assertThat(unzippedContent, is(FileUtils.readFileToByteArray(file)));
 	}
 
+	@Test
+	public void testBinaryEntryIsKeptButNotShown() throws IOException {
+		File log = File.createTempFile("worker", ".log");
+		log.deleteOnExit();
+		FileUtils.writeStringToFile(log, "log line", "UTF-8");
+		File binary = File.createTempFile("worker", ".result.gz");
+		binary.deleteOnExit();
+		byte[] binaryContent = {(byte) 0x1f, (byte) 0x8b, (byte) 0xff, 0, (byte) 0xc3};
+		FileUtils.writeByteArrayToFile(binary, binaryContent);
+
+		byte[] zippedContent = LogCompressUtils.compress(new File[]{log, binary}, UTF_8, UTF_8);
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zippedContent))) {
+			assertThat(zipInputStream.getNextEntry().getName(), is(log.getName()));
+			assertThat(zipInputStream.getNextEntry().getName(), is(binary.getName()));
+			assertThat(IOUtils.toByteArray(zipInputStream), is(binaryContent));
+		}
+
+		File shown = File.createTempFile("shown", ".log");
+		shown.deleteOnExit();
+		LogCompressUtils.decompress(zippedContent, shown);
+		assertThat(FileUtils.readFileToString(shown, "UTF-8"), is("log line"));
+	}
+
 }
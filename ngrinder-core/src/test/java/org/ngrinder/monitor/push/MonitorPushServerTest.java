@@ -0,0 +1,116 @@
+package org.ngrinder.monitor.push;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ngrinder.monitor.share.domain.BandWidth;
+import org.ngrinder.monitor.share.domain.SystemInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.ngrinder.common.util.ThreadUtils.sleep;
+
+public class MonitorPushServerTest {
+
+	private final AtomicReference<SystemInfo> collected = new AtomicReference<>();
+
+	private MonitorPushServer server;
+
+	@Before
+	public void before() throws IOException {
+		server = new MonitorPushServer(collected::get);
+		server.start("127.0.0.1", 0);
+	}
+
+	@After
+	public void after() {
+		server.stop();
+	}
+
+	@Test
+	public void testFrameRoundTrip() throws IOException {
+		SystemInfo systemInfo = createSystemInfo(1000L);
+		systemInfo.setCustomValues("1,2,3");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MonitorPushProtocol.writeSystemInfo(new DataOutputStream(bytes), systemInfo);
+
+		SystemInfo read = MonitorPushProtocol.readSystemInfo(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertThat(read.getCollectTime(), is(1000L));
+		assertThat(read.getSystem(), is(SystemInfo.System.LINUX));
+		assertThat(read.getFreeMemory(), is(10L));
+		assertThat(read.getTotalMemory(), is(20L));
+		assertThat(read.getCpuUsedPercentage(), is(30.5f));
+		assertThat(read.getBandWidth().getReceivedPerSec(), is(40L));
+		assertThat(read.getBandWidth().getSentPerSec(), is(50L));
+		assertThat(read.getCustomValues(), is("1,2,3"));
+		assertThat(read.toRecordString(), is(systemInfo.toRecordString()));
+	}
+
+	@Test
+	public void testPush() {
+		MonitorPushClient client = new MonitorPushClient("127.0.0.1", server.getPort());
+		try {
+			assertThat(client.connect(100), is(true));
+			sleep(300);
+			assertThat(client.getSystemInfo(), nullValue());
+
+			collected.set(createSystemInfo(1000L));
+			waitForCollectTime(client, 1000L);
+			assertThat(client.getSystemInfo().getIp(), is("127.0.0.1"));
+
+			collected.set(createSystemInfo(2000L));
+			waitForCollectTime(client, 2000L);
+
+			server.stop();
+			for (int i = 0; i < 50 && client.isConnected(); i++) {
+				sleep(100);
+			}
+			assertThat(client.isConnected(), is(false));
+		} finally {
+			client.close();
+		}
+	}
+
+	@Test
+	public void testConnectionFailure() {
+		server.stop();
+		MonitorPushClient client = new MonitorPushClient("127.0.0.1", server.getPort());
+		assertThat(client.connect(100), is(false));
+		assertThat(client.isConnected(), is(false));
+	}
+
+	private static void waitForCollectTime(MonitorPushClient client, long collectTime) {
+		for (int i = 0; i < 50; i++) {
+			SystemInfo systemInfo = client.getSystemInfo();
+			if (systemInfo != null && systemInfo.getCollectTime() == collectTime) {
+				return;
+			}
+			sleep(100);
+		}
+		assertThat(client.getSystemInfo(), notNullValue());
+		assertThat(client.getSystemInfo().getCollectTime(), is(collectTime));
+	}
+
+	private static SystemInfo createSystemInfo(long collectTime) {
+		SystemInfo systemInfo = new SystemInfo();
+		systemInfo.setCollectTime(collectTime);
+		systemInfo.setSystem(SystemInfo.System.LINUX);
+		systemInfo.setFreeMemory(10);
+		systemInfo.setTotalMemory(20);
+		systemInfo.setCpuUsedPercentage(30.5f);
+		BandWidth bandWidth = new BandWidth(collectTime);
+		bandWidth.setReceivedPerSec(40);
+		bandWidth.setSentPerSec(50);
+		systemInfo.setBandWidth(bandWidth);
+		return systemInfo;
+	}
+}
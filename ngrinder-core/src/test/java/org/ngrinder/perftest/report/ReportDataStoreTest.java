@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.perftest.report;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class ReportDataStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File file = new File(folder.getRoot(), ReportDataStore.REPORT_DATA_STORE);
+		int rows = ReportDataWriter.BLOCK_SIZE * 3 + 7;
+		try (ReportDataWriter writer = new ReportDataWriter(file, 1000)) {
+			for (int i = 0; i < rows; i++) {
+				writer.append("TPS", (float) i);
+				writer.append("Errors", i % 10 == 0 ? null : 0.5f);
+			}
+		}
+
+		ReportDataStore store = ReportDataStore.open(file);
+		assertThat(store.getSamplingInterval(), is(1000));
+		assertEquals(asList("TPS", "Errors"), new ArrayList<>(store.getKeys()));
+		assertThat(store.getRowCount("TPS"), is(rows));
+		assertThat(store.getRowCount("Vuser"), is(-1));
+
+		List<Float> tps = store.read("TPS", 1);
+		assertThat(tps.size(), is(rows));
+		assertThat(tps.get(rows - 1), is((float) rows - 1));
+
+		List<Float> sampled = store.read("TPS", 50);
+		assertThat(sampled.size(), is((rows + 49) / 50));
+		assertThat(sampled.get(3), is(150f));
+
+		List<Float> errors = store.read("Errors", 5);
+		assertThat(errors.subList(0, 3), is(asList(null, 0.5f, null)));
+	}
+
+	@Test
+	public void testFlushPartialBlock() throws IOException {
+		File file = new File(folder.getRoot(), ReportDataStore.REPORT_DATA_STORE);
+		ReportDataWriter writer = new ReportDataWriter(file, 1000, 0);
+		try {
+			for (int i = 0; i < 3; i++) {
+				writer.append("TPS", (float) i);
+			}
+			// The rows older than the flush interval are visible before the block is full.
+			ReportDataStore store = ReportDataStore.open(file);
+			assertThat(store.getRowCount("TPS"), is(3));
+			assertEquals(asList(0f, 1f, 2f), store.read("TPS", 1));
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Test
+	public void testReadAndAppendWithoutFooter() throws IOException {
+		File file = new File(folder.getRoot(), ReportDataStore.REPORT_DATA_STORE);
+		ReportDataWriter writer = new ReportDataWriter(file, 2000);
+		for (int i = 0; i < ReportDataWriter.BLOCK_SIZE + 5; i++) {
+			writer.append("TPS", 1f);
+		}
+		// Only the full blocks are visible before the flush interval passes.
+		assertThat(ReportDataStore.open(file).getRowCount("TPS"), is(ReportDataWriter.BLOCK_SIZE));
+
+		writer.close();
+		try (ReportDataWriter reopened = new ReportDataWriter(file, 2000)) {
+			reopened.append("TPS", 2f);
+			reopened.append("Vuser", 10f);
+		}
+		ReportDataStore store = ReportDataStore.open(file);
+		assertThat(store.getRowCount("TPS"), is(ReportDataWriter.BLOCK_SIZE + 6));
+		List<Float> tps = store.read("TPS", 1);
+		assertThat(tps.get(tps.size() - 1), is(2f));
+		assertEquals(asList(10f), store.read("Vuser", 1));
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.scriptengine.groovy;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovySystem;
+import org.apache.commons.io.FileUtils;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.tools.GroovyClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of the compiled groovy scripts shared by the worker processes of an agent.
+ * <p/>
+ * An entry is a directory of the class files named by the digest of the script, the groovy sources beside it and
+ * the files in its lib directory. Another run of the same script loads the classes instead of compiling them.
+ * The entry is written to a temporary directory and renamed, so a process never sees a partial entry. The modified
+ * time of an entry is updated when it's loaded, and the agent evicts the entries which are not used for a while.
+ * The agent doesn't configure the cache for the sandboxed worker processes, so a script under the security manager
+ * can't replace the classes another test loads.
+ *
+ * @since 3.5.5
+ */
+class GroovyScriptCache {
+
+	/**
+	 * System property for the cache directory. The cache is disabled when it's not set.
+	 */
+	static final String PROP_SCRIPT_CACHE = "ngrinder.script.cache";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GroovyScriptCache.class);
+
+	private static final String MAIN_CLASS_FILE = "main-class";
+
+	private final File directory;
+
+	GroovyScriptCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the cache configured by {@link #PROP_SCRIPT_CACHE}.
+	 *
+	 * @return cache. null if it's not configured.
+	 */
+	static GroovyScriptCache fromSystemProperty() {
+		String directory = System.getProperty(PROP_SCRIPT_CACHE);
+		return directory == null || directory.trim().isEmpty() ? null : new GroovyScriptCache(new File(directory));
+	}
+
+	/**
+	 * Load the script class from the cache or compile and cache it.
+	 *
+	 * @param loader        loader which the classes are defined in
+	 * @param configuration compiler configuration
+	 * @param script        groovy script file
+	 * @return main class of the script
+	 * @throws IOException when the script can't be read or the cache can't be written
+	 * @throws ClassNotFoundException when the cached entry doesn't have the main class
+	 */
+	Class<?> load(GroovyClassLoader loader, CompilerConfiguration configuration, File script) throws IOException, ClassNotFoundException {
+		File entry = new File(directory, digest(script));
+		File mainClassFile = new File(entry, MAIN_CLASS_FILE);
+		if (!mainClassFile.isFile()) {
+			compile(loader, configuration, script, entry);
+		} else {
+			LOGGER.info("Load the compiled {} from {}", script.getName(), entry);
+			// The agent evicts the entries by the last used time.
+			if (!entry.setLastModified(System.currentTimeMillis())) {
+				LOGGER.debug("Failed to update the last used time of {}", entry);
+			}
+		}
+		loader.addURL(entry.toURI().toURL());
+		String mainClass = FileUtils.readFileToString(mainClassFile, "UTF-8");
+		return loader.loadClass(mainClass, false, true);
+	}
+
+	private void compile(GroovyClassLoader loader, CompilerConfiguration configuration, File script, File entry)
+			throws IOException {
+		CompilationUnit unit = new CompilationUnit(configuration, null, loader);
+		SourceUnit source = unit.addSource(script);
+		unit.compile(Phases.CLASS_GENERATION);
+
+		File temp = new File(directory, entry.getName() + "." + System.nanoTime() + ".tmp");
+		try {
+			for (GroovyClass each : unit.getClasses()) {
+				File classFile = new File(temp, each.getName().replace('.', File.separatorChar) + ".class");
+				FileUtils.writeByteArrayToFile(classFile, each.getBytes());
+			}
+			String mainClass = source.getAST().getClasses().get(0).getName();
+			FileUtils.writeStringToFile(new File(temp, MAIN_CLASS_FILE), mainClass, "UTF-8");
+			// Another worker may have stored the same entry in the meantime.
+			if (temp.renameTo(entry)) {
+				LOGGER.info("Store the compiled {} in {}", script.getName(), entry);
+			}
+		} finally {
+			FileUtils.deleteQuietly(temp);
+		}
+	}
+
+	/**
+	 * Get the digest of the script and the library set it's compiled against.
+	 *
+	 * @param script groovy script file
+	 * @return hex digest
+	 * @throws IOException when a source can't be read
+	 */
+	static String digest(File script) throws IOException {
+		MessageDigest digest = createDigest();
+		update(digest, GroovySystem.getVersion());
+		update(digest, System.getProperty("java.specification.version"));
+		update(digest, script.getName());
+		digest.update(Files.readAllBytes(script.toPath()));
+
+		File base = script.getAbsoluteFile().getParentFile();
+		// Scripts in the same directory are compiled together when the script refers to them.
+		for (Path each : listFiles(base)) {
+			if (each.toString().endsWith(".groovy")) {
+				update(digest, base.toPath().relativize(each).toString());
+				digest.update(Files.readAllBytes(each));
+			}
+		}
+		for (Path each : listFiles(new File(base, "lib"))) {
+			File file = each.toFile();
+			update(digest, file.getName() + ":" + file.length() + ":" + file.lastModified());
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte each : digest.digest()) {
+			hex.append(String.format("%02x", each));
+		}
+		return hex.toString();
+	}
+
+	private static List<Path> listFiles(File directory) throws IOException {
+		if (!directory.isDirectory()) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> paths = Files.walk(directory.toPath())) {
+			List<Path> files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+			files.sort(Comparator.naturalOrder());
+			return files;
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
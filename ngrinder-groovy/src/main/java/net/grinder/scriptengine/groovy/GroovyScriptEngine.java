@@ -28,7 +28,10 @@ import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.model.InitializationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 
 import static net.grinder.util.NoOp.noOp;
@@ -40,6 +43,8 @@ import static net.grinder.util.NoOp.noOp;
  * @author JunHo Yoon (modified by)
  */
 public class GroovyScriptEngine implements ScriptEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GroovyScriptEngine.class);
+
 
 	private final AbstractExceptionProcessor exceptionProcessor = new GroovyExceptionProcessor();
 	private final GrinderContextExecutor m_grinderRunner;
@@ -61,7 +66,7 @@ public class GroovyScriptEngine implements ScriptEngine {
 		configuration.setSourceEncoding("UTF-8");
 		final GroovyClassLoader loader = new GroovyClassLoader(parent, configuration, true);
 		try {
-			m_groovyClass = loader.parseClass(script.getFile());
+			m_groovyClass = loadClass(loader, configuration, script.getFile());
 			m_grinderRunner = new GrinderContextExecutor(m_groovyClass);
 			m_grinderRunner.runBeforeProcess();
 			assert m_grinderRunner.testCount() > 0;
@@ -72,6 +77,20 @@ public class GroovyScriptEngine implements ScriptEngine {
 		}
 	}
 
+	private Class<?> loadClass(GroovyClassLoader loader, CompilerConfiguration configuration, File script)
+			throws IOException {
+		GroovyScriptCache cache = GroovyScriptCache.fromSystemProperty();
+		if (cache != null) {
+			try {
+				return cache.load(loader, configuration, script);
+			} catch (IOException | ClassNotFoundException | LinkageError e) {
+				LOGGER.warn("Failed to use the compiled script cache. Compile {} again : {}", script.getName(),
+						e.toString());
+			}
+		}
+		return loader.parseClass(script);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.scriptengine.groovy;
+
+import net.grinder.scriptengine.groovy.junit.GrinderRunner;
+import net.grinder.scriptengine.groovy.junit.annotation.AfterProcess;
+import net.grinder.scriptengine.groovy.junit.annotation.BeforeProcess;
+import net.grinder.scriptengine.groovy.junit.annotation.Repeat;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.ngrinder.feeder.DataFeeder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs a script which takes its parameters from a {@link DataFeeder} in the grinder context of the unit test.
+ */
+public class DataFeederRunnerTest {
+
+	@Test
+	public void testFeederInGrinderContext() throws Throwable {
+		new GrinderRunner(FeederSample.class).run(new RunNotifier() {
+			@Override
+			public void fireTestFailure(Failure failure) {
+				throw new RuntimeException(failure.getException());
+			}
+		});
+		assertEquals(Arrays.asList("kim", "lee", "park", "kim"), FeederSample.taken);
+	}
+
+	@Ignore
+	@RunWith(GrinderRunner.class)
+	@Repeat(4)
+	public static class FeederSample {
+		private static File file;
+		private static DataFeeder users;
+		private static final List<String> taken = new ArrayList<>();
+
+		@BeforeProcess
+		public static void beforeProcess() throws Exception {
+			file = File.createTempFile("users", ".csv");
+			Files.write(file.toPath(), Arrays.asList("id,password", "kim,1", "lee,2", "park,3"));
+			users = DataFeeder.builder(file.getPath())
+				.setMode(DataFeeder.Mode.UNIQUE)
+				.setHeader(true)
+				.build();
+		}
+
+		@Test
+		public void doTest() {
+			taken.add(users.nextFields()[0]);
+		}
+
+		@AfterProcess
+		public static void afterProcess() {
+			file.delete();
+		}
+	}
+}
@@ -23,11 +23,14 @@ package net.grinder.scriptengine.groovy;
 import net.grinder.engine.common.EngineException;
 import net.grinder.engine.common.ScriptLocation;
 import net.grinder.engine.process.JUnitThreadContextInitializer;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 
-import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -37,6 +40,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
  */
 public class GroovyScriptEngineTest {
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	@Test
 	public void testRunGroovyScript() throws EngineException, NoSuchFieldException, IllegalAccessException {
 
@@ -61,6 +67,35 @@ public class GroovyScriptEngineTest {
 
 	}
 
+	@Test
+	public void testCompiledScriptCache() throws Exception {
+		JUnitThreadContextInitializer init = new JUnitThreadContextInitializer();
+		init.initialize();
+
+		File script = new File(tempFolder.newFolder("script"), "TestRunner.groovy");
+		FileUtils.copyURLToFile(getClass().getClassLoader().getResource("org/ngrinder/TestRunner.groovy"), script);
+		File cache = tempFolder.newFolder("cache");
+		System.setProperty(GroovyScriptCache.PROP_SCRIPT_CACHE, cache.getAbsolutePath());
+		try {
+			Class<?> compiled = new GroovyScriptEngine(new ScriptLocation(script)).m_groovyClass;
+			File entry = new File(cache, GroovyScriptCache.digest(script));
+			assertThat(new File(entry, compiled.getName().replace('.', '/') + ".class").isFile(), is(true));
+
+			// Another process loads the stored classes.
+			Class<?> loaded = new GroovyScriptEngine(new ScriptLocation(script)).m_groovyClass;
+			assertThat(loaded.getName(), is(compiled.getName()));
+			assertThat(new File(loaded.getProtectionDomain().getCodeSource().getLocation().toURI()), is(entry));
+			assertThat(cache.list().length, is(1));
+
+			// A modified script is compiled again.
+			FileUtils.writeStringToFile(script, "\n// modified", "UTF-8", true);
+			new GroovyScriptEngine(new ScriptLocation(script));
+			assertThat(cache.list().length, is(2));
+		} finally {
+			System.clearProperty(GroovyScriptCache.PROP_SCRIPT_CACHE);
+		}
+	}
+
 	private void assertStaticField(Class clazz, String fieldName, Object expectedValue) throws IllegalAccessException,
 			NoSuchFieldException {
 		assertThat(clazz.getDeclaredField(fieldName).get(null), is(expectedValue));
@@ -0,0 +1,205 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.common.GrinderProperties;
+import org.ngrinder.statistics.ArrivalStatistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Start schedule of the open model (arrival rate) load.
+ * <p/>
+ * In the closed model, each worker thread starts the next run right after the previous run finishes, so
+ * the load decreases when the system under test slows down. When the arrival rate is configured, the worker
+ * threads work as a bounded pool of vusers instead. Each run start is assigned to a fixed time slot which
+ * is calculated from the rate and a free thread waits until the slot comes. If every thread is busy when
+ * a slot comes, the run starts late. If it's later than the max lateness, the slot is dropped.
+ * <p/>
+ * The rate can be ramped linearly from {@link #PROP_ARRIVAL_RATE_START} to {@link #PROP_ARRIVAL_RATE}
+ * during {@link #PROP_ARRIVAL_RATE_RAMP_UP_TIME}. The configured rates are for the whole test and they are
+ * divided evenly by all worker processes of all agents.
+ *
+ * @since 3.5.5
+ */
+class ArrivalRateScheduler {
+
+	/**
+	 * Target arrival rate of the whole test in iterations per second. The open model is used only when it's set.
+	 */
+	public static final String PROP_ARRIVAL_RATE = "grinder.arrivalRate";
+	public static final String PROP_ARRIVAL_RATE_START = "grinder.arrivalRate.start";
+	public static final String PROP_ARRIVAL_RATE_RAMP_UP_TIME = "grinder.arrivalRate.rampUpTime";
+	public static final String PROP_ARRIVAL_RATE_MAX_LATENESS = "grinder.arrivalRate.maxLateness";
+
+	/**
+	 * The run which starts later than this is counted as the late start.
+	 */
+	static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final double startRate;
+	private final double targetRate;
+	private final double rampUpSeconds;
+	private final long maxLatenessNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition shutdownCondition = lock.newCondition();
+
+	private long startTime = -1;
+	private long nextArrival = 0;
+	private boolean shutdown = false;
+
+	private long starts;
+	private long lateStarts;
+	private long droppedStarts;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param startRate     arrival rate per second when the test starts
+	 * @param targetRate    arrival rate per second after ramp up
+	 * @param rampUpTime    ramp up time in millisecond
+	 * @param maxLateness   the slot is dropped when no thread can start it within this time in millisecond
+	 */
+	ArrivalRateScheduler(double startRate, double targetRate, long rampUpTime, long maxLateness) {
+		if (targetRate <= 0) {
+			throw new IllegalArgumentException("The arrival rate should be positive");
+		}
+		this.targetRate = targetRate;
+		this.rampUpSeconds = Math.max(rampUpTime, 0) / 1000D;
+		this.startRate = rampUpSeconds == 0 ? targetRate : Math.max(startRate, 0);
+		this.maxLatenessNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxLateness, 0));
+	}
+
+	/**
+	 * Create the scheduler for this worker process from the grinder properties.
+	 *
+	 * @param properties grinder properties
+	 * @return scheduler. null if the arrival rate is not configured.
+	 */
+	static ArrivalRateScheduler create(GrinderProperties properties) {
+		double rate = properties.getDouble(PROP_ARRIVAL_RATE, 0);
+		if (rate <= 0) {
+			return null;
+		}
+		int agents = Math.max(properties.getInt("grinder.agents", 1), 1);
+		int processes = Math.max(properties.getInt("grinder.processes", 1), 1);
+		double divider = agents * processes;
+		return new ArrivalRateScheduler(properties.getDouble(PROP_ARRIVAL_RATE_START, 0) / divider,
+				rate / divider,
+				properties.getLong(PROP_ARRIVAL_RATE_RAMP_UP_TIME, 0),
+				properties.getLong(PROP_ARRIVAL_RATE_MAX_LATENESS, 1000));
+	}
+
+	/**
+	 * Wait until the next run start slot comes. Each slot is given to only one thread.
+	 *
+	 * @return false if the scheduler is shut down
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	boolean awaitNextStart() throws InterruptedException {
+		long scheduled;
+		// The lock is used instead of the monitor not to pin the carrier thread of the virtual thread.
+		lock.lock();
+		try {
+			if (shutdown) {
+				return false;
+			}
+			long now = nanoTime();
+			if (startTime < 0) {
+				startTime = now;
+			}
+			while (true) {
+				scheduled = startTime + secondsToNanos(timeOfArrival(nextArrival++));
+				long lateness = now - scheduled;
+				if (lateness > maxLatenessNanos) {
+					droppedStarts++;
+					continue;
+				}
+				starts++;
+				if (lateness > LATE_THRESHOLD_NANOS) {
+					lateStarts++;
+				}
+				break;
+			}
+			long remaining;
+			while (!shutdown && (remaining = scheduled - nanoTime()) > 0) {
+				shutdownCondition.awaitNanos(remaining);
+			}
+			return !shutdown;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Get the elapsed seconds from the start when the given arrival should start.
+	 *
+	 * @param arrival zero based arrival index
+	 * @return seconds since start
+	 */
+	double timeOfArrival(long arrival) {
+		double arrivalsInRampUp = (startRate + targetRate) / 2 * rampUpSeconds;
+		if (arrival >= arrivalsInRampUp) {
+			return rampUpSeconds + (arrival - arrivalsInRampUp) / targetRate;
+		}
+		// Solve startRate * t + (targetRate - startRate) / (2 * rampUpSeconds) * t^2 = arrival
+		double acceleration = (targetRate - startRate) / (2 * rampUpSeconds);
+		if (Math.abs(acceleration) < 1e-12) {
+			return arrival / startRate;
+		}
+		return (-startRate + Math.sqrt(startRate * startRate + 4 * acceleration * arrival)) / (2 * acceleration);
+	}
+
+	/**
+	 * Wake up all waiting threads and make them finish.
+	 */
+	void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+			shutdownCondition.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Get the start counts since the last call.
+	 *
+	 * @return start counts
+	 */
+	ArrivalStatistics drainStatistics() {
+		lock.lock();
+		try {
+			ArrivalStatistics statistics = new ArrivalStatistics(starts, lateStarts, droppedStarts);
+			starts = 0;
+			lateStarts = 0;
+			droppedStarts = 0;
+			return statistics;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	long nanoTime() {
+		return System.nanoTime();
+	}
+
+	private static long secondsToNanos(double seconds) {
+		return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+	}
+}
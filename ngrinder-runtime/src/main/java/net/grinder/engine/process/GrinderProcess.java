@@ -38,7 +38,10 @@ import net.grinder.engine.communication.ConsoleListener;
 import net.grinder.engine.messages.InitialiseGrinderMessage;
 import net.grinder.engine.process.dcr.DCRContextImplementation;
 import net.grinder.messages.console.RegisterTestsMessage;
+import net.grinder.messages.console.ReportArrivalStatisticsMessage;
+import net.grinder.messages.console.ReportLatencyHistogramMessage;
 import net.grinder.messages.console.ReportStatisticsMessage;
+import net.grinder.messages.console.ReportVuserStatisticsMessage;
 import net.grinder.messages.console.WorkerAddress;
 import net.grinder.messages.console.WorkerProcessReportMessage;
 import net.grinder.script.Grinder;
@@ -56,19 +59,28 @@ import net.grinder.synchronisation.ClientBarrierGroups;
 import net.grinder.synchronisation.LocalBarrierGroups;
 import net.grinder.util.*;
 import net.grinder.util.ListenerSupport.Informer;
-import net.grinder.util.thread.BooleanCondition;
 import net.grinder.util.thread.Condition;
+import org.ngrinder.dns.AddressBalancer;
+import org.ngrinder.dns.LocalManagedDnsImpl;
 import org.ngrinder.dns.LocalManagedDnsProxy;
 import org.ngrinder.dns.NameServiceProxy;
+import org.ngrinder.http.ConnPoolMetrics;
+import org.ngrinder.http.HTTPRequester;
+import org.ngrinder.statistics.ArrivalStatistics;
+import org.ngrinder.statistics.LatencyHistogram;
+import org.ngrinder.statistics.LatencyRecorder;
+import org.ngrinder.statistics.ResultLog;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.UnknownHostException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 
 import static java.lang.System.getProperty;
 
@@ -93,12 +105,20 @@ final class GrinderProcess {
 	private final boolean m_reportTimesToConsole;
 	private final QueuedSender m_consoleSender;
 	private final Sleeper m_sleeper;
+	private final boolean m_virtualThreads;
 	private final InitialiseGrinderMessage m_initialisationMessage;
 	private final ConsoleListener m_consoleListener;
 	private final StatisticsServices m_statisticsServices;
 	private final TestStatisticsMap m_accumulatedStatistics;
 	private final TestStatisticsHelperImplementation m_testStatisticsHelper;
 	private final TestRegistryImplementation m_testRegistryImplementation;
+	private final LatencyRecorder m_latencyRecorder = new LatencyRecorder();
+	// null if the result log is not enabled.
+	private final ResultLog m_resultLog;
+	// null in the closed model.
+	private volatile ArrivalRateScheduler m_arrivalRateScheduler;
+	// null without the vuser ramp.
+	private volatile VuserRampScheduler m_vuserRampScheduler;
 	private final Condition m_eventSynchronisation = new Condition();
 	private final MessagePump m_messagePump;
 
@@ -148,14 +168,23 @@ final class GrinderProcess {
 			if (getProperty("ngrinder.enable.local-dns") != null) {
 				try {
 					// set LocalManagedDnsProxy to be used as NameService implementation inside InetAddress.
-					NameServiceProxy.set(new LocalManagedDnsProxy());
-					m_logger.info("Setting of nGrinder local DNS successfully");
-				} catch (IllegalAccessException | NoSuchFieldException | ClassNotFoundException e) {
+					AddressBalancer addressBalancer = new AddressBalancer(
+						AddressBalancer.Mode.of(properties.getProperty(AddressBalancer.PROP_DNS_BALANCING)));
+					// The addresses from the DNS server keep its order unless the balancing is set.
+					boolean balanceResolved = properties.containsKey(AddressBalancer.PROP_DNS_BALANCING);
+					NameServiceProxy.set(new LocalManagedDnsProxy(
+						new LocalManagedDnsImpl(properties.getLong(LocalManagedDnsImpl.PROP_DNS_TTL, -1)),
+						addressBalancer, balanceResolved));
+					m_logger.info("Setting of nGrinder local DNS successfully, balancing {}{}", addressBalancer.getMode(),
+						balanceResolved ? "" : " of the hosts in the etc hosts");
+				} catch (IllegalAccessException | NoSuchFieldException | ClassNotFoundException
+					| IllegalArgumentException e) {
 					throw new EngineException("Setting of Local DNS provider failed", e);
 				}
 			}
 
 			m_dataLogger = LoggerFactory.getLogger("data");
+			m_resultLog = ResultLog.create(properties, new File(logDirectory), workerName);
 
 			m_logger.info("The Grinder version {}", GrinderBuild.getVersionString());
 			m_logger.info(JVM.getInstance().toString());
@@ -204,8 +233,15 @@ final class GrinderProcess {
 
 			final Logger externalLogger = new ExternalLogger(m_logger, m_threadContexts);
 
-			m_sleeper = new SleeperImplementation(m_times.getTimeAuthority(), externalLogger, properties.getDouble(
-					"grinder.sleepTimeFactor", 1.0d), properties.getDouble("grinder.sleepTimeVariation", 0.2d));
+			final double sleepTimeFactor = properties.getDouble("grinder.sleepTimeFactor", 1.0d);
+			final double sleepTimeVariation = properties.getDouble("grinder.sleepTimeVariation", 0.2d);
+			m_virtualThreads = properties.getBoolean(VirtualThreads.PROP_VIRTUAL_THREADS, false)
+					&& VirtualThreads.isSupported();
+			// The virtual threads should not wait on the monitor which pins their carrier threads.
+			m_sleeper = m_virtualThreads ?
+					new ParkingSleeper(m_times.getTimeAuthority(), externalLogger, sleepTimeFactor, sleepTimeVariation) :
+					new SleeperImplementation(m_times.getTimeAuthority(), externalLogger, sleepTimeFactor,
+							sleepTimeVariation);
 
 			final Statistics scriptStatistics = new ScriptStatisticsImplementation(m_threadContexts,
 					m_statisticsServices, m_consoleSender);
@@ -319,7 +355,7 @@ final class GrinderProcess {
 
 			m_logger.info(numbers.toString());
 
-			final short numberOfThreads = properties.getShort("grinder.threads", (short) 1);
+			final int numberOfThreads = properties.getInt("grinder.threads", 1);
 			final int reportToConsoleInterval = properties.getInt("grinder.reportToConsole.interval", 500);
 			final int duration = properties.getInt("grinder.duration", 0);
 
@@ -364,15 +400,33 @@ final class GrinderProcess {
 
 			m_dataLogger.info(dataLogHeader.toString());
 
-			sendStatusMessage(ProcessReport.STATE_STARTED, (short) 0, numberOfThreads);
-			boolean threadRampUp = properties.getBoolean("grinder.threadRampUp", false);
-			final ThreadSynchronisation threadSynchronisation = threadRampUp ?
-					new ThreadRampUpEnabledThreadSynchronisation(m_eventSynchronisation, m_sleeper) :
-					new ThreadSynchronisation(m_eventSynchronisation);
+			if (m_virtualThreads) {
+				m_logger.info("Each thread runs as a virtual thread");
+			} else if (properties.getBoolean(VirtualThreads.PROP_VIRTUAL_THREADS, false)) {
+				m_logger.info("Virtual thread is not supported by this JVM. Platform threads are used");
+			}
+
+			sendStatusMessage(ProcessReport.STATE_STARTED, 0, numberOfThreads);
+			final ThreadSynchronisation threadSynchronisation = new ThreadSynchronisation(m_eventSynchronisation);
 
 			m_terminalLogger.info("Starting threads");
 
 			synchronized (m_eventSynchronisation) {
+				m_arrivalRateScheduler = ArrivalRateScheduler.create(properties);
+
+				if (m_arrivalRateScheduler != null) {
+					m_logger.info("Open model : {} threads run the iterations at {} per second",
+							numberOfThreads, properties.getDouble(ArrivalRateScheduler.PROP_ARRIVAL_RATE, 0));
+				}
+
+				m_vuserRampScheduler = VuserRampScheduler.create(properties, numberOfThreads,
+						m_initialisationMessage.getScript().getDirectory().getFile());
+
+				if (m_vuserRampScheduler != null) {
+					m_logger.info("Vuser ramp : {} of {} threads run at first",
+							m_vuserRampScheduler.getPlannedVusers(), numberOfThreads);
+				}
+
 				m_threadStarter = new ThreadStarterImplementation(threadSynchronisation, scriptEngine);
 
 				for (int i = 0; i < numberOfThreads; i++) {
@@ -382,6 +436,10 @@ final class GrinderProcess {
 
 			threadSynchronisation.startThreads();
 
+			if (m_vuserRampScheduler != null) {
+				m_vuserRampScheduler.start();
+			}
+
 			m_times.setExecutionStartTime();
 
 			m_logger.info("Start time is {} ms since Epoch", m_times.getExecutionStartTime());
@@ -433,8 +491,17 @@ final class GrinderProcess {
 						m_threadStarter = m_invalidThreadStarter;
 						m_threadContexts.shutdownAll();
 
+						if (m_arrivalRateScheduler != null) {
+							m_arrivalRateScheduler.shutdown();
+						}
+
+						if (m_vuserRampScheduler != null) {
+							m_vuserRampScheduler.shutdown();
+						}
+
 						// Interrupt any sleepers.
 						SleeperImplementation.shutdownAllCurrentSleepers();
+						m_sleeper.shutdown();
 
 						final long time = System.currentTimeMillis();
 						final long maximumShutdownTime = 10000;
@@ -452,6 +519,10 @@ final class GrinderProcess {
 			} finally {
 				reportTimerTask.cancel();
 				shutdownTimerTask.cancel();
+
+				if (m_vuserRampScheduler != null) {
+					m_vuserRampScheduler.shutdown();
+				}
 			}
 
 			scriptEngine.shutdown();
@@ -459,8 +530,12 @@ final class GrinderProcess {
 			// Final report to the console.
 			reportTimerTask.run();
 
+			if (m_resultLog != null) {
+				m_resultLog.close();
+			}
+
 			if (!m_communicationShutdown) {
-				sendStatusMessage(ProcessReport.STATE_FINISHED, (short) 0, (short) 0);
+				sendStatusMessage(ProcessReport.STATE_FINISHED, 0, 0);
 			}
 
 			m_consoleSender.shutdown();
@@ -479,6 +554,11 @@ final class GrinderProcess {
 			statisticsTable.print(new PrintWriter(statistics), elapsedTime);
 			m_logger.info(statistics.toString());
 
+			final ConnPoolMetrics connPoolMetrics = HTTPRequester.getConnPoolMetrics();
+			if (connPoolMetrics.getCreated() > 0) {
+				m_logger.info("HTTP connections of this process : {}", connPoolMetrics);
+			}
+
 			timer.cancel();
 
 			m_terminalLogger.info("Finished");
@@ -493,6 +573,11 @@ final class GrinderProcess {
 	}
 
 	public void shutdown(final boolean inputStreamIsStdin) {
+		// The result log is closed already unless the process is aborted.
+		if (m_resultLog != null) {
+			m_resultLog.close();
+		}
+
 		if (!inputStreamIsStdin) {
 			// Sadly it appears its impossible to interrupt a read() on a
 			// process
@@ -540,7 +625,28 @@ final class GrinderProcess {
 						m_consoleSender.send(new ReportStatisticsMessage(sample));
 					}
 
-					sendStatusMessage(ProcessReport.STATE_RUNNING, m_threads.getNumberOfRunningThreads(),
+					final Map<Integer, LatencyHistogram> histograms = m_latencyRecorder.drain();
+					if (m_reportTimesToConsole && !histograms.isEmpty()) {
+						m_consoleSender.send(new ReportLatencyHistogramMessage(histograms));
+					}
+
+					final ArrivalRateScheduler arrivalRateScheduler = m_arrivalRateScheduler;
+					if (arrivalRateScheduler != null) {
+						final ArrivalStatistics arrivalStatistics = arrivalRateScheduler.drainStatistics();
+						if (!arrivalStatistics.isEmpty()) {
+							m_consoleSender.send(new ReportArrivalStatisticsMessage(arrivalStatistics));
+						}
+					}
+
+					final VuserRampScheduler vuserRampScheduler = m_vuserRampScheduler;
+					if (vuserRampScheduler != null) {
+						m_consoleSender.send(new ReportVuserStatisticsMessage(
+								m_initialisationMessage.getWorkerIdentity(), vuserRampScheduler.getStatistics()));
+					}
+
+					// The threads parked by the vuser ramp are not counted as running.
+					sendStatusMessage(ProcessReport.STATE_RUNNING, vuserRampScheduler != null ?
+									vuserRampScheduler.getActiveVusers() : m_threads.getNumberOfRunningThreads(),
 							m_threads.getTotalNumberOfThreads());
 				} catch (final CommunicationException e) {
 					m_terminalLogger.info("Report to console failed", e);
@@ -551,14 +657,20 @@ final class GrinderProcess {
 		}
 	}
 
-	private void sendStatusMessage(final short state, final short numberOfThreads, final short totalNumberOfThreads)
+	private void sendStatusMessage(final short state, final int numberOfThreads, final int totalNumberOfThreads)
 			throws CommunicationException {
 
-		m_consoleSender.send(new WorkerProcessReportMessage(state, numberOfThreads, totalNumberOfThreads));
+		// The report message keeps the thread counts in short.
+		m_consoleSender.send(new WorkerProcessReportMessage(state, toShort(numberOfThreads),
+				toShort(totalNumberOfThreads)));
 
 		m_consoleSender.flush();
 	}
 
+	private static short toShort(final int value) {
+		return (short) Math.min(value, Short.MAX_VALUE);
+	}
+
 	private class ShutdownTimerTask extends TimerTask {
 		@Override
 		public void run() {
@@ -579,13 +691,14 @@ final class GrinderProcess {
 	 * </p>
 	 */
 	static class ThreadSynchronisation implements WorkerThreadSynchronisation {
-		final BooleanCondition m_started = new BooleanCondition();
+		// The latch parks the waiting threads instead of making them wait on a monitor.
+		final CountDownLatch m_started = new CountDownLatch(1);
 		final Condition m_threadEventCondition;
 
-		short m_numberCreated = 0;
-		short m_numberAwaitingStart = 0;
-		short m_numberFinished = 0;
-		short m_numberRunning = 0;
+		int m_numberCreated = 0;
+		int m_numberAwaitingStart = 0;
+		int m_numberFinished = 0;
+		int m_numberRunning = 0;
 
 		ThreadSynchronisation(final Condition condition) {
 			m_threadEventCondition = condition;
@@ -595,9 +708,9 @@ final class GrinderProcess {
 		/**
 		 * The number of worker threads that have been created but not run to completion.
 		 */
-		public short getNumberOfRunningThreads() {
+		public int getNumberOfRunningThreads() {
 			synchronized (m_threadEventCondition) {
-				return (short) (m_numberCreated - m_numberFinished);
+				return m_numberCreated - m_numberFinished;
 			}
 		}
 
@@ -614,7 +727,7 @@ final class GrinderProcess {
 		/**
 		 * The number of worker threads that have been created.
 		 */
-		public short getTotalNumberOfThreads() {
+		public int getTotalNumberOfThreads() {
 			synchronized (m_threadEventCondition) {
 				return m_numberCreated;
 			}
@@ -636,7 +749,7 @@ final class GrinderProcess {
 				m_numberAwaitingStart = 0;
 			}
 
-			m_started.set(true);
+			m_started.countDown();
 		}
 
 		@Override
@@ -649,151 +762,24 @@ final class GrinderProcess {
 				}
 			}
 
-			m_started.await(true);
-		}
-
-		@Override
-		public void threadFinished() {
-			synchronized (m_threadEventCondition) {
-				++m_numberFinished;
-
-				if (isReadyToStart() || isFinished()) {
-					m_threadEventCondition.notifyAll();
-				}
-			}
-		}
-
-
-	}
-
-	static class ThreadRampUpEnabledThreadSynchronisation extends ThreadSynchronisation {
-		private final Sleeper sleeper;
-
-		ThreadRampUpEnabledThreadSynchronisation(Condition condition, Sleeper sleeper) {
-			super(condition);
-			this.sleeper = sleeper;
-		}
-
-		public void startThreads() {
-			synchronized (m_threadEventCondition) {
-				while (!isReadyToStart()) {
-					m_threadEventCondition.waitNoInterrruptException();
-				}
-				m_numberAwaitingStart = 0;
-			}
-//			m_started.set(true);
-		}
-
-		@Override
-		public void awaitStart() {
-			int waitingTime = doRampUp();
-			int threadNumber = 0;
-			if (Grinder.grinder != null) {
-				threadNumber = Math.max(Grinder.grinder.getThreadNumber(), 0);
-			}
-			synchronized (m_threadEventCondition) {
-				m_numberAwaitingStart++;
-				m_numberRunning++;
-				m_threadEventCondition.notifyAll();
-			}
-			if (Grinder.grinder != null) {
-				Grinder.grinder.getLogger().info("thread-{} is invoked after {} ms sleep", threadNumber,
-						waitingTime);
-			}
-
-//			m_started.await(true);
-		}
-
-		@Override
-		public short getNumberOfRunningThreads() {
-			synchronized (m_threadEventCondition) {
-				return m_numberRunning;
+			try {
+				m_started.await();
+			} catch (InterruptedException e) {
+				throw new UncheckedInterruptedException(e);
 			}
 		}
 
-
-		@Override
-		public boolean isReadyToStart() {
-			return true;
-		}
-
-
 		@Override
 		public void threadFinished() {
 			synchronized (m_threadEventCondition) {
 				++m_numberFinished;
 
-				if (isFinished()) {
+				if (isReadyToStart() || isFinished()) {
 					m_threadEventCondition.notifyAll();
 				}
 			}
 		}
 
-		public boolean isFinished() {
-			return getNumberOfNotFinishedThreads() <= 0;
-		}
-
-		/**
-		 * The number of worker threads that have been created but not run to completion.
-		 */
-		public short getNumberOfNotFinishedThreads() {
-			synchronized (m_threadEventCondition) {
-				return (short) (m_numberCreated - m_numberFinished);
-			}
-		}
-
-		public static final String GRINDER_PROP_THREAD_INCREMENT = "grinder.processIncrement";
-		public static final String GRINDER_PROP_THREAD_INCREMENT_INTERVAL = "grinder.processIncrementInterval";
-		public static final String GRINDER_PROP_INITIAL_PROCESS = "grinder.initialProcesses";
-		public static final String GRINDER_PROP_INITIAL_THREAD_SLEEP_TIME = "grinder.initialThreadSleepTime";
-
-		protected int doRampUp() {
-			InternalScriptContext grinder = Grinder.grinder;
-			if (grinder != null) {
-				GrinderProperties properties = grinder.getProperties();
-				int rampUpInterval = properties.getInt(GRINDER_PROP_THREAD_INCREMENT_INTERVAL, 0);
-				int rampUpStep = properties.getInt(GRINDER_PROP_THREAD_INCREMENT, 0);
-				int rampUpInitialThread = properties.getInt(GRINDER_PROP_INITIAL_PROCESS, 0);
-				int rampUpInitialSleep = properties.getInt(GRINDER_PROP_INITIAL_THREAD_SLEEP_TIME, 0);
-				return doRampUp(rampUpInterval, rampUpStep, rampUpInitialThread, rampUpInitialSleep);
-			}
-			return 0;
-		}
-
-		private int doRampUp(int rampUpInterval, int rampUpStep, int rampUpInitialThread, int rampUpInitialSleep) {
-			int threadNumber = 0;
-			int waitingTime;
-			if (Grinder.grinder != null) {
-				threadNumber = Math.max(Grinder.grinder.getThreadNumber(), 0);
-			}
-			try {
-				waitingTime = getWaitingTime(rampUpInterval, rampUpStep,
-						rampUpInitialThread, rampUpInitialSleep,
-						threadNumber);
-				if (waitingTime != 0) {
-					if (Grinder.grinder != null) {
-						Grinder.grinder.getLogger().info("thread-{} is sleeping {} ms for ramp-up", threadNumber,
-								waitingTime);
-					}
-					sleeper.sleepNormal(waitingTime, 0);
-				}
-
-				return waitingTime;
-			} catch (Sleeper.ShutdownException e) {
-				throw new RuntimeException(e);
-			}
-		}
-
-		public int getWaitingTime(int rampUpInterval, int rampUpStep,
-		                          int rampUpInitialThread, int rampUpInitialSleep, int threadNumber) {
-			// 100 2 1 0 3   ==> 100
-			if (threadNumber < rampUpInitialThread) {
-				return 0;
-			}
-			int remained = (threadNumber - rampUpInitialThread);
-			int threadStep = (remained / rampUpStep) + 1;
-			return Math.max(rampUpInitialSleep + (threadStep * rampUpInterval), 0);
-		}
 
 	}
 
@@ -847,7 +833,8 @@ final class GrinderProcess {
 			}
 
 			final ThreadContext threadContext = new ThreadContextImplementation(
-					m_initialisationMessage.getProperties(), m_statisticsServices, threadNumber, m_dataLogger);
+					m_initialisationMessage.getProperties(), m_statisticsServices, threadNumber, m_dataLogger,
+					m_latencyRecorder, m_resultLog);
 
 			final WorkerRunnableFactory workerRunnableFactory;
 
@@ -864,10 +851,9 @@ final class GrinderProcess {
 
 			final GrinderThread runnable = new GrinderThread(m_logger, threadContext, m_threadSynchronisation,
 					m_threadLifeCycleCallbacks, m_initialisationMessage.getProperties(), m_sleeper,
-					workerRunnableFactory);
+					workerRunnableFactory, m_arrivalRateScheduler, m_vuserRampScheduler);
 
-			final Thread t = new Thread(runnable, "thread " + threadNumber);
-			t.setDaemon(true);
+			final Thread t = VirtualThreads.newThread(runnable, "thread " + threadNumber, m_virtualThreads);
 			t.start();
 
 			return threadNumber;
@@ -46,9 +46,14 @@ class GrinderThread implements Runnable {
 	private final Sleeper m_sleeper;
 	private final ThreadContext m_context;
 	private final WorkerRunnableFactory m_workerRunnableFactory;
+	private final ArrivalRateScheduler m_arrivalRateScheduler;
+	private final VuserRampScheduler m_vuserRampScheduler;
 
 	/**
 	 * The constructor.
+	 * <p/>
+	 * With the arrival rate scheduler, each run waits for its start slot in the open model. With the vuser ramp
+	 * scheduler, each run waits until the ramp activates this thread. Either of them can be null.
 	 */
 	public GrinderThread(Logger logger,
 						 ThreadContext context,
@@ -56,7 +61,9 @@ class GrinderThread implements Runnable {
 						 ProcessLifeCycleListener processLifeCycle,
 						 GrinderProperties properties,
 						 Sleeper sleeper,
-						 WorkerRunnableFactory workerRunnableFactory)
+						 WorkerRunnableFactory workerRunnableFactory,
+						 ArrivalRateScheduler arrivalRateScheduler,
+						 VuserRampScheduler vuserRampScheduler)
 		throws EngineException {
 
 		m_logger = logger;
@@ -66,6 +73,8 @@ class GrinderThread implements Runnable {
 		m_properties = properties;
 		m_sleeper = sleeper;
 		m_workerRunnableFactory = workerRunnableFactory;
+		m_arrivalRateScheduler = arrivalRateScheduler;
+		m_vuserRampScheduler = vuserRampScheduler;
 
 		// Dispatch the process context callback in the main thread.
 		m_processLifeCycle.threadCreated(m_context);
@@ -110,6 +119,17 @@ class GrinderThread implements Runnable {
 				 numberOfRuns == 0 || currentRun < numberOfRuns;
 				 currentRun++) {
 
+				if (m_vuserRampScheduler != null &&
+					!m_vuserRampScheduler.awaitActive(m_context.getThreadNumber())) {
+					m_logger.info(m_context.getLogMarker(), "retired by the vuser ramp");
+					break;
+				}
+
+				if (m_arrivalRateScheduler != null && !awaitNextStart()) {
+					m_logger.info(m_context.getLogMarker(), "shut down");
+					break;
+				}
+
 				m_context.setCurrentRunNumber(currentRun);
 
 				m_context.fireBeginRunEvent();
@@ -171,7 +191,21 @@ class GrinderThread implements Runnable {
 		finally {
 			m_context.setCurrentRunNumber(-1);
 
+			if (m_vuserRampScheduler != null) {
+				m_vuserRampScheduler.threadFinished(m_context.getThreadNumber());
+			}
+
 			m_threadSynchronisation.threadFinished();
 		}
 	}
+
+	private boolean awaitNextStart() {
+		try {
+			return m_arrivalRateScheduler.awaitNextStart();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
 }
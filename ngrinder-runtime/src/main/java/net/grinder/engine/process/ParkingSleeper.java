@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.common.UncheckedInterruptedException;
+import net.grinder.util.Sleeper;
+import net.grinder.util.TimeAuthority;
+import org.slf4j.Logger;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Sleeper} which has the same distribution as {@link net.grinder.util.SleeperImplementation}.
+ * <p/>
+ * {@link net.grinder.util.SleeperImplementation} waits on an object monitor shared by every vuser. A virtual thread
+ * waiting on a monitor pins its carrier thread, so this one parks the waiting threads on a
+ * {@link java.util.concurrent.locks.Lock} condition instead.
+ *
+ * @since 3.5.5
+ */
+final class ParkingSleeper implements Sleeper {
+
+	private static final Random RANDOM = new Random();
+
+	private final TimeAuthority m_timeAuthority;
+	private final Logger m_logger;
+	private final double m_factor;
+	private final double m_limit9975Factor;
+
+	private final ReentrantLock m_lock = new ReentrantLock();
+	private final Condition m_shutdownCondition = m_lock.newCondition();
+	private volatile boolean m_shutdown = false;
+
+	ParkingSleeper(TimeAuthority timeAuthority, Logger logger, double factor, double limit9975Factor) {
+		if (factor < 0 || limit9975Factor < 0) {
+			throw new IllegalArgumentException("Factors must be positive");
+		}
+		m_timeAuthority = timeAuthority;
+		m_logger = logger;
+		m_factor = factor;
+		m_limit9975Factor = limit9975Factor;
+	}
+
+	@Override
+	public void shutdown() {
+		m_lock.lock();
+		try {
+			m_shutdown = true;
+			m_shutdownCondition.signalAll();
+		} finally {
+			m_lock.unlock();
+		}
+	}
+
+	@Override
+	public long getTimeInMilliseconds() {
+		return m_timeAuthority.getTimeInMilliseconds();
+	}
+
+	@Override
+	public void sleepNormal(long meanTime) throws ShutdownException {
+		sleepNormal(meanTime, (long) ((meanTime * m_limit9975Factor) / 3.0));
+	}
+
+	@Override
+	public void sleepNormal(long meanTime, long sigma) throws ShutdownException {
+		checkShutdown();
+		if (meanTime > 0) {
+			if (sigma > 0) {
+				doSleep(meanTime + (long) (RANDOM.nextGaussian() * sigma));
+			} else {
+				doSleep(meanTime);
+			}
+		}
+	}
+
+	@Override
+	public void sleepFlat(long maximumTime) throws ShutdownException {
+		checkShutdown();
+		if (maximumTime > 0) {
+			doSleep(Math.abs(RANDOM.nextLong()) % maximumTime);
+		}
+	}
+
+	private void doSleep(long time) throws ShutdownException {
+		final long factoredTime = (long) (time * m_factor);
+		if (m_logger != null) {
+			m_logger.info("sleeping for {} ms", factoredTime);
+		}
+		if (time <= 0) {
+			return;
+		}
+		long currentTime = m_timeAuthority.getTimeInMilliseconds();
+		final long wakeUpTime = currentTime + factoredTime;
+		while (currentTime < wakeUpTime) {
+			m_lock.lock();
+			try {
+				checkShutdown();
+				m_shutdownCondition.await(wakeUpTime - currentTime, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				throw new UncheckedInterruptedException(e);
+			} finally {
+				m_lock.unlock();
+			}
+			currentTime = m_timeAuthority.getTimeInMilliseconds();
+		}
+	}
+
+	private void checkShutdown() throws ShutdownException {
+		if (m_shutdown) {
+			throw new ShutdownException("Shut down");
+		}
+	}
+}
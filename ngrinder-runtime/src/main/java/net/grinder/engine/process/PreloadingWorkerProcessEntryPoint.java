@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Worker process entry point which loads the classes of the worker before it waits for the agent.
+ * <p/>
+ * The agent starts the worker processes of the pool ahead of time. They load the classes of Grinder, nGrinder
+ * and the script engines while they're idle, so a process taken from the pool starts the script without the
+ * class loading delay. The classes are loaded without the initialization, so no static initializer runs before
+ * the worker gets its properties.
+ * <p/>
+ * With the {@link #PRELOAD_ONLY} argument, the process exits after loading the classes. The agent runs it so
+ * to dump the class data sharing archive of the worker class path.
+ *
+ * @since 3.5.5
+ */
+public class PreloadingWorkerProcessEntryPoint {
+
+	public static final String PRELOAD_ONLY = "preload-only";
+
+	/**
+	 * Classes whose jars are loaded and the entry prefixes to load from each jar. The classes which are not in
+	 * the class path are skipped. Only the core of Jython is loaded as its jar bundles many libraries.
+	 */
+	private static final String[][] PRELOADED_JARS = {
+		{"net.grinder.engine.process.WorkerProcessEntryPoint", "net/grinder/"},
+		{"net.grinder.engine.process.PreloadingWorkerProcessEntryPoint", ""},
+		{"net.grinder.scriptengine.groovy.GroovyScriptEngine", ""},
+		{"groovy.lang.GroovyObject", ""},
+		{"org.python.core.PyObject", "org/python/core/"},
+		{"org.apache.hc.core5.http.HttpRequest", ""},
+		{"org.apache.hc.core5.http2.HttpVersionPolicy", ""},
+	};
+
+	public static void main(String[] args) {
+		preload(PreloadingWorkerProcessEntryPoint.class.getClassLoader());
+		if (args.length > 0 && PRELOAD_ONLY.equals(args[0])) {
+			return;
+		}
+		WorkerProcessEntryPoint.main(args);
+	}
+
+	/**
+	 * Load the classes of the worker jars.
+	 *
+	 * @param classLoader class loader
+	 * @return the number of loaded classes
+	 */
+	static int preload(ClassLoader classLoader) {
+		Set<File> preloaded = new HashSet<>();
+		int loaded = 0;
+		for (String[] each : PRELOADED_JARS) {
+			File jar = getJar(classLoader, each[0]);
+			if (jar == null || !preloaded.add(jar)) {
+				continue;
+			}
+			try {
+				loaded += jar.isDirectory() ? preloadDirectory(classLoader, jar, each[1])
+					: preloadJar(classLoader, jar, each[1]);
+			} catch (IOException e) {
+				// They're loaded later on demand.
+			}
+		}
+		return loaded;
+	}
+
+	private static File getJar(ClassLoader classLoader, String className) {
+		try {
+			CodeSource codeSource = Class.forName(className, false, classLoader).getProtectionDomain().getCodeSource();
+			URL location = codeSource == null ? null : codeSource.getLocation();
+			if (location != null && "file".equals(location.getProtocol())) {
+				return new File(location.toURI());
+			}
+		} catch (ClassNotFoundException | LinkageError | URISyntaxException | SecurityException e) {
+			// Not used by this worker.
+		}
+		return null;
+	}
+
+	private static int preloadJar(ClassLoader classLoader, File jar, String prefix) throws IOException {
+		int loaded = 0;
+		try (JarFile jarFile = new JarFile(jar)) {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.startsWith(prefix) && load(classLoader, name)) {
+					loaded++;
+				}
+			}
+		}
+		return loaded;
+	}
+
+	private static int preloadDirectory(ClassLoader classLoader, File directory, String prefix) throws IOException {
+		Path root = directory.toPath();
+		try (Stream<Path> paths = Files.walk(root)) {
+			return (int) paths.map(each -> root.relativize(each).toString().replace(File.separatorChar, '/'))
+				.filter(name -> name.startsWith(prefix) && load(classLoader, name))
+				.count();
+		}
+	}
+
+	private static boolean load(ClassLoader classLoader, String entryName) {
+		if (!entryName.endsWith(".class") || entryName.startsWith("META-INF/")
+			|| entryName.endsWith("module-info.class")) {
+			return false;
+		}
+		try {
+			Class.forName(entryName.substring(0, entryName.length() - 6).replace('/', '.'), false, classLoader);
+			return true;
+		} catch (ClassNotFoundException | LinkageError | SecurityException e) {
+			// Depends on an optional library.
+			return false;
+		}
+	}
+}
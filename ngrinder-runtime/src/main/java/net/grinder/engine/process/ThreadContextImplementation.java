@@ -33,11 +33,14 @@ import net.grinder.common.ThreadLifeCycleListener;
 import net.grinder.engine.common.EngineException;
 import net.grinder.engine.process.DispatchContext.DispatchStateException;
 import net.grinder.script.Statistics.StatisticsForTest;
+import net.grinder.statistics.StatisticsIndexMap;
 import net.grinder.statistics.StatisticsServices;
 import net.grinder.statistics.StatisticsSet;
 import net.grinder.util.ListenerSupport;
 import net.grinder.util.ListenerSupport.Informer;
 
+import org.ngrinder.statistics.LatencyRecorder;
+import org.ngrinder.statistics.ResultLog;
 import org.slf4j.Logger;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
@@ -76,18 +79,39 @@ final class ThreadContextImplementation implements ThreadContext {
 	public ThreadContextImplementation(GrinderProperties properties,
 			StatisticsServices statisticsServices, int threadNumber,
 			Logger dataLogger) throws EngineException {
+		this(properties, statisticsServices, threadNumber, dataLogger, null);
+	}
+
+	public ThreadContextImplementation(GrinderProperties properties,
+			StatisticsServices statisticsServices, int threadNumber,
+			Logger dataLogger, LatencyRecorder latencyRecorder) throws EngineException {
+		this(properties, statisticsServices, threadNumber, dataLogger, latencyRecorder, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param latencyRecorder recorder of the test time histograms. null if the histograms are not collected.
+	 * @param resultLog       log of the test results. null if the results are not logged.
+	 */
+	public ThreadContextImplementation(GrinderProperties properties,
+			StatisticsServices statisticsServices, int threadNumber,
+			Logger dataLogger, LatencyRecorder latencyRecorder, ResultLog resultLog) throws EngineException {
 
 		m_threadNumber = threadNumber;
 		m_threadMarker = MarkerFactory.getMarker("thread-" + threadNumber);
 
+		final DispatchResultReporter dataReporter;
+
 		// Undocumented property. Added so Tom Barnes can investigate overhead
 		// of data logging.
-		if (properties.getBoolean("grinder.logData", true)) {
+		// The data logger is turned off by default, so don't format the data for nothing.
+		if (properties.getBoolean("grinder.logData", true) && dataLogger.isInfoEnabled()) {
 			final ThreadDataLogger threadDataLogger = new ThreadDataLogger(
 					dataLogger, statisticsServices.getDetailStatisticsView()
 							.getExpressionViews(), m_threadNumber);
 
-			m_dispatchResultReporter = new DispatchResultReporter() {
+			dataReporter = new DispatchResultReporter() {
 				public void report(Test test, long startTime,
 						StatisticsSet statistics) {
 					threadDataLogger.report(getRunNumber(), test, startTime,
@@ -95,7 +119,7 @@ final class ThreadContextImplementation implements ThreadContext {
 				}
 			};
 		} else {
-			m_dispatchResultReporter = new DispatchResultReporter() {
+			dataReporter = new DispatchResultReporter() {
 				public void report(Test test, long startTime,
 						StatisticsSet statistics) {
 					// Null reporter.
@@ -103,6 +127,48 @@ final class ThreadContextImplementation implements ThreadContext {
 			};
 		}
 
+		final StatisticsIndexMap indexMap = statisticsServices.getStatisticsIndexMap();
+		final StatisticsIndexMap.LongSampleIndex timedTestsIndex = indexMap.getLongSampleIndex("timedTests");
+		final StatisticsIndexMap.LongIndex errorsIndex = indexMap.getLongIndex("errors");
+
+		final DispatchResultReporter resultLogReporter;
+
+		if (resultLog != null) {
+			final StatisticsIndexMap.LongIndex statusIndex =
+					indexMap.getLongIndex(StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_STATUS_KEY);
+			final StatisticsIndexMap.LongIndex lengthIndex =
+					indexMap.getLongIndex(StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY);
+
+			resultLogReporter = new DispatchResultReporter() {
+				public void report(Test test, long startTime,
+						StatisticsSet statistics) {
+					resultLog.put(startTime, test.getNumber(), m_threadNumber,
+							statistics.getSum(timedTestsIndex), (int) statistics.getValue(statusIndex),
+							statistics.getValue(errorsIndex), statistics.getValue(lengthIndex));
+					dataReporter.report(test, startTime, statistics);
+				}
+			};
+		} else {
+			resultLogReporter = dataReporter;
+		}
+
+		if (latencyRecorder != null) {
+			final LatencyRecorder.ThreadRecorder threadRecorder = latencyRecorder.createThreadRecorder();
+
+			m_dispatchResultReporter = new DispatchResultReporter() {
+				public void report(Test test, long startTime,
+						StatisticsSet statistics) {
+					// Only the successful tests have the test time as Grinder does.
+					if (statistics.getValue(errorsIndex) == 0 && statistics.getCount(timedTestsIndex) > 0) {
+						threadRecorder.record(test.getNumber(), statistics.getSum(timedTestsIndex));
+					}
+					resultLogReporter.report(test, startTime, statistics);
+				}
+			};
+		} else {
+			m_dispatchResultReporter = resultLogReporter;
+		}
+
 		registerThreadLifeCycleListener(new SkeletonThreadLifeCycleListener() {
 			public void endRun() {
 				reportPendingDispatchContext();
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Factory of the vuser threads.
+ * <p/>
+ * The runtime is built for Java 8, so the virtual thread builder of JDK 21 is looked up reflectively. When the
+ * worker JVM doesn't support the virtual thread, the platform daemon thread is created instead.
+ *
+ * @since 3.5.5
+ */
+final class VirtualThreads {
+
+	static final String PROP_VIRTUAL_THREADS = "grinder.virtualThreads";
+
+	private static final MethodHandle OF_VIRTUAL;
+	private static final MethodHandle NAME;
+	private static final MethodHandle UNSTARTED;
+
+	static {
+		MethodHandle ofVirtual = null;
+		MethodHandle name = null;
+		MethodHandle unstarted = null;
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", methodType(ofVirtualClass));
+			name = lookup.findVirtual(builderClass, "name", methodType(builderClass, String.class));
+			unstarted = lookup.findVirtual(builderClass, "unstarted", methodType(Thread.class, Runnable.class));
+			// It throws UnsupportedOperationException when it's a preview feature which is not enabled.
+			ofVirtual.invoke();
+		} catch (Throwable e) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		UNSTARTED = unstarted;
+	}
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Check if the current JVM can create the virtual thread.
+	 *
+	 * @return true if supported
+	 */
+	static boolean isSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Create an unstarted thread.
+	 *
+	 * @param runnable runnable
+	 * @param name     thread name
+	 * @param virtual  true if the virtual thread is preferred
+	 * @return virtual thread if it's preferred and supported. platform daemon thread otherwise.
+	 */
+	static Thread newThread(Runnable runnable, String name, boolean virtual) {
+		if (virtual && isSupported()) {
+			try {
+				Object builder = NAME.invoke(OF_VIRTUAL.invoke(), name);
+				return (Thread) UNSTARTED.invoke(builder, runnable);
+			} catch (Throwable e) {
+				throw new IllegalStateException("Failed to create the virtual thread", e);
+			}
+		}
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Planned vuser count of a worker process along the elapsed time of the test.
+ * <p/>
+ * The profile is a piecewise linear curve of the points. The count is interpolated between two points and
+ * rounded. Two points at the same time make a step. The count before the first point is the first count
+ * and the count after the last point is the last count.
+ *
+ * @since 3.5.5
+ */
+final class VuserProfile {
+
+	private final long[] times;
+	private final int[] vusers;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param points points of elapsed milliseconds and vuser count. the times should not decrease.
+	 */
+	VuserProfile(List<long[]> points) {
+		if (points.isEmpty()) {
+			throw new IllegalArgumentException("The vuser profile should have a point at least");
+		}
+		times = new long[points.size()];
+		vusers = new int[points.size()];
+		for (int i = 0; i < times.length; i++) {
+			long[] point = points.get(i);
+			if (point[0] < 0 || point[1] < 0 || (i > 0 && point[0] < times[i - 1])) {
+				throw new IllegalArgumentException("The vuser profile points should be sorted by the time "
+						+ "and not negative : " + point[0] + "," + point[1]);
+			}
+			times[i] = point[0];
+			vusers[i] = (int) Math.min(point[1], Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Step profile which is the same as the thread ramp up of the previous versions. The initial vusers start
+	 * right away. The increment is added at every interval after the initial sleep.
+	 *
+	 * @param initial     initial vuser count
+	 * @param increment   vusers added at each step. all remaining vusers are added at once if it's not positive.
+	 * @param interval    step interval in millisecond
+	 * @param initialSleep time before the first step in millisecond
+	 * @param max         vuser count at the end of the ramp up
+	 * @return profile
+	 */
+	static VuserProfile step(int initial, int increment, long interval, long initialSleep, int max) {
+		initial = Math.max(Math.min(initial, max), 0);
+		increment = increment > 0 ? increment : Math.max(max - initial, 1);
+		List<long[]> points = new ArrayList<>();
+		points.add(new long[]{0, initial});
+		int current = initial;
+		for (int step = 1; current < max; step++) {
+			long time = Math.max(initialSleep + step * interval, 0);
+			points.add(new long[]{time, current});
+			current = (int) Math.min((long) current + increment, max);
+			points.add(new long[]{time, current});
+		}
+		return new VuserProfile(points);
+	}
+
+	/**
+	 * Linear profile which reaches the max vusers at the same time as {@link #step} does.
+	 *
+	 * @param initial     initial vuser count
+	 * @param increment   vusers added at each step of the same step profile
+	 * @param interval    step interval of the same step profile in millisecond
+	 * @param initialSleep time before the count starts to increase in millisecond
+	 * @param max         vuser count at the end of the ramp up
+	 * @return profile
+	 */
+	static VuserProfile linear(int initial, int increment, long interval, long initialSleep, int max) {
+		initial = Math.max(Math.min(initial, max), 0);
+		increment = increment > 0 ? increment : Math.max(max - initial, 1);
+		long steps = (max - initial + increment - 1) / increment;
+		long start = Math.max(initialSleep, 0);
+		List<long[]> points = new ArrayList<>();
+		points.add(new long[]{0, initial});
+		points.add(new long[]{start, initial});
+		points.add(new long[]{start + Math.max(steps * interval, 0), max});
+		return new VuserProfile(points);
+	}
+
+	/**
+	 * Spike profile. The count jumps from the base to the peak after the initial sleep and it goes back to the
+	 * base after the spike time.
+	 *
+	 * @param base        vuser count out of the spike
+	 * @param spikeTime   spike time in millisecond
+	 * @param initialSleep time before the spike in millisecond
+	 * @param peak        vuser count of the spike
+	 * @return profile
+	 */
+	static VuserProfile spike(int base, long spikeTime, long initialSleep, int peak) {
+		base = Math.max(Math.min(base, peak), 0);
+		long start = Math.max(initialSleep, 0);
+		long end = start + Math.max(spikeTime, 0);
+		List<long[]> points = new ArrayList<>();
+		points.add(new long[]{0, base});
+		points.add(new long[]{start, base});
+		points.add(new long[]{start, peak});
+		points.add(new long[]{end, peak});
+		points.add(new long[]{end, base});
+		return new VuserProfile(points);
+	}
+
+	/**
+	 * Load the profile from a CSV file. Each line has the elapsed seconds and the vuser count. The blank lines,
+	 * the lines starting with # and the header line are skipped.
+	 *
+	 * @param file CSV file
+	 * @return profile
+	 * @throws IOException if the file can't be read
+	 */
+	static VuserProfile load(File file) throws IOException {
+		List<long[]> points = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			int lineNumber = 0;
+			boolean header = true;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				boolean first = header;
+				header = false;
+				String[] columns = line.split("[,;\\t]");
+				try {
+					if (columns.length < 2) {
+						throw new NumberFormatException(line);
+					}
+					points.add(new long[]{Math.round(Double.parseDouble(columns[0].trim()) * 1000),
+							Math.round(Double.parseDouble(columns[1].trim()))});
+				} catch (NumberFormatException e) {
+					if (first) {
+						continue;
+					}
+					throw new IOException("Invalid vuser profile line " + lineNumber + " of " + file + " : " + line);
+				}
+			}
+		}
+		try {
+			return new VuserProfile(points);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage() + " in " + file);
+		}
+	}
+
+	/**
+	 * Get the profile which decreases the count to zero linearly at the end of the test.
+	 *
+	 * @param end          end time of the test in millisecond
+	 * @param rampDownTime ramp down time in millisecond
+	 * @return profile
+	 */
+	VuserProfile withRampDown(long end, long rampDownTime) {
+		long start = Math.max(end - Math.max(rampDownTime, 0), 0);
+		List<long[]> points = new ArrayList<>();
+		for (int i = 0; i < times.length && times[i] < start; i++) {
+			points.add(new long[]{times[i], vusers[i]});
+		}
+		points.add(new long[]{start, getVusers(start)});
+		points.add(new long[]{Math.max(end, start), 0});
+		return new VuserProfile(points);
+	}
+
+	/**
+	 * Get the planned vuser count.
+	 *
+	 * @param elapsed elapsed time since the test start in millisecond
+	 * @return vuser count
+	 */
+	int getVusers(long elapsed) {
+		int index = lastIndexAtOrBefore(elapsed);
+		if (index < 0) {
+			return vusers[0];
+		}
+		if (index == times.length - 1) {
+			return vusers[index];
+		}
+		double ratio = (double) (elapsed - times[index]) / (times[index + 1] - times[index]);
+		return (int) Math.round(vusers[index] + (vusers[index + 1] - vusers[index]) * ratio);
+	}
+
+	/**
+	 * Get the max vuser count from the given time to the end. The vusers over it are not used anymore.
+	 *
+	 * @param elapsed elapsed time since the test start in millisecond
+	 * @return max vuser count
+	 */
+	int getMaxVusersFrom(long elapsed) {
+		int max = getVusers(elapsed);
+		for (int i = times.length - 1; i >= 0 && times[i] > elapsed; i--) {
+			max = Math.max(max, vusers[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Get the time of the last point. The count doesn't change after it.
+	 *
+	 * @return time in millisecond
+	 */
+	long getEndTime() {
+		return times[times.length - 1];
+	}
+
+	private int lastIndexAtOrBefore(long elapsed) {
+		int low = 0;
+		int high = times.length - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (times[mid] <= elapsed) {
+				found = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.common.GrinderProperties;
+import net.grinder.engine.common.EngineException;
+import org.ngrinder.statistics.VuserStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Central vuser ramp of a worker process.
+ * <p/>
+ * All worker threads are created when the process starts. Before each run, a thread checks if its thread
+ * number is less than the planned vuser count of the {@link VuserProfile}. If not, it parks until the count
+ * grows or it finishes if the count doesn't grow enough anymore. A single scheduler thread updates the
+ * planned count from the elapsed time since the start every {@link #TICK_MILLIS} and unparks only the threads
+ * which are activated, so the ramp doesn't drift with the thread count. A running thread leaves at the end of
+ * its current run when the planned count decreases.
+ * <p/>
+ * The profile is selected by {@link #PROP_RAMP_PROFILE}. linear, step and spike use the thread ramp up
+ * properties. Any other value is the path of a CSV file relative to the script directory. The step profile is
+ * used when only the thread ramp up is enabled. {@link #PROP_RAMP_DOWN_TIME} decreases the vusers to zero
+ * linearly at the end of the test duration.
+ *
+ * @since 3.5.5
+ */
+class VuserRampScheduler {
+
+	public static final String PROP_RAMP_PROFILE = "grinder.rampProfile";
+	public static final String PROP_RAMP_DOWN_TIME = "grinder.rampDownTime";
+
+	public static final String PROP_THREAD_RAMP_UP = "grinder.threadRampUp";
+	public static final String PROP_THREAD_INCREMENT = "grinder.processIncrement";
+	public static final String PROP_THREAD_INCREMENT_INTERVAL = "grinder.processIncrementInterval";
+	public static final String PROP_INITIAL_THREAD = "grinder.initialProcesses";
+	public static final String PROP_INITIAL_THREAD_SLEEP_TIME = "grinder.initialThreadSleepTime";
+
+	public static final String PROFILE_LINEAR = "linear";
+	public static final String PROFILE_STEP = "step";
+	public static final String PROFILE_SPIKE = "spike";
+
+	static final long TICK_MILLIS = 10;
+
+	private final VuserProfile profile;
+	private final int size;
+
+	private final AtomicReferenceArray<Thread> waiting;
+	private final boolean[] active;
+	private final AtomicInteger activeVusers = new AtomicInteger();
+
+	private volatile int planned;
+	private volatile int limit;
+	private volatile boolean shutdown = false;
+
+	private volatile Thread schedulerThread;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param profile planned vuser count
+	 * @param size    the number of the worker threads. the planned count over it is ignored.
+	 */
+	VuserRampScheduler(VuserProfile profile, int size) {
+		this.profile = profile;
+		this.size = Math.max(size, 0);
+		this.waiting = new AtomicReferenceArray<>(this.size);
+		this.active = new boolean[this.size];
+		this.planned = Math.min(profile.getVusers(0), this.size);
+		this.limit = Math.min(profile.getMaxVusersFrom(0), this.size);
+	}
+
+	/**
+	 * Create the scheduler for this worker process from the grinder properties.
+	 *
+	 * @param properties      grinder properties
+	 * @param numberOfThreads the number of the worker threads
+	 * @param scriptDirectory directory of the relative profile file
+	 * @return scheduler. null if neither the ramp profile nor the ramp down is configured.
+	 * @throws EngineException if the profile file can't be loaded
+	 */
+	static VuserRampScheduler create(GrinderProperties properties, int numberOfThreads, File scriptDirectory)
+			throws EngineException {
+		String name = properties.getProperty(PROP_RAMP_PROFILE, "").trim();
+		if (name.isEmpty() && properties.getBoolean(PROP_THREAD_RAMP_UP, false)) {
+			name = PROFILE_STEP;
+		}
+		long duration = properties.getLong("grinder.duration", 0);
+		long rampDownTime = duration > 0 ? properties.getLong(PROP_RAMP_DOWN_TIME, 0) : 0;
+		if (name.isEmpty() && rampDownTime <= 0) {
+			return null;
+		}
+		int initial = properties.getInt(PROP_INITIAL_THREAD, 0);
+		int increment = properties.getInt(PROP_THREAD_INCREMENT, 0);
+		long interval = properties.getLong(PROP_THREAD_INCREMENT_INTERVAL, 0);
+		long initialSleep = properties.getLong(PROP_INITIAL_THREAD_SLEEP_TIME, 0);
+		VuserProfile profile;
+		if (name.isEmpty()) {
+			profile = VuserProfile.step(numberOfThreads, 0, 0, 0, numberOfThreads);
+		} else if (PROFILE_STEP.equalsIgnoreCase(name)) {
+			profile = VuserProfile.step(initial, increment, interval, initialSleep, numberOfThreads);
+		} else if (PROFILE_LINEAR.equalsIgnoreCase(name)) {
+			profile = VuserProfile.linear(initial, increment, interval, initialSleep, numberOfThreads);
+		} else if (PROFILE_SPIKE.equalsIgnoreCase(name)) {
+			profile = VuserProfile.spike(initial, interval, initialSleep, numberOfThreads);
+		} else {
+			File file = new File(name);
+			if (!file.isAbsolute() && scriptDirectory != null) {
+				file = new File(scriptDirectory, name);
+			}
+			try {
+				profile = VuserProfile.load(file);
+			} catch (IOException e) {
+				throw new EngineException("Failed to load the vuser profile " + file + " : " + e.getMessage(), e);
+			}
+		}
+		if (rampDownTime > 0) {
+			profile = profile.withRampDown(duration, rampDownTime);
+		}
+		return new VuserRampScheduler(profile, numberOfThreads);
+	}
+
+	/**
+	 * Start the scheduler thread. The elapsed time of the profile starts now.
+	 */
+	void start() {
+		final long startTime = nanoTime();
+		Thread thread = new Thread(() -> run(startTime), "vuser ramp scheduler");
+		thread.setDaemon(true);
+		schedulerThread = thread;
+		thread.start();
+	}
+
+	private void run(long startTime) {
+		long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+		for (long tick = 1; !shutdown; tick++) {
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(nanoTime() - startTime);
+			update(elapsed);
+			if (elapsed > profile.getEndTime()) {
+				return;
+			}
+			// The next tick is scheduled from the start time so that a late tick doesn't delay the later ones.
+			long remaining;
+			while (!shutdown && (remaining = startTime + tick * tickNanos - nanoTime()) > 0) {
+				LockSupport.parkNanos(this, remaining);
+			}
+		}
+	}
+
+	/**
+	 * Update the planned vuser count and unpark the threads which are activated or not used anymore.
+	 *
+	 * @param elapsed elapsed time since the start in millisecond
+	 */
+	void update(long elapsed) {
+		int oldPlanned = planned;
+		int oldLimit = limit;
+		int newPlanned = Math.min(profile.getVusers(elapsed), size);
+		int newLimit = Math.min(profile.getMaxVusersFrom(elapsed), size);
+		planned = newPlanned;
+		limit = newLimit;
+		unpark(oldPlanned, newPlanned);
+		unpark(newLimit, oldLimit);
+	}
+
+	private void unpark(int from, int to) {
+		for (int i = from; i < to; i++) {
+			LockSupport.unpark(waiting.get(i));
+		}
+	}
+
+	/**
+	 * Wait until the given thread is activated. It's called by the worker thread itself before each run.
+	 *
+	 * @param threadNumber thread number
+	 * @return false if the thread should finish
+	 */
+	boolean awaitActive(int threadNumber) {
+		if (threadNumber < 0 || threadNumber >= size) {
+			// The threads started by the script are not scheduled.
+			return !shutdown;
+		}
+		Thread current = Thread.currentThread();
+		try {
+			while (true) {
+				if (shutdown || current.isInterrupted()) {
+					setActive(threadNumber, false);
+					return false;
+				}
+				if (threadNumber < planned) {
+					setActive(threadNumber, true);
+					return true;
+				}
+				setActive(threadNumber, false);
+				if (threadNumber >= limit) {
+					return false;
+				}
+				waiting.set(threadNumber, current);
+				// Check again not to miss the unpark between the check and the registration.
+				if (threadNumber >= planned && threadNumber < limit && !shutdown) {
+					LockSupport.park(this);
+				}
+			}
+		} finally {
+			waiting.set(threadNumber, null);
+		}
+	}
+
+	/**
+	 * Mark the given thread finished. It's called by the worker thread itself.
+	 *
+	 * @param threadNumber thread number
+	 */
+	void threadFinished(int threadNumber) {
+		if (threadNumber >= 0 && threadNumber < size) {
+			setActive(threadNumber, false);
+		}
+	}
+
+	private void setActive(int threadNumber, boolean value) {
+		// Only the thread itself changes its flag.
+		if (active[threadNumber] != value) {
+			active[threadNumber] = value;
+			activeVusers.addAndGet(value ? 1 : -1);
+		}
+	}
+
+	/**
+	 * Wake up all waiting threads and make them finish.
+	 */
+	void shutdown() {
+		shutdown = true;
+		planned = 0;
+		LockSupport.unpark(schedulerThread);
+		unpark(0, size);
+	}
+
+	int getPlannedVusers() {
+		return planned;
+	}
+
+	int getActiveVusers() {
+		return activeVusers.get();
+	}
+
+	VuserStatistics getStatistics() {
+		return new VuserStatistics(planned, activeVusers.get());
+	}
+
+	long nanoTime() {
+		return System.nanoTime();
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.messages.console;
+
+import net.grinder.communication.Message;
+import org.ngrinder.statistics.ArrivalStatistics;
+
+/**
+ * Message used to report the run start counts of the open model since the last report.
+ *
+ * @since 3.5.5
+ */
+public final class ReportArrivalStatisticsMessage implements Message {
+
+	private static final long serialVersionUID = -2203766447465702374L;
+
+	private final ArrivalStatistics statistics;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param statistics run start counts
+	 */
+	public ReportArrivalStatisticsMessage(ArrivalStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public ArrivalStatistics getStatistics() {
+		return statistics;
+	}
+}
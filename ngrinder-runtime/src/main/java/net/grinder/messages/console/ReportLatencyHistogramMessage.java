@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.messages.console;
+
+import net.grinder.communication.Message;
+import org.ngrinder.statistics.LatencyHistogram;
+
+import java.util.Map;
+
+/**
+ * Message used to report the test time histograms of the last report interval to the console.
+ *
+ * @since 3.5.5
+ */
+public final class ReportLatencyHistogramMessage implements Message {
+
+	private static final long serialVersionUID = -4046355813208496011L;
+
+	private final Map<Integer, LatencyHistogram> histograms;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param histograms test number and histogram map
+	 */
+	public ReportLatencyHistogramMessage(Map<Integer, LatencyHistogram> histograms) {
+		this.histograms = histograms;
+	}
+
+	public Map<Integer, LatencyHistogram> getHistograms() {
+		return histograms;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.messages.console;
+
+import net.grinder.common.processidentity.WorkerIdentity;
+import net.grinder.communication.Message;
+import org.ngrinder.statistics.VuserStatistics;
+
+/**
+ * Message used to report the planned and active vuser counts of a worker process to the console.
+ * <p/>
+ * The counts are the current values rather than the sum since the last report, so the console keeps the last
+ * one of each worker process.
+ *
+ * @since 3.5.5
+ */
+public final class ReportVuserStatisticsMessage implements Message {
+
+	private static final long serialVersionUID = 4385124937502195786L;
+
+	private final WorkerIdentity workerIdentity;
+
+	private final VuserStatistics statistics;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param workerIdentity identity of the reporting worker process
+	 * @param statistics     vuser counts
+	 */
+	public ReportVuserStatisticsMessage(WorkerIdentity workerIdentity, VuserStatistics statistics) {
+		this.workerIdentity = workerIdentity;
+		this.statistics = statistics;
+	}
+
+	public WorkerIdentity getWorkerIdentity() {
+		return workerIdentity;
+	}
+
+	public VuserStatistics getStatistics() {
+		return statistics;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.dns;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders the resolved addresses of a host so that the vusers spread over them.
+ * <p/>
+ * {@link java.net.InetAddress#getByName(String)} connects to the first address, so the address chosen for the
+ * lookup is moved to the head and the others follow it.
+ *
+ * @since 3.5.5
+ */
+public class AddressBalancer {
+
+	/**
+	 * Grinder property for how the addresses are spread. One of random, round_robin and per_vuser. Without it, the
+	 * addresses of the hosts in the etc hosts are shuffled and the addresses from the DNS server keep its order.
+	 */
+	public static final String PROP_DNS_BALANCING = "ngrinder.dns.balancing";
+
+	private static final Comparator<InetAddress> ADDRESS_ORDER = Comparator.comparing(InetAddress::getHostAddress);
+
+	private static final AtomicInteger vuserCount = new AtomicInteger(ThreadLocalRandom.current().nextInt(1024));
+
+	private static final ThreadLocal<Integer> vuserIndex = ThreadLocal.withInitial(vuserCount::getAndIncrement);
+
+	public enum Mode {
+		/**
+		 * Shuffle the addresses on each lookup.
+		 */
+		RANDOM,
+		/**
+		 * Take the addresses of a host in turn.
+		 */
+		ROUND_ROBIN,
+		/**
+		 * Keep each vuser on the same address as long as the host has the same addresses.
+		 */
+		PER_VUSER;
+
+		/**
+		 * Get the mode by name.
+		 *
+		 * @param name mode name in any case. null for {@link #RANDOM}.
+		 * @return mode
+		 * @throws IllegalArgumentException if there's no such mode.
+		 */
+		public static Mode of(String name) {
+			if (DnsUtils.isEmpty(name)) {
+				return RANDOM;
+			}
+			try {
+				return valueOf(name.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown DNS balancing " + name + ". It should be one of "
+					+ Arrays.toString(values()).toLowerCase(Locale.ROOT), e);
+			}
+		}
+	}
+
+	private final Mode mode;
+
+	private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+	public AddressBalancer(Mode mode) {
+		this.mode = mode;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Order the addresses of the host for the current thread.
+	 *
+	 * @param host      host name
+	 * @param addresses resolved addresses. It's not modified.
+	 * @return ordered addresses
+	 */
+	public InetAddress[] order(String host, InetAddress[] addresses) {
+		InetAddress[] ordered = addresses.clone();
+		if (ordered.length < 2) {
+			return ordered;
+		}
+		if (mode == Mode.RANDOM) {
+			return DnsUtils.shuffle(ordered);
+		}
+		// The DNS server may return the records in a different order each time.
+		Arrays.sort(ordered, ADDRESS_ORDER);
+		int start;
+		if (mode == Mode.ROUND_ROBIN) {
+			start = counters.computeIfAbsent(host, key -> new AtomicInteger()).getAndIncrement();
+		} else {
+			start = vuserIndex.get();
+		}
+		return rotate(ordered, Math.floorMod(start, ordered.length));
+	}
+
+	private static InetAddress[] rotate(InetAddress[] addresses, int start) {
+		InetAddress[] rotated = new InetAddress[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			rotated[i] = addresses[(start + i) % addresses.length];
+		}
+		return rotated;
+	}
+}
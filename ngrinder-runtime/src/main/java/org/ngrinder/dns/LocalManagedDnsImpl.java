@@ -17,9 +17,18 @@ import org.xbill.DNS.*;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * DNS Java DNS resolver.
+ * <p/>
+ * The resolved addresses are kept as long as the TTL of their records, or the TTL given by
+ * {@link #PROP_DNS_TTL}, so that the vusers don't send a query on each connection.
  *
  * @author JunHo Yoon
  * @since 3.0
@@ -27,9 +36,33 @@ import java.net.UnknownHostException;
 @SuppressWarnings({"restriction", "WeakerAccess"})
 public class LocalManagedDnsImpl implements NameServiceProxy {
 
+	/**
+	 * Grinder property for how many seconds the resolved addresses are kept. The TTL of the records by default,
+	 * and 0 to resolve the host on each lookup.
+	 *
+	 * @since 3.5.5
+	 */
+	public static final String PROP_DNS_TTL = "ngrinder.dns.ttl";
+
+	private final Map<String, ResolvedAddresses> resolvedAddresses = new ConcurrentHashMap<>();
+
+	private final long ttl;
+
+	private final Resolver resolver;
+
 	public LocalManagedDnsImpl() {
+		this(-1);
+	}
+
+	/**
+	 * @param ttl seconds to keep the resolved addresses. negative to follow the TTL of the records.
+	 * @since 3.5.5
+	 */
+	public LocalManagedDnsImpl(long ttl) {
+		this.ttl = ttl;
 		Cache cache = createCache();
 		Lookup.setDefaultCache(cache, DClass.IN);
+		resolver = createResolver();
 	}
 
 	protected Cache createCache() {
@@ -37,7 +70,15 @@ public class LocalManagedDnsImpl implements NameServiceProxy {
 	}
 
 	/**
-	 * Finds A records (ip addresses) for the host name.
+	 * @return resolver to send the queries. null to use the default resolver.
+	 * @since 3.5.5
+	 */
+	protected Resolver createResolver() {
+		return null;
+	}
+
+	/**
+	 * Finds A records (ip addresses) for the host name. AAAA records are looked up if there's no A record.
 	 *
 	 * @param name host name to resolve.
 	 * @return All the ip addresses found for the host name.
@@ -45,22 +86,42 @@ public class LocalManagedDnsImpl implements NameServiceProxy {
 	 */
 	@Override
 	public InetAddress[] lookupAllHostAddr(String name) throws UnknownHostException {
-		try {
-			final Lookup lookup = new Lookup(name, Type.A);
-			Record[] records = lookup.run();
-			if (records == null) {
-				throw new UnknownHostException(name);
-			}
+		long now = System.currentTimeMillis();
+		ResolvedAddresses resolved = resolvedAddresses.get(name);
+		if (resolved != null && resolved.expiry > now) {
+			return resolved.addresses.clone();
+		}
+
+		Record[] records = lookup(name, Type.A);
+		if (records == null) {
+			records = lookup(name, Type.AAAA);
+		}
+		if (records == null) {
+			resolvedAddresses.remove(name);
+			throw new UnknownHostException(name);
+		}
 
-			InetAddress[] array = new InetAddress[records.length];
-			for (int i = 0; i < records.length; i++) {
-				ARecord a = (ARecord) records[i];
-				array[i] = a.getAddress();
+		List<InetAddress> addresses = new ArrayList<>(records.length);
+		long minTtl = Long.MAX_VALUE;
+		for (Record record : records) {
+			if (record instanceof ARecord) {
+				addresses.add(((ARecord) record).getAddress());
+			} else if (record instanceof AAAARecord) {
+				addresses.add(((AAAARecord) record).getAddress());
+			} else {
+				continue;
 			}
-			return array;
-		} catch (TextParseException e) {
-			throw new UnknownHostException(e.getMessage());
+			minTtl = Math.min(minTtl, record.getTTL());
+		}
+		if (addresses.isEmpty()) {
+			throw new UnknownHostException(name);
+		}
+		InetAddress[] array = addresses.toArray(new InetAddress[0]);
+		long keepSeconds = ttl < 0 ? minTtl : ttl;
+		if (keepSeconds > 0) {
+			resolvedAddresses.put(name, new ResolvedAddresses(array, now + SECONDS.toMillis(keepSeconds)));
 		}
+		return array.clone();
 	}
 
 	/**
@@ -72,16 +133,38 @@ public class LocalManagedDnsImpl implements NameServiceProxy {
 	 */
 	@Override
 	public String getHostByAddr(byte[] ip) throws UnknownHostException {
+		String addr = DnsUtils.numericToTextFormat(ip);
+		Record[] records = lookup(addr, Type.PTR);
+		if (records == null) {
+			throw new UnknownHostException(addr);
+		}
+		PTRRecord ptr = (PTRRecord) records[0];
+		return ptr.getTarget().toString();
+	}
+
+	private Record[] lookup(String name, int type) throws UnknownHostException {
 		try {
-			String addr = DnsUtils.numericToTextFormat(ip);
-			Record[] records = new Lookup(addr, Type.PTR).run();
-			if (records == null) {
-				throw new UnknownHostException(addr);
+			final Lookup lookup = new Lookup(name, type);
+			if (resolver != null) {
+				lookup.setResolver(resolver);
+			}
+			if (ttl >= 0) {
+				// Not to keep the records longer than the given TTL in the default cache.
+				lookup.setCache(null);
 			}
-			PTRRecord ptr = (PTRRecord) records[0];
-			return ptr.getTarget().toString();
+			return lookup.run();
 		} catch (TextParseException e) {
 			throw new UnknownHostException(e.getMessage());
 		}
 	}
+
+	private static class ResolvedAddresses {
+		private final InetAddress[] addresses;
+		private final long expiry;
+
+		ResolvedAddresses(InetAddress[] addresses, long expiry) {
+			this.addresses = addresses;
+			this.expiry = expiry;
+		}
+	}
 }
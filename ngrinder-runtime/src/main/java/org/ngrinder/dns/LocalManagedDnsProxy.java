@@ -25,8 +25,37 @@ import java.util.Set;
  */
 @SuppressWarnings({"restriction", "WeakerAccess"})
 public class LocalManagedDnsProxy implements NameServiceProxy {
-	private final NameServiceProxy defaultDnsImpl = new LocalManagedDnsImpl();
+	private final NameServiceProxy defaultDnsImpl;
 	private final NameStore instance = NameStore.getInstance();
+	private final AddressBalancer addressBalancer;
+	private final boolean balanceResolved;
+
+	public LocalManagedDnsProxy() {
+		this(new LocalManagedDnsImpl(), new AddressBalancer(AddressBalancer.Mode.RANDOM), false);
+	}
+
+	/**
+	 * @param defaultDnsImpl  resolver of the hosts which are not in {@link NameStore}
+	 * @param addressBalancer balancer to order the addresses of a host
+	 * @since 3.5.5
+	 */
+	public LocalManagedDnsProxy(NameServiceProxy defaultDnsImpl, AddressBalancer addressBalancer) {
+		this(defaultDnsImpl, addressBalancer, true);
+	}
+
+	/**
+	 * @param defaultDnsImpl  resolver of the hosts which are not in {@link NameStore}
+	 * @param addressBalancer balancer to order the addresses of a host
+	 * @param balanceResolved true if the addresses from the resolver are ordered by the balancer too. Otherwise
+	 *                        they are kept in the order of the DNS server.
+	 * @since 3.5.5
+	 */
+	public LocalManagedDnsProxy(NameServiceProxy defaultDnsImpl, AddressBalancer addressBalancer,
+								boolean balanceResolved) {
+		this.defaultDnsImpl = defaultDnsImpl;
+		this.addressBalancer = addressBalancer;
+		this.balanceResolved = balanceResolved;
+	}
 
 	/**
 	 * Get host name by address.
@@ -56,7 +85,9 @@ public class LocalManagedDnsProxy implements NameServiceProxy {
 	public InetAddress[] lookupAllHostAddr(String name) throws UnknownHostException {
 		Set<InetAddress> ipAddresses = instance.get(name);
 		if (ipAddresses != null) {
-			return DnsUtils.shuffle(ipAddresses.toArray(new InetAddress[0]));
+			return addressBalancer.order(name, ipAddresses.toArray(new InetAddress[0]));
+		} else if (balanceResolved) {
+			return addressBalancer.order(name, defaultDnsImpl.lookupAllHostAddr(name));
 		} else {
 			return defaultDnsImpl.lookupAllHostAddr(name);
 		}
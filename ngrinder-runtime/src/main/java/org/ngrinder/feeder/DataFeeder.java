@@ -0,0 +1,337 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.feeder;
+
+import net.grinder.common.GrinderProperties;
+import net.grinder.script.Grinder;
+import net.grinder.script.InternalScriptContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the lines of a CSV or line based file to the vusers.
+ * <p/>
+ * The file is memory-mapped once per worker process however many feeders read it, and the lines are read from
+ * the mapping when they're handed out. So a large file costs neither the heap nor the loading time, and the vusers
+ * don't have to synchronize on a list filled in a before process block.
+ * <p/>
+ * Create a feeder in a before process block and call {@link #next()} in the vusers.
+ * <pre>
+ * static DataFeeder users = DataFeeder.builder("./resources/users.csv").setHeader(true).build()
+ * ...
+ * def (id, password) = users.nextFields()
+ * </pre>
+ * It works the same in Jython with {@code from org.ngrinder.feeder import DataFeeder}.
+ *
+ * @since 3.5.5
+ */
+public class DataFeeder {
+
+	public enum Mode {
+		/**
+		 * The vusers take the lines in turn through a cursor shared in the process.
+		 */
+		SEQUENTIAL,
+		/**
+		 * Each call takes a random line. A random position is taken and the line after it is returned, so the
+		 * line after a long line is taken more often than the others.
+		 */
+		RANDOM,
+		/**
+		 * The file is split by the number of the vusers in the whole test, and each vuser takes the lines of its
+		 * own part in turn. No two vusers get the same line. Outside of a worker thread, the whole file is the
+		 * part of the caller.
+		 */
+		UNIQUE
+	}
+
+	public enum EndPolicy {
+		/**
+		 * Start over from the first line.
+		 */
+		WRAP,
+		/**
+		 * {@link #next()} returns null, so that the script can stop the vuser by
+		 * {@code grinder.stopThisWorkerThread()}.
+		 */
+		STOP
+	}
+
+	private final MappedTextFile file;
+
+	private final Mode mode;
+
+	private final EndPolicy endPolicy;
+
+	private final char delimiter;
+
+	private final String header;
+
+	private final long dataStart;
+
+	private final AtomicLong cursor;
+
+	private final ThreadLocal<Part> vuserPart = ThreadLocal.withInitial(this::createVuserPart);
+
+	private DataFeeder(MappedTextFile file, Mode mode, EndPolicy endPolicy, boolean hasHeader, char delimiter) {
+		this.file = file;
+		this.mode = mode;
+		this.endPolicy = endPolicy;
+		this.delimiter = delimiter;
+		if (hasHeader) {
+			this.dataStart = file.nextLineStart(0, file.length());
+			this.header = file.line(0, dataStart);
+		} else {
+			this.dataStart = 0;
+			this.header = null;
+		}
+		this.cursor = new AtomicLong(dataStart);
+	}
+
+	/**
+	 * Create a builder of the feeder which reads the given file.
+	 *
+	 * @param path file path
+	 * @return builder
+	 */
+	public static Builder builder(String path) {
+		return new Builder(Paths.get(path));
+	}
+
+	/**
+	 * Create a sequential feeder which starts over at the end of the file.
+	 *
+	 * @param path file path
+	 * @return feeder
+	 * @throws UncheckedIOException if the file can't be read
+	 */
+	public static DataFeeder of(String path) {
+		return builder(path).build();
+	}
+
+	/**
+	 * Get the next line.
+	 *
+	 * @return line without the line separator. null if there's no more line by {@link EndPolicy#STOP} or the vuser
+	 * has no line in {@link Mode#UNIQUE}.
+	 */
+	public String next() {
+		switch (mode) {
+			case RANDOM:
+				return nextRandom();
+			case UNIQUE:
+				return vuserPart.get().next();
+			default:
+				return nextShared();
+		}
+	}
+
+	/**
+	 * Get the fields of the next line.
+	 *
+	 * @return fields split by the delimiter. null if there's no more line.
+	 * @see #next()
+	 */
+	public String[] nextFields() {
+		String line = next();
+		return line == null ? null : split(line, delimiter);
+	}
+
+	/**
+	 * @return fields of the header line. null if the file has no header.
+	 */
+	public String[] getHeader() {
+		return header == null ? null : split(header, delimiter);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public EndPolicy getEndPolicy() {
+		return endPolicy;
+	}
+
+	private String nextShared() {
+		long end = file.length();
+		while (true) {
+			long position = cursor.get();
+			if (position >= end) {
+				if (endPolicy == EndPolicy.STOP || dataStart >= end) {
+					return null;
+				}
+				cursor.compareAndSet(position, dataStart);
+				continue;
+			}
+			long next = file.nextLineStart(position, end);
+			if (cursor.compareAndSet(position, next)) {
+				return file.line(position, next);
+			}
+		}
+	}
+
+	private String nextRandom() {
+		long end = file.length();
+		if (dataStart >= end) {
+			return null;
+		}
+		long start = file.lineStartFrom(dataStart + ThreadLocalRandom.current().nextLong(end - dataStart));
+		if (start >= end) {
+			start = dataStart;
+		}
+		return file.line(start, file.nextLineStart(start, end));
+	}
+
+	private Part createVuserPart() {
+		int index = 0;
+		int count = 1;
+		InternalScriptContext grinder = Grinder.grinder;
+		if (grinder != null && grinder.getThreadNumber() >= 0 && grinder.getProperties() != null) {
+			GrinderProperties properties = grinder.getProperties();
+			int processCount = properties.getInt("grinder.processes", 1);
+			int threadCount = properties.getInt("grinder.threads", 1);
+			count = properties.getInt("grinder.agents", 1) * processCount * threadCount;
+			index = (grinder.getAgentNumber() * processCount + grinder.getProcessNumber()) * threadCount
+				+ grinder.getThreadNumber();
+		}
+		return createPart(index, count);
+	}
+
+	Part createPart(int index, int count) {
+		long size = file.length() - dataStart;
+		long start = file.lineStartFrom(dataStart + size * index / count);
+		long end = file.lineStartFrom(dataStart + size * (index + 1) / count);
+		return new Part(Math.max(start, dataStart), end);
+	}
+
+	/**
+	 * Part of the file which a vuser takes by itself.
+	 */
+	class Part {
+		private final long start;
+		private final long end;
+		private long position;
+
+		Part(long start, long end) {
+			this.start = start;
+			this.end = end;
+			this.position = start;
+		}
+
+		String next() {
+			if (position >= end) {
+				if (endPolicy == EndPolicy.STOP || start >= end) {
+					return null;
+				}
+				position = start;
+			}
+			long next = file.nextLineStart(position, end);
+			String line = file.line(position, next);
+			position = next;
+			return line;
+		}
+	}
+
+	/**
+	 * Split a line of CSV. The double quoted fields may have the delimiters and the escaped double quotes.
+	 */
+	static String[] split(String line, char delimiter) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == delimiter) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields.toArray(new String[0]);
+	}
+
+	public static class Builder {
+		private final Path path;
+		private Mode mode = Mode.SEQUENTIAL;
+		private EndPolicy endPolicy = EndPolicy.WRAP;
+		private boolean header;
+		private char delimiter = ',';
+
+		Builder(Path path) {
+			this.path = path;
+		}
+
+		public Builder setMode(Mode mode) {
+			this.mode = mode;
+			return this;
+		}
+
+		public Builder setEndPolicy(EndPolicy endPolicy) {
+			this.endPolicy = endPolicy;
+			return this;
+		}
+
+		/**
+		 * @param header true if the first line is the header which is not handed out
+		 * @return this builder
+		 */
+		public Builder setHeader(boolean header) {
+			this.header = header;
+			return this;
+		}
+
+		public Builder setDelimiter(char delimiter) {
+			this.delimiter = delimiter;
+			return this;
+		}
+
+		/**
+		 * @return feeder with its own cursor over the file mapped in the process
+		 * @throws UncheckedIOException if the file can't be read
+		 */
+		public DataFeeder build() {
+			try {
+				return new DataFeeder(MappedTextFile.of(path), mode, endPolicy, header, delimiter);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to map " + path, e);
+			}
+		}
+
+		DataFeeder build(MappedTextFile file) {
+			return new DataFeeder(file, mode, endPolicy, header, delimiter);
+		}
+	}
+}
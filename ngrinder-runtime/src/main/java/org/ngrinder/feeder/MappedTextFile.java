@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.feeder;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Text file which is memory-mapped once in the process.
+ * <p/>
+ * A mapping can't be larger than 2GB, so the file is mapped in segments. The bytes are read with the absolute
+ * getters only, so the threads share the mapping without synchronization.
+ *
+ * @since 3.5.5
+ */
+class MappedTextFile {
+
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final Map<Path, MappedTextFile> mappedFiles = new ConcurrentHashMap<>();
+
+	private final Path path;
+
+	private final long length;
+
+	private final int segmentShift;
+
+	private final long segmentMask;
+
+	private final MappedByteBuffer[] segments;
+
+	MappedTextFile(Path path, int segmentShift) throws IOException {
+		this.path = path;
+		this.segmentShift = segmentShift;
+		this.segmentMask = (1L << segmentShift) - 1;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.length = channel.size();
+			long segmentSize = 1L << segmentShift;
+			this.segments = new MappedByteBuffer[(int) ((length + segmentSize - 1) >>> segmentShift)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = (long) i << segmentShift;
+				// The mapping stays valid after the channel is closed.
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize,
+					length - position));
+			}
+		}
+	}
+
+	/**
+	 * Get the mapping of the file which is shared in the process.
+	 *
+	 * @param path file path
+	 * @return mapped file
+	 * @throws IOException if the file can't be mapped
+	 */
+	static MappedTextFile of(Path path) throws IOException {
+		Path realPath = path.toRealPath();
+		MappedTextFile mappedFile = mappedFiles.get(realPath);
+		if (mappedFile == null) {
+			synchronized (mappedFiles) {
+				mappedFile = mappedFiles.get(realPath);
+				if (mappedFile == null) {
+					mappedFile = new MappedTextFile(realPath, SEGMENT_SHIFT);
+					mappedFiles.put(realPath, mappedFile);
+				}
+			}
+		}
+		return mappedFile;
+	}
+
+	Path getPath() {
+		return path;
+	}
+
+	long length() {
+		return length;
+	}
+
+	byte get(long position) {
+		return segments[(int) (position >>> segmentShift)].get((int) (position & segmentMask));
+	}
+
+	/**
+	 * @param position position in a line
+	 * @param end      end of the range to look in
+	 * @return start of the next line, or the end if there's no more line in the range
+	 */
+	long nextLineStart(long position, long end) {
+		for (long i = position; i < end; i++) {
+			if (get(i) == '\n') {
+				return i + 1;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * @param position any position
+	 * @return start of the first line at or after the position
+	 */
+	long lineStartFrom(long position) {
+		if (position <= 0) {
+			return 0;
+		}
+		return get(position - 1) == '\n' ? position : nextLineStart(position, length);
+	}
+
+	/**
+	 * Decode a line without its line separator.
+	 *
+	 * @param start start of the line
+	 * @param end   start of the next line
+	 * @return line in UTF-8
+	 */
+	String line(long start, long end) {
+		long lineEnd = end;
+		if (lineEnd > start && get(lineEnd - 1) == '\n') {
+			lineEnd--;
+		}
+		if (lineEnd > start && get(lineEnd - 1) == '\r') {
+			lineEnd--;
+		}
+		byte[] bytes = new byte[(int) (lineEnd - start)];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
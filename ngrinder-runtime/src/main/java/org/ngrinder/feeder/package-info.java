@@ -0,0 +1,4 @@
+/**
+ * Data feeders which hand out the lines of the test data files to the vusers.
+ */
+package org.ngrinder.feeder;
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+/**
+ * Connection counters of {@link ThreadAwareConnPool} in the worker process.
+ * <p/>
+ * The closed connections include the ones closed by the server while they are kept alive, so the churn of the
+ * keep-alive connections shows as the created and closed connections growing together.
+ *
+ * @since 3.5.5
+ */
+public class ConnPoolMetrics {
+
+	private final int leased;
+	private final int available;
+	private final long created;
+	private final long closed;
+
+	ConnPoolMetrics(int leased, int available, long created, long closed) {
+		this.leased = leased;
+		this.available = available;
+		this.created = created;
+		this.closed = closed;
+	}
+
+	/**
+	 * @return connections in use
+	 */
+	public int getLeased() {
+		return leased;
+	}
+
+	/**
+	 * @return connections kept alive in the pool
+	 */
+	public int getAvailable() {
+		return available;
+	}
+
+	/**
+	 * @return connections created since the process started
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return connections closed since the process started
+	 */
+	public long getClosed() {
+		return closed;
+	}
+
+	@Override
+	public String toString() {
+		return "leased " + leased + ", available " + available + ", created " + created + ", closed " + closed;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Timings of establishing a connection.
+ * <p/>
+ * It's created by the thread which requests the connection and kept per {@link org.apache.hc.core5.reactor.IOSession}
+ * because the connection and the TLS handshake are finished by the I/O threads. It's passed to the I/O reactor as
+ * the connection attachment, so the original attachment is carried along.
+ *
+ * @since 3.5.5
+ */
+final class ConnectionTimings {
+
+	private final Object attachment;
+
+	private final long requestedTime = System.nanoTime();
+
+	private volatile long resolvedTime;
+
+	private volatile long connectedTime;
+
+	private volatile long tlsStartedTime;
+
+	private volatile long tlsCompletedTime;
+
+	private volatile boolean tlsCompleted;
+
+	private final AtomicBoolean reported = new AtomicBoolean(false);
+
+	ConnectionTimings(Object attachment) {
+		this.attachment = attachment;
+	}
+
+	Object getAttachment() {
+		return attachment;
+	}
+
+	void resolved() {
+		resolvedTime = System.nanoTime();
+	}
+
+	void connected() {
+		connectedTime = System.nanoTime();
+	}
+
+	void tlsStarted() {
+		tlsStartedTime = System.nanoTime();
+	}
+
+	void tlsCompleted() {
+		tlsCompletedTime = System.nanoTime();
+		tlsCompleted = true;
+	}
+
+	boolean isTlsCompleted() {
+		return tlsCompleted;
+	}
+
+	/**
+	 * @return nano time when the TLS handshake is completed. meaningful only if {@link #isTlsCompleted()}.
+	 */
+	long getTlsCompletedTime() {
+		return tlsCompletedTime;
+	}
+
+	long getDnsTime() {
+		return NANOSECONDS.toMillis(resolvedTime - requestedTime);
+	}
+
+	long getConnectTime() {
+		return NANOSECONDS.toMillis(connectedTime - resolvedTime);
+	}
+
+	long getTlsHandshakeTime() {
+		return tlsCompleted ? NANOSECONDS.toMillis(tlsCompletedTime - tlsStartedTime) : 0;
+	}
+
+	/**
+	 * The connection is established once, so its timings are reported to the first request only.
+	 *
+	 * @return true if it's not reported yet
+	 */
+	boolean markReported() {
+		return reported.compareAndSet(false, true);
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.io.Closer;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Entity producer which streams a region of a file from a {@link FileChannel}.
+ * <p/>
+ * The file is read chunk by chunk as the connection accepts the data, so an upload never has to fit in the worker
+ * heap. The chunks are read into a direct buffer which the socket writes without the temporary copy the JDK makes
+ * for the heap buffers. The file is opened for each transfer, so the entity can be sent again.
+ *
+ * @since 3.5.5
+ */
+public class FileChannelEntityProducer implements AsyncEntityProducer {
+
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final File file;
+
+	private final long offset;
+
+	private final long length;
+
+	private final ContentType contentType;
+
+	private final int bufferSize;
+
+	private final AtomicReference<Exception> exception = new AtomicReference<>();
+
+	private FileChannel fileChannel;
+
+	private ByteBuffer buffer;
+
+	private long readBytes;
+
+	/**
+	 * @param file        file to send
+	 * @param offset      position of the region in the file
+	 * @param length      bytes of the region
+	 * @param contentType content type of the entity
+	 * @param bufferSize  bytes which are read from the file at once
+	 * @throws IllegalArgumentException if the region is out of the file
+	 */
+	public FileChannelEntityProducer(File file, long offset, long length, ContentType contentType, int bufferSize) {
+		if (offset < 0 || length < 0 || offset + length > file.length()) {
+			throw new IllegalArgumentException("Region " + offset + "+" + length + " is out of " + file + " ("
+				+ file.length() + " bytes)");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size should be positive but " + bufferSize);
+		}
+		this.file = file;
+		this.offset = offset;
+		this.length = length;
+		this.contentType = contentType;
+		this.bufferSize = (int) Math.min(bufferSize, Math.max(length, 1));
+	}
+
+	public FileChannelEntityProducer(File file, long offset, long length, ContentType contentType) {
+		this(file, offset, length, contentType, DEFAULT_BUFFER_SIZE);
+	}
+
+	public FileChannelEntityProducer(File file, ContentType contentType) {
+		this(file, 0, file.length(), contentType);
+	}
+
+	public FileChannelEntityProducer(File file) {
+		this(file, ContentType.APPLICATION_OCTET_STREAM);
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType == null ? null : contentType.toString();
+	}
+
+	@Override
+	public long getContentLength() {
+		return length;
+	}
+
+	@Override
+	public synchronized int available() {
+		long remaining = length - readBytes + (buffer == null ? 0 : buffer.remaining());
+		// Ask for the output at least once to end the stream.
+		return (int) Math.max(Math.min(remaining, Integer.MAX_VALUE), 1);
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return null;
+	}
+
+	@Override
+	public boolean isChunked() {
+		return false;
+	}
+
+	@Override
+	public Set<String> getTrailerNames() {
+		return null;
+	}
+
+	@Override
+	public synchronized void produce(DataStreamChannel channel) throws IOException {
+		if (fileChannel == null) {
+			fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			if (buffer == null) {
+				buffer = ByteBuffer.allocateDirect(bufferSize);
+			}
+			buffer.clear().flip();
+			readBytes = 0;
+		}
+		while (true) {
+			if (!buffer.hasRemaining()) {
+				if (readBytes == length) {
+					channel.endStream();
+					closeFile();
+					return;
+				}
+				read();
+			}
+			if (channel.write(buffer) == 0) {
+				// The channel asks for the rest when it's writable again.
+				return;
+			}
+		}
+	}
+
+	private void read() throws IOException {
+		buffer.clear();
+		buffer.limit((int) Math.min(buffer.capacity(), length - readBytes));
+		while (buffer.hasRemaining()) {
+			int read = fileChannel.read(buffer, offset + readBytes);
+			if (read < 0) {
+				throw new EOFException(file + " is truncated to " + (offset + readBytes) + " bytes");
+			}
+			readBytes += read;
+		}
+		buffer.flip();
+	}
+
+	@Override
+	public void failed(Exception cause) {
+		if (exception.compareAndSet(null, cause)) {
+			releaseResources();
+		}
+	}
+
+	public Exception getException() {
+		return exception.get();
+	}
+
+	@Override
+	public synchronized void releaseResources() {
+		closeFile();
+		buffer = null;
+		readBytes = 0;
+	}
+
+	private void closeFile() {
+		Closer.closeQuietly(fileChannel);
+		fileChannel = null;
+	}
+}
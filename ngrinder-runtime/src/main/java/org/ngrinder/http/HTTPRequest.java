@@ -21,13 +21,14 @@
 package org.ngrinder.http;
 
 import HTTPClient.NVPair;
+import net.grinder.common.GrinderProperties;
 import net.grinder.plugin.http.HTTPPlugin;
-import net.grinder.script.InvalidContextException;
-import net.grinder.script.NoSuchStatisticException;
+import net.grinder.script.Grinder;
 import net.grinder.script.Statistics;
 import net.grinder.statistics.StatisticsIndexMap;
 import org.apache.hc.client5.http.cookie.*;
 import org.apache.hc.client5.http.impl.cookie.RFC6265StrictSpec;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
@@ -35,21 +36,26 @@ import org.apache.hc.core5.http.nio.AsyncClientEndpoint;
 import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.apache.hc.core5.http.nio.AsyncRequestProducer;
 import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
-import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityConsumer;
 import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
 import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
 import org.apache.hc.core5.http2.HttpVersionPolicy;
 import org.apache.hc.core5.util.Timeout;
 import org.ngrinder.http.cookie.ThreadContextCookieStore;
 import org.ngrinder.http.method.*;
+import org.ngrinder.statistics.ResultLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.net.HttpURLConnection;
-import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 import static org.ngrinder.http.util.ContentTypeUtils.getContentType;
@@ -60,26 +66,32 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(HTTPRequest.class);
 
-	private static final CookieStore COOKIE_STORE = ThreadContextCookieStore.INSTANCE;
+	private static final ThreadContextCookieStore COOKIE_STORE = ThreadContextCookieStore.INSTANCE;
 	private static final CookieSpec COOKIE_SPEC = new RFC6265StrictSpec();
 
 	private HTTPRequester requester;
 
-	private CookieOrigin cookieOrigin;
-
 	private int readBytes = -1;
 
+	private int bodyLimit = -1;
+
+	private Consumer<ByteBuffer> bodyHandler;
+
 	private HttpVersionPolicy versionPolicy = HttpVersionPolicy.NEGOTIATE;
 
+	private boolean multiplexing = HTTPRequester.isMultiplexing();
+
 	private List<Header> headers = emptyList();
 
+	private Boolean resultLogEnabled;
+
 	static {
 		// noinspection ResultOfMethodCallIgnored
 		HTTPPlugin.getPlugin();    // Ensure plugin is loaded
 	}
 
 	public HTTPRequest() {
-		requester = new HTTPRequester.Builder().build();
+		requester = HTTPRequester.getRequester(readBytes);
 	}
 
 	@Override
@@ -117,6 +129,11 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return doRequest(uri, createRequestWithEntity("POST", uri, asyncEntityProducer, headers));
 	}
 
+	@Override
+	public HTTPResponse POST(String uri, File file, List<Header> headers) {
+		return doRequest(uri, createRequestWithFile("POST", uri, file, headers));
+	}
+
 	@Override
 	public HTTPResponse PUT(String uri, byte[] content, List<Header> headers) {
 		return doRequest(uri, createRequestWithBody("PUT", uri, content, headers));
@@ -141,6 +158,11 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return doRequest(uri, createRequestWithEntity("PUT", uri, asyncEntityProducer, headers));
 	}
 
+	@Override
+	public HTTPResponse PUT(String uri, File file, List<Header> headers) {
+		return doRequest(uri, createRequestWithFile("PUT", uri, file, headers));
+	}
+
 	@Override
 	public HTTPResponse PATCH(String uri, byte[] content, List<Header> headers) {
 		return doRequest(uri, createRequestWithBody("PATCH", uri, content, headers));
@@ -165,56 +187,110 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return doRequest(uri, createRequestWithEntity("PATCH", uri, asyncEntityProducer, headers));
 	}
 
+	@Override
+	public HTTPResponse PATCH(String uri, File file, List<Header> headers) {
+		return doRequest(uri, createRequestWithFile("PATCH", uri, file, headers));
+	}
+
 	@Override
 	public HTTPResponse DELETE(String uri, List<NameValuePair> params, List<Header> headers) {
 		return doRequest(uri, createRequestWithParam("DELETE", uri, params, headers));
 	}
 
 	private HTTPResponse doRequest(String uri, AsyncRequestProducer producer) {
-		AsyncClientEndpoint endpoint = getEndpoint(uri);
+		if (multiplexing) {
+			return doMultiplexedRequest(uri, producer);
+		}
+		final HttpHost httpHost = RequestTarget.of(uri).getHttpHost();
+		AsyncClientEndpoint endpoint = getEndpoint(httpHost);
 		try {
-			AsyncResponseConsumer<Message<HttpResponse, byte[]>> consumer = new BasicResponseConsumer<>(new BasicAsyncEntityConsumer());
+			HTTPRequester.setSocketTimeout(httpHost, Timeout.ofMilliseconds(HTTPRequestControl.getSocketTimeout()));
+			// Looked up before the connection is released to the pool.
+			ConnectionTimings connectionTimings = HTTPRequester.getConnectionTimings(httpHost);
+			StreamingEntityConsumer entityConsumer = new StreamingEntityConsumer(bodyLimit, bodyHandler);
+			TimingResponseConsumer<Message<HttpResponse, byte[]>> consumer = new TimingResponseConsumer<>(
+				new BasicResponseConsumer<>(entityConsumer));
 
-			Future<Message<HttpResponse, byte[]>> messageFuture = endpoint.execute(producer, consumer, null);
-			Message<HttpResponse, byte[]> message = messageFuture.get();
+			long sentTime = System.nanoTime();
+			Message<HttpResponse, byte[]> message = await(callback -> endpoint.execute(producer, consumer, callback));
 
 			endpoint.releaseAndReuse();
 
-			processResponseCookies(message.getHead().headerIterator("Set-Cookie"));
-
-			aggregate(message);
-			summarize(uri, message);
-
-			return HTTPResponse.of(message);
+			RequestTimings timings = RequestTimings.of(connectionTimings, sentTime, consumer);
+			return handleResponse(uri, message, entityConsumer.getReceivedBytes(), timings);
 		} catch (Exception e) {
 			endpoint.releaseAndDiscard();
 			throw new RuntimeException(e);
 		}
 	}
 
-	private AsyncClientEndpoint getEndpoint(String uri) {
+	private HTTPResponse doMultiplexedRequest(String uri, AsyncRequestProducer producer) {
 		try {
-			final HttpHost httpHost = HttpHost.create(URI.create(uri));
 			final Timeout connectionTimeout = Timeout.ofMilliseconds(HTTPRequestControl.getConnectionTimeout());
+			HttpCoreContext context = HttpCoreContext.create();
+			StreamingEntityConsumer entityConsumer = new StreamingEntityConsumer(bodyLimit, bodyHandler);
+			TimingResponseConsumer<Message<HttpResponse, byte[]>> consumer = new TimingResponseConsumer<>(
+				new BasicResponseConsumer<>(entityConsumer));
+
+			long requestedTime = System.nanoTime();
+			Message<HttpResponse, byte[]> message = await(callback -> HTTPRequester.getMultiplexingRequester()
+				.execute(producer, consumer, connectionTimeout, context, callback));
 
-			long start = System.currentTimeMillis();
-			AsyncClientEndpoint endpoint = requester.connect(httpHost, connectionTimeout).get();
-			long end = System.currentTimeMillis();
+			RequestTimings timings = RequestTimings.ofStream(requestedTime, context, consumer);
+			return handleResponse(uri, message, entityConsumer.getReceivedBytes(), timings);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			Statistics statistics = getStatistics();
-			if (statistics.isTestInProgress()) {
-				Statistics.StatisticsForTest statisticsForTest = statistics.getForCurrentTest();
+	private HTTPResponse handleResponse(String uri, Message<HttpResponse, byte[]> message, long receivedBytes,
+										RequestTimings timings) {
+		processResponseCookies(uri, message.getHead().headerIterator("Set-Cookie"));
 
-				statisticsForTest.setLong(
-					StatisticsIndexMap.HTTP_PLUGIN_CONNECT_TIME_KEY, end - start);
-			}
+		aggregate(message, receivedBytes, timings);
+		summarize(uri, message, receivedBytes);
 
-			return endpoint;
-		} catch (InterruptedException | ExecutionException | InvalidContextException | NoSuchStatisticException e) {
+		return HTTPResponse.of(message, receivedBytes, timings);
+	}
+
+	private AsyncClientEndpoint getEndpoint(HttpHost httpHost) {
+		try {
+			final Timeout connectionTimeout = Timeout.ofMilliseconds(HTTPRequestControl.getConnectionTimeout());
+			// The version policy is given per connection because the requester can be shared.
+			return await(callback -> requester.connect(httpHost, connectionTimeout, versionPolicy, callback));
+		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * Wait for the result of the given operation.
+	 * <p/>
+	 * The future returned by httpcore waits on its own monitor, which pins the carrier thread when the vuser runs
+	 * as a virtual thread. So the result is passed to {@link CompletableFuture} which parks the waiting thread.
+	 */
+	private static <T> T await(Function<FutureCallback<T>, Future<T>> operation)
+		throws InterruptedException, ExecutionException {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		operation.apply(new FutureCallback<T>() {
+			@Override
+			public void completed(T result) {
+				future.complete(result);
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				future.completeExceptionally(ex);
+			}
+
+			@Override
+			public void cancelled() {
+				future.cancel(false);
+			}
+		});
+		return future.get();
+	}
+
 	private Statistics getStatistics() {
 		return HTTPPlugin.getPlugin()
 			.getPluginProcessContext()
@@ -222,7 +298,7 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 			.getStatistics();
 	}
 
-	private void aggregate(Message<HttpResponse, byte[]> message) {
+	private void aggregate(Message<HttpResponse, byte[]> message, long receivedBytes, RequestTimings timings) {
 		Statistics statistics = getStatistics();
 
 		if (!statistics.isTestInProgress()) {
@@ -241,32 +317,44 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 			}
 
 			statisticsForTest.addLong(
-				StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY, message.getBody() == null ? 0 : message.getBody().length);
+				StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY, receivedBytes);
 
+			// Each time is measured from the start of the request like the HTTP plugin does.
+			long connectTime = timings.getDnsTime() + timings.getConnectTime() + timings.getTlsHandshakeTime();
+			statisticsForTest.addLong(
+				StatisticsIndexMap.HTTP_PLUGIN_DNS_TIME_KEY, timings.getDnsTime());
+			statisticsForTest.addLong(
+				StatisticsIndexMap.HTTP_PLUGIN_CONNECT_TIME_KEY, connectTime);
 			statisticsForTest.addLong(
-				StatisticsIndexMap.HTTP_PLUGIN_FIRST_BYTE_TIME_KEY, TimeToFirstByteHolder.getTotal() + statisticsForTest.getLong(StatisticsIndexMap.HTTP_PLUGIN_CONNECT_TIME_KEY));
+				StatisticsIndexMap.HTTP_PLUGIN_FIRST_BYTE_TIME_KEY, connectTime + timings.getTimeToFirstByte());
 		} catch (Exception e) {
 			LOGGER.error("Fail to aggregate HTTP statistics", e);
 		}
 	}
 
-	private void summarize(String uri, Message<HttpResponse, byte[]> message) {
-		Logger logger = HTTPPlugin.getPlugin()
+	private void summarize(String uri, Message<HttpResponse, byte[]> message, long receivedBytes) {
+		Grinder.ScriptContext scriptContext = HTTPPlugin.getPlugin()
 			.getPluginProcessContext()
-			.getScriptContext()
-			.getLogger();
+			.getScriptContext();
+		Logger logger = scriptContext.getLogger();
 
-		logger.info("{} -> {} {}, {} bytes",
-			uri,
-			message.getHead().getCode(),
-			message.getHead().getReasonPhrase(),
-			message.getBody() == null ? 0 : message.getBody().length);
+		if (resultLogEnabled == null) {
+			GrinderProperties properties = scriptContext.getProperties();
+			resultLogEnabled = properties != null && properties.getBoolean(ResultLog.PROP_RESULT_LOG, false);
+		}
+		HttpResponse head = message.getHead();
+		if (!resultLogEnabled) {
+			logger.info("{} -> {} {}, {} bytes", uri, head.getCode(), head.getReasonPhrase(), receivedBytes);
+		} else if (logger.isDebugEnabled()) {
+			// Every result is in the result log already, so the summary is only for debugging.
+			logger.debug("{} -> {} {}, {} bytes", uri, head.getCode(), head.getReasonPhrase(), receivedBytes);
+		}
 	}
 
 	private AsyncRequestBuilder createRequest(String method, String uri, List<Header> headers) {
 		AsyncRequestBuilder builder = AsyncRequestBuilder
 			.create(method)
-			.setUri(uri);
+			.setUri(RequestTarget.of(uri).getUri());
 
 		final List<Header> actualHeaders = headers.isEmpty() ? this.headers : headers;
 		actualHeaders.forEach(builder::addHeader);
@@ -289,6 +377,13 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return builder.build();
 	}
 
+	private AsyncRequestProducer createRequestWithFile(String method, String uri, File file, List<Header> headers) {
+		final List<Header> actualHeaders = headers.isEmpty() ? this.headers : headers;
+		return createRequestWithEntity(method, uri,
+			new FileChannelEntityProducer(file, getContentType(actualHeaders, ContentType.APPLICATION_OCTET_STREAM)),
+			headers);
+	}
+
 	private AsyncRequestProducer createRequestWithEntity(String method, String uri, AsyncEntityProducer asyncEntityProducer, List<Header> headers) {
 		AsyncRequestBuilder builder = createRequest(method, uri, headers);
 		builder.setEntity(asyncEntityProducer);
@@ -296,44 +391,8 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return builder.build();
 	}
 
-	private List<Header> getMatchedCookies(String uriString) {
-		URI uri = URI.create(uriString);
-
-		int port = uri.getPort();
-		if (port == -1) {
-			port = 80;
-		}
-
-		boolean isSecure = uri.getScheme().equalsIgnoreCase("https");
-
-		cookieOrigin = new CookieOrigin(uri.getHost(), port, uri.getPath(), isSecure);
-
-		final List<Cookie> cookies = COOKIE_STORE.getCookies();
-		// Find cookies matching the given origin
-		final List<Cookie> matchedCookies = new ArrayList<>();
-		final Date now = new Date();
-		boolean expired = false;
-		for (final Cookie cookie : cookies) {
-			if (!cookie.isExpired(now)) {
-				if (COOKIE_SPEC.match(cookie, cookieOrigin)) {
-					if (LOGGER.isDebugEnabled()) {
-						LOGGER.debug("Cookie {} match {}", cookie, cookieOrigin);
-					}
-					matchedCookies.add(cookie);
-				}
-			} else {
-				if (LOGGER.isDebugEnabled()) {
-					LOGGER.debug("Cookie {} expired", cookie);
-				}
-				expired = true;
-			}
-		}
-		// Per RFC 6265, 5.3
-		// The user agent must evict all expired cookies if, at any time, an expired cookie
-		// exists in the cookie store
-		if (expired) {
-			COOKIE_STORE.clearExpired(now);
-		}
+	private List<Header> getMatchedCookies(String uri) {
+		final List<Cookie> matchedCookies = COOKIE_STORE.getCookies(RequestTarget.of(uri).getCookieOrigin(), COOKIE_SPEC);
 		// Generate Cookie request headers
 		if (!matchedCookies.isEmpty()) {
 			return COOKIE_SPEC.formatCookies(matchedCookies);
@@ -341,7 +400,11 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 		return emptyList();
 	}
 
-	private void processResponseCookies(Iterator<Header> iterator) {
+	private void processResponseCookies(String uri, Iterator<Header> iterator) {
+		if (!iterator.hasNext()) {
+			return;
+		}
+		final CookieOrigin cookieOrigin = RequestTarget.of(uri).getCookieOrigin();
 		iterator.forEachRemaining(header -> {
 			try {
 				List<Cookie> cookies = COOKIE_SPEC.parse(header, cookieOrigin);
@@ -364,7 +427,17 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 	 */
 	public void setVersionPolicy(HttpVersionPolicy versionPolicy) {
 		this.versionPolicy = versionPolicy;
-		requester.setVersionPolicy(versionPolicy);
+	}
+
+	/**
+	 * Send the requests as the streams of an HTTP/2 connection which the vusers of the process share per host.
+	 * The version policy and the read bytes don't apply to the multiplexed requests.
+	 *
+	 * @param multiplexing true to multiplex. The default is {@link HTTPRequester#PROP_MULTIPLEXING}.
+	 * @since 3.5.5
+	 */
+	public void setMultiplexing(boolean multiplexing) {
+		this.multiplexing = multiplexing;
 	}
 
 	public int getReadBytes() {
@@ -373,10 +446,34 @@ public class HTTPRequest implements HTTPHead, HTTPGet, HTTPPost, HTTPPut, HTTPPa
 
 	public void setReadBytes(int readBytes) {
 		this.readBytes = readBytes;
-		this.requester = new HTTPRequester.Builder()
-			.setReadBytes(this.readBytes)
-			.setVersionPolicy(this.versionPolicy)
-			.build();
+		this.requester = HTTPRequester.getRequester(this.readBytes);
+	}
+
+	public int getBodyLimit() {
+		return bodyLimit;
+	}
+
+	/**
+	 * Set the bytes of the response body to keep in {@link HTTPResponse}. The rest of the body is still read and
+	 * counted to the response length, but discarded as it arrives.
+	 *
+	 * @param bodyLimit bytes to keep. -1 to keep all, which is the default. 0 to discard all.
+	 * @since 3.5.5
+	 */
+	public void setBodyLimit(int bodyLimit) {
+		this.bodyLimit = bodyLimit;
+	}
+
+	/**
+	 * Set the handler which receives the response body chunk by chunk as it arrives. The body is not kept in
+	 * {@link HTTPResponse} then. The chunk is read-only and valid only while the handler is called, and it's called
+	 * by the I/O thread, so the handler should return quickly.
+	 *
+	 * @param bodyHandler body chunk handler. null to keep the body.
+	 * @since 3.5.5
+	 */
+	public void setBodyHandler(Consumer<ByteBuffer> bodyHandler) {
+		this.bodyHandler = bodyHandler;
 	}
 
 	public void setHeaders(List<Header> headers) {
@@ -22,15 +22,15 @@ package org.ngrinder.http;
 
 import net.grinder.common.GrinderProperties;
 import net.grinder.script.Grinder;
-import net.grinder.util.Pair;
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.function.Callback;
 import org.apache.hc.core5.function.Decorator;
 import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.config.CharCodingConfig;
 import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.impl.DefaultAddressResolver;
 import org.apache.hc.core5.http.impl.HttpProcessors;
 import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncRequester;
 import org.apache.hc.core5.http.impl.nio.ClientHttp1StreamDuplexerFactory;
@@ -42,24 +42,106 @@ import org.apache.hc.core5.http2.config.H2Config;
 import org.apache.hc.core5.http2.impl.H2Processors;
 import org.apache.hc.core5.http2.impl.nio.ClientH2StreamMultiplexerFactory;
 import org.apache.hc.core5.http2.impl.nio.ClientHttpProtocolNegotiatorFactory;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2MultiplexingRequester;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2MultiplexingRequesterBootstrap;
 import org.apache.hc.core5.http2.nio.support.DefaultAsyncPushConsumerFactory;
 import org.apache.hc.core5.http2.ssl.H2ClientTlsStrategy;
+import org.apache.hc.core5.net.NamedEndpoint;
+import org.apache.hc.core5.pool.PoolEntry;
 import org.apache.hc.core5.reactor.IOEventHandlerFactory;
 import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.reactor.IOSession;
 import org.apache.hc.core5.reactor.IOSessionListener;
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
+import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
+import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
+import org.apache.hc.core5.reactor.ssl.TlsDetails;
+import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
+/**
+ * Requester which runs the I/O reactor of {@link HTTPRequest}.
+ * <p/>
+ * By default, all {@link HTTPRequest} instances in the worker process share a requester and its reactor
+ * threads so that the number of reactor threads and selectors doesn't grow with the number of vusers.
+ * The connections are still leased per thread from {@link ThreadAwareConnPool}, so each vuser keeps its
+ * own keep-alive connections. Set {@link #PROP_SHARED_REQUESTER} to false to create a requester per
+ * {@link HTTPRequest} as before.
+ * <p/>
+ * With {@link #PROP_MULTIPLEXING}, the vusers send their requests as the streams of an HTTP/2 connection per
+ * host instead, like browsers behind an HTTP/2 gateway do.
+ * <p/>
+ * All the requesters share a TLS context. With {@link #PROP_TLS_SESSION_RESUMPTION}, a new connection resumes the
+ * TLS session cached by the other connections to the host. Otherwise every connection makes a full handshake.
+ */
 public class HTTPRequester extends HttpAsyncRequester {
-	private static final ThreadAwareConnPool<HttpHost, IOSession> connPool = new ThreadAwareConnPool<>();
+	/**
+	 * Grinder property to share a requester in the process. true by default.
+	 */
+	public static final String PROP_SHARED_REQUESTER = "ngrinder.http.sharedRequester";
+
+	/**
+	 * Grinder property for the I/O thread count of the shared requester. The processor count by default.
+	 */
+	public static final String PROP_IO_THREAD_COUNT = "ngrinder.http.ioThreadCount";
+
+	/**
+	 * Grinder property for the max connections kept alive per host and vuser. No limit by default.
+	 */
+	public static final String PROP_MAX_PER_ROUTE = "ngrinder.http.maxPerRoute";
+
+	/**
+	 * Grinder property for how long in millisecond a connection is kept idle in the pool. No limit by default.
+	 */
+	public static final String PROP_IDLE_TIMEOUT = "ngrinder.http.idleTimeout";
+
+	/**
+	 * Grinder property for how long in millisecond a connection is reused. No limit by default.
+	 */
+	public static final String PROP_TIME_TO_LIVE = "ngrinder.http.timeToLive";
+
+	/**
+	 * Grinder property to share an HTTP/2 connection per host among the vusers of the process. false by default.
+	 *
+	 * @see #getMultiplexingRequester()
+	 */
+	public static final String PROP_MULTIPLEXING = "ngrinder.http.multiplexing";
+
+	/**
+	 * Grinder property to resume the cached TLS sessions on the new connections as browsers do. false by default,
+	 * so every connection makes a full handshake.
+	 */
+	public static final String PROP_TLS_SESSION_RESUMPTION = "ngrinder.http.tlsSessionResumption";
+
+	/**
+	 * Context attribute for the nano time when the stream of a multiplexed request is opened.
+	 */
+	static final String STREAM_OPENED_TIME = "ngrinder.http.streamOpenedTime";
+
+	private static final ThreadAwareConnPool<HttpHost, IOSession> connPool = createConnPool();
+
+	private static H2MultiplexingRequester multiplexingRequester;
+
+	/**
+	 * Shared requesters per read bytes because the read bytes is applied to the whole requester.
+	 */
+	private static final Map<Long, HTTPRequester> sharedRequesters = new ConcurrentHashMap<>();
+
+	/**
+	 * Timings of the connections. They're kept per session because the sessions are handled by the I/O threads.
+	 */
+	private static final Map<IOSession, ConnectionTimings> connectionTimings = new ConcurrentHashMap<>();
 
 	private HttpVersionPolicy versionPolicy;
 
@@ -77,19 +159,207 @@ public class HTTPRequester extends HttpAsyncRequester {
 		connPool.clear();
 	}
 
+	/**
+	 * @return connection counters of the process
+	 */
+	public static ConnPoolMetrics getConnPoolMetrics() {
+		return connPool.getMetrics();
+	}
+
+	private static ThreadAwareConnPool<HttpHost, IOSession> createConnPool() {
+		ThreadAwareConnPool<HttpHost, IOSession> pool = new ThreadAwareConnPool<>();
+		GrinderProperties properties = getGrinderProperties();
+		if (properties != null) {
+			pool.setDefaultMaxPerRoute(properties.getInt(PROP_MAX_PER_ROUTE, 0));
+			pool.setIdleTimeout(TimeValue.ofMilliseconds(properties.getLong(PROP_IDLE_TIMEOUT, -1)));
+			pool.setTimeToLive(TimeValue.ofMilliseconds(properties.getLong(PROP_TIME_TO_LIVE, -1)));
+		}
+		return pool;
+	}
+
+	/**
+	 * Get the requester for a {@link HTTPRequest}. It's the shared one unless {@link #PROP_SHARED_REQUESTER}
+	 * is false.
+	 *
+	 * @param readBytes bytes to read from the response body. -1 to read all.
+	 * @return requester
+	 */
+	public static HTTPRequester getRequester(long readBytes) {
+		GrinderProperties properties = getGrinderProperties();
+		if (properties != null && !properties.getBoolean(PROP_SHARED_REQUESTER, true)) {
+			return new Builder().setReadBytes(readBytes).build();
+		}
+		return sharedRequesters.computeIfAbsent(readBytes, key -> new Builder()
+			.setReadBytes(key)
+			.setShared(true)
+			.build());
+	}
+
+	/**
+	 * @return true if {@link #PROP_MULTIPLEXING} is set
+	 */
+	static boolean isMultiplexing() {
+		GrinderProperties properties = getGrinderProperties();
+		return properties != null && properties.getBoolean(PROP_MULTIPLEXING, false);
+	}
+
+	/**
+	 * @return true if {@link #PROP_TLS_SESSION_RESUMPTION} is set
+	 */
+	static boolean isTlsSessionResumption() {
+		GrinderProperties properties = getGrinderProperties();
+		return properties != null && properties.getBoolean(PROP_TLS_SESSION_RESUMPTION, false);
+	}
+
+	/**
+	 * Get the requester which multiplexes the requests over an HTTP/2 connection per host. h2 is negotiated by
+	 * ALPN for https, and h2c is used with prior knowledge for http.
+	 * <p/>
+	 * The connection sends as many requests at once as the server allows by its max concurrent streams setting,
+	 * and the other requests wait in the queue of the connection.
+	 *
+	 * @return requester shared in the process
+	 */
+	static synchronized H2MultiplexingRequester getMultiplexingRequester() {
+		if (multiplexingRequester == null) {
+			multiplexingRequester = H2MultiplexingRequesterBootstrap.bootstrap()
+				.setIOReactorConfig(new Builder().setShared(true).ioReactorConfig())
+				// The request is processed when its stream is opened on the connection.
+				.setHttpProcessor(H2Processors.customClient(null)
+					.addFirst((HttpRequestInterceptor) (request, entityDetails, context) ->
+						context.setAttribute(STREAM_OPENED_TIME, System.nanoTime()))
+					.build())
+				// The pushed responses aren't requested by the vusers.
+				.setH2Config(H2Config.custom().setPushEnabled(false).build())
+				.setTlsStrategy(new TimingTlsStrategy(SslContextHolder.SSL_CONTEXT))
+				.create();
+			multiplexingRequester.start();
+		}
+		return multiplexingRequester;
+	}
+
+	/**
+	 * Trust-all context of the process. It's created once because the client TLS sessions are cached in it.
+	 */
+	private static class SslContextHolder {
+		private static final SSLContext SSL_CONTEXT = createSslContext();
+
+		private static SSLContext createSslContext() {
+			try {
+				SSLContext sslContext = SSLContext.getInstance("TLS");
+				sslContext.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
+				return sslContext;
+			} catch (GeneralSecurityException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static GrinderProperties getGrinderProperties() {
+		return Grinder.grinder == null ? null : Grinder.grinder.getProperties();
+	}
+
 	@Override
 	protected Future<AsyncClientEndpoint> doConnect(HttpHost host, Timeout timeout, Object attachment, FutureCallback<AsyncClientEndpoint> callback) {
 		return super.doConnect(host, timeout, attachment != null ? attachment : versionPolicy, callback);
 	}
 
+	/**
+	 * Resolve the host in the calling thread so that the DNS lookup time of the new connection is measured.
+	 * The {@link ConnectionTimings} is attached to the connection and registered when the session is created.
+	 */
+	@Override
+	public Future<IOSession> requestSession(HttpHost host, Timeout timeout, Object attachment, FutureCallback<IOSession> callback) {
+		ConnectionTimings timings = new ConnectionTimings(attachment);
+		InetSocketAddress remoteAddress = DefaultAddressResolver.INSTANCE.resolve(host);
+		timings.resolved();
+		return connect(host, remoteAddress, null, timeout, timings, callback);
+	}
+
+	/**
+	 * Set the socket timeout of the connection which the current thread has leased for the given host. It's set
+	 * for each request because the shared requesters and their connections outlive the change of
+	 * {@link HTTPRequestControl#setSocketTimeout(long)}.
+	 *
+	 * @param host    host
+	 * @param timeout socket timeout
+	 */
+	static void setSocketTimeout(HttpHost host, Timeout timeout) {
+		PoolEntry<HttpHost, IOSession> entry = connPool.getLeased(host);
+		IOSession session = entry == null ? null : entry.getConnection();
+		if (session != null) {
+			session.setSocketTimeout(timeout);
+		}
+	}
+
+	/**
+	 * Get the timings of the connection which the current thread has leased for the given host.
+	 *
+	 * @param host host
+	 * @return connection timings. null if there's no leased connection.
+	 */
+	static ConnectionTimings getConnectionTimings(HttpHost host) {
+		PoolEntry<HttpHost, IOSession> entry = connPool.getLeased(host);
+		IOSession session = entry == null ? null : entry.getConnection();
+		return session == null ? null : connectionTimings.get(session);
+	}
+
 	public void setVersionPolicy(HttpVersionPolicy versionPolicy) {
 		this.versionPolicy = versionPolicy;
 	}
 
+	/**
+	 * {@link H2ClientTlsStrategy} which records when the TLS handshake of the session starts and completes.
+	 * <p/>
+	 * Unless {@link #PROP_TLS_SESSION_RESUMPTION} is set, the session is invalidated as soon as the handshake
+	 * completes so that no other connection resumes it.
+	 */
+	private static class TimingTlsStrategy extends H2ClientTlsStrategy {
+
+		TimingTlsStrategy(SSLContext sslContext) {
+			super(sslContext);
+		}
+
+		@Override
+		public boolean upgrade(TransportSecurityLayer tlsSession, HttpHost host, SocketAddress localAddress,
+							   SocketAddress remoteAddress, Object attachment, Timeout handshakeTimeout) {
+			final ConnectionTimings timings = connectionTimings.get(tlsSession);
+			final boolean resumption = isTlsSessionResumption();
+			if (timings == null && resumption) {
+				return super.upgrade(tlsSession, host, localAddress, remoteAddress, attachment, handshakeTimeout);
+			}
+			return super.upgrade(new TransportSecurityLayer() {
+				@Override
+				public void startTls(SSLContext sslContext, NamedEndpoint endpoint, SSLBufferMode sslBufferMode,
+									 SSLSessionInitializer initializer, SSLSessionVerifier verifier, Timeout timeout) {
+					if (timings != null) {
+						timings.tlsStarted();
+					}
+					tlsSession.startTls(sslContext, endpoint, sslBufferMode, initializer, (namedEndpoint, sslEngine) -> {
+						TlsDetails tlsDetails = verifier == null ? null : verifier.verify(namedEndpoint, sslEngine);
+						if (!resumption) {
+							sslEngine.getSession().invalidate();
+						}
+						if (timings != null) {
+							timings.tlsCompleted();
+						}
+						return tlsDetails;
+					}, timeout);
+				}
+
+				@Override
+				public TlsDetails getTlsDetails() {
+					return tlsSession.getTlsDetails();
+				}
+			}, host, localAddress, remoteAddress, attachment, handshakeTimeout);
+		}
+	}
+
 	public static class Builder {
 
 		private HttpVersionPolicy versionPolicy;
 		private long readBytes;
+		private boolean shared;
 
 		Builder() {
 			this.versionPolicy = HttpVersionPolicy.NEGOTIATE;
@@ -106,17 +376,24 @@ public class HTTPRequester extends HttpAsyncRequester {
 			return this;
 		}
 
+		Builder setShared(boolean shared) {
+			this.shared = shared;
+			return this;
+		}
+
 		private IOReactorConfig ioReactorConfig() {
-			GrinderProperties properties = Grinder.grinder.getProperties();
-			int totalThreadCount = 1;
-			if (properties != null) {
-				totalThreadCount = properties.getInt("grinder.threads", 1);
+			GrinderProperties properties = getGrinderProperties();
+			int ioThreadCount;
+			if (shared) {
+				int processors = Runtime.getRuntime().availableProcessors();
+				ioThreadCount = properties == null ? processors : properties.getInt(PROP_IO_THREAD_COUNT, processors);
+			} else {
+				int totalThreadCount = properties == null ? 1 : properties.getInt("grinder.threads", 1);
+				ioThreadCount = totalThreadCount / 100 + 1;
 			}
 
-			int ioThreadCount = totalThreadCount / 100 + 1;
-
 			return IOReactorConfig.custom()
-				.setIoThreadCount(ioThreadCount)
+				.setIoThreadCount(Math.max(ioThreadCount, 1))
 				.setSoTimeout(Timeout.ofMilliseconds(HTTPRequestControl.getSocketTimeout()))
 				.build();
 		}
@@ -139,66 +416,39 @@ public class HTTPRequester extends HttpAsyncRequester {
 				H2Config.DEFAULT,
 				CharCodingConfig.DEFAULT,
 				null);
-			final SSLContext sslContext;
-			try {
-				sslContext = SSLContext.getInstance("SSL");
-				sslContext.init(null, new TrustManager[]{new TrustAllManager()}, new SecureRandom());
-			} catch (GeneralSecurityException e) {
-				throw new RuntimeException(e);
-			}
-			return new ClientHttpProtocolNegotiatorFactory(
+			final ClientHttpProtocolNegotiatorFactory negotiatorFactory = new ClientHttpProtocolNegotiatorFactory(
 				http1StreamHandlerFactory,
 				http2StreamHandlerFactory,
 				null,
-				new H2ClientTlsStrategy(sslContext),
+				new TimingTlsStrategy(SslContextHolder.SSL_CONTEXT),
 				null);
+			return (ioSession, attachment) -> {
+				// The handler is created as soon as the connection is established.
+				if (attachment instanceof ConnectionTimings) {
+					ConnectionTimings timings = (ConnectionTimings) attachment;
+					timings.connected();
+					connectionTimings.put(ioSession, timings);
+					return negotiatorFactory.createHandler(ioSession, timings.getAttachment());
+				}
+				return negotiatorFactory.createHandler(ioSession, attachment);
+			};
 		}
 
 		private IOSessionListener ioSessionListener() {
 			return new IOSessionListener() {
-				private final Map<IOSession, Pair<StopWatch, Boolean>> stopWatchAndTlsFlagMap = new HashMap<>();
-
 				@Override
 				public void connected(IOSession session) {
-					Pair<StopWatch, Boolean> stopWatchAndTlsFlag = stopWatchAndTlsFlagMap.get(session);
-					if (stopWatchAndTlsFlag == null) {
-						stopWatchAndTlsFlag = Pair.of(new StopWatch(), false);
-						stopWatchAndTlsFlag.getFirst().start();
-					} else {
-						stopWatchAndTlsFlag = Pair.of(stopWatchAndTlsFlag.getFirst(), false);
-					}
 
-					stopWatchAndTlsFlagMap.put(session, stopWatchAndTlsFlag);
 				}
 
 				@Override
 				public void startTls(IOSession session) {
-					Pair<StopWatch, Boolean> stopWatchAndTlsFlag = Pair.of(new StopWatch(), true);
-					stopWatchAndTlsFlag.getFirst().start();
 
-					stopWatchAndTlsFlagMap.put(session, stopWatchAndTlsFlag);
 				}
 
 				@Override
 				public void inputReady(IOSession session) {
-					Pair<StopWatch, Boolean> stopWatchAndTlsFlag = stopWatchAndTlsFlagMap.get(session);
-					if (stopWatchAndTlsFlag == null) {
-						return;
-					}
-
-					StopWatch stopWatch = stopWatchAndTlsFlag.getFirst();
-					boolean isTlsEvent = stopWatchAndTlsFlag.getSecond();
 
-					if (isTlsEvent) {
-						return;
-					}
-
-					stopWatch.stop();
-					long timeToFirstByte = stopWatch.getTime();
-					stopWatch.reset();
-
-					TimeToFirstByteHolder.accumulate(timeToFirstByte);
-					stopWatchAndTlsFlagMap.remove(session);
 				}
 
 				@Override
@@ -218,7 +468,8 @@ public class HTTPRequester extends HttpAsyncRequester {
 
 				@Override
 				public void disconnected(IOSession session) {
-
+					// The shared requester lives as long as the process. Don't keep the closed sessions.
+					connectionTimings.remove(session);
 				}
 			};
 		}
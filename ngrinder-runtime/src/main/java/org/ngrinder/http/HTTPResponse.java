@@ -35,25 +35,43 @@ public class HTTPResponse {
 	private static final byte[] EMPTY_BODY = new byte[0];
 
 	private final Message<HttpResponse, byte[]> message;
-	private String bodyText = "";
+	private final long bodyLength;
+	private final RequestTimings timings;
 
-	HTTPResponse(Message<HttpResponse, byte[]> message) {
+	HTTPResponse(Message<HttpResponse, byte[]> message, long bodyLength, RequestTimings timings) {
 		this.message = message;
+		this.bodyLength = bodyLength;
+		this.timings = timings;
 	}
 
 	public byte[] getBodyBytes() {
 		return message.getBody() == null ? EMPTY_BODY : message.getBody();
 	}
 
+	/**
+	 * Get the bytes of the received body. It can be larger than {@link #getBodyBytes()} when the body is not kept.
+	 *
+	 * @return received body length
+	 * @see HTTPRequest#setBodyLimit(int)
+	 * @since 3.5.5
+	 */
+	public long getBodyLength() {
+		return bodyLength;
+	}
+
 	public String getBodyText() {
 		return getBodyText(Charset.defaultCharset());
 	}
 
+	/**
+	 * Decode the body. It's decoded on each call instead of being kept beside the bytes, so a large body isn't
+	 * held twice in the memory.
+	 *
+	 * @param charset charset of the body
+	 * @return body text
+	 */
 	public String getBodyText(Charset charset) {
-		if (bodyText.isEmpty()) {
-			bodyText = new String(getBodyBytes(), charset);
-		}
-		return bodyText;
+		return new String(getBodyBytes(), charset);
 	}
 
 	public <T> T getBody(Function<String, T> converter) {
@@ -80,8 +98,22 @@ public class HTTPResponse {
 		return Arrays.asList(message.getHead().getHeaders(name));
 	}
 
+	/**
+	 * Get the phase timings of the request.
+	 *
+	 * @return timings. null if the response is not created by {@link HTTPRequest}.
+	 * @since 3.5.5
+	 */
+	public RequestTimings getTimings() {
+		return timings;
+	}
+
 	public static HTTPResponse of(Message<HttpResponse, byte[]> message) {
-		return new HTTPResponse(message);
+		return new HTTPResponse(message, message.getBody() == null ? 0 : message.getBody().length, null);
+	}
+
+	static HTTPResponse of(Message<HttpResponse, byte[]> message, long bodyLength, RequestTimings timings) {
+		return new HTTPResponse(message, bodyLength, timings);
 	}
 
 }
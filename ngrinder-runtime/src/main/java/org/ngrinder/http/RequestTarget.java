@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.core5.http.HttpHost;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parsed target of a request URL.
+ * <p/>
+ * A script usually requests the same URLs over and over, so the targets are cached per thread by the URL string.
+ * The least recently used ones are dropped beyond {@link #MAX_CACHED_TARGETS}.
+ *
+ * @since 3.5.5
+ */
+public final class RequestTarget {
+
+	static final int MAX_CACHED_TARGETS = 256;
+
+	private static final ThreadLocal<Map<String, RequestTarget>> cachedTargets = ThreadLocal.withInitial(() ->
+		new LinkedHashMap<String, RequestTarget>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, RequestTarget> eldest) {
+				return size() > MAX_CACHED_TARGETS;
+			}
+		});
+
+	private final URI uri;
+
+	private final HttpHost httpHost;
+
+	private final CookieOrigin cookieOrigin;
+
+	private RequestTarget(URI uri, HttpHost httpHost, CookieOrigin cookieOrigin) {
+		this.uri = uri;
+		this.httpHost = httpHost;
+		this.cookieOrigin = cookieOrigin;
+	}
+
+	/**
+	 * Get the target of the given URL from the cache of the current thread.
+	 *
+	 * @param uri request URL
+	 * @return parsed target
+	 * @throws IllegalArgumentException if the URL is invalid
+	 */
+	public static RequestTarget of(String uri) {
+		Map<String, RequestTarget> targets = cachedTargets.get();
+		RequestTarget target = targets.get(uri);
+		if (target == null) {
+			target = parse(uri);
+			targets.put(uri, target);
+		}
+		return target;
+	}
+
+	static RequestTarget parse(String uriString) {
+		URI uri = URI.create(uriString);
+
+		int port = uri.getPort();
+		if (port == -1) {
+			port = 80;
+		}
+
+		boolean isSecure = uri.getScheme().equalsIgnoreCase("https");
+
+		CookieOrigin cookieOrigin = new CookieOrigin(uri.getHost(), port, uri.getPath(), isSecure);
+		return new RequestTarget(uri, HttpHost.create(uri), cookieOrigin);
+	}
+
+	public URI getUri() {
+		return uri;
+	}
+
+	/**
+	 * @return host which is the route of the connection pool
+	 */
+	public HttpHost getHttpHost() {
+		return httpHost;
+	}
+
+	public CookieOrigin getCookieOrigin() {
+		return cookieOrigin;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Phase timings of a request in millisecond.
+ * <p/>
+ * DNS lookup, TCP connect and TLS handshake are 0 when the request reuses a keep-alive connection.
+ * Time to first byte is measured from when the request is sent, or when the TLS handshake of the new connection
+ * is completed, to when the response head arrives.
+ * <p/>
+ * On a multiplexed HTTP/2 connection, the connect time is the time until the stream of the request is opened. It
+ * includes connecting the shared connection and waiting for the other streams when the server's max concurrent
+ * streams are in use.
+ *
+ * @since 3.5.5
+ */
+public class RequestTimings {
+
+	private final long dnsTime;
+	private final long connectTime;
+	private final long tlsHandshakeTime;
+	private final long timeToFirstByte;
+	private final long downloadTime;
+
+	RequestTimings(long dnsTime, long connectTime, long tlsHandshakeTime, long timeToFirstByte, long downloadTime) {
+		this.dnsTime = dnsTime;
+		this.connectTime = connectTime;
+		this.tlsHandshakeTime = tlsHandshakeTime;
+		this.timeToFirstByte = timeToFirstByte;
+		this.downloadTime = downloadTime;
+	}
+
+	/**
+	 * Create the timings of a request.
+	 *
+	 * @param connectionTimings timings of the connection. null if the connection is unknown.
+	 * @param sentTime          nano time when the request is sent
+	 * @param consumer          consumer of the response
+	 * @return request timings
+	 */
+	static RequestTimings of(ConnectionTimings connectionTimings, long sentTime, TimingResponseConsumer<?> consumer) {
+		long dnsTime = 0;
+		long connectTime = 0;
+		long tlsHandshakeTime = 0;
+		long requestTime = sentTime;
+		if (connectionTimings != null) {
+			if (connectionTimings.isTlsCompleted() && connectionTimings.getTlsCompletedTime() - requestTime > 0) {
+				// The handshake of the new connection is done while sending the request.
+				requestTime = connectionTimings.getTlsCompletedTime();
+			}
+			if (connectionTimings.markReported()) {
+				dnsTime = connectionTimings.getDnsTime();
+				connectTime = connectionTimings.getConnectTime();
+				tlsHandshakeTime = connectionTimings.getTlsHandshakeTime();
+			}
+		}
+		long timeToFirstByte = NANOSECONDS.toMillis(Math.max(consumer.getResponseTime() - requestTime, 0));
+		long downloadTime = NANOSECONDS.toMillis(Math.max(consumer.getCompletedTime() - consumer.getResponseTime(), 0));
+		return new RequestTimings(dnsTime, connectTime, tlsHandshakeTime, timeToFirstByte, downloadTime);
+	}
+
+	/**
+	 * Create the timings of a request sent as a stream of a multiplexed connection.
+	 *
+	 * @param requestedTime nano time when the request is given to the connection
+	 * @param context       context of the request which has {@link HTTPRequester#STREAM_OPENED_TIME}
+	 * @param consumer      consumer of the response
+	 * @return request timings
+	 */
+	static RequestTimings ofStream(long requestedTime, HttpContext context, TimingResponseConsumer<?> consumer) {
+		Object openedTime = context.getAttribute(HTTPRequester.STREAM_OPENED_TIME);
+		long streamOpenedTime = openedTime instanceof Long ? (Long) openedTime : requestedTime;
+		long connectTime = NANOSECONDS.toMillis(Math.max(streamOpenedTime - requestedTime, 0));
+		long timeToFirstByte = NANOSECONDS.toMillis(Math.max(consumer.getResponseTime() - streamOpenedTime, 0));
+		long downloadTime = NANOSECONDS.toMillis(Math.max(consumer.getCompletedTime() - consumer.getResponseTime(), 0));
+		return new RequestTimings(0, connectTime, 0, timeToFirstByte, downloadTime);
+	}
+
+	public long getDnsTime() {
+		return dnsTime;
+	}
+
+	public long getConnectTime() {
+		return connectTime;
+	}
+
+	public long getTlsHandshakeTime() {
+		return tlsHandshakeTime;
+	}
+
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	public long getDownloadTime() {
+		return downloadTime;
+	}
+
+	@Override
+	public String toString() {
+		return "dns " + dnsTime + " ms, connect " + connectTime + " ms, tls " + tlsHandshakeTime
+			+ " ms, first byte " + timeToFirstByte + " ms, download " + downloadTime + " ms";
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityConsumer;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Entity consumer which counts every received byte but keeps only as much of the body as required.
+ * <p/>
+ * The body is kept up to the given limit, or handed to the given handler chunk by chunk without being kept at all.
+ * Unlike {@link org.apache.hc.core5.http.nio.entity.BasicAsyncEntityConsumer}, a large body doesn't have to be
+ * buffered in the worker heap just to be thrown away.
+ *
+ * @since 3.5.5
+ */
+class StreamingEntityConsumer extends AbstractBinAsyncEntityConsumer<byte[]> {
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	private final int limit;
+
+	private final Consumer<ByteBuffer> handler;
+
+	private final ByteArrayBuffer buffer;
+
+	private volatile long receivedBytes;
+
+	/**
+	 * @param limit   bytes of the body to keep. -1 to keep all and 0 to discard all.
+	 * @param handler handler of the body chunks. If it's given, nothing is kept.
+	 */
+	StreamingEntityConsumer(int limit, Consumer<ByteBuffer> handler) {
+		this.limit = handler == null ? limit : 0;
+		this.handler = handler;
+		this.buffer = new ByteArrayBuffer(this.limit < 0 ? 1024 : Math.min(this.limit, 1024));
+	}
+
+	/**
+	 * @return bytes of the received body including the discarded ones
+	 */
+	long getReceivedBytes() {
+		return receivedBytes;
+	}
+
+	@Override
+	protected void streamStart(ContentType contentType) {
+	}
+
+	@Override
+	protected int capacityIncrement() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	protected void data(ByteBuffer src, boolean endOfStream) {
+		int length = src.remaining();
+		receivedBytes += length;
+		if (handler != null) {
+			// The chunk is valid only while the handler is called.
+			handler.accept(src.asReadOnlyBuffer());
+		} else if (limit < 0 || buffer.length() < limit) {
+			int keep = limit < 0 ? length : Math.min(length, limit - buffer.length());
+			if (src.hasArray()) {
+				buffer.append(src.array(), src.arrayOffset() + src.position(), keep);
+			} else {
+				byte[] chunk = new byte[keep];
+				src.get(chunk);
+				buffer.append(chunk, 0, keep);
+			}
+		}
+		src.position(src.limit());
+	}
+
+	@Override
+	protected byte[] generateContent() {
+		return buffer.isEmpty() ? EMPTY_BODY : buffer.toByteArray();
+	}
+
+	@Override
+	public void releaseResources() {
+		buffer.clear();
+	}
+}
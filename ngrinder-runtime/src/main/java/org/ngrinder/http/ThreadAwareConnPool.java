@@ -24,33 +24,72 @@ import org.apache.hc.core5.concurrent.BasicFuture;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.io.ModalCloseable;
+import org.apache.hc.core5.pool.DisposalCallback;
 import org.apache.hc.core5.pool.ManagedConnPool;
 import org.apache.hc.core5.pool.PoolEntry;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.stream.Stream;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static net.grinder.util.NoOp.noOp;
 
+/**
+ * Connection pool which keeps the connections per thread so that each vuser has its own keep-alive connections.
+ * <p/>
+ * The connections of a thread are indexed by route, so leasing a connection doesn't depend on how many hosts
+ * the vuser has visited. The idle and expired connections, and the connections of the finished threads are
+ * closed by the eviction timer.
+ *
+ * @param <T> route type
+ * @param <C> connection type
+ */
 public class ThreadAwareConnPool<T, C extends ModalCloseable> extends EmptyConnPoolControl<T, C> implements ManagedConnPool<T, C> {
 
-	private final ThreadLocal<Set<PoolEntry<T, C>>> leased = ThreadLocal.withInitial(HashSet::new);
-	private final ThreadLocal<LinkedList<PoolEntry<T, C>>> available = ThreadLocal.withInitial(LinkedList::new);
+	private static final long EVICTION_PERIOD_MILLIS = 5000;
+
+	private final ThreadLocal<ThreadPool> threadPool = new ThreadLocal<>();
+
+	private final List<ThreadPool> threadPools = new CopyOnWriteArrayList<>();
+
+	private final Map<T, Integer> maxPerRoute = new ConcurrentHashMap<>();
+
+	private final LongAdder created = new LongAdder();
+
+	private final LongAdder closed = new LongAdder();
+
+	private final DisposalCallback<C> disposalCallback = (connection, closeMode) -> {
+		closed.increment();
+		connection.close(closeMode);
+	};
+
+	private volatile int defaultMaxPerRoute;
+
+	private volatile TimeValue timeToLive = TimeValue.NEG_ONE_MILLISECOND;
+
+	private volatile TimeValue idleTimeout = TimeValue.NEG_ONE_MILLISECOND;
+
+	private ScheduledExecutorService evictor;
 
 	@Override
 	public Future<PoolEntry<T, C>> lease(T route, Object state, Timeout requestTimeout, FutureCallback<PoolEntry<T, C>> callback) {
-		PoolEntry<T, C> poolEntry = this.getAvailable()
-			.stream()
-			.filter(entry -> entry.getRoute().equals(route))
-			.findAny()
-			.orElseGet(() -> new PoolEntry<>(route, Timeout.DISABLED));
-		this.getLeased().add(poolEntry);
-
+		PoolEntry<T, C> poolEntry = getThreadPool().lease(route);
 		BasicFuture<PoolEntry<T, C>> future = new BasicFuture<>(callback);
 		future.completed(poolEntry);
 		return future;
@@ -61,29 +100,135 @@ public class ThreadAwareConnPool<T, C extends ModalCloseable> extends EmptyConnP
 		if (entry == null) {
 			return;
 		}
-
-		if (this.getLeased().remove(entry)) {
-			final boolean keepAlive = entry.hasConnection() && reusable;
-			if (keepAlive) {
-				this.getAvailable().addFirst(entry);
-			} else {
-				entry.discardConnection(CloseMode.IMMEDIATE);
+		ThreadPool current = threadPool.get();
+		if (current != null && current.release(entry, reusable)) {
+			return;
+		}
+		// The failed connection can be released by the I/O thread.
+		for (ThreadPool each : threadPools) {
+			if (each != current && each.release(entry, reusable)) {
+				return;
 			}
 		}
 	}
 
+	/**
+	 * Get the connection which the current thread has leased lastly for the given route.
+	 *
+	 * @param route route
+	 * @return pool entry. null if the current thread has no leased connection for the route.
+	 */
+	public PoolEntry<T, C> getLeased(T route) {
+		ThreadPool current = threadPool.get();
+		return current == null ? null : current.getLeased(route);
+	}
+
+	/**
+	 * Close all connections of the current thread.
+	 */
 	public void clear() {
-		Stream<PoolEntry<T, C>> entryStream = Stream.concat(
-			this.getLeased().stream(),
-			this.getAvailable().stream()
-		);
-		entryStream.forEach(entry -> entry.discardConnection(CloseMode.IMMEDIATE));
-		this.getLeased().clear();
-		this.getAvailable().clear();
+		ThreadPool current = threadPool.get();
+		if (current != null) {
+			threadPool.remove();
+			threadPools.remove(current);
+			current.clear();
+		}
+	}
+
+	/**
+	 * Set the time to live of the connections. The connections older than it are not reused.
+	 *
+	 * @param timeToLive time to live. non positive value to keep the connections forever.
+	 */
+	public void setTimeToLive(TimeValue timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set how long a connection can be idle in the pool. The server closes the idle keep-alive connection in a
+	 * while, so closing it in the pool first keeps the requests from failing on the closed connection.
+	 *
+	 * @param idleTimeout idle timeout. non positive value to keep the idle connections.
+	 */
+	public void setIdleTimeout(TimeValue idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Set the max connections kept alive per route and thread. The connections which are released beyond it
+	 * are closed. The lease is never blocked because each vuser waits for its own requests.
+	 *
+	 * @param max max connections. 0 for no limit.
+	 */
+	@Override
+	public void setDefaultMaxPerRoute(int max) {
+		this.defaultMaxPerRoute = max;
+	}
+
+	@Override
+	public int getDefaultMaxPerRoute() {
+		return defaultMaxPerRoute;
+	}
+
+	@Override
+	public void setMaxPerRoute(T route, int max) {
+		maxPerRoute.put(route, max);
+	}
+
+	@Override
+	public int getMaxPerRoute(T route) {
+		return maxPerRoute.getOrDefault(route, defaultMaxPerRoute);
+	}
+
+	@Override
+	public void closeIdle(TimeValue idleTime) {
+		long idleSince = System.currentTimeMillis() - (TimeValue.isPositive(idleTime) ? idleTime.toMilliseconds() : 0);
+		for (ThreadPool each : threadPools) {
+			each.evict(idleSince);
+		}
+	}
+
+	@Override
+	public void closeExpired() {
+		for (ThreadPool each : threadPools) {
+			each.evict(0);
+		}
+	}
+
+	@Override
+	public Set<T> getRoutes() {
+		Set<T> routes = new HashSet<>();
+		for (ThreadPool each : threadPools) {
+			each.collectRoutes(routes);
+		}
+		return routes;
+	}
+
+	@Override
+	public PoolStats getTotalStats() {
+		return getStats(null);
+	}
+
+	@Override
+	public PoolStats getStats(T route) {
+		int[] counts = new int[2];
+		for (ThreadPool each : threadPools) {
+			each.count(route, counts);
+		}
+		return new PoolStats(counts[0], 0, counts[1], route == null ? 0 : getMaxPerRoute(route));
+	}
+
+	/**
+	 * @return connection counters of all threads
+	 */
+	public ConnPoolMetrics getMetrics() {
+		PoolStats stats = getTotalStats();
+		return new ConnPoolMetrics(stats.getLeased(), stats.getAvailable(), created.sum(), closed.sum());
 	}
 
 	@Override
 	public void close(CloseMode closeMode) {
+		// The pool is shared by the requesters and lives as long as the process.
 		noOp();
 	}
 
@@ -92,11 +237,154 @@ public class ThreadAwareConnPool<T, C extends ModalCloseable> extends EmptyConnP
 		close(CloseMode.IMMEDIATE);
 	}
 
-	public Set<PoolEntry<T, C>> getLeased() {
-		return leased.get();
+	private ThreadPool getThreadPool() {
+		ThreadPool current = threadPool.get();
+		if (current == null) {
+			current = new ThreadPool(Thread.currentThread());
+			threadPool.set(current);
+			threadPools.add(current);
+			startEviction();
+		}
+		return current;
+	}
+
+	private synchronized void startEviction() {
+		if (evictor != null) {
+			return;
+		}
+		evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "connection evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictor.scheduleWithFixedDelay(this::evict, EVICTION_PERIOD_MILLIS, EVICTION_PERIOD_MILLIS,
+			TimeUnit.MILLISECONDS);
+	}
+
+	private void evict() {
+		for (ThreadPool each : threadPools) {
+			if (each.owner.isAlive()) {
+				each.evict(0);
+			} else {
+				threadPools.remove(each);
+				each.clear();
+			}
+		}
 	}
 
-	public LinkedList<PoolEntry<T, C>> getAvailable() {
-		return available.get();
+	/**
+	 * Connections of a thread. It's locked by the owner thread and the evictor only.
+	 */
+	private class ThreadPool {
+		private final Thread owner;
+
+		private final Map<T, RoutePool> routePools = new HashMap<>();
+
+		ThreadPool(Thread owner) {
+			this.owner = owner;
+		}
+
+		synchronized PoolEntry<T, C> lease(T route) {
+			RoutePool routePool = routePools.get(route);
+			if (routePool == null) {
+				routePool = new RoutePool();
+				routePools.put(route, routePool);
+			}
+			PoolEntry<T, C> entry;
+			while ((entry = routePool.available.pollFirst()) != null && entry.getExpiryDeadline().isExpired()) {
+				entry.discardConnection(CloseMode.GRACEFUL);
+			}
+			if (entry == null) {
+				entry = new PoolEntry<>(route, timeToLive, disposalCallback);
+				created.increment();
+			}
+			routePool.leased.addLast(entry);
+			return entry;
+		}
+
+		synchronized boolean release(PoolEntry<T, C> entry, boolean reusable) {
+			RoutePool routePool = routePools.get(entry.getRoute());
+			if (routePool == null || !routePool.leased.removeLastOccurrence(entry)) {
+				return false;
+			}
+			int max = getMaxPerRoute(entry.getRoute());
+			if (entry.hasConnection() && reusable && (max <= 0 || routePool.available.size() < max)) {
+				entry.updateExpiry(idleTimeout);
+				routePool.available.addFirst(entry);
+			} else {
+				entry.discardConnection(CloseMode.IMMEDIATE);
+			}
+			return true;
+		}
+
+		synchronized PoolEntry<T, C> getLeased(T route) {
+			RoutePool routePool = routePools.get(route);
+			if (routePool == null) {
+				return null;
+			}
+			Iterator<PoolEntry<T, C>> iterator = routePool.leased.descendingIterator();
+			while (iterator.hasNext()) {
+				PoolEntry<T, C> entry = iterator.next();
+				if (entry.hasConnection()) {
+					return entry;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Close the expired connections and the connections which are idle since the given time.
+		 *
+		 * @param idleSince epoch millisecond. 0 to close the expired connections only.
+		 */
+		synchronized void evict(long idleSince) {
+			Iterator<RoutePool> routePoolIterator = routePools.values().iterator();
+			while (routePoolIterator.hasNext()) {
+				RoutePool routePool = routePoolIterator.next();
+				// The least recently used connections are on the tail.
+				PoolEntry<T, C> entry;
+				while ((entry = routePool.available.peekLast()) != null
+					&& (entry.getExpiryDeadline().isExpired() || entry.getUpdated() < idleSince)) {
+					routePool.available.pollLast();
+					entry.discardConnection(CloseMode.GRACEFUL);
+				}
+				if (routePool.isEmpty()) {
+					routePoolIterator.remove();
+				}
+			}
+		}
+
+		synchronized void clear() {
+			for (RoutePool each : routePools.values()) {
+				List<PoolEntry<T, C>> entries = new ArrayList<>(each.leased);
+				entries.addAll(each.available);
+				entries.forEach(entry -> entry.discardConnection(CloseMode.IMMEDIATE));
+			}
+			routePools.clear();
+		}
+
+		synchronized void collectRoutes(Set<T> routes) {
+			routes.addAll(routePools.keySet());
+		}
+
+		synchronized void count(T route, int[] counts) {
+			for (Map.Entry<T, RoutePool> each : routePools.entrySet()) {
+				if (route == null || route.equals(each.getKey())) {
+					counts[0] += each.getValue().leased.size();
+					counts[1] += each.getValue().available.size();
+				}
+			}
+		}
+	}
+
+	private class RoutePool {
+		// The most recently released connection is on the head.
+		private final ArrayDeque<PoolEntry<T, C>> available = new ArrayDeque<>();
+
+		private final ArrayDeque<PoolEntry<T, C>> leased = new ArrayDeque<>();
+
+		boolean isEmpty() {
+			return available.isEmpty() && leased.isEmpty();
+		}
 	}
 }
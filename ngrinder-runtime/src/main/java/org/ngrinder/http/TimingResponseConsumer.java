@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * {@link AsyncResponseConsumer} which records when the response head arrives and when the response is completed.
+ * Both are called by the I/O thread which handles the exchange, so they belong to the request of the consumer.
+ *
+ * @param <T> response type
+ * @since 3.5.5
+ */
+class TimingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+
+	private final AsyncResponseConsumer<T> delegate;
+
+	private volatile long responseTime;
+
+	private volatile long completedTime;
+
+	TimingResponseConsumer(AsyncResponseConsumer<T> delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return nano time when the response head arrived
+	 */
+	long getResponseTime() {
+		return responseTime;
+	}
+
+	/**
+	 * @return nano time when the response body is consumed
+	 */
+	long getCompletedTime() {
+		return completedTime;
+	}
+
+	@Override
+	public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+								FutureCallback<T> resultCallback) throws HttpException, IOException {
+		responseTime = System.nanoTime();
+		delegate.consumeResponse(response, entityDetails, context, new FutureCallback<T>() {
+			@Override
+			public void completed(T result) {
+				completedTime = System.nanoTime();
+				resultCallback.completed(result);
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				resultCallback.failed(ex);
+			}
+
+			@Override
+			public void cancelled() {
+				resultCallback.cancelled();
+			}
+		});
+	}
+
+	@Override
+	public void informationResponse(HttpResponse response, HttpContext context) throws HttpException, IOException {
+		delegate.informationResponse(response, context);
+	}
+
+	@Override
+	public void failed(Exception cause) {
+		delegate.failed(cause);
+	}
+
+	@Override
+	public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+		delegate.updateCapacity(capacityChannel);
+	}
+
+	@Override
+	public void consume(ByteBuffer src) throws IOException {
+		delegate.consume(src);
+	}
+
+	@Override
+	public void streamEnd(List<? extends Header> trailers) throws HttpException, IOException {
+		delegate.streamEnd(trailers);
+	}
+
+	@Override
+	public void releaseResources() {
+		delegate.releaseResources();
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http.cookie;
+
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieIdentityComparator;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.cookie.CookieSpec;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Cookie store which indexes the cookies by domain so that matching a request only looks at the cookies of the
+ * domains the request host belongs to.
+ * <p/>
+ * It keeps the semantics of {@link org.apache.hc.client5.http.cookie.BasicCookieStore}. The cookies are
+ * identified by {@link CookieIdentityComparator} and the expired cookies are never stored. The earliest expiry
+ * time is kept, so the store is scanned for the expired cookies only when one of them can have expired.
+ *
+ * @since 3.5.5
+ */
+public class IndexedCookieStore implements CookieStore {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndexedCookieStore.class);
+
+	private static final CookieIdentityComparator IDENTITY_COMPARATOR = new CookieIdentityComparator();
+
+	private final Map<String, TreeSet<Cookie>> cookiesByDomain = new HashMap<>();
+
+	private long nextExpiry = Long.MAX_VALUE;
+
+	@Override
+	public synchronized void addCookie(Cookie cookie) {
+		if (cookie == null) {
+			return;
+		}
+		String domain = getDomainKey(cookie.getDomain());
+		TreeSet<Cookie> cookies = cookiesByDomain.get(domain);
+		if (cookies != null) {
+			cookies.remove(cookie);
+		}
+		long now = System.currentTimeMillis();
+		if (getExpiry(cookie) <= now) {
+			return;
+		}
+		if (cookies == null) {
+			cookies = new TreeSet<>(IDENTITY_COMPARATOR);
+			cookiesByDomain.put(domain, cookies);
+		}
+		cookies.add(cookie);
+		nextExpiry = Math.min(nextExpiry, getExpiry(cookie));
+	}
+
+	@Override
+	public synchronized List<Cookie> getCookies() {
+		List<Cookie> cookies = new ArrayList<>();
+		cookiesByDomain.values().forEach(cookies::addAll);
+		cookies.sort(IDENTITY_COMPARATOR);
+		return cookies;
+	}
+
+	/**
+	 * Get the cookies to be sent to the given origin. The expired cookies are evicted first as RFC 6265 5.3
+	 * requires.
+	 *
+	 * @param origin request origin
+	 * @param spec   cookie spec which matches each cookie of the origin's domains
+	 * @return matched cookies in the order of {@link #getCookies()}
+	 */
+	public synchronized List<Cookie> getCookies(CookieOrigin origin, CookieSpec spec) {
+		if (cookiesByDomain.isEmpty()) {
+			return emptyList();
+		}
+		long now = System.currentTimeMillis();
+		if (now >= nextExpiry) {
+			clearExpired(new Date(now));
+		}
+		List<Cookie> matched = new ArrayList<>();
+		// A cookie can only match the host itself or one of its parent domains.
+		String host = origin.getHost();
+		int index = 0;
+		while (index >= 0) {
+			String domain = host.substring(index);
+			match(cookiesByDomain.get(domain), origin, spec, matched);
+			match(cookiesByDomain.get("." + domain), origin, spec, matched);
+			index = host.indexOf('.', index + 1);
+			if (index >= 0) {
+				index++;
+			}
+		}
+		if (matched.size() > 1) {
+			matched.sort(IDENTITY_COMPARATOR);
+		}
+		return matched;
+	}
+
+	private void match(TreeSet<Cookie> cookies, CookieOrigin origin, CookieSpec spec, List<Cookie> matched) {
+		if (cookies == null) {
+			return;
+		}
+		for (Cookie cookie : cookies) {
+			if (spec.match(cookie, origin)) {
+				if (LOGGER.isDebugEnabled()) {
+					LOGGER.debug("Cookie {} match {}", cookie, origin);
+				}
+				matched.add(cookie);
+			}
+		}
+	}
+
+	@Override
+	public synchronized boolean clearExpired(Date date) {
+		if (date == null) {
+			return false;
+		}
+		boolean removed = false;
+		long next = Long.MAX_VALUE;
+		Iterator<TreeSet<Cookie>> domainIterator = cookiesByDomain.values().iterator();
+		while (domainIterator.hasNext()) {
+			TreeSet<Cookie> cookies = domainIterator.next();
+			Iterator<Cookie> iterator = cookies.iterator();
+			while (iterator.hasNext()) {
+				Cookie cookie = iterator.next();
+				if (cookie.isExpired(date)) {
+					if (LOGGER.isDebugEnabled()) {
+						LOGGER.debug("Cookie {} expired", cookie);
+					}
+					iterator.remove();
+					removed = true;
+				} else {
+					next = Math.min(next, getExpiry(cookie));
+				}
+			}
+			if (cookies.isEmpty()) {
+				domainIterator.remove();
+			}
+		}
+		nextExpiry = next;
+		return removed;
+	}
+
+	@Override
+	public synchronized void clear() {
+		cookiesByDomain.clear();
+		nextExpiry = Long.MAX_VALUE;
+	}
+
+	@Override
+	public String toString() {
+		return getCookies().toString();
+	}
+
+	private static long getExpiry(Cookie cookie) {
+		Date expiryDate = cookie.getExpiryDate();
+		return expiryDate == null ? Long.MAX_VALUE : expiryDate.getTime();
+	}
+
+	/**
+	 * The cookies which are identical by {@link CookieIdentityComparator} share the key.
+	 */
+	private static String getDomainKey(String domain) {
+		return domain == null ? "" : domain.toLowerCase(Locale.ROOT);
+	}
+}
@@ -1,14 +1,15 @@
 package org.ngrinder.http.cookie;
 
-import org.apache.hc.client5.http.cookie.BasicCookieStore;
 import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.cookie.CookieSpec;
 import org.apache.hc.client5.http.cookie.CookieStore;
 
 import java.util.Date;
 import java.util.List;
 
 public class ThreadContextCookieStore implements CookieStore {
-	private static final ThreadLocal<CookieStore> cookieStoreThreadLocal = ThreadLocal.withInitial(BasicCookieStore::new);
+	private static final ThreadLocal<IndexedCookieStore> cookieStoreThreadLocal = ThreadLocal.withInitial(IndexedCookieStore::new);
 
 	public static final ThreadContextCookieStore INSTANCE = new ThreadContextCookieStore();
 
@@ -26,6 +27,15 @@ public class ThreadContextCookieStore implements CookieStore {
 		return getCookieStore().getCookies();
 	}
 
+	/**
+	 * Get the cookies of the current thread to be sent to the given origin.
+	 *
+	 * @see IndexedCookieStore#getCookies(CookieOrigin, CookieSpec)
+	 */
+	public List<Cookie> getCookies(CookieOrigin origin, CookieSpec spec) {
+		return cookieStoreThreadLocal.get().getCookies(origin, spec);
+	}
+
 	@Override
 	public boolean clearExpired(Date date) {
 		return getCookieStore().clearExpired(date);
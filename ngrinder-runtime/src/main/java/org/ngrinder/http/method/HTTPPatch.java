@@ -28,6 +28,7 @@ import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.ngrinder.http.HTTPResponse;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,8 @@ public interface HTTPPatch {
 
 	HTTPResponse PATCH(String uri, AsyncEntityProducer asyncEntityProducer, List<Header> headers);
 
+	HTTPResponse PATCH(String uri, File file, List<Header> headers);
+
 	default HTTPResponse PATCH(String uri) {
 		return PATCH(uri, new byte[0], emptyList());
 	}
@@ -78,4 +81,12 @@ public interface HTTPPatch {
 	default HTTPResponse PATCH(String uri, AsyncEntityProducer asyncEntityProducer, Map<String, String> headers) {
 		return PATCH(uri, asyncEntityProducer, convert(headers, BasicHeader::new));
 	}
+
+	default HTTPResponse PATCH(String uri, File file) {
+		return PATCH(uri, file, emptyList());
+	}
+
+	default HTTPResponse PATCH(String uri, File file, Map<String, String> headers) {
+		return PATCH(uri, file, convert(headers, BasicHeader::new));
+	}
 }
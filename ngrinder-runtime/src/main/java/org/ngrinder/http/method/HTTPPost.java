@@ -28,6 +28,7 @@ import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.ngrinder.http.HTTPResponse;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,8 @@ public interface HTTPPost {
 
 	HTTPResponse POST(String uri, AsyncEntityProducer asyncEntityProducer, List<Header> headers);
 
+	HTTPResponse POST(String uri, File file, List<Header> headers);
+
 	default HTTPResponse POST(String uri) {
 		return POST(uri, new byte[0], emptyList());
 	}
@@ -78,4 +81,12 @@ public interface HTTPPost {
 	default HTTPResponse POST(String uri, AsyncEntityProducer asyncEntityProducer, Map<String, String> headers) {
 		return POST(uri, asyncEntityProducer, convert(headers, BasicHeader::new));
 	}
+
+	default HTTPResponse POST(String uri, File file) {
+		return POST(uri, file, emptyList());
+	}
+
+	default HTTPResponse POST(String uri, File file, Map<String, String> headers) {
+		return POST(uri, file, convert(headers, BasicHeader::new));
+	}
 }
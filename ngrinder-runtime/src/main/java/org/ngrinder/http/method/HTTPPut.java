@@ -28,6 +28,7 @@ import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.ngrinder.http.HTTPResponse;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,8 @@ public interface HTTPPut {
 
 	HTTPResponse PUT(String uri, AsyncEntityProducer asyncEntityProducer, List<Header> headers);
 
+	HTTPResponse PUT(String uri, File file, List<Header> headers);
+
 	default HTTPResponse PUT(String uri) {
 		return PUT(uri, new byte[0], emptyList());
 	}
@@ -78,4 +81,12 @@ public interface HTTPPut {
 	default HTTPResponse PUT(String uri, AsyncEntityProducer asyncEntityProducer, Map<String, String> headers) {
 		return PUT(uri, asyncEntityProducer, convert(headers, BasicHeader::new));
 	}
+
+	default HTTPResponse PUT(String uri, File file) {
+		return PUT(uri, file, emptyList());
+	}
+
+	default HTTPResponse PUT(String uri, File file, Map<String, String> headers) {
+		return PUT(uri, file, convert(headers, BasicHeader::new));
+	}
 }
@@ -40,8 +40,11 @@ public class BasicMultipartEntity implements MultipartEntity {
 	private final BasicAsyncEntityProducer basicEntityProducer;
 
 	private final AtomicBoolean isBegin;
-	private final String multipartHeader;
+	private final byte[] multipartHeader;
 
+	// The multipart header or the closing new line which the channel has not taken yet.
+	private ByteBuffer pending;
+	private boolean contentEnd;
 	private boolean remaining = true;
 
 	public BasicMultipartEntity(String name, BasicAsyncEntityProducer basicEntityProducer, ContentType contentType) {
@@ -50,7 +53,7 @@ public class BasicMultipartEntity implements MultipartEntity {
 		this.basicEntityProducer = basicEntityProducer;
 
 		this.isBegin = new AtomicBoolean(false);
-		this.multipartHeader = generateMultipartHeader(name, contentType);
+		this.multipartHeader = generateMultipartHeader(name, contentType).getBytes();
 	}
 
 	public BasicMultipartEntity(String name, CharSequence content, ContentType contentType) {
@@ -83,18 +86,38 @@ public class BasicMultipartEntity implements MultipartEntity {
 	@Override
 	public void produce(DataStreamChannel channel) throws IOException {
 		if (isBegin.compareAndSet(false, true)) {
-			channel.write(ByteBuffer.wrap(multipartHeader.getBytes()));
+			pending = ByteBuffer.wrap(multipartHeader);
+		}
+		if (!writePending(channel)) {
+			return;
 		}
 
-		DelegateDataStreamChannel delegateChannel = DelegateDataStreamChannel.from(channel);
-		basicEntityProducer.produce(delegateChannel);
+		if (!contentEnd) {
+			DelegateDataStreamChannel delegateChannel = DelegateDataStreamChannel.from(channel);
+			basicEntityProducer.produce(delegateChannel);
+			if (!delegateChannel.isEnd()) {
+				return;
+			}
+			contentEnd = true;
+			pending = ByteBuffer.wrap(NEWLINE.getBytes());
+		}
 
-		if (delegateChannel.isEnd()) {
-			channel.write(ByteBuffer.wrap(NEWLINE.getBytes()));
+		if (writePending(channel)) {
 			remaining = false;
 		}
 	}
 
+	private boolean writePending(DataStreamChannel channel) throws IOException {
+		if (pending != null) {
+			channel.write(pending);
+			if (pending.hasRemaining()) {
+				return false;
+			}
+			pending = null;
+		}
+		return true;
+	}
+
 	@Override
 	public ContentType getContentType() {
 		return contentType;
@@ -107,7 +130,7 @@ public class BasicMultipartEntity implements MultipartEntity {
 
 	@Override
 	public long getContentLength() {
-		return basicEntityProducer.getContentLength() + multipartHeader.length();
+		return basicEntityProducer.getContentLength() + multipartHeader.length;
 	}
 
 	@Override
@@ -22,7 +22,7 @@ package org.ngrinder.http.multipart;
 
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.nio.DataStreamChannel;
-import org.apache.hc.core5.http.nio.entity.FileEntityProducer;
+import org.ngrinder.http.FileChannelEntityProducer;
 
 import java.io.File;
 import java.io.IOException;
@@ -33,26 +33,30 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * A part of file for multipart form data entity.
  * <p>
  * This entity writes multipart header to {@link DataStreamChannel} and
- * internally delegates {@link #produce(DataStreamChannel)} to {@link FileEntityProducer}.
+ * internally delegates {@link #produce(DataStreamChannel)} to {@link FileChannelEntityProducer}
+ * which streams the file without loading it on the heap.
  */
 public class FileMultipartEntity implements MultipartEntity {
 	private final String name;
 	private final ContentType contentType;
-	private final FileEntityProducer fileEntityProducer;
+	private final FileChannelEntityProducer fileEntityProducer;
 
 	private final AtomicBoolean isBegin;
-	private final String multipartHeader;
+	private final byte[] multipartHeader;
 
+	// The multipart header or the closing new line which the channel has not taken yet.
+	private ByteBuffer pending;
+	private boolean contentEnd;
 	private boolean remaining = true;
 
 	public FileMultipartEntity(String name, File file, ContentType contentType) {
 		this.name = name;
 		this.contentType = contentType;
 
-		this.fileEntityProducer = new FileEntityProducer(file, contentType);
+		this.fileEntityProducer = new FileChannelEntityProducer(file, contentType);
 
 		this.isBegin = new AtomicBoolean(false);
-		this.multipartHeader = generateMultipartHeader(name, file.getName(), contentType);
+		this.multipartHeader = generateMultipartHeader(name, file.getName(), contentType).getBytes();
 	}
 
 	public FileMultipartEntity(String name, File file) {
@@ -73,18 +77,38 @@ public class FileMultipartEntity implements MultipartEntity {
 	@Override
 	public void produce(DataStreamChannel channel) throws IOException {
 		if (isBegin.compareAndSet(false, true)) {
-			channel.write(ByteBuffer.wrap(multipartHeader.getBytes()));
+			pending = ByteBuffer.wrap(multipartHeader);
+		}
+		if (!writePending(channel)) {
+			return;
 		}
 
-		DelegateDataStreamChannel delegateChannel = DelegateDataStreamChannel.from(channel);
-		fileEntityProducer.produce(delegateChannel);
+		if (!contentEnd) {
+			DelegateDataStreamChannel delegateChannel = DelegateDataStreamChannel.from(channel);
+			fileEntityProducer.produce(delegateChannel);
+			if (!delegateChannel.isEnd()) {
+				return;
+			}
+			contentEnd = true;
+			pending = ByteBuffer.wrap(NEWLINE.getBytes());
+		}
 
-		if (delegateChannel.isEnd()) {
-			channel.write(ByteBuffer.wrap(NEWLINE.getBytes()));
+		if (writePending(channel)) {
 			remaining = false;
 		}
 	}
 
+	private boolean writePending(DataStreamChannel channel) throws IOException {
+		if (pending != null) {
+			channel.write(pending);
+			if (pending.hasRemaining()) {
+				return false;
+			}
+			pending = null;
+		}
+		return true;
+	}
+
 	@Override
 	public ContentType getContentType() {
 		return contentType;
@@ -97,7 +121,7 @@ public class FileMultipartEntity implements MultipartEntity {
 
 	@Override
 	public long getContentLength() {
-		return fileEntityProducer.getContentLength() + multipartHeader.length();
+		return fileEntityProducer.getContentLength() + multipartHeader.length;
 	}
 
 	@Override
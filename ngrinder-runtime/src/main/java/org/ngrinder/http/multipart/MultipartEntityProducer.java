@@ -43,6 +43,7 @@ public class MultipartEntityProducer implements AsyncEntityProducer {
 
 	private final ConcurrentLinkedQueue<MultipartEntity> entityQueue;
 	private MultipartEntity currentEntity;
+	private ByteBuffer boundaryEnd;
 	private final AtomicReference<Exception> exception;
 
 	public MultipartEntityProducer(List<MultipartEntity> multipartEntities) {
@@ -118,17 +119,25 @@ public class MultipartEntityProducer implements AsyncEntityProducer {
 
 	@Override
 	public void produce(DataStreamChannel channel) throws IOException {
-		if (currentEntity.hasRemaining()) {
-			currentEntity.produce(channel);
-		}
-
-		if (!currentEntity.hasRemaining()) {
-			currentEntity = entityQueue.poll();
+		if (currentEntity != null) {
+			if (currentEntity.hasRemaining()) {
+				currentEntity.produce(channel);
+			}
+
+			if (!currentEntity.hasRemaining()) {
+				currentEntity = entityQueue.poll();
+			}
 		}
 
 		if (currentEntity == null) {
-			channel.write(ByteBuffer.wrap(BOUNDARY_END.getBytes()));
-			channel.endStream();
+			if (boundaryEnd == null) {
+				boundaryEnd = ByteBuffer.wrap(BOUNDARY_END.getBytes());
+			}
+			// The rest is written when the channel asks again.
+			channel.write(boundaryEnd);
+			if (!boundaryEnd.hasRemaining()) {
+				channel.endStream();
+			}
 		}
 	}
 
@@ -30,7 +30,11 @@ public class ContentTypeUtils {
 	}
 
 	public static ContentType getContentType(List<Header> headers) {
-		ContentType contentType = ContentType.APPLICATION_JSON;
+		return getContentType(headers, ContentType.APPLICATION_JSON);
+	}
+
+	public static ContentType getContentType(List<Header> headers, ContentType defaultContentType) {
+		ContentType contentType = defaultContentType;
 		for (Header header : headers) {
 			String name = header.getName();
 			String value = header.getValue();
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import java.io.Serializable;
+
+/**
+ * Run start counts of the open model (arrival rate) load.
+ * <p/>
+ * This class is not thread safe.
+ *
+ * @since 3.5.5
+ */
+public class ArrivalStatistics implements Serializable {
+
+	private static final long serialVersionUID = 2841573305918874160L;
+
+	private long starts;
+
+	private long lateStarts;
+
+	private long droppedStarts;
+
+	public ArrivalStatistics() {
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param starts        count of the started runs
+	 * @param lateStarts    count of the runs which started later than scheduled
+	 * @param droppedStarts count of the scheduled runs which are dropped because no thread was available
+	 */
+	public ArrivalStatistics(long starts, long lateStarts, long droppedStarts) {
+		this.starts = starts;
+		this.lateStarts = lateStarts;
+		this.droppedStarts = droppedStarts;
+	}
+
+	/**
+	 * Add the counts of the given statistics.
+	 *
+	 * @param other statistics to be added
+	 */
+	public void add(ArrivalStatistics other) {
+		starts += other.starts;
+		lateStarts += other.lateStarts;
+		droppedStarts += other.droppedStarts;
+	}
+
+	public ArrivalStatistics copy() {
+		return new ArrivalStatistics(starts, lateStarts, droppedStarts);
+	}
+
+	public boolean isEmpty() {
+		return starts == 0 && lateStarts == 0 && droppedStarts == 0;
+	}
+
+	public long getStarts() {
+		return starts;
+	}
+
+	public long getLateStarts() {
+		return lateStarts;
+	}
+
+	public long getDroppedStarts() {
+		return droppedStarts;
+	}
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Latency histogram which keeps the fixed number of significant digits over the whole value range.
+ * <p/>
+ * Values are counted in log-linear buckets in the same way as HdrHistogram does. Each power of two range is
+ * divided into the same number of sub buckets so that the recorded value can be restored with the given
+ * precision regardless of its magnitude. Histograms with the same precision can be merged by adding
+ * the counts, which makes it possible to aggregate the percentiles of many workers without the raw samples.
+ * <p/>
+ * This class is not thread safe.
+ *
+ * @since 3.5.5
+ */
+public class LatencyHistogram implements Serializable {
+
+	private static final long serialVersionUID = 5315329542785519436L;
+
+	public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+	private final int significantDigits;
+
+	private transient int subBucketHalfCountMagnitude;
+
+	private transient int subBucketHalfCount;
+
+	private transient long subBucketMask;
+
+	private transient long[] counts;
+
+	private long totalCount;
+
+	private long minValue = Long.MAX_VALUE;
+
+	private long maxValue = 0;
+
+	/**
+	 * Create the histogram with {@link #DEFAULT_SIGNIFICANT_DIGITS}.
+	 */
+	public LatencyHistogram() {
+		this(DEFAULT_SIGNIFICANT_DIGITS);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param significantDigits number of significant decimal digits to keep. 1 ~ 5
+	 */
+	public LatencyHistogram(int significantDigits) {
+		if (significantDigits < 1 || significantDigits > 5) {
+			throw new IllegalArgumentException("significantDigits should be between 1 and 5");
+		}
+		this.significantDigits = significantDigits;
+		initBuckets();
+	}
+
+	private void initBuckets() {
+		long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+		int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestValueWithSingleUnitResolution) / Math.log(2));
+		subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+		subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+		subBucketMask = (1L << (subBucketHalfCountMagnitude + 1)) - 1;
+		counts = new long[subBucketHalfCount * 2];
+	}
+
+	/**
+	 * Record the given value.
+	 *
+	 * @param value value to be recorded. negative value is ignored.
+	 */
+	public void recordValue(long value) {
+		if (value < 0) {
+			return;
+		}
+		int index = countsIndexOf(value);
+		ensureCapacity(index + 1);
+		counts[index]++;
+		totalCount++;
+		minValue = Math.min(minValue, value);
+		maxValue = Math.max(maxValue, value);
+	}
+
+	/**
+	 * Add all counts of the given histogram into this histogram.
+	 *
+	 * @param other histogram to be merged. It should have the same significant digits.
+	 */
+	public void add(LatencyHistogram other) {
+		if (other.significantDigits != significantDigits) {
+			throw new IllegalArgumentException("Histograms with different significant digits can not be merged");
+		}
+		if (other.totalCount == 0) {
+			return;
+		}
+		ensureCapacity(other.counts.length);
+		for (int i = 0; i < other.counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		minValue = Math.min(minValue, other.minValue);
+		maxValue = Math.max(maxValue, other.maxValue);
+	}
+
+	/**
+	 * Get the value at the given percentile. The returned value is the highest value which is equivalent
+	 * to the recorded one within the precision, but it never exceeds the max recorded value.
+	 *
+	 * @param percentile percentile between 0 and 100
+	 * @return value at the percentile. 0 if nothing is recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		double requested = Math.min(Math.max(percentile, 0), 100);
+		long countAtPercentile = Math.max((long) Math.ceil((requested / 100) * totalCount), 1);
+		long running = 0;
+		for (int i = 0; i < counts.length; i++) {
+			running += counts[i];
+			if (running >= countAtPercentile) {
+				return Math.min(highestEquivalentValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	/**
+	 * Get the mean of the recorded values within the precision.
+	 *
+	 * @return mean value. 0 if nothing is recorded.
+	 */
+	public double getMean() {
+		if (totalCount == 0) {
+			return 0;
+		}
+		double total = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				long lowest = valueFromIndex(i);
+				total += counts[i] * ((lowest + highestEquivalentValue(i)) / 2.0);
+			}
+		}
+		return total / totalCount;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public long getMinValue() {
+		return totalCount == 0 ? 0 : minValue;
+	}
+
+	public long getMaxValue() {
+		return maxValue;
+	}
+
+	public int getSignificantDigits() {
+		return significantDigits;
+	}
+
+	/**
+	 * Clear all recorded values.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		minValue = Long.MAX_VALUE;
+		maxValue = 0;
+	}
+
+	/**
+	 * Create the copy of this histogram.
+	 *
+	 * @return copied histogram
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram(significantDigits);
+		copy.add(this);
+		return copy;
+	}
+
+	int countsIndexOf(long value) {
+		int bucketIndex = 64 - Long.numberOfLeadingZeros(value | subBucketMask) - (subBucketHalfCountMagnitude + 1);
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+	}
+
+	long valueFromIndex(int index) {
+		int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+		int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+		if (bucketIndex < 0) {
+			subBucketIndex -= subBucketHalfCount;
+			bucketIndex = 0;
+		}
+		return ((long) subBucketIndex) << bucketIndex;
+	}
+
+	long highestEquivalentValue(int index) {
+		int bucketIndex = Math.max((index >> subBucketHalfCountMagnitude) - 1, 0);
+		return valueFromIndex(index) + (1L << bucketIndex) - 1;
+	}
+
+	private void ensureCapacity(int length) {
+		if (counts.length < length) {
+			counts = Arrays.copyOf(counts, Math.max(length, counts.length + subBucketHalfCount));
+		}
+	}
+
+	/**
+	 * Only the non empty buckets are written to keep the message small.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		int nonEmpty = 0;
+		for (long each : counts) {
+			if (each != 0) {
+				nonEmpty++;
+			}
+		}
+		out.writeInt(nonEmpty);
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				out.writeInt(i);
+				out.writeLong(counts[i]);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		initBuckets();
+		int nonEmpty = in.readInt();
+		for (int i = 0; i < nonEmpty; i++) {
+			int index = in.readInt();
+			ensureCapacity(index + 1);
+			counts[index] = in.readLong();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the per test {@link LatencyHistogram}s of the worker process.
+ * <p/>
+ * Each worker thread records into its own {@link ThreadRecorder} so that the recording threads never contend
+ * with each other. The report timer drains all thread recorders once per report interval and the drained
+ * histograms are sent to the console.
+ *
+ * @since 3.5.5
+ */
+public class LatencyRecorder {
+
+	private final int significantDigits;
+
+	private final List<ThreadRecorder> threadRecorders = new CopyOnWriteArrayList<>();
+
+	public LatencyRecorder() {
+		this(LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+	}
+
+	public LatencyRecorder(int significantDigits) {
+		this.significantDigits = significantDigits;
+	}
+
+	/**
+	 * Create the recorder for a worker thread.
+	 *
+	 * @return thread recorder
+	 */
+	public ThreadRecorder createThreadRecorder() {
+		ThreadRecorder recorder = new ThreadRecorder();
+		threadRecorders.add(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Take the histograms recorded since the last call.
+	 *
+	 * @return test number and merged histogram map. empty if nothing is recorded.
+	 */
+	public Map<Integer, LatencyHistogram> drain() {
+		Map<Integer, LatencyHistogram> result = new HashMap<>();
+		for (ThreadRecorder each : threadRecorders) {
+			for (Map.Entry<Integer, LatencyHistogram> entry : each.drain().entrySet()) {
+				LatencyHistogram merged = result.get(entry.getKey());
+				if (merged == null) {
+					result.put(entry.getKey(), entry.getValue());
+				} else {
+					merged.add(entry.getValue());
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Per thread recorder. Only the owner thread records and the lock is contended by the drain only.
+	 */
+	public class ThreadRecorder {
+		private Map<Integer, LatencyHistogram> histograms = new HashMap<>();
+
+		/**
+		 * Record the test time.
+		 *
+		 * @param testNumber test number
+		 * @param testTime   test time in millisecond
+		 */
+		public synchronized void record(int testNumber, long testTime) {
+			LatencyHistogram histogram = histograms.get(testNumber);
+			if (histogram == null) {
+				histogram = new LatencyHistogram(significantDigits);
+				histograms.put(testNumber, histogram);
+			}
+			histogram.recordValue(testTime);
+		}
+
+		synchronized Map<Integer, LatencyHistogram> drain() {
+			if (histograms.isEmpty()) {
+				return histograms;
+			}
+			Map<Integer, LatencyHistogram> drained = histograms;
+			histograms = new HashMap<>();
+			return drained;
+		}
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import net.grinder.common.GrinderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per test result log of the worker process.
+ * <p/>
+ * The worker threads put fixed size records into a lock free ring buffer and a single writer thread drains it
+ * into gzip compressed chunk files in the worker log directory. The chunk files are sent to the controller with
+ * the worker logs. When the writer falls behind, the records which don't fit in the buffer are dropped rather
+ * than blocking the worker threads.
+ *
+ * @since 3.5.5
+ */
+public class ResultLog implements Closeable {
+
+	public static final String PROP_RESULT_LOG = "grinder.resultLog";
+
+	public static final String PROP_RESULT_LOG_SAMPLING_RATE = "grinder.resultLog.samplingRate";
+
+	public static final String PROP_RESULT_LOG_ERROR_SAMPLING_RATE = "grinder.resultLog.errorSamplingRate";
+
+	public static final String FILE_SUFFIX = ".result.gz";
+
+	static final int MAGIC = 0x4E47524C;
+
+	static final short VERSION = 1;
+
+	static final short RECORD_SIZE = 32;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResultLog.class);
+
+	private static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private static final int RECORDS_PER_CHUNK = 1 << 20;
+
+	private static final int SLOTS_PER_RECORD = 4;
+
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final File directory;
+
+	private final String prefix;
+
+	private final double samplingRate;
+
+	private final double errorSamplingRate;
+
+	private final int mask;
+
+	private final long[] slots;
+
+	// Sequence + 1 of the record in each slot, written after the record is.
+	private final AtomicLongArray published;
+
+	private final AtomicLong claimed = new AtomicLong();
+
+	private volatile long consumed;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final Thread writerThread;
+
+	private volatile boolean closed;
+
+	private DataOutputStream chunk;
+
+	private int chunkCount;
+
+	private int chunkRecords;
+
+	/**
+	 * Create the result log if it's enabled in the given properties.
+	 *
+	 * @param properties grinder properties
+	 * @param directory  directory in which the chunk files are written
+	 * @param prefix     prefix of the chunk file names
+	 * @return result log. null if it's not enabled.
+	 */
+	public static ResultLog create(GrinderProperties properties, File directory, String prefix) {
+		if (!properties.getBoolean(PROP_RESULT_LOG, false)) {
+			return null;
+		}
+		return new ResultLog(directory, prefix, DEFAULT_CAPACITY,
+			properties.getDouble(PROP_RESULT_LOG_SAMPLING_RATE, 1),
+			properties.getDouble(PROP_RESULT_LOG_ERROR_SAMPLING_RATE, 1));
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param directory         directory in which the chunk files are written
+	 * @param prefix            prefix of the chunk file names
+	 * @param capacity          number of records the buffer can hold. rounded up to the power of 2.
+	 * @param samplingRate      rate of the successful results to be logged. between 0 and 1.
+	 * @param errorSamplingRate rate of the failed results to be logged. between 0 and 1.
+	 */
+	public ResultLog(File directory, String prefix, int capacity, double samplingRate, double errorSamplingRate) {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.samplingRate = samplingRate;
+		this.errorSamplingRate = errorSamplingRate;
+		int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		this.mask = size - 1;
+		this.slots = new long[size * SLOTS_PER_RECORD];
+		this.published = new AtomicLongArray(size);
+		this.writerThread = new Thread(this::write, "result log writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Put the result of a test. It never blocks.
+	 *
+	 * @param timestamp    start time of the test in millisecond since epoch
+	 * @param testNumber   test number
+	 * @param threadNumber worker thread number
+	 * @param elapsed      test time in millisecond
+	 * @param status       HTTP status. 0 if unknown.
+	 * @param errors       errors of the test
+	 * @param bytes        response bytes
+	 * @return true if the result is logged. false if it's not sampled or the buffer is full.
+	 */
+	public boolean put(long timestamp, int testNumber, int threadNumber, long elapsed, int status, long errors,
+					   long bytes) {
+		double rate = errors == 0 ? samplingRate : errorSamplingRate;
+		if (rate < 1 && (rate <= 0 || ThreadLocalRandom.current().nextDouble() >= rate)) {
+			return false;
+		}
+		long sequence;
+		do {
+			sequence = claimed.get();
+			if (sequence - consumed > mask || closed) {
+				dropped.incrementAndGet();
+				return false;
+			}
+		} while (!claimed.compareAndSet(sequence, sequence + 1));
+
+		int index = (int) (sequence & mask);
+		int offset = index * SLOTS_PER_RECORD;
+		slots[offset] = timestamp;
+		slots[offset + 1] = ((long) testNumber << 32) | (threadNumber & 0xFFFFFFFFL);
+		slots[offset + 2] = (Math.min(elapsed, Integer.MAX_VALUE) << 32)
+			| ((status & 0xFFFFL) << 16) | Math.min(errors, 0xFFFFL);
+		slots[offset + 3] = bytes;
+		published.lazySet(index, sequence + 1);
+		return true;
+	}
+
+	/**
+	 * @return count of the records dropped because the buffer was full
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Write the remaining records and close the current chunk file.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(writerThread);
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (dropped.get() > 0) {
+			LOGGER.warn("{} results are dropped from the result log", dropped.get());
+		}
+	}
+
+	private void write() {
+		try {
+			while (!closed) {
+				if (drain() == 0) {
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+				}
+			}
+			// It's closed after the worker threads are finished, so nothing is put anymore.
+			drain();
+			closeChunk();
+		} catch (IOException e) {
+			LOGGER.error("Error while writing the result log", e);
+			closed = true;
+		}
+	}
+
+	private int drain() throws IOException {
+		int count = 0;
+		long sequence = consumed;
+		while (true) {
+			int index = (int) (sequence & mask);
+			if (published.get(index) != sequence + 1) {
+				break;
+			}
+			int offset = index * SLOTS_PER_RECORD;
+			writeRecord(slots[offset], slots[offset + 1], slots[offset + 2], slots[offset + 3]);
+			consumed = ++sequence;
+			count++;
+		}
+		if (count > 0) {
+			chunk.flush();
+		}
+		return count;
+	}
+
+	private void writeRecord(long timestamp, long test, long result, long bytes) throws IOException {
+		if (chunk == null || chunkRecords == RECORDS_PER_CHUNK) {
+			closeChunk();
+			openChunk();
+		}
+		chunk.writeLong(timestamp);
+		chunk.writeInt((int) (test >>> 32));
+		chunk.writeInt((int) test);
+		chunk.writeInt((int) (result >>> 32));
+		chunk.writeShort((int) (result >>> 16));
+		chunk.writeShort((int) result);
+		chunk.writeLong(bytes);
+		chunkRecords++;
+	}
+
+	private void openChunk() throws IOException {
+		File file = new File(directory, String.format("%s-%04d%s", prefix, chunkCount++, FILE_SUFFIX));
+		chunk = new DataOutputStream(new BufferedOutputStream(
+			new GZIPOutputStream(new FileOutputStream(file), 8192, true), 8192));
+		chunk.writeInt(MAGIC);
+		chunk.writeShort(VERSION);
+		chunk.writeShort(RECORD_SIZE);
+		chunkRecords = 0;
+	}
+
+	private void closeChunk() throws IOException {
+		if (chunk != null) {
+			chunk.close();
+			chunk = null;
+		}
+	}
+}
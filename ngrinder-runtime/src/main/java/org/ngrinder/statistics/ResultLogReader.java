@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reader of a {@link ResultLog} chunk file.
+ * <p/>
+ * A chunk of a killed worker may end in the middle of a record. The records before it are still read.
+ *
+ * @since 3.5.5
+ */
+public class ResultLogReader implements Closeable {
+
+	private final DataInputStream input;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param compressed gzip compressed chunk. it's closed when this reader is closed.
+	 * @throws IOException if it's not a result log chunk
+	 */
+	public ResultLogReader(InputStream compressed) throws IOException {
+		this.input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(compressed)));
+		if (input.readInt() != ResultLog.MAGIC) {
+			throw new IOException("Not a result log");
+		}
+		short version = input.readShort();
+		short recordSize = input.readShort();
+		if (version != ResultLog.VERSION || recordSize != ResultLog.RECORD_SIZE) {
+			throw new IOException("Unsupported result log version " + version);
+		}
+	}
+
+	/**
+	 * Read the next record.
+	 *
+	 * @return record. null if there is no more record.
+	 * @throws IOException if the chunk is corrupted
+	 */
+	public ResultRecord read() throws IOException {
+		try {
+			long timestamp = input.readLong();
+			int testNumber = input.readInt();
+			int threadNumber = input.readInt();
+			int elapsed = input.readInt();
+			int status = input.readUnsignedShort();
+			int errors = input.readUnsignedShort();
+			long bytes = input.readLong();
+			return new ResultRecord(timestamp, testNumber, threadNumber, elapsed, status, errors, bytes);
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+/**
+ * A test result read from the {@link ResultLog} chunk files.
+ *
+ * @since 3.5.5
+ */
+public class ResultRecord {
+
+	private final long timestamp;
+	private final int testNumber;
+	private final int threadNumber;
+	private final int elapsed;
+	private final int status;
+	private final int errors;
+	private final long bytes;
+
+	public ResultRecord(long timestamp, int testNumber, int threadNumber, int elapsed, int status, int errors,
+						long bytes) {
+		this.timestamp = timestamp;
+		this.testNumber = testNumber;
+		this.threadNumber = threadNumber;
+		this.elapsed = elapsed;
+		this.status = status;
+		this.errors = errors;
+		this.bytes = bytes;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public int getTestNumber() {
+		return testNumber;
+	}
+
+	public int getThreadNumber() {
+		return threadNumber;
+	}
+
+	public int getElapsed() {
+		return elapsed;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public int getErrors() {
+		return errors;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		return "test " + testNumber + ", thread " + threadNumber + ", at " + timestamp + ", " + elapsed + " ms, status "
+			+ status + ", errors " + errors + ", " + bytes + " bytes";
+	}
+}
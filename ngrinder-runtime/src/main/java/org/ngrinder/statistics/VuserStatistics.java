@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import java.io.Serializable;
+
+/**
+ * Planned and active vuser counts of the vuser ramp.
+ * <p/>
+ * This class is not thread safe.
+ *
+ * @since 3.5.5
+ */
+public class VuserStatistics implements Serializable {
+
+	private static final long serialVersionUID = -6713840195571380254L;
+
+	private int planned;
+
+	private int active;
+
+	public VuserStatistics() {
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param planned vuser count planned by the ramp profile
+	 * @param active  vuser count which actually runs
+	 */
+	public VuserStatistics(int planned, int active) {
+		this.planned = planned;
+		this.active = active;
+	}
+
+	/**
+	 * Add the counts of the given statistics.
+	 *
+	 * @param other statistics to be added
+	 */
+	public void add(VuserStatistics other) {
+		planned += other.planned;
+		active += other.active;
+	}
+
+	public int getPlanned() {
+		return planned;
+	}
+
+	public int getActive() {
+		return active;
+	}
+
+	/**
+	 * Get the difference of the active vusers from the planned ones.
+	 *
+	 * @return active - planned
+	 */
+	public int getDeviation() {
+		return active - planned;
+	}
+}
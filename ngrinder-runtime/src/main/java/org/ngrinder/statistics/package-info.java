@@ -0,0 +1,4 @@
+/**
+ * ngrinder worker side statistics package.
+ */
+package org.ngrinder.statistics;
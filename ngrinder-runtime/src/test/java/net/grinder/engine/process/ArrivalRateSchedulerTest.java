@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.common.GrinderProperties;
+import org.junit.Test;
+import org.ngrinder.statistics.ArrivalStatistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ArrivalRateSchedulerTest {
+
+	@Test
+	public void testTimeOfArrival() {
+		ArrivalRateScheduler constant = new ArrivalRateScheduler(0, 10, 0, 1000);
+		assertThat(constant.timeOfArrival(0), closeTo(0, 1e-9));
+		assertThat(constant.timeOfArrival(5), closeTo(0.5, 1e-9));
+
+		// Ramp from 0 to 10 per second in 10 seconds. 50 arrivals happen during the ramp up.
+		ArrivalRateScheduler ramping = new ArrivalRateScheduler(0, 10, 10000, 1000);
+		assertThat(ramping.timeOfArrival(8), closeTo(4, 1e-9));
+		assertThat(ramping.timeOfArrival(50), closeTo(10, 1e-9));
+		assertThat(ramping.timeOfArrival(60), closeTo(11, 1e-9));
+	}
+
+	@Test
+	public void testLateAndDroppedStarts() throws InterruptedException {
+		final long[] now = {0};
+		ArrivalRateScheduler scheduler = new ArrivalRateScheduler(0, 10, 0, 1000) {
+			@Override
+			long nanoTime() {
+				return now[0];
+			}
+		};
+		assertThat(scheduler.awaitNextStart(), is(true));
+
+		// Every vuser was busy for 350ms. The slot at 100ms starts late.
+		now[0] = TimeUnit.MILLISECONDS.toNanos(350);
+		assertThat(scheduler.awaitNextStart(), is(true));
+
+		// Slots older than the max lateness are dropped. The slot at 4000ms is the first one to start.
+		now[0] = TimeUnit.MILLISECONDS.toNanos(5000);
+		assertThat(scheduler.awaitNextStart(), is(true));
+
+		ArrivalStatistics statistics = scheduler.drainStatistics();
+		assertThat(statistics.getStarts(), is(3L));
+		assertThat(statistics.getLateStarts(), is(2L));
+		assertThat(statistics.getDroppedStarts(), is(38L));
+		assertThat(scheduler.drainStatistics().isEmpty(), is(true));
+	}
+
+	@Test
+	public void testShutdownWakesWaitingThread() throws InterruptedException {
+		final ArrivalRateScheduler scheduler = new ArrivalRateScheduler(0, 0.001, 0, 1000);
+		assertThat(scheduler.awaitNextStart(), is(true));
+		final AtomicBoolean started = new AtomicBoolean(true);
+		Thread waiting = new Thread(() -> {
+			try {
+				started.set(scheduler.awaitNextStart());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		waiting.start();
+		Thread.sleep(100);
+		scheduler.shutdown();
+		waiting.join(5000);
+		assertThat(waiting.isAlive(), is(false));
+		assertThat(started.get(), is(false));
+	}
+
+	@Test
+	public void testCreateDividesRateByProcesses() {
+		GrinderProperties properties = new GrinderProperties();
+		assertThat(ArrivalRateScheduler.create(properties), nullValue());
+
+		properties.setDouble(ArrivalRateScheduler.PROP_ARRIVAL_RATE, 100);
+		properties.setInt("grinder.agents", 2);
+		properties.setInt("grinder.processes", 5);
+		ArrivalRateScheduler scheduler = ArrivalRateScheduler.create(properties);
+		// 10 per second in each process
+		assertThat(scheduler.timeOfArrival(10), closeTo(1, 1e-9));
+	}
+}
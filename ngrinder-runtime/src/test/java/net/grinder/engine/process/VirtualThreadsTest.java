@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.util.Sleeper;
+import net.grinder.util.StandardTimeAuthority;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class VirtualThreadsTest {
+
+	@Test
+	public void testPlatformThread() throws InterruptedException {
+		CountDownLatch ran = new CountDownLatch(1);
+		Thread thread = VirtualThreads.newThread(ran::countDown, "thread 0", false);
+		assertThat(thread.getName(), is("thread 0"));
+		assertThat(thread.isDaemon(), is(true));
+		assertThat(isVirtual(thread), is(false));
+
+		thread.start();
+		assertThat(ran.await(10, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void testVirtualThreadIfSupported() throws InterruptedException {
+		CountDownLatch ran = new CountDownLatch(1);
+		Thread thread = VirtualThreads.newThread(ran::countDown, "thread 1", true);
+		assertThat(thread.getName(), is("thread 1"));
+		// The platform thread is used when the JVM doesn't support the virtual thread.
+		assertThat(isVirtual(thread), is(VirtualThreads.isSupported()));
+		assertThat(thread.isDaemon(), is(true));
+
+		thread.start();
+		assertThat(ran.await(10, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void testParkingSleeperShutdown() throws Exception {
+		ParkingSleeper sleeper = new ParkingSleeper(new StandardTimeAuthority(), null, 1, 0);
+		long start = System.currentTimeMillis();
+		sleeper.sleepNormal(50);
+		assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(50L));
+
+		AtomicReference<Exception> thrown = new AtomicReference<>();
+		Thread thread = VirtualThreads.newThread(() -> {
+			try {
+				sleeper.sleepFlat(Long.MAX_VALUE);
+			} catch (Sleeper.ShutdownException e) {
+				thrown.set(e);
+			}
+		}, "sleeper", true);
+		thread.start();
+		Thread.sleep(100);
+		sleeper.shutdown();
+		thread.join(TimeUnit.SECONDS.toMillis(10));
+		assertThat(thrown.get(), instanceOf(Sleeper.ShutdownException.class));
+	}
+
+	private static boolean isVirtual(Thread thread) {
+		try {
+			return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.grinder.engine.process;
+
+import net.grinder.common.GrinderProperties;
+import net.grinder.engine.common.EngineException;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ngrinder.statistics.VuserStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class VuserRampSchedulerTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void testStepProfileKeepsThreadRampUpTiming() {
+		// 6 threads at first and 3 more at every second after 10ms.
+		VuserProfile step = VuserProfile.step(6, 3, 1000, 10, 12);
+		assertThat(step.getVusers(0), is(6));
+		assertThat(step.getVusers(1009), is(6));
+		assertThat(step.getVusers(1010), is(9));
+		assertThat(step.getVusers(2010), is(12));
+		assertThat(step.getVusers(100000), is(12));
+		assertThat(step.getEndTime(), is(2010L));
+	}
+
+	@Test
+	public void testLinearAndSpikeProfiles() {
+		// Reaches 10 at the same time as the step profile.
+		VuserProfile linear = VuserProfile.linear(0, 2, 1000, 0, 10);
+		assertThat(linear.getVusers(0), is(0));
+		assertThat(linear.getVusers(2500), is(5));
+		assertThat(linear.getVusers(5000), is(10));
+		assertThat(linear.getMaxVusersFrom(2500), is(10));
+
+		VuserProfile spike = VuserProfile.spike(2, 500, 1000, 10);
+		assertThat(spike.getVusers(999), is(2));
+		assertThat(spike.getVusers(1000), is(10));
+		assertThat(spike.getVusers(1499), is(10));
+		assertThat(spike.getVusers(1500), is(2));
+		assertThat(spike.getMaxVusersFrom(1500), is(2));
+	}
+
+	@Test
+	public void testCsvProfileWithRampDown() throws Exception {
+		File file = tempFolder.newFile("profile.csv");
+		FileUtils.writeLines(file, "UTF-8", asList("# vuser profile", "time,vusers", "0,0", "10,100", "20,100",
+			"20,50", "", "30,50"));
+		VuserProfile profile = VuserProfile.load(file);
+		assertThat(profile.getVusers(5000), is(50));
+		assertThat(profile.getVusers(20000), is(50));
+		assertThat(profile.getMaxVusersFrom(15000), is(100));
+		assertThat(profile.getMaxVusersFrom(20000), is(50));
+
+		// The count decreases from 50 to 0 during the last 10 seconds of the 40 seconds test.
+		VuserProfile rampDown = profile.withRampDown(40000, 10000);
+		assertThat(rampDown.getVusers(30000), is(50));
+		assertThat(rampDown.getVusers(35000), is(25));
+		assertThat(rampDown.getVusers(40000), is(0));
+		assertThat(rampDown.getMaxVusersFrom(35000), is(25));
+
+		FileUtils.writeLines(file, "UTF-8", asList("0,10", "2,abc"));
+		try {
+			VuserProfile.load(file);
+			fail("Invalid line should fail the load");
+		} catch (IOException e) {
+			assertThat(e.getMessage(), containsString("line 2"));
+		}
+	}
+
+	@Test
+	public void testSchedulerActivatesAndRetiresThreads() throws Exception {
+		// 1 vuser, 3 vusers after 100ms and 0 vusers after 200ms.
+		final VuserRampScheduler scheduler = new VuserRampScheduler(new VuserProfile(asList(new long[]{0, 1},
+			new long[]{100, 1}, new long[]{100, 3}, new long[]{200, 3}, new long[]{200, 0})), 3);
+		assertThat(scheduler.awaitActive(0), is(true));
+
+		final AtomicReference<Boolean> activated = new AtomicReference<>();
+		Thread parked = new Thread(() -> activated.set(scheduler.awaitActive(2)));
+		parked.start();
+		Thread.sleep(100);
+		assertThat(activated.get(), nullValue());
+		assertStatistics(scheduler.getStatistics(), 1, 1);
+
+		scheduler.update(100);
+		parked.join(5000);
+		assertThat(activated.get(), is(true));
+		assertStatistics(scheduler.getStatistics(), 3, 2);
+
+		// The threads leave at the next run after the ramp down.
+		scheduler.update(200);
+		assertThat(scheduler.awaitActive(0), is(false));
+		assertStatistics(scheduler.getStatistics(), 0, 1);
+		scheduler.threadFinished(2);
+		assertStatistics(scheduler.getStatistics(), 0, 0);
+	}
+
+	@Test
+	public void testShutdownWakesParkedThread() throws Exception {
+		final VuserRampScheduler scheduler = new VuserRampScheduler(VuserProfile.step(0, 1, 60000, 0, 2), 2);
+		final AtomicReference<Boolean> activated = new AtomicReference<>();
+		Thread parked = new Thread(() -> activated.set(scheduler.awaitActive(0)));
+		parked.start();
+		Thread.sleep(100);
+		scheduler.shutdown();
+		parked.join(5000);
+		assertThat(parked.isAlive(), is(false));
+		assertThat(activated.get(), is(false));
+	}
+
+	@Test
+	public void testSchedulerFollowsProfile() throws Exception {
+		final VuserRampScheduler scheduler = new VuserRampScheduler(VuserProfile.linear(0, 1, 10, 0, 20), 20);
+		scheduler.start();
+		try {
+			Thread.sleep(600);
+			assertThat(scheduler.getPlannedVusers(), is(20));
+		} finally {
+			scheduler.shutdown();
+		}
+		assertThat(scheduler.getPlannedVusers(), is(0));
+	}
+
+	@Test
+	public void testCreate() throws Exception {
+		File scriptDirectory = tempFolder.newFolder("script");
+		GrinderProperties properties = new GrinderProperties();
+		assertThat(VuserRampScheduler.create(properties, 10, scriptDirectory), nullValue());
+
+		// The ramp down needs the test duration.
+		properties.setLong(VuserRampScheduler.PROP_RAMP_DOWN_TIME, 1000);
+		assertThat(VuserRampScheduler.create(properties, 10, scriptDirectory), nullValue());
+		properties.setLong("grinder.duration", 10000);
+		VuserRampScheduler rampDown = VuserRampScheduler.create(properties, 10, scriptDirectory);
+		assertThat(rampDown.getPlannedVusers(), is(10));
+
+		// The thread ramp up of the previous versions is the step profile.
+		properties = new GrinderProperties();
+		properties.setBoolean(VuserRampScheduler.PROP_THREAD_RAMP_UP, true);
+		properties.setInt(VuserRampScheduler.PROP_INITIAL_THREAD, 2);
+		properties.setInt(VuserRampScheduler.PROP_THREAD_INCREMENT, 2);
+		properties.setInt(VuserRampScheduler.PROP_THREAD_INCREMENT_INTERVAL, 1000);
+		assertThat(VuserRampScheduler.create(properties, 10, scriptDirectory).getPlannedVusers(), is(2));
+
+		FileUtils.writeLines(new File(scriptDirectory, "profile.csv"), "UTF-8", asList("0,4", "10,8"));
+		properties.setProperty(VuserRampScheduler.PROP_RAMP_PROFILE, "profile.csv");
+		assertThat(VuserRampScheduler.create(properties, 10, scriptDirectory).getPlannedVusers(), is(4));
+
+		properties.setProperty(VuserRampScheduler.PROP_RAMP_PROFILE, "none.csv");
+		try {
+			VuserRampScheduler.create(properties, 10, scriptDirectory);
+			fail("Missing profile should fail the process");
+		} catch (EngineException e) {
+			assertThat(e.getMessage(), containsString("none.csv"));
+		}
+	}
+
+	private static void assertStatistics(VuserStatistics statistics, int planned, int active) {
+		assertThat(statistics.getPlanned(), is(planned));
+		assertThat(statistics.getActive(), is(active));
+	}
+}
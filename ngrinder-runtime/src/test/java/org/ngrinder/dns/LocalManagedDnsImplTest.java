@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.dns;
+
+import org.junit.After;
+import org.junit.Test;
+import org.xbill.DNS.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Resolves the hosts from a zone served in the process.
+ */
+public class LocalManagedDnsImplTest {
+
+	private static final Name ORIGIN = Name.fromConstantString("ngrinder.test.");
+
+	private final ZoneResolver resolver = new ZoneResolver(createZone());
+
+	@After
+	public void after() {
+		Lookup.setDefaultCache(new Cache(), DClass.IN);
+	}
+
+	@Test
+	public void testRecordTtl() throws Exception {
+		LocalManagedDnsImpl impl = createImpl(-1);
+		assertThat(impl.lookupAllHostAddr("api.ngrinder.test").length, is(3));
+		assertThat(impl.lookupAllHostAddr("api.ngrinder.test").length, is(3));
+		assertThat(resolver.queries.get(), is(1));
+
+		// The record of the short host lives for a second.
+		impl.lookupAllHostAddr("short.ngrinder.test");
+		Thread.sleep(1100);
+		impl.lookupAllHostAddr("short.ngrinder.test");
+		assertThat(resolver.queries.get(), is(3));
+	}
+
+	@Test
+	public void testTtlOverride() throws Exception {
+		LocalManagedDnsImpl impl = createImpl(0);
+		impl.lookupAllHostAddr("api.ngrinder.test");
+		impl.lookupAllHostAddr("api.ngrinder.test");
+		assertThat(resolver.queries.get(), is(2));
+	}
+
+	@Test
+	public void testAaaaRecord() throws Exception {
+		InetAddress[] addresses = createImpl(-1).lookupAllHostAddr("v6.ngrinder.test");
+		assertThat(addresses.length, is(1));
+		assertThat(addresses[0].getHostAddress(), is("2001:db8:0:0:0:0:0:1"));
+	}
+
+	@Test(expected = java.net.UnknownHostException.class)
+	public void testUnknownHost() throws Exception {
+		createImpl(-1).lookupAllHostAddr("none.ngrinder.test");
+	}
+
+	@Test
+	public void testResolverOrderWithoutBalancing() throws Exception {
+		LocalManagedDnsImpl impl = createImpl(-1);
+		LocalManagedDnsProxy proxy = new LocalManagedDnsProxy(impl, new AddressBalancer(AddressBalancer.Mode.RANDOM),
+			false);
+		for (int i = 0; i < 10; i++) {
+			assertArrayEquals(impl.lookupAllHostAddr("api.ngrinder.test"), proxy.lookupAllHostAddr("api.ngrinder.test"));
+		}
+	}
+
+	@Test
+	public void testRoundRobin() throws Exception {
+		LocalManagedDnsProxy proxy = new LocalManagedDnsProxy(createImpl(-1),
+			new AddressBalancer(AddressBalancer.Mode.ROUND_ROBIN));
+		Set<String> firstAddresses = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			InetAddress[] addresses = proxy.lookupAllHostAddr("api.ngrinder.test");
+			assertThat(addresses.length, is(3));
+			firstAddresses.add(addresses[0].getHostAddress());
+		}
+		assertThat(firstAddresses, hasItems("10.0.0.1", "10.0.0.2", "10.0.0.3"));
+		assertThat(resolver.queries.get(), is(1));
+	}
+
+	@Test
+	public void testPerVuser() throws Exception {
+		LocalManagedDnsProxy proxy = new LocalManagedDnsProxy(createImpl(-1),
+			new AddressBalancer(AddressBalancer.Mode.PER_VUSER));
+		InetAddress pinned = proxy.lookupAllHostAddr("api.ngrinder.test")[0];
+		assertThat(proxy.lookupAllHostAddr("api.ngrinder.test")[0], is(pinned));
+
+		Set<InetAddress> vuserAddresses = new HashSet<>();
+		vuserAddresses.add(pinned);
+		for (int i = 0; i < 2; i++) {
+			Thread vuser = new Thread(() -> {
+				try {
+					vuserAddresses.add(proxy.lookupAllHostAddr("api.ngrinder.test")[0]);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			vuser.start();
+			vuser.join();
+		}
+		assertThat(vuserAddresses.size(), is(3));
+	}
+
+	private LocalManagedDnsImpl createImpl(long ttl) {
+		return new LocalManagedDnsImpl(ttl) {
+			@Override
+			protected Resolver createResolver() {
+				return resolver;
+			}
+		};
+	}
+
+	private static Zone createZone() {
+		try {
+			Name ns = Name.fromConstantString("ns.ngrinder.test.");
+			return new Zone(ORIGIN, new Record[]{
+				new SOARecord(ORIGIN, DClass.IN, 3600, ns, ns, 1, 3600, 600, 86400, 60),
+				new NSRecord(ORIGIN, DClass.IN, 3600, ns),
+				address("api", 300, "10.0.0.1"),
+				address("api", 300, "10.0.0.2"),
+				address("api", 300, "10.0.0.3"),
+				address("short", 1, "10.0.1.1"),
+				new AAAARecord(new Name("v6", ORIGIN), DClass.IN, 300, InetAddress.getByName("2001:db8::1"))
+			});
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Record address(String host, long ttl, String ip) throws IOException {
+		return new ARecord(new Name(host, ORIGIN), DClass.IN, ttl, InetAddress.getByName(ip));
+	}
+
+	/**
+	 * Answers the queries from the zone and counts them.
+	 */
+	private static class ZoneResolver implements Resolver {
+		private final Zone zone;
+		private final AtomicInteger queries = new AtomicInteger();
+
+		ZoneResolver(Zone zone) {
+			this.zone = zone;
+		}
+
+		@Override
+		public CompletionStage<Message> sendAsync(Message query) {
+			queries.incrementAndGet();
+			Record question = query.getQuestion();
+			Message response = new Message(query.getHeader().getID());
+			response.getHeader().setFlag(Flags.QR);
+			response.getHeader().setFlag(Flags.AA);
+			response.addRecord(question, Section.QUESTION);
+			SetResponse setResponse = zone.findRecords(question.getName(), question.getType());
+			if (setResponse.isSuccessful()) {
+				for (RRset rrset : setResponse.answers()) {
+					rrset.rrs().forEach(record -> response.addRecord(record, Section.ANSWER));
+				}
+			} else if (setResponse.isNXDOMAIN()) {
+				response.getHeader().setRcode(Rcode.NXDOMAIN);
+			}
+			if (!setResponse.isSuccessful()) {
+				response.addRecord(zone.getSOA(), Section.AUTHORITY);
+			}
+			return CompletableFuture.completedFuture(response);
+		}
+
+		@Override
+		public void setPort(int port) {
+		}
+
+		@Override
+		public void setTCP(boolean flag) {
+		}
+
+		@Override
+		public void setIgnoreTruncation(boolean flag) {
+		}
+
+		@Override
+		public void setEDNS(int level, int payloadSize, int flags, List<EDNSOption> options) {
+		}
+
+		@Override
+		public void setTSIGKey(TSIG key) {
+		}
+
+		@Override
+		public void setTimeout(Duration timeout) {
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.feeder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class DataFeederTest {
+
+	private File file;
+
+	@Before
+	public void before() throws Exception {
+		file = File.createTempFile("feeder", ".csv");
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void testSequentialWrap() throws Exception {
+		write("id,name\r\n1,kim\r\n2,\"lee, \"\"jr\"\"\"\r\n3,park\r\n");
+		DataFeeder feeder = DataFeeder.builder(file.getPath()).setHeader(true).build();
+
+		assertArrayEquals(new String[]{"id", "name"}, feeder.getHeader());
+		assertThat(feeder.next(), is("1,kim"));
+		assertArrayEquals(new String[]{"2", "lee, \"jr\""}, feeder.nextFields());
+		assertThat(feeder.next(), is("3,park"));
+		assertThat(feeder.next(), is("1,kim"));
+	}
+
+	@Test
+	public void testSequentialStop() throws Exception {
+		write("a\nb");
+		DataFeeder feeder = DataFeeder.builder(file.getPath()).setEndPolicy(DataFeeder.EndPolicy.STOP).build();
+
+		assertThat(feeder.next(), is("a"));
+		assertThat(feeder.next(), is("b"));
+		assertThat(feeder.next(), nullValue());
+		assertThat(feeder.next(), nullValue());
+	}
+
+	@Test
+	public void testSharedCursor() throws Exception {
+		List<String> lines = write(10000);
+		DataFeeder feeder = DataFeeder.builder(file.getPath()).setEndPolicy(DataFeeder.EndPolicy.STOP).build();
+
+		ConcurrentLinkedQueue<String> taken = new ConcurrentLinkedQueue<>();
+		List<Thread> vusers = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Thread vuser = new Thread(() -> {
+				String line;
+				while ((line = feeder.next()) != null) {
+					taken.add(line);
+				}
+			});
+			vuser.start();
+			vusers.add(vuser);
+		}
+		for (Thread vuser : vusers) {
+			vuser.join();
+		}
+		// Each line is taken exactly once.
+		assertThat(taken.size(), is(lines.size()));
+		assertThat(new HashSet<>(taken), is(new HashSet<>(lines)));
+	}
+
+	@Test
+	public void testUniqueParts() throws Exception {
+		List<String> lines = write(1000);
+		DataFeeder feeder = DataFeeder.builder(file.getPath())
+			.setMode(DataFeeder.Mode.UNIQUE)
+			.setEndPolicy(DataFeeder.EndPolicy.STOP)
+			.build();
+
+		Set<String> taken = new HashSet<>();
+		for (int i = 0; i < 7; i++) {
+			DataFeeder.Part part = feeder.createPart(i, 7);
+			String line;
+			int count = 0;
+			while ((line = part.next()) != null) {
+				assertThat(taken.add(line), is(true));
+				count++;
+			}
+			assertThat(count, allOf(greaterThan(100), lessThan(200)));
+		}
+		assertThat(taken, is(new HashSet<>(lines)));
+
+		// The caller takes the whole file outside of a worker thread.
+		assertThat(feeder.next(), is(lines.get(0)));
+	}
+
+	@Test
+	public void testRandom() throws Exception {
+		List<String> lines = write(100);
+		DataFeeder feeder = DataFeeder.builder(file.getPath()).setMode(DataFeeder.Mode.RANDOM).build();
+
+		Set<String> taken = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			taken.add(feeder.next());
+		}
+		assertThat(taken, is(new HashSet<>(lines)));
+	}
+
+	@Test
+	public void testLinesOverSegments() throws Exception {
+		write("first line\n한글 라인\n\nthe last line which is longer than a segment\n");
+		// 8 bytes per segment.
+		MappedTextFile mappedFile = new MappedTextFile(file.toPath(), 3);
+		DataFeeder feeder = DataFeeder.builder(file.getPath()).build(mappedFile);
+
+		assertThat(feeder.next(), is("first line"));
+		assertThat(feeder.next(), is("한글 라인"));
+		assertThat(feeder.next(), is(""));
+		assertThat(feeder.next(), is("the last line which is longer than a segment"));
+		assertThat(feeder.next(), is("first line"));
+	}
+
+	@Test
+	public void testEmptyFile() {
+		DataFeeder feeder = DataFeeder.of(file.getPath());
+		assertThat(feeder.next(), nullValue());
+		assertThat(DataFeeder.builder(file.getPath()).setMode(DataFeeder.Mode.UNIQUE).build().next(), nullValue());
+		assertThat(DataFeeder.builder(file.getPath()).setMode(DataFeeder.Mode.RANDOM).build().next(), nullValue());
+	}
+
+	private void write(String content) throws Exception {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<String> write(int count) throws Exception {
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			lines.add("user" + i + ",password" + i);
+		}
+		Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+		return lines;
+	}
+}
@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsExchange;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+import net.grinder.common.GrinderException;
+import net.grinder.common.GrinderProperties;
+import net.grinder.common.Test;
+import net.grinder.plugin.http.HTTPPlugin;
+import net.grinder.plugininterface.GrinderPlugin;
+import net.grinder.plugininterface.PluginProcessContext;
+import net.grinder.plugininterface.PluginRegistry;
+import net.grinder.script.Grinder;
+import net.grinder.script.InternalScriptContext;
+import net.grinder.script.Statistics;
+import net.grinder.statistics.StatisticsIndexMap;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.ngrinder.http.multipart.MultipartEntity;
+import org.ngrinder.http.multipart.MultipartEntityBuilder;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang.exception.ExceptionUtils.getRootCause;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HTTPRequestTest {
+
+	private static final int THREADS = 4;
+
+	private static final long DELAY_STEP = 150;
+
+	private static final byte[] BODY = new byte[1024];
+
+	private static final int BODY_SIZE = 1024 * 1024;
+
+	// Larger than the heap of the test worker.
+	private static final long UPLOAD_SIZE = 1024L * 1024 * 1024;
+
+	private static final ThreadLocal<RecordingStatisticsForTest> statisticsForTest =
+		ThreadLocal.withInitial(RecordingStatisticsForTest::new);
+
+	private static HttpServer server;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+		Statistics statistics = mock(Statistics.class);
+		when(statistics.isTestInProgress()).thenReturn(true);
+		when(statistics.getForCurrentTest()).thenAnswer(invocation -> statisticsForTest.get());
+
+		Grinder.ScriptContext scriptContext = mock(Grinder.ScriptContext.class);
+		when(scriptContext.getStatistics()).thenReturn(statistics);
+		when(scriptContext.getLogger()).thenReturn(LoggerFactory.getLogger(HTTPRequestTest.class));
+
+		PluginProcessContext processContext = mock(PluginProcessContext.class);
+		when(processContext.getScriptContext()).thenReturn(scriptContext);
+		TestPluginRegistry.install(processContext);
+
+		// /{first byte delay}/{download delay}
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+		server.createContext("/", exchange -> {
+			String[] delays = exchange.getRequestURI().getPath().split("/");
+			try {
+				Thread.sleep(Long.parseLong(delays[1]));
+				exchange.sendResponseHeaders(200, BODY.length);
+				OutputStream out = exchange.getResponseBody();
+				out.flush();
+				Thread.sleep(Long.parseLong(delays[2]));
+				out.write(BODY);
+				out.close();
+			} catch (InterruptedException e) {
+				exchange.close();
+			}
+		});
+		// /body/{size}
+		server.createContext("/body/", exchange -> {
+			byte[] body = createBody(Integer.parseInt(exchange.getRequestURI().getPath().substring("/body/".length())));
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		// Responds with the number of the received bytes.
+		server.createContext("/upload", exchange -> {
+			long received = 0;
+			byte[] buffer = new byte[64 * 1024];
+			try (InputStream in = exchange.getRequestBody()) {
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					received += read;
+				}
+			}
+			byte[] body = String.valueOf(received).getBytes();
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		// Responds with the received body.
+		server.createContext("/echo", exchange -> {
+			ByteArrayOutputStream received = new ByteArrayOutputStream();
+			byte[] buffer = new byte[64 * 1024];
+			try (InputStream in = exchange.getRequestBody()) {
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					received.write(buffer, 0, read);
+				}
+			}
+			exchange.sendResponseHeaders(200, received.size());
+			try (OutputStream out = exchange.getResponseBody()) {
+				received.writeTo(out);
+			}
+		});
+		server.setExecutor(Executors.newFixedThreadPool(THREADS));
+		server.start();
+
+		// Warm up in this thread. The connections are leased per thread, so the test threads make their own.
+		new HTTPRequest().GET("http://127.0.0.1:" + server.getAddress().getPort() + "/0/0", emptyList(), emptyList());
+	}
+
+	@Before
+	public void before() {
+		statisticsForTest.remove();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		HTTPRequester.reset();
+		server.stop(0);
+	}
+
+	@org.junit.Test
+	public void testTimingsPerThread() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<FutureTask<List<HTTPResponse>>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			final long firstByteDelay = firstByteDelay(i);
+			final String uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/" + firstByteDelay(i) + "/"
+				+ downloadDelay(i);
+			FutureTask<List<HTTPResponse>> task = new FutureTask<>(() -> {
+				try {
+					HTTPRequest request = new HTTPRequest();
+					start.await();
+					List<HTTPResponse> responses = new ArrayList<>();
+					// The second one reuses the connection.
+					responses.add(request.GET(uri, emptyList(), emptyList()));
+					responses.add(request.GET(uri, emptyList(), emptyList()));
+					statisticsForTest.get().assertFirstByteTime(firstByteDelay);
+					return responses;
+				} finally {
+					HTTPRequester.reset();
+				}
+			});
+			tasks.add(task);
+			new Thread(task, "timing-" + i).start();
+		}
+		start.countDown();
+
+		for (int i = 0; i < THREADS; i++) {
+			List<HTTPResponse> responses = tasks.get(i).get(30, TimeUnit.SECONDS);
+			for (HTTPResponse response : responses) {
+				RequestTimings timings = response.getTimings();
+				assertThat(response.getStatusCode(), is(200));
+				assertThat(timings.getTimeToFirstByte(), allOf(greaterThanOrEqualTo(firstByteDelay(i)),
+					lessThan(firstByteDelay(i) + DELAY_STEP / 2)));
+				// The head is parsed a bit after the server sends it.
+				assertThat(timings.getDownloadTime(), allOf(greaterThanOrEqualTo(downloadDelay(i) - DELAY_STEP / 10),
+					lessThan(downloadDelay(i) + DELAY_STEP / 2)));
+			}
+			RequestTimings reused = responses.get(1).getTimings();
+			assertThat(reused.getDnsTime(), is(0L));
+			assertThat(reused.getConnectTime(), is(0L));
+			assertThat(reused.getTlsHandshakeTime(), is(0L));
+		}
+	}
+
+	@org.junit.Test
+	public void testSocketTimeout() {
+		HTTPRequest request = new HTTPRequest();
+		String uri = "http://127.0.0.1:" + server.getAddress().getPort();
+		assertThat(request.GET(uri + "/0/0", emptyList(), emptyList()).getStatusCode(), is(200));
+
+		// The timeout is applied to the connection of the shared requester. The I/O reactor checks it every second.
+		HTTPRequestControl.setSocketTimeout(500);
+		try {
+			request.GET(uri + "/3000/0", emptyList(), emptyList());
+			fail("The request should time out");
+		} catch (RuntimeException e) {
+			assertThat(getRootCause(e), instanceOf(SocketTimeoutException.class));
+		} finally {
+			HTTPRequestControl.setSocketTimeout(0);
+		}
+	}
+
+	@org.junit.Test
+	public void testBodyLimit() {
+		HTTPRequest request = new HTTPRequest();
+		request.setBodyLimit(100);
+		HTTPResponse response = request.GET(getBodyUri(BODY_SIZE), emptyList(), emptyList());
+
+		assertThat(response.getBodyBytes(), is(Arrays.copyOf(createBody(BODY_SIZE), 100)));
+		assertThat(response.getBodyLength(), is((long) BODY_SIZE));
+		assertThat(statisticsForTest.get().getLong(StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY), is((long) BODY_SIZE));
+	}
+
+	@org.junit.Test
+	public void testDiscardBody() {
+		HTTPRequest request = new HTTPRequest();
+		request.setBodyLimit(0);
+		HTTPResponse response = request.GET(getBodyUri(BODY_SIZE), emptyList(), emptyList());
+
+		assertThat(response.getBodyBytes().length, is(0));
+		assertThat(response.getBodyText(), is(""));
+		assertThat(response.getBodyLength(), is((long) BODY_SIZE));
+		assertThat(statisticsForTest.get().getLong(StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY), is((long) BODY_SIZE));
+	}
+
+	@org.junit.Test
+	public void testBodyHandler() {
+		ByteArrayOutputStream handled = new ByteArrayOutputStream();
+		HTTPRequest request = new HTTPRequest();
+		request.setBodyHandler(chunk -> {
+			byte[] bytes = new byte[chunk.remaining()];
+			chunk.get(bytes);
+			handled.write(bytes, 0, bytes.length);
+		});
+		HTTPResponse response = request.GET(getBodyUri(BODY_SIZE), emptyList(), emptyList());
+
+		assertThat(handled.toByteArray(), is(createBody(BODY_SIZE)));
+		assertThat(response.getBodyBytes().length, is(0));
+		assertThat(response.getBodyLength(), is((long) BODY_SIZE));
+		assertThat(statisticsForTest.get().getLong(StatisticsIndexMap.HTTP_PLUGIN_RESPONSE_LENGTH_KEY), is((long) BODY_SIZE));
+	}
+
+	@org.junit.Test
+	public void testMultiplexing() throws Exception {
+		final int vusers = 6;
+		final int maxConcurrentStreams = 2;
+		Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+		AtomicInteger activeStreams = new AtomicInteger();
+		AtomicInteger maxActiveStreams = new AtomicInteger();
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		HttpAsyncServer h2cServer = H2ServerBootstrap.bootstrap()
+			.setCanonicalHostName("127.0.0.1")
+			.setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_2)
+			.setH2Config(H2Config.custom().setMaxConcurrentStreams(maxConcurrentStreams).build())
+			.register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+				@Override
+				public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(
+					HttpRequest request, org.apache.hc.core5.http.EntityDetails entityDetails, HttpContext context) {
+					return new BasicRequestConsumer<>(new StringAsyncEntityConsumer());
+				}
+
+				@Override
+				public void handle(Message<HttpRequest, String> request, ResponseTrigger responseTrigger,
+								   HttpContext context) {
+					connections.add(HttpCoreContext.adapt(context).getEndpointDetails().getRemoteAddress());
+					maxActiveStreams.accumulateAndGet(activeStreams.incrementAndGet(), Math::max);
+					scheduler.schedule(() -> {
+						activeStreams.decrementAndGet();
+						responseTrigger.submitResponse(new BasicResponseProducer(200, "h2"), context);
+						return null;
+					}, DELAY_STEP, TimeUnit.MILLISECONDS);
+				}
+			})
+			.create();
+		h2cServer.start();
+		try {
+			ListenerEndpoint endpoint = h2cServer.listen(new InetSocketAddress("127.0.0.1", 0)).get();
+			String uri = "http://127.0.0.1:" + ((InetSocketAddress) endpoint.getAddress()).getPort() + "/";
+
+			CountDownLatch start = new CountDownLatch(1);
+			List<FutureTask<HTTPResponse>> tasks = new ArrayList<>();
+			for (int i = 0; i < vusers; i++) {
+				FutureTask<HTTPResponse> task = new FutureTask<>(() -> {
+					HTTPRequest request = new HTTPRequest();
+					request.setMultiplexing(true);
+					start.await();
+					return request.GET(uri, emptyList(), emptyList());
+				});
+				tasks.add(task);
+				new Thread(task, "stream-" + i).start();
+			}
+			start.countDown();
+
+			long maxConnectTime = 0;
+			for (FutureTask<HTTPResponse> each : tasks) {
+				HTTPResponse response = each.get(30, TimeUnit.SECONDS);
+				assertThat(response.getStatusCode(), is(200));
+				assertThat(response.getBodyText(), is("h2"));
+				assertThat(response.getTimings().getTimeToFirstByte(), greaterThanOrEqualTo(DELAY_STEP));
+				maxConnectTime = Math.max(maxConnectTime, response.getTimings().getConnectTime());
+			}
+			// All vusers share a connection which opens as many streams as the server allows.
+			assertThat(connections.size(), is(1));
+			assertThat(maxActiveStreams.get(), is(maxConcurrentStreams));
+			// The last streams wait for the others.
+			assertThat(maxConnectTime, greaterThanOrEqualTo(DELAY_STEP * (vusers / maxConcurrentStreams - 1)));
+		} finally {
+			h2cServer.close(CloseMode.IMMEDIATE);
+			scheduler.shutdownNow();
+		}
+	}
+
+	@org.junit.Test
+	public void testFileUpload() throws Exception {
+		File file = File.createTempFile("upload", ".bin");
+		try {
+			// Sparse, so it doesn't take the disk either.
+			try (RandomAccessFile sparse = new RandomAccessFile(file, "rw")) {
+				sparse.setLength(UPLOAD_SIZE);
+			}
+			HTTPRequest request = new HTTPRequest();
+			HTTPResponse response = request.PUT(getServerUri("/upload"), file, emptyList());
+
+			assertThat(response.getStatusCode(), is(200));
+			assertThat(response.getBodyText(), is(String.valueOf(UPLOAD_SIZE)));
+			// The body is decoded with the given charset on each call.
+			assertThat(response.getBodyText(StandardCharsets.UTF_16BE), not(String.valueOf(UPLOAD_SIZE)));
+		} finally {
+			assertThat(file.delete(), is(true));
+		}
+	}
+
+	@org.junit.Test
+	public void testMultipartFileUpload() throws Exception {
+		File file = File.createTempFile("multipart", ".bin");
+		try {
+			byte[] content = createBody(3 * BODY_SIZE + 7);
+			Files.write(file.toPath(), content);
+			AsyncEntityProducer producer = MultipartEntityBuilder.create()
+				.addEntity("text", "value")
+				.addEntity("file", file)
+				.build();
+
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			expected.write(("--" + MultipartEntity.BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"text\"\r\n"
+				+ "Content-Type: text/plain; charset=ISO-8859-1\r\n\r\nvalue\r\n").getBytes());
+			expected.write(("--" + MultipartEntity.BOUNDARY + "\r\n"
+				+ "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.getName() + "\"\r\n"
+				+ "Content-Type: application/octet-stream\r\n\r\n").getBytes());
+			expected.write(content);
+			expected.write(("\r\n--" + MultipartEntity.BOUNDARY + "--\r\n").getBytes());
+			assertThat(producer.getContentLength(), is((long) expected.size()));
+
+			HTTPRequest request = new HTTPRequest();
+			HTTPResponse response = request.POST(getServerUri("/echo"), producer, emptyList());
+
+			assertThat(response.getStatusCode(), is(200));
+			assertThat(response.getBodyBytes(), is(expected.toByteArray()));
+		} finally {
+			assertThat(file.delete(), is(true));
+		}
+	}
+
+	@org.junit.Test
+	public void testTlsSessionResumption() throws Exception {
+		HttpsServer httpsServer = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+		try {
+			httpsServer.setHttpsConfigurator(new HttpsConfigurator(createServerSslContext()) {
+				@Override
+				public void configure(HttpsParameters params) {
+					// TLS 1.2 resumes a session by its ID.
+					params.setProtocols(new String[]{"TLSv1.2"});
+				}
+			});
+			Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+			AtomicInteger resumed = new AtomicInteger();
+			httpsServer.createContext("/", exchange -> {
+				String sessionId = Arrays.toString(((HttpsExchange) exchange).getSSLSession().getId());
+				if (!sessionIds.add(sessionId)) {
+					resumed.incrementAndGet();
+				}
+				exchange.sendResponseHeaders(200, BODY.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(BODY);
+				}
+			});
+			httpsServer.start();
+			String uri = "https://127.0.0.1:" + httpsServer.getAddress().getPort() + "/";
+
+			GrinderProperties properties = new GrinderProperties();
+			InternalScriptContext scriptContext = mock(InternalScriptContext.class);
+			when(scriptContext.getProperties()).thenReturn(properties);
+			Grinder.grinder = scriptContext;
+
+			// Each request makes a new connection.
+			List<Header> headers = singletonList(new BasicHeader("Connection", "close"));
+			HTTPRequest request = new HTTPRequest();
+
+			// Every connection makes a full handshake by default.
+			for (int i = 0; i < 3; i++) {
+				assertThat(request.GET(uri, emptyList(), headers).getStatusCode(), is(200));
+			}
+			assertThat(sessionIds.size(), is(3));
+			assertThat(resumed.get(), is(0));
+
+			properties.setBoolean(HTTPRequester.PROP_TLS_SESSION_RESUMPTION, true);
+			for (int i = 0; i < 3; i++) {
+				assertThat(request.GET(uri, emptyList(), headers).getStatusCode(), is(200));
+			}
+			assertThat(sessionIds.size(), is(4));
+			assertThat(resumed.get(), is(2));
+		} finally {
+			Grinder.grinder = null;
+			httpsServer.stop(0);
+		}
+	}
+
+	/**
+	 * server.jks has the self signed key of 127.0.0.1 valid for 100 years. The store and key password is "password".
+	 */
+	private static SSLContext createServerSslContext() throws Exception {
+		KeyStore store = KeyStore.getInstance("JKS");
+		try (InputStream in = HTTPRequestTest.class.getResourceAsStream("server.jks")) {
+			store.load(in, "password".toCharArray());
+		}
+		KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		keyManagerFactory.init(store, "password".toCharArray());
+		SSLContext sslContext = SSLContext.getInstance("TLS");
+		sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+		return sslContext;
+	}
+
+	private static String getServerUri(String path) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+	private static String getBodyUri(int size) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/body/" + size;
+	}
+
+	private static byte[] createBody(int size) {
+		byte[] body = new byte[size];
+		for (int i = 0; i < size; i++) {
+			body[i] = (byte) i;
+		}
+		return body;
+	}
+
+	private static long firstByteDelay(int thread) {
+		return DELAY_STEP * (thread + 1);
+	}
+
+	private static long downloadDelay(int thread) {
+		return DELAY_STEP * (THREADS - thread) / 3;
+	}
+
+	private static class TestPluginRegistry extends PluginRegistry {
+		private final PluginProcessContext processContext;
+
+		private TestPluginRegistry(PluginProcessContext processContext) {
+			this.processContext = processContext;
+		}
+
+		static void install(PluginProcessContext processContext) {
+			setInstance(new TestPluginRegistry(processContext));
+			// Initialized by the registry.
+			HTTPPlugin.getPlugin();
+		}
+
+		@Override
+		public void register(GrinderPlugin plugin) throws GrinderException {
+			plugin.initialize(processContext);
+		}
+	}
+
+	/**
+	 * Statistics of the test which the thread runs.
+	 */
+	private static class RecordingStatisticsForTest implements Statistics.StatisticsForTest {
+		private final Map<String, Long> longs = new HashMap<>();
+
+		void assertFirstByteTime(long delay) {
+			// Two requests are accumulated.
+			assertThat(longs.get(StatisticsIndexMap.HTTP_PLUGIN_FIRST_BYTE_TIME_KEY),
+				allOf(greaterThanOrEqualTo(delay * 2), lessThan(delay * 2 + DELAY_STEP)));
+			assertThat(longs.get(StatisticsIndexMap.HTTP_PLUGIN_CONNECT_TIME_KEY), lessThan(DELAY_STEP / 2));
+		}
+
+		@Override
+		public Test getTest() {
+			return null;
+		}
+
+		@Override
+		public void setLong(String statistic, long value) {
+			longs.put(statistic, value);
+		}
+
+		@Override
+		public void setDouble(String statistic, double value) {
+		}
+
+		@Override
+		public void addLong(String statistic, long value) {
+			longs.merge(statistic, value, Long::sum);
+		}
+
+		@Override
+		public void addDouble(String statistic, double value) {
+		}
+
+		@Override
+		public long getLong(String statistic) {
+			return longs.getOrDefault(statistic, 0L);
+		}
+
+		@Override
+		public double getDouble(String statistic) {
+			return 0;
+		}
+
+		@Override
+		public void setSuccess(boolean success) {
+		}
+
+		@Override
+		public boolean getSuccess() {
+			return true;
+		}
+
+		@Override
+		public long getTime() {
+			return 0;
+		}
+	}
+}
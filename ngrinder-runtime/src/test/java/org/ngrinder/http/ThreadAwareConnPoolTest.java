@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http;
+
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.io.ModalCloseable;
+import org.apache.hc.core5.pool.PoolEntry;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ThreadAwareConnPoolTest {
+
+	private final ThreadAwareConnPool<String, TestConnection> pool = new ThreadAwareConnPool<>();
+
+	@After
+	public void tearDown() {
+		pool.clear();
+	}
+
+	@Test
+	public void testLeaseByRoute() throws Exception {
+		PoolEntry<String, TestConnection> api = leaseAndConnect("api");
+		PoolEntry<String, TestConnection> cdn = leaseAndConnect("cdn");
+		assertThat(pool.getLeased("api"), sameInstance(api));
+		pool.release(api, true);
+		pool.release(cdn, true);
+		assertThat(pool.getLeased("api"), nullValue());
+
+		assertThat(lease("cdn"), sameInstance(cdn));
+		assertThat(lease("api"), sameInstance(api));
+		assertThat(lease("auth").hasConnection(), is(false));
+
+		ConnPoolMetrics metrics = pool.getMetrics();
+		assertThat(metrics.getLeased(), is(3));
+		assertThat(metrics.getAvailable(), is(0));
+		assertThat(metrics.getCreated(), is(3L));
+	}
+
+	@Test
+	public void testConnectionsArePerThread() throws Exception {
+		pool.release(leaseAndConnect("api"), true);
+
+		AtomicReference<PoolEntry<String, TestConnection>> otherThreadEntry = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			otherThreadEntry.set(lease("api"));
+			pool.clear();
+		});
+		thread.start();
+		thread.join();
+		assertThat(otherThreadEntry.get().hasConnection(), is(false));
+		assertThat(pool.getMetrics().getAvailable(), is(1));
+	}
+
+	@Test
+	public void testMaxPerRoute() throws Exception {
+		pool.setDefaultMaxPerRoute(1);
+		PoolEntry<String, TestConnection> first = leaseAndConnect("api");
+		PoolEntry<String, TestConnection> second = leaseAndConnect("api");
+		TestConnection secondConnection = second.getConnection();
+		pool.release(first, true);
+		pool.release(second, true);
+
+		assertThat(secondConnection.closed, is(true));
+		assertThat(pool.getStats("api").getAvailable(), is(1));
+		assertThat(pool.getMetrics().getClosed(), is(1L));
+	}
+
+	@Test
+	public void testIdleAndExpiredConnectionsAreClosed() throws Exception {
+		pool.setIdleTimeout(TimeValue.ofMilliseconds(50));
+		PoolEntry<String, TestConnection> entry = leaseAndConnect("api");
+		TestConnection connection = entry.getConnection();
+		pool.release(entry, true);
+
+		pool.closeExpired();
+		assertThat(connection.closed, is(false));
+		Thread.sleep(100);
+		pool.closeExpired();
+		assertThat(connection.closed, is(true));
+		assertThat(pool.getMetrics().getAvailable(), is(0));
+
+		// The expired one is not leased even if the evictor hasn't closed it yet.
+		entry = leaseAndConnect("api");
+		connection = entry.getConnection();
+		pool.release(entry, true);
+		Thread.sleep(100);
+		assertThat(lease("api").hasConnection(), is(false));
+		assertThat(connection.closed, is(true));
+	}
+
+	@Test
+	public void testReleaseByOtherThread() throws Exception {
+		PoolEntry<String, TestConnection> entry = leaseAndConnect("api");
+		Thread thread = new Thread(() -> pool.release(entry, false));
+		thread.start();
+		thread.join();
+
+		assertThat(pool.getLeased("api"), nullValue());
+		assertThat(pool.getMetrics().getLeased(), is(0));
+		assertThat(pool.getMetrics().getClosed(), is(1L));
+	}
+
+	private PoolEntry<String, TestConnection> lease(String route) {
+		try {
+			return pool.lease(route, null, Timeout.DISABLED, null).get();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private PoolEntry<String, TestConnection> leaseAndConnect(String route) {
+		PoolEntry<String, TestConnection> entry = lease(route);
+		if (!entry.hasConnection()) {
+			entry.assignConnection(new TestConnection());
+		}
+		return entry;
+	}
+
+	static class TestConnection implements ModalCloseable {
+		private volatile boolean closed;
+
+		@Override
+		public void close(CloseMode closeMode) {
+			closed = true;
+		}
+
+		@Override
+		public void close() {
+			close(CloseMode.GRACEFUL);
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2012-present NAVER Corp.
+ *
+ * This file is part of The nGrinder software distribution. Refer to
+ * the file LICENSE which is part of The nGrinder distribution for
+ * licensing details. The nGrinder distribution is available on the
+ * Internet at https://naver.github.io/ngrinder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.http.cookie;
+
+import org.apache.hc.client5.http.cookie.BasicCookieStore;
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.cookie.CookieSpec;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.apache.hc.client5.http.cookie.MalformedCookieException;
+import org.apache.hc.client5.http.impl.cookie.BasicClientCookie;
+import org.apache.hc.client5.http.impl.cookie.RFC6265StrictSpec;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class IndexedCookieStoreTest {
+
+	private static final CookieSpec COOKIE_SPEC = new RFC6265StrictSpec();
+
+	private static final String[] HOSTS = {"example.com", "www.example.com", "api.www.example.com",
+		"example.org", "localhost", "127.0.0.1"};
+
+	private static final String[] PATHS = {"/", "/a", "/a/b", "/b"};
+
+	@Test
+	public void testMatchesLikeLinearScan() throws Exception {
+		Random random = new Random(42);
+		IndexedCookieStore indexed = new IndexedCookieStore();
+		BasicCookieStore basic = new BasicCookieStore();
+
+		for (int i = 0; i < 2000; i++) {
+			CookieOrigin origin = randomOrigin(random);
+			if (random.nextInt(3) == 0) {
+				for (Cookie cookie : randomCookies(random, origin)) {
+					indexed.addCookie(cookie);
+					basic.addCookie(cookie);
+				}
+			}
+			assertThat(format(indexed.getCookies(origin, COOKIE_SPEC)), is(format(matchLinearly(basic, origin))));
+			assertThat(indexed.getCookies(), is(basic.getCookies()));
+		}
+	}
+
+	@Test
+	public void testExpiredCookiesAreEvicted() throws Exception {
+		IndexedCookieStore store = new IndexedCookieStore();
+		CookieOrigin origin = new CookieOrigin("www.example.com", 80, "/", false);
+		store.addCookie(cookie("session", "www.example.com", null));
+		store.addCookie(cookie("short", "www.example.com", new Date(System.currentTimeMillis() + 50)));
+		store.addCookie(cookie("gone", "www.example.com", new Date(System.currentTimeMillis() - 1)));
+		assertThat(store.getCookies(origin, COOKIE_SPEC).size(), is(2));
+
+		Thread.sleep(100);
+		List<Cookie> cookies = store.getCookies(origin, COOKIE_SPEC);
+		assertThat(cookies.size(), is(1));
+		assertThat(cookies.get(0).getName(), is("session"));
+		assertThat(store.getCookies().size(), is(1));
+	}
+
+	@Test
+	public void testSameIdentityReplacesCookie() {
+		IndexedCookieStore store = new IndexedCookieStore();
+		store.addCookie(cookie("id", "Example.com", null));
+		store.addCookie(cookie("id", "example.com", null));
+		assertThat(store.getCookies().size(), is(1));
+
+		store.addCookie(cookie("id", "example.com", new Date(0)));
+		assertThat(store.getCookies().isEmpty(), is(true));
+	}
+
+	/**
+	 * How HTTPRequest matched the cookies before they were indexed.
+	 */
+	private List<Cookie> matchLinearly(CookieStore store, CookieOrigin origin) {
+		List<Cookie> matched = new ArrayList<>();
+		Date now = new Date();
+		boolean expired = false;
+		for (Cookie cookie : store.getCookies()) {
+			if (!cookie.isExpired(now)) {
+				if (COOKIE_SPEC.match(cookie, origin)) {
+					matched.add(cookie);
+				}
+			} else {
+				expired = true;
+			}
+		}
+		if (expired) {
+			store.clearExpired(now);
+		}
+		return matched;
+	}
+
+	private List<String> format(List<Cookie> cookies) {
+		List<String> headers = new ArrayList<>();
+		if (!cookies.isEmpty()) {
+			for (Header header : COOKIE_SPEC.formatCookies(cookies)) {
+				headers.add(header.getValue());
+			}
+		}
+		return headers;
+	}
+
+	private CookieOrigin randomOrigin(Random random) {
+		return new CookieOrigin(HOSTS[random.nextInt(HOSTS.length)], 80, PATHS[random.nextInt(PATHS.length)],
+			random.nextBoolean());
+	}
+
+	private List<Cookie> randomCookies(Random random, CookieOrigin origin) throws MalformedCookieException {
+		StringBuilder setCookie = new StringBuilder("c" + random.nextInt(8) + "=" + random.nextInt(100));
+		String host = origin.getHost();
+		if (random.nextBoolean() && host.indexOf('.') > 0 && !Character.isDigit(host.charAt(0))) {
+			setCookie.append("; Domain=").append(random.nextBoolean() ? "." : "")
+				.append(host.substring(host.indexOf('.') + 1));
+		}
+		if (random.nextBoolean()) {
+			setCookie.append("; Path=").append(PATHS[random.nextInt(PATHS.length)]);
+		}
+		if (origin.isSecure() && random.nextBoolean()) {
+			setCookie.append("; Secure");
+		}
+		if (random.nextInt(4) == 0) {
+			setCookie.append("; Max-Age=").append(random.nextBoolean() ? 0 : 3600);
+		}
+		List<Cookie> cookies = new ArrayList<>();
+		for (Cookie cookie : COOKIE_SPEC.parse(new BasicHeader("Set-Cookie", setCookie.toString()), origin)) {
+			try {
+				COOKIE_SPEC.validate(cookie, origin);
+				cookies.add(cookie);
+			} catch (MalformedCookieException e) {
+				// Rejected as HTTPRequest does.
+			}
+		}
+		if (random.nextInt(10) == 0) {
+			// Added by the script through CookieManager.
+			cookies.add(cookie("m" + random.nextInt(4), random.nextBoolean() ? ".example.com" : "www.example.com",
+				null));
+		}
+		return cookies;
+	}
+
+	private BasicClientCookie cookie(String name, String domain, Date expiryDate) {
+		BasicClientCookie cookie = new BasicClientCookie(name, "value");
+		cookie.setDomain(domain);
+		cookie.setPath("/");
+		cookie.setExpiryDate(expiryDate);
+		return cookie;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentilesKeepSignificantDigits() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100000; i++) {
+			histogram.recordValue(i);
+		}
+		assertThat(histogram.getTotalCount(), is(100000L));
+		assertPrecision(histogram.getValueAtPercentile(50), 50000);
+		assertPrecision(histogram.getValueAtPercentile(90), 90000);
+		assertPrecision(histogram.getValueAtPercentile(99), 99000);
+		assertPrecision(histogram.getValueAtPercentile(99.9), 99900);
+		assertThat(histogram.getValueAtPercentile(100), is(100000L));
+		assertThat(histogram.getMinValue(), is(1L));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 100; i++) {
+			histogram.recordValue(i);
+		}
+		assertThat(histogram.getValueAtPercentile(50), is(49L));
+		assertThat(histogram.getValueAtPercentile(99), is(98L));
+	}
+
+	@Test
+	public void testMergeEqualsToSingleRecording() {
+		LatencyHistogram single = new LatencyHistogram();
+		LatencyHistogram merged = new LatencyHistogram();
+		for (int agent = 0; agent < 10; agent++) {
+			LatencyHistogram each = new LatencyHistogram();
+			for (int i = 0; i < 1000; i++) {
+				long value = (i * 37L + agent * 1013L) % 5000;
+				each.recordValue(value);
+				single.recordValue(value);
+			}
+			merged.add(each);
+		}
+		merged.add(new LatencyHistogram());
+		for (double percentile : new double[]{50, 90, 95, 99, 99.9}) {
+			assertThat(merged.getValueAtPercentile(percentile), is(single.getValueAtPercentile(percentile)));
+		}
+		assertThat(merged.getTotalCount(), is(single.getTotalCount()));
+		assertThat(merged.getMaxValue(), is(single.getMaxValue()));
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.recordValue(3);
+		histogram.recordValue(12345678);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(histogram);
+		}
+		assertThat(bytes.size(), lessThan(512));
+		LatencyHistogram read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (LatencyHistogram) in.readObject();
+		}
+		assertThat(read.getTotalCount(), is(2L));
+		assertThat(read.getValueAtPercentile(50), is(3L));
+		assertThat(read.getValueAtPercentile(100), is(12345678L));
+		read.recordValue(4);
+		assertThat(read.getTotalCount(), is(3L));
+	}
+
+	@Test
+	public void testRecorderDrainsPerTest() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		LatencyRecorder.ThreadRecorder first = recorder.createThreadRecorder();
+		LatencyRecorder.ThreadRecorder second = recorder.createThreadRecorder();
+		first.record(1, 10);
+		second.record(1, 20);
+		second.record(2, 30);
+
+		Map<Integer, LatencyHistogram> drained = recorder.drain();
+		assertThat(drained.size(), is(2));
+		assertThat(drained.get(1).getTotalCount(), is(2L));
+		assertThat(drained.get(2).getMaxValue(), is(30L));
+		assertThat(recorder.drain().isEmpty(), is(true));
+	}
+
+	private void assertPrecision(long actual, long expected) {
+		assertThat((double) Math.abs(actual - expected), lessThanOrEqualTo(expected * 0.01));
+	}
+}
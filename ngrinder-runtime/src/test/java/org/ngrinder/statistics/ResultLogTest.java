@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ngrinder.statistics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ResultLogTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File directory = folder.getRoot();
+		ResultLog resultLog = new ResultLog(directory, "agent-0", 16, 1, 1);
+		assertThat(resultLog.put(1000L, 1, 0, 35, 200, 0, 1024), is(true));
+		assertThat(resultLog.put(2000L, 2, 3, 70000, 503, 1, 0), is(true));
+		resultLog.close();
+
+		List<ResultRecord> records = readAll(directory);
+		assertThat(records.size(), is(2));
+		ResultRecord first = records.get(0);
+		assertThat(first.getTimestamp(), is(1000L));
+		assertThat(first.getTestNumber(), is(1));
+		assertThat(first.getThreadNumber(), is(0));
+		assertThat(first.getElapsed(), is(35));
+		assertThat(first.getStatus(), is(200));
+		assertThat(first.getErrors(), is(0));
+		assertThat(first.getBytes(), is(1024L));
+		ResultRecord second = records.get(1);
+		assertThat(second.getTestNumber(), is(2));
+		assertThat(second.getThreadNumber(), is(3));
+		assertThat(second.getElapsed(), is(70000));
+		assertThat(second.getStatus(), is(503));
+		assertThat(second.getErrors(), is(1));
+	}
+
+	@Test
+	public void testSampling() throws IOException {
+		File directory = folder.getRoot();
+		ResultLog resultLog = new ResultLog(directory, "agent-0", 1024, 0, 1);
+		assertThat(resultLog.put(1000L, 1, 0, 10, 200, 0, 0), is(false));
+		assertThat(resultLog.put(1000L, 1, 0, 10, 500, 1, 0), is(true));
+		resultLog.close();
+
+		List<ResultRecord> records = readAll(directory);
+		assertThat(records.size(), is(1));
+		assertThat(records.get(0).getStatus(), is(500));
+		assertThat(resultLog.getDroppedCount(), is(0L));
+	}
+
+	@Test
+	public void testConcurrentPutNeverBlocks() throws Exception {
+		File directory = folder.getRoot();
+		final ResultLog resultLog = new ResultLog(directory, "agent-0", 64, 1, 1);
+		final int threadCount = 4;
+		final int putCount = 10000;
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			final int threadNumber = i;
+			Thread thread = new Thread(() -> {
+				for (int j = 0; j < putCount; j++) {
+					resultLog.put(j, 1, threadNumber, j, 200, 0, 0);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread each : threads) {
+			each.join();
+		}
+		resultLog.close();
+
+		// What doesn't fit in the small buffer is dropped instead of blocking the workers.
+		List<ResultRecord> records = readAll(directory);
+		assertThat(records.size() + resultLog.getDroppedCount(), is((long) threadCount * putCount));
+		int[] last = {-1, -1, -1, -1};
+		for (ResultRecord each : records) {
+			assertThat(each.getElapsed(), greaterThan(last[each.getThreadNumber()]));
+			last[each.getThreadNumber()] = each.getElapsed();
+		}
+	}
+
+	private List<ResultRecord> readAll(File directory) throws IOException {
+		List<ResultRecord> records = new ArrayList<>();
+		File[] chunks = directory.listFiles((dir, name) -> name.endsWith(ResultLog.FILE_SUFFIX));
+		assertThat(chunks, notNullValue());
+		for (File each : chunks) {
+			try (ResultLogReader reader = new ResultLogReader(new FileInputStream(each))) {
+				ResultRecord record;
+				while ((record = reader.read()) != null) {
+					records.add(record);
+				}
+			}
+		}
+		return records;
+	}
+}